@@ -0,0 +1,84 @@
+package com.bing.framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 限流注解
+ * 用于标记Controller方法或类的请求速率限制，由RateLimitInterceptor按令牌桶检查
+ * 方法上的注解优先于类上的注解
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+
+    /**
+     * 每秒生成的令牌数
+     */
+    double permitsPerSecond();
+
+    /**
+     * 令牌桶容量，即允许的突发请求数，小于1时取每秒令牌数（至少为1）
+     */
+    int burst() default 0;
+
+    /**
+     * 限流维度
+     */
+    KeyType key() default KeyType.IP;
+
+    /**
+     * 限流模式
+     */
+    Mode mode() default Mode.LOCAL;
+
+    /**
+     * 限流名称，相同名称的接口共享令牌桶，默认为类名#方法名
+     */
+    String name() default "";
+
+    /**
+     * 限流维度枚举
+     */
+    enum KeyType {
+        /**
+         * 按用户限流，未登录的请求按IP限流
+         */
+        USER,
+
+        /**
+         * 按客户端IP限流
+         */
+        IP,
+
+        /**
+         * 按客户端类型（X-Client-Type请求头）限流
+         */
+        CLIENT_TYPE,
+
+        /**
+         * 按接口整体限流
+         */
+        ENDPOINT
+    }
+
+    /**
+     * 限流模式枚举
+     */
+    enum Mode {
+        /**
+         * 每个节点独立计数
+         */
+        LOCAL,
+
+        /**
+         * 通过Redis Lua脚本在集群范围内计数，Redis不可用时退回本地计数
+         */
+        REDIS
+    }
+}
@@ -0,0 +1,196 @@
+package com.bing.framework.aspect;
+
+import com.bing.framework.annotation.AuditLogLevel;
+import com.bing.framework.config.AuditLogConfigProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 审计采集策略
+ * 决定一次Controller调用是否生成审计日志，由AuditLogConfigProperties中的审计级别驱动：
+ * FULL采集全部请求；BASIC对读请求（GET、HEAD、OPTIONS）按模块或操作类型的采样率采样，
+ * 并按用户和IP限制每秒采集数量；NONE不采集读请求
+ * 写操作和失败请求默认始终采集，不参与采样和频率限制
+ * 用户和IP来自客户端，跟踪数量达到上限后新的用户或IP共用一个溢出窗口，过期的窗口定期清理，请求路径上不遍历
+ * 每次调用都读取当前配置，通过AuditLogConfigController更新后立即生效
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+public class AuditCapturePolicy {
+
+    /**
+     * 频率限制最多跟踪的用户和IP数量，达到上限后新的用户或IP共用溢出窗口
+     */
+    private static final int MAX_TRACKED_KEYS = 10000;
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final AuditLogConfigProperties configProperties;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, CaptureWindow> userWindows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CaptureWindow> ipWindows = new ConcurrentHashMap<>();
+    private final CaptureWindow userOverflowWindow = new CaptureWindow();
+    private final CaptureWindow ipOverflowWindow = new CaptureWindow();
+
+    private final LongAdder capturedCount = new LongAdder();
+    private final LongAdder alwaysCapturedCount = new LongAdder();
+    private final LongAdder sampledOutCount = new LongAdder();
+    private final LongAdder rateLimitedCount = new LongAdder();
+
+    @Autowired
+    public AuditCapturePolicy(AuditLogConfigProperties configProperties) {
+        this(configProperties, Clock.systemUTC());
+    }
+
+    AuditCapturePolicy(AuditLogConfigProperties configProperties, Clock clock) {
+        this.configProperties = configProperties;
+        this.clock = clock;
+    }
+
+    /**
+     * 决定是否采集本次调用
+     *
+     * @param descriptor 方法审计元数据
+     * @param httpMethod HTTP方法
+     * @param username 用户名
+     * @param ip 客户端IP
+     * @param failed 调用是否抛出异常
+     * @return 采集时使用的审计日志级别，不采集时返回null
+     */
+    public AuditLogLevel.Level decide(AuditMethodDescriptor descriptor, String httpMethod,
+                                      String username, String ip, boolean failed) {
+        if (Boolean.FALSE.equals(configProperties.getEnabled())) {
+            return null;
+        }
+        if ((failed && !Boolean.FALSE.equals(configProperties.getAlwaysCaptureFailures()))
+                || (!isRead(httpMethod) && !Boolean.FALSE.equals(configProperties.getAlwaysCaptureWrites()))) {
+            alwaysCapturedCount.increment();
+            capturedCount.increment();
+            return descriptor.getLevel();
+        }
+
+        String auditLevel = configProperties.getAuditLevel();
+        if ("FULL".equalsIgnoreCase(auditLevel)) {
+            capturedCount.increment();
+            return descriptor.getLevel();
+        }
+        if ("NONE".equalsIgnoreCase(auditLevel)) {
+            sampledOutCount.increment();
+            return null;
+        }
+
+        // 其余级别按BASIC处理：先采样，再检查频率上限
+        double sampleRate = resolveSampleRate(descriptor.getModule(), httpMethod);
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOutCount.increment();
+            return null;
+        }
+        if (!withinRateLimit(username, ip)) {
+            rateLimitedCount.increment();
+            return null;
+        }
+        capturedCount.increment();
+        return descriptor.getLevel();
+    }
+
+    /**
+     * 获取采集统计
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("auditLevel", configProperties.getAuditLevel());
+        stats.put("capturedCount", capturedCount.sum());
+        stats.put("alwaysCapturedCount", alwaysCapturedCount.sum());
+        stats.put("sampledOutCount", sampledOutCount.sum());
+        stats.put("rateLimitedCount", rateLimitedCount.sum());
+        stats.put("trackedUsers", userWindows.size());
+        stats.put("trackedIps", ipWindows.size());
+        return stats;
+    }
+
+    /**
+     * 读请求采样率：模块采样率优先，其次操作类型采样率，最后默认采样率
+     */
+    private double resolveSampleRate(String module, String httpMethod) {
+        Map<String, Double> moduleRates = configProperties.getModuleSampleRates();
+        Double rate = moduleRates != null ? moduleRates.get(module) : null;
+        if (rate == null) {
+            Map<String, Double> operationRates = configProperties.getOperationSampleRates();
+            rate = operationRates != null && httpMethod != null ? operationRates.get(httpMethod.toUpperCase()) : null;
+        }
+        if (rate == null) {
+            rate = configProperties.getDefaultSampleRate();
+        }
+        return rate != null ? rate : 1.0;
+    }
+
+    private boolean withinRateLimit(String username, String ip) {
+        long second = clock.millis() / 1000;
+        Integer userLimit = configProperties.getUserCaptureRateLimit();
+        if (userLimit != null && userLimit > 0 && username != null && !ANONYMOUS.equals(username)
+                && !tryAcquire(userWindows, userOverflowWindow, username, second, userLimit)) {
+            return false;
+        }
+        Integer ipLimit = configProperties.getIpCaptureRateLimit();
+        return ipLimit == null || ipLimit <= 0 || ip == null
+                || tryAcquire(ipWindows, ipOverflowWindow, ip, second, ipLimit);
+    }
+
+    private static boolean tryAcquire(ConcurrentHashMap<String, CaptureWindow> windows, CaptureWindow overflow,
+                                      String key, long second, int limit) {
+        CaptureWindow window = windows.get(key);
+        if (window == null) {
+            window = windows.size() >= MAX_TRACKED_KEYS ? overflow : windows.computeIfAbsent(key, k -> new CaptureWindow());
+        }
+        return window.tryAcquire(second, limit);
+    }
+
+    /**
+     * 清理已过期的计数窗口
+     */
+    @Scheduled(fixedDelayString = "${app.audit.capture-window-cleanup-interval-ms:5000}")
+    public void evictExpiredWindows() {
+        long second = clock.millis() / 1000;
+        userWindows.values().removeIf(window -> window.second < second);
+        ipWindows.values().removeIf(window -> window.second < second);
+    }
+
+    private static boolean isRead(String httpMethod) {
+        return "GET".equalsIgnoreCase(httpMethod)
+                || "HEAD".equalsIgnoreCase(httpMethod)
+                || "OPTIONS".equalsIgnoreCase(httpMethod);
+    }
+
+    /**
+     * 一秒的采集计数窗口
+     */
+    private static final class CaptureWindow {
+
+        private volatile long second = -1;
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long currentSecond, int limit) {
+            if (second != currentSecond) {
+                synchronized (this) {
+                    if (second != currentSecond) {
+                        count.set(0);
+                        second = currentSecond;
+                    }
+                }
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bing.framework.aspect;
+
+import com.bing.framework.annotation.AuditLogLevel;
+
+import java.lang.reflect.Method;
+
+/**
+ * 审计方法描述
+ * 一个Controller方法的审计元数据，首次调用时从方法和类上的AuditLogLevel注解解析，之后不再反射
+ * 方法注解优先，类注解次之；创建后不可修改
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class AuditMethodDescriptor {
+
+    private final boolean ignored;
+    private final AuditLogLevel.Level level;
+    private final String module;
+    private final String description;
+
+    private AuditMethodDescriptor(boolean ignored, AuditLogLevel.Level level, String module, String description) {
+        this.ignored = ignored;
+        this.level = level;
+        this.module = module;
+        this.description = description;
+    }
+
+    /**
+     * 解析方法的审计元数据
+     *
+     * @param method Controller方法
+     * @return 审计方法描述
+     */
+    public static AuditMethodDescriptor of(Method method) {
+        AuditLogLevel methodAnnotation = method.getAnnotation(AuditLogLevel.class);
+        AuditLogLevel classAnnotation = method.getDeclaringClass().getAnnotation(AuditLogLevel.class);
+
+        boolean ignored = (methodAnnotation != null && methodAnnotation.ignore())
+                || (classAnnotation != null && classAnnotation.ignore());
+
+        AuditLogLevel.Level level = methodAnnotation != null ? methodAnnotation.value()
+                : classAnnotation != null ? classAnnotation.value() : AuditLogLevel.Level.FULL;
+
+        String module = firstNonEmpty(
+                methodAnnotation != null ? methodAnnotation.module() : null,
+                classAnnotation != null ? classAnnotation.module() : null);
+        if (module == null) {
+            // 默认从类名中提取模块信息
+            String className = method.getDeclaringClass().getSimpleName();
+            module = className.endsWith("Controller") ? className.substring(0, className.length() - 10) : className;
+        }
+
+        String description = firstNonEmpty(
+                methodAnnotation != null ? methodAnnotation.description() : null,
+                classAnnotation != null ? classAnnotation.description() : null);
+        if (description == null) {
+            // 默认返回方法名
+            description = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+
+        return new AuditMethodDescriptor(ignored, level, module, description);
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+
+    public AuditLogLevel.Level getLevel() {
+        return level;
+    }
+
+    public String getModule() {
+        return module;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    private static String firstNonEmpty(String first, String second) {
+        if (first != null && !first.isEmpty()) {
+            return first;
+        }
+        if (second != null && !second.isEmpty()) {
+            return second;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.bing.framework.aspect;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 审计请求参数渲染器
+ * 按Arrays.toString的格式渲染方法参数，但有长度上限：达到上限后停止渲染并追加省略标记，
+ * 数组、集合和Map逐个元素渲染，不会为超长参数生成完整字符串；
+ * 请求、响应、会话、流、上传文件和校验结果等对象只输出类型名，不调用其toString
+ * 只有审计级别需要请求参数时才会调用
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class AuditParamRenderer {
+
+    private static final String ELLIPSIS = "...";
+
+    private final int maxLength;
+
+    /**
+     * @param maxLength 渲染结果的最大长度
+     */
+    public AuditParamRenderer(int maxLength) {
+        this.maxLength = Math.max(maxLength, ELLIPSIS.length());
+    }
+
+    /**
+     * 渲染方法参数
+     *
+     * @param args 方法参数
+     * @return 渲染结果，没有参数时为空字符串
+     */
+    public String render(Object[] args) {
+        if (args == null || args.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(Math.min(maxLength, 128));
+        sb.append('[');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (!append(sb, args[i], 0)) {
+                return truncate(sb);
+            }
+        }
+        sb.append(']');
+        return sb.length() <= maxLength ? sb.toString() : truncate(sb);
+    }
+
+    /**
+     * 追加一个值
+     *
+     * @return 是否未超过长度上限
+     */
+    private boolean append(StringBuilder sb, Object value, int depth) {
+        if (sb.length() > maxLength) {
+            return false;
+        }
+        if (value == null) {
+            sb.append("null");
+        } else if (isOpaque(value)) {
+            sb.append('<').append(value.getClass().getSimpleName()).append('>');
+        } else if (value instanceof CharSequence) {
+            CharSequence text = (CharSequence) value;
+            int remaining = maxLength - sb.length() + 1;
+            sb.append(text, 0, Math.min(text.length(), Math.max(remaining, 0)));
+        } else if (value.getClass().isArray() && depth < 2) {
+            int length = Array.getLength(value);
+            sb.append('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                if (!append(sb, Array.get(value, i), depth + 1)) {
+                    return false;
+                }
+            }
+            sb.append(']');
+        } else if (value instanceof Collection && depth < 2) {
+            sb.append('[');
+            Iterator<?> iterator = ((Collection<?>) value).iterator();
+            boolean first = true;
+            while (iterator.hasNext()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                if (!append(sb, iterator.next(), depth + 1)) {
+                    return false;
+                }
+            }
+            sb.append(']');
+        } else if (value instanceof Map && depth < 2) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                if (!append(sb, entry.getKey(), depth + 1)) {
+                    return false;
+                }
+                sb.append('=');
+                if (!append(sb, entry.getValue(), depth + 1)) {
+                    return false;
+                }
+            }
+            sb.append('}');
+        } else {
+            sb.append(value);
+        }
+        return sb.length() <= maxLength;
+    }
+
+    private String truncate(StringBuilder sb) {
+        sb.setLength(maxLength - ELLIPSIS.length());
+        return sb.append(ELLIPSIS).toString();
+    }
+
+    private static boolean isOpaque(Object value) {
+        return value instanceof ServletRequest
+                || value instanceof ServletResponse
+                || value instanceof HttpSession
+                || value instanceof MultipartFile
+                || value instanceof BindingResult
+                || value instanceof InputStream
+                || value instanceof OutputStream
+                || value instanceof Reader
+                || value instanceof Writer;
+    }
+}
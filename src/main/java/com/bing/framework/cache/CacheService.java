@@ -4,6 +4,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -260,6 +261,38 @@ public class CacheService {
         }
     }
     
+    /**
+     * 获取缓存，未命中时通过加载函数回源并写入缓存
+     * 同一键的并发未命中只执行一次加载，避免热点键过期时大量请求同时访问数据库
+     * 
+     * @param key 缓存键
+     * @param ttlMinutes 过期时间（分钟），-1表示永久有效
+     * @param loader 加载函数，返回null时不写入缓存
+     * @return 缓存值或加载结果
+     */
+    public <T> T getOrLoad(String key, long ttlMinutes, Supplier<T> loader) {
+        return getOrLoad(key, ttlMinutes, loader, false);
+    }
+    
+    /**
+     * 获取缓存，未命中时通过加载函数回源并写入缓存
+     * 由统一缓存管理器完成本地合并加载；distributedLock为true时跨节点使用Redis锁互斥
+     * 
+     * @param key 缓存键
+     * @param ttlMinutes 过期时间（分钟），-1表示永久有效
+     * @param loader 加载函数，返回null时不写入缓存
+     * @param distributedLock 是否启用跨节点Redis锁
+     * @return 缓存值或加载结果
+     */
+    public <T> T getOrLoad(String key, long ttlMinutes, Supplier<T> loader, boolean distributedLock) {
+        if (unifiedCacheManager == null) {
+            log.warn("统一缓存管理器未配置，直接回源加载: key={}", key);
+            failedOperations.incrementAndGet();
+            return loader.get();
+        }
+        return unifiedCacheManager.getOrLoad(key, ttlMinutes, loader, distributedLock);
+    }
+    
     // ================================ 分布式锁操作 ================================
     
     /**
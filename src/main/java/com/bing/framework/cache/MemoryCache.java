@@ -1,19 +1,26 @@
 package com.bing.framework.cache;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 本地内存缓存实现
  * 提供高性能的本地缓存功能，支持过期时间、统计和自动清理
+ * 容量满时采用W-TinyLFU策略淘汰：新数据先进入窗口LRU，再由频率估算器决定能否替换主区中的淘汰候选，
+ * 读操作只写入无锁读缓冲区，策略维护由获得淘汰锁的线程批量完成
+ * 过期时间以System.nanoTime()为基准保存在条目中，由分层时间轮驱动清理，清理代价只与到期条目数相关
  * 
  * @author zhengbing
  * @date 2025-11-01
@@ -26,20 +33,40 @@ public class MemoryCache {
      */
     public interface CacheEntry {
         Object getValue();
-        LocalDateTime getExpireTime();
+        /** 到期时间（System.nanoTime()基准），永久有效的条目无意义 */
+        long getExpireNanos();
         boolean isExpired();
     }
     
+    // 节点在淘汰策略中所处的队列
+    private static final int QUEUE_NONE = 0;
+    private static final int QUEUE_WINDOW = 1;
+    private static final int QUEUE_PROBATION = 2;
+    private static final int QUEUE_PROTECTED = 3;
+    
     /**
-     * 缓存项实现
+     * 缓存节点
+     * 值不可变，更新时创建新节点；prev/next/queueType仅在淘汰锁内访问
      */
-    private static class SimpleCacheEntry implements CacheEntry {
+    private static final class Node extends TimerWheel.Timer implements CacheEntry {
+        private final String key;
+        private final int hash;
         private final Object value;
-        private final LocalDateTime expireTime;
+        private final boolean expirable;
+        
+        Node prev;
+        Node next;
+        int queueType = QUEUE_NONE;
+        
+        // 节点已从存储中移除，后续的策略任务不应再将其加入队列
+        volatile boolean retired;
         
-        public SimpleCacheEntry(Object value, LocalDateTime expireTime) {
+        Node(String key, Object value, boolean expirable, long expireNanos) {
+            super(expireNanos);
+            this.key = key;
+            this.hash = key.hashCode();
             this.value = value;
-            this.expireTime = expireTime;
+            this.expirable = expirable;
         }
         
         @Override
@@ -48,24 +75,120 @@ public class MemoryCache {
         }
         
         @Override
-        public LocalDateTime getExpireTime() {
-            return expireTime;
+        public long getExpireNanos() {
+            return deadline;
         }
         
         @Override
         public boolean isExpired() {
-            return expireTime != null && LocalDateTime.now().isAfter(expireTime);
+            return isExpired(System.nanoTime());
+        }
+        
+        boolean isExpired(long now) {
+            return expirable && now - deadline >= 0;
+        }
+    }
+    
+    /**
+     * 侵入式双向访问顺序队列，头部为最久未访问
+     */
+    private static final class AccessOrderDeque {
+        private Node head;
+        private Node tail;
+        
+        Node peekFirst() {
+            return head;
+        }
+        
+        Node peekLast() {
+            return tail;
+        }
+        
+        void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+        
+        void unlink(Node node) {
+            Node prev = node.prev;
+            Node next = node.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+        
+        void moveToBack(Node node) {
+            if (node != tail) {
+                unlink(node);
+                addLast(node);
+            }
+        }
+        
+        void replace(Node oldNode, Node newNode) {
+            Node prev = oldNode.prev;
+            Node next = oldNode.next;
+            newNode.prev = prev;
+            newNode.next = next;
+            if (prev == null) {
+                head = newNode;
+            } else {
+                prev.next = newNode;
+            }
+            if (next == null) {
+                tail = newNode;
+            } else {
+                next.prev = newNode;
+            }
+            oldNode.prev = null;
+            oldNode.next = null;
         }
     }
     
+    // 写缓冲区积压超过该值时写线程阻塞等待淘汰锁，保证容量上限
+    private static final int WRITE_BUFFER_THRESHOLD = 128;
+    
     // 缓存存储
-    private final ConcurrentHashMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Node> cache = new ConcurrentHashMap<>();
+    
+    // W-TinyLFU淘汰策略：窗口LRU + 分段LRU（试用区/保护区）+ 频率准入
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final ReadBuffer<Node> readBuffer = new ReadBuffer<>();
+    private final ConcurrentLinkedQueue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger(0);
+    private final AccessOrderDeque windowDeque = new AccessOrderDeque();
+    private final AccessOrderDeque probationDeque = new AccessOrderDeque();
+    private final AccessOrderDeque protectedDeque = new AccessOrderDeque();
+    private final TimerWheel<Node> timerWheel = new TimerWheel<>(System.nanoTime());
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long windowSize;
+    private long protectedSize;
+    private long policySize;
     
     // 缓存统计
     private final AtomicLong hitCount = new AtomicLong(0);
     private final AtomicLong missCount = new AtomicLong(0);
     private final AtomicLong putCount = new AtomicLong(0);
     private final AtomicLong deleteCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+    private final AtomicLong admissionRejectCount = new AtomicLong(0);
+    private final AtomicLong expirationCount = new AtomicLong(0);
     
     // 配置信息
     private final long maxSize;
@@ -87,8 +210,12 @@ public class MemoryCache {
      * @param cleanupIntervalMinutes 清理间隔（分钟），默认10分钟
      */
     public MemoryCache(long maxSize, long defaultTtlMinutes, long cleanupIntervalMinutes) {
-        this.maxSize = maxSize;
+        this.maxSize = Math.max(maxSize, 0);
         this.defaultTtlMinutes = defaultTtlMinutes;
+        // 窗口区占1%（至少1个），主区中保护区占80%
+        this.windowMaximum = Math.min(this.maxSize, Math.max(1, this.maxSize / 100));
+        this.protectedMaximum = (long) ((this.maxSize - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch(this.maxSize);
         this.cleanupIntervalMinutes = cleanupIntervalMinutes;
         startCleanupTask();
     }
@@ -127,23 +254,21 @@ public class MemoryCache {
     
     /**
      * 清理过期缓存项
+     * 推进时间轮，只处理已到期的桶，不再遍历整个缓存
      */
     private void cleanupExpired() {
-        int removedCount = 0;
+        evictionLock.lock();
         try {
-            for (String key : cache.keySet()) {
-                CacheEntry entry = cache.get(key);
-                if (entry != null && entry.isExpired()) {
-                    if (cache.remove(key) != null) {
-                        removedCount++;
-                    }
-                }
-            }
+            long before = expirationCount.get();
+            maintenance(true);
+            long removedCount = expirationCount.get() - before;
             if (removedCount > 0) {
                 log.debug("本地缓存清理完成，移除了 {} 个过期缓存项", removedCount);
             }
         } catch (Exception e) {
             log.error("清理本地缓存失败", e);
+        } finally {
+            evictionLock.unlock();
         }
     }
     
@@ -168,6 +293,7 @@ public class MemoryCache {
     
     /**
      * 放入缓存
+     * 容量已满时不会拒绝写入，而是由W-TinyLFU策略在新数据与淘汰候选之间择优保留
      * 
      * @param key 缓存键
      * @param value 缓存值
@@ -175,25 +301,34 @@ public class MemoryCache {
      * @return boolean 是否成功放入
      */
     public boolean put(String key, Object value, long ttlMinutes) {
+        return put(key, value, ttlMinutes, TimeUnit.MINUTES);
+    }
+    
+    /**
+     * 放入缓存并指定过期时间单位
+     * 用于近端缓存等需要秒级短过期时间的场景
+     * 
+     * @param key 缓存键
+     * @param value 缓存值
+     * @param ttl 过期时间，小于等于0表示永久有效
+     * @param timeUnit 时间单位
+     * @return boolean 是否成功放入
+     */
+    public boolean put(String key, Object value, long ttl, TimeUnit timeUnit) {
         try {
-            // 检查容量限制
-            if (cache.size() >= maxSize) {
-                log.warn("本地缓存已达到最大容量: {}", maxSize);
-                return false;
-            }
+            boolean expirable = ttl > 0;
+            long expireNanos = expirable ? System.nanoTime() + timeUnit.toNanos(ttl) : 0L;
+            Node node = new Node(key, value, expirable, expireNanos);
             
-            // 创建缓存项
-            CacheEntry entry;
-            if (ttlMinutes > 0) {
-                LocalDateTime expireTime = LocalDateTime.now().plus(ttlMinutes, ChronoUnit.MINUTES);
-                entry = new SimpleCacheEntry(value, expireTime);
+            Node prior = cache.put(key, node);
+            if (prior != null) {
+                prior.retired = true;
+                afterWrite(() -> onUpdate(prior, node));
             } else {
-                entry = new SimpleCacheEntry(value, null);
+                afterWrite(() -> onAdd(node));
             }
-            
-            cache.put(key, entry);
             putCount.incrementAndGet();
-            log.debug("放入本地缓存: key={}, value={}, ttlMinutes={}", key, value, ttlMinutes);
+            log.debug("放入本地缓存: key={}, value={}, ttl={} {}", key, value, ttl, timeUnit);
             return true;
         } catch (Exception e) {
             log.error("放入本地缓存失败: key={}", key, e);
@@ -209,21 +344,22 @@ public class MemoryCache {
      */
     public Object get(String key) {
         try {
-            CacheEntry entry = cache.get(key);
-            if (entry == null) {
+            Node node = cache.get(key);
+            if (node == null) {
                 missCount.incrementAndGet();
                 return null;
             }
             
             // 检查是否过期
-            if (entry.isExpired()) {
-                cache.remove(key);
+            if (node.expirable && node.isExpired(System.nanoTime())) {
+                removeNode(node);
                 missCount.incrementAndGet();
                 return null;
             }
             
             hitCount.incrementAndGet();
-            Object value = entry.getValue();
+            afterRead(node);
+            Object value = node.getValue();
             log.debug("从本地缓存获取: key={}, value={}", key, value);
             return value;
         } catch (Exception e) {
@@ -241,8 +377,11 @@ public class MemoryCache {
      */
     public boolean remove(String key) {
         try {
-            boolean removed = cache.remove(key) != null;
+            Node node = cache.remove(key);
+            boolean removed = node != null;
             if (removed) {
+                node.retired = true;
+                afterWrite(() -> unlinkFromPolicy(node));
                 deleteCount.incrementAndGet();
                 log.debug("从本地缓存删除: key={}", key);
             }
@@ -271,16 +410,84 @@ public class MemoryCache {
         return count;
     }
     
+    /**
+     * 批量获取缓存
+     * 
+     * @param keys 缓存键集合
+     * @return Map<String, Object> 命中的键值对，不存在或已过期的键不包含在结果中
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (keys != null) {
+            for (String key : keys) {
+                Object value = get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 批量放入缓存，每个键可指定不同的过期时间
+     * 
+     * @param values 键值对
+     * @param ttlMinutes 每个键的过期时间（分钟），缺失或小于等于0表示永久有效
+     * @return int 成功放入的数量
+     */
+    public int putAll(Map<String, Object> values, Map<String, Long> ttlMinutes) {
+        int count = 0;
+        if (values != null) {
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                Long ttl = ttlMinutes != null ? ttlMinutes.get(entry.getKey()) : null;
+                if (put(entry.getKey(), entry.getValue(), ttl != null ? ttl : -1)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 批量删除缓存
+     * 
+     * @param keys 缓存键集合
+     * @return int 删除的数量
+     */
+    public int removeAll(Collection<String> keys) {
+        int count = 0;
+        if (keys != null) {
+            for (String key : keys) {
+                if (remove(key)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
     /**
      * 清空所有缓存
      */
     public void clear() {
+        evictionLock.lock();
         try {
-            int size = cache.size();
-            cache.clear();
+            // 先回放积压的策略任务，再移除所有节点，避免队列与存储不一致
+            maintenance(false);
+            int size = 0;
+            for (Node node : cache.values()) {
+                if (cache.remove(node.key, node)) {
+                    node.retired = true;
+                    unlinkFromPolicy(node);
+                    size++;
+                }
+            }
             log.debug("清空本地缓存，移除了 {} 个缓存项", size);
         } catch (Exception e) {
             log.error("清空本地缓存失败", e);
+        } finally {
+            evictionLock.unlock();
         }
     }
     
@@ -291,13 +498,13 @@ public class MemoryCache {
      * @return boolean 是否存在且有效
      */
     public boolean containsKey(String key) {
-        CacheEntry entry = cache.get(key);
-        if (entry == null) {
+        Node node = cache.get(key);
+        if (node == null) {
             return false;
         }
         
-        if (entry.isExpired()) {
-            cache.remove(key);
+        if (node.expirable && node.isExpired(System.nanoTime())) {
+            removeNode(node);
             return false;
         }
         
@@ -311,13 +518,17 @@ public class MemoryCache {
      */
     public String getStats() {
         return String.format(
-            "MemoryCache Stats: Size=%d, MaxSize=%d, Hits=%d, Misses=%d, Puts=%d, Deletes=%d, HitRate=%.2f%%",
+            "MemoryCache Stats: Size=%d, MaxSize=%d, Hits=%d, Misses=%d, Puts=%d, Deletes=%d, "
+                + "Evictions=%d, AdmissionRejects=%d, Expirations=%d, HitRate=%.2f%%",
             cache.size(),
             maxSize,
             hitCount.get(),
             missCount.get(),
             putCount.get(),
             deleteCount.get(),
+            evictionCount.get(),
+            admissionRejectCount.get(),
+            expirationCount.get(),
             getHitRate()
         );
     }
@@ -334,23 +545,337 @@ public class MemoryCache {
         return total > 0 ? (double) hits / total * 100 : 0.0;
     }
     
+    /**
+     * 获取因容量不足被淘汰的缓存项数量
+     * 
+     * @return 淘汰数量，包含准入被拒绝的新数据
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+    
+    /**
+     * 获取准入被拒绝的数量，即频率低于淘汰候选而被直接淘汰的新数据
+     * 
+     * @return 准入拒绝数量
+     */
+    public long getAdmissionRejectCount() {
+        return admissionRejectCount.get();
+    }
+    
+    /**
+     * 获取过期被清理的缓存项数量
+     * 
+     * @return 过期清理数量
+     */
+    public long getExpirationCount() {
+        return expirationCount.get();
+    }
+    
     /**
      * 获取当前缓存数量
+     * 顺带推进时间轮清理已到期的条目，不遍历缓存
      * 
      * @return 缓存数量
      */
     public int size() {
-        cleanupExpired(); // 清理过期项后返回准确数量
+        tryMaintenance();
         return cache.size();
     }
     
     /**
      * 获取缓存键集合
      * 
-     * @return 键集合副本
+     * @return 键集合副本，不包含已过期的键
      */
     public java.util.Set<String> keySet() {
-        cleanupExpired(); // 清理过期项后返回准确键集合
-        return new java.util.HashSet<>(cache.keySet());
+        tryMaintenance();
+        long now = System.nanoTime();
+        java.util.Set<String> keys = new java.util.HashSet<>();
+        for (Node node : cache.values()) {
+            if (!node.isExpired(now)) {
+                keys.add(node.key);
+            }
+        }
+        return keys;
+    }
+    
+    // ================================ 淘汰策略维护 ================================
+    
+    /**
+     * 从存储中移除指定节点（仅当该键仍映射到此节点时）
+     */
+    private boolean removeNode(Node node) {
+        if (cache.remove(node.key, node)) {
+            node.retired = true;
+            afterWrite(() -> unlinkFromPolicy(node));
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * 记录读访问，读缓冲区满时尝试回放
+     */
+    private void afterRead(Node node) {
+        if (readBuffer.offer(node) == ReadBuffer.FULL) {
+            tryMaintenance();
+        }
+    }
+    
+    /**
+     * 记录写操作，积压过多时阻塞等待淘汰锁以保证容量上限
+     */
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() < WRITE_BUFFER_THRESHOLD) {
+            tryMaintenance();
+            return;
+        }
+        evictionLock.lock();
+        try {
+            maintenance(true);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    private void tryMaintenance() {
+        if (evictionLock.tryLock()) {
+            try {
+                maintenance(true);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * 回放读写缓冲区、清理到期条目并执行淘汰，调用方必须持有淘汰锁
+     */
+    private void maintenance(boolean evict) {
+        readBuffer.drainTo(this::onAccess);
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+        if (evict) {
+            timerWheel.advance(System.nanoTime(), this::expireEntry);
+            evictEntries();
+        }
+    }
+    
+    private void onAdd(Node node) {
+        if (node.retired || node.queueType != QUEUE_NONE) {
+            return;
+        }
+        sketch.increment(node.hash);
+        windowDeque.addLast(node);
+        node.queueType = QUEUE_WINDOW;
+        windowSize++;
+        policySize++;
+        if (node.expirable) {
+            timerWheel.schedule(node);
+        }
+    }
+    
+    /**
+     * 值更新时新节点继承旧节点在队列中的位置
+     */
+    private void onUpdate(Node prior, Node node) {
+        if (prior.queueType == QUEUE_NONE || node.retired || node.queueType != QUEUE_NONE) {
+            unlinkFromPolicy(prior);
+            onAdd(node);
+            return;
+        }
+        sketch.increment(node.hash);
+        dequeOf(prior.queueType).replace(prior, node);
+        node.queueType = prior.queueType;
+        prior.queueType = QUEUE_NONE;
+        timerWheel.deschedule(prior);
+        if (node.expirable) {
+            timerWheel.schedule(node);
+        }
+    }
+    
+    private void onAccess(Node node) {
+        if (node.retired) {
+            return;
+        }
+        switch (node.queueType) {
+            case QUEUE_WINDOW:
+                sketch.increment(node.hash);
+                windowDeque.moveToBack(node);
+                break;
+            case QUEUE_PROBATION:
+                // 试用区命中晋升到保护区，保护区溢出时降级最久未访问的节点
+                sketch.increment(node.hash);
+                probationDeque.unlink(node);
+                protectedDeque.addLast(node);
+                node.queueType = QUEUE_PROTECTED;
+                protectedSize++;
+                while (protectedSize > protectedMaximum) {
+                    Node demoted = protectedDeque.peekFirst();
+                    protectedDeque.unlink(demoted);
+                    probationDeque.addLast(demoted);
+                    demoted.queueType = QUEUE_PROBATION;
+                    protectedSize--;
+                }
+                break;
+            case QUEUE_PROTECTED:
+                sketch.increment(node.hash);
+                protectedDeque.moveToBack(node);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    private void unlinkFromPolicy(Node node) {
+        timerWheel.deschedule(node);
+        switch (node.queueType) {
+            case QUEUE_WINDOW:
+                windowSize--;
+                break;
+            case QUEUE_PROTECTED:
+                protectedSize--;
+                break;
+            case QUEUE_PROBATION:
+                break;
+            default:
+                return;
+        }
+        dequeOf(node.queueType).unlink(node);
+        node.queueType = QUEUE_NONE;
+        policySize--;
+    }
+    
+    private AccessOrderDeque dequeOf(int queueType) {
+        if (queueType == QUEUE_WINDOW) {
+            return windowDeque;
+        }
+        return queueType == QUEUE_PROTECTED ? protectedDeque : probationDeque;
+    }
+    
+    private void evictEntries() {
+        int candidates = evictFromWindow();
+        evictFromMain(candidates);
+    }
+    
+    /**
+     * 窗口区溢出的节点移入试用区尾部，作为准入候选
+     * 
+     * @return 候选数量
+     */
+    private int evictFromWindow() {
+        int candidates = 0;
+        Node node = windowDeque.peekFirst();
+        while (windowSize > windowMaximum && node != null) {
+            Node next = node.next;
+            windowDeque.unlink(node);
+            probationDeque.addLast(node);
+            node.queueType = QUEUE_PROBATION;
+            windowSize--;
+            candidates++;
+            node = next;
+        }
+        return candidates;
+    }
+    
+    /**
+     * 超出容量时，在试用区头部的淘汰者与尾部的候选者之间按访问频率择一淘汰
+     */
+    private void evictFromMain(int candidates) {
+        Node victim = probationDeque.peekFirst();
+        Node candidate = probationDeque.peekLast();
+        while (policySize > maxSize) {
+            if (candidates <= 0) {
+                candidate = null;
+            }
+            if (candidate == null && victim == null) {
+                // 试用区已空，依次从保护区和窗口区淘汰
+                Node fallback = protectedDeque.peekFirst();
+                if (fallback == null) {
+                    fallback = windowDeque.peekFirst();
+                }
+                if (fallback == null) {
+                    break;
+                }
+                evictEntry(fallback, false);
+                continue;
+            }
+            if (candidate == victim) {
+                // 淘汰者与候选者相遇，剩余节点按LRU顺序淘汰
+                Node evict = victim;
+                victim = victim.next;
+                candidate = null;
+                candidates = 0;
+                evictEntry(evict, false);
+                continue;
+            }
+            if (victim == null) {
+                Node evict = candidate;
+                candidate = candidate.prev;
+                candidates--;
+                evictEntry(evict, true);
+                continue;
+            }
+            if (candidate == null) {
+                Node evict = victim;
+                victim = victim.next;
+                evictEntry(evict, false);
+                continue;
+            }
+            candidates--;
+            if (admit(candidate.hash, victim.hash)) {
+                Node evict = victim;
+                victim = victim.next;
+                evictEntry(evict, false);
+                candidate = candidate.prev;
+            } else {
+                Node evict = candidate;
+                candidate = candidate.prev;
+                evictEntry(evict, true);
+            }
+        }
+    }
+    
+    /**
+     * TinyLFU准入判断：候选者频率更高时才替换淘汰者
+     * 对中等频率的候选者保留少量随机准入，防止哈希碰撞攻击使热点永久驻留
+     */
+    private boolean admit(int candidateHash, int victimHash) {
+        int victimFreq = sketch.frequency(victimHash);
+        int candidateFreq = sketch.frequency(candidateHash);
+        if (candidateFreq > victimFreq) {
+            return true;
+        } else if (candidateFreq <= 5) {
+            return false;
+        }
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+    
+    /**
+     * 时间轮回调：移除已到期的条目
+     */
+    private void expireEntry(Node node) {
+        unlinkFromPolicy(node);
+        node.retired = true;
+        if (cache.remove(node.key, node)) {
+            expirationCount.incrementAndGet();
+        }
+    }
+    
+    private void evictEntry(Node node, boolean rejected) {
+        unlinkFromPolicy(node);
+        node.retired = true;
+        if (cache.remove(node.key, node)) {
+            evictionCount.incrementAndGet();
+            if (rejected) {
+                admissionRejectCount.incrementAndGet();
+            }
+            log.debug("本地缓存容量已满，淘汰缓存项: key={}", node.key);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.bing.framework.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 分段有损读缓冲区
+ * 按线程分段的环形缓冲区，读操作通过CAS追加访问记录，缓冲区满时直接丢弃而不阻塞
+ * 由持有淘汰锁的线程批量回放，使MemoryCache的读路径无需获取全局锁即可更新淘汰策略
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+final class ReadBuffer<E> {
+
+    /** 写入成功 */
+    static final int SUCCESS = 0;
+    /** CAS竞争失败，记录被丢弃 */
+    static final int FAILED = 1;
+    /** 缓冲区已满，需要尽快回放 */
+    static final int FULL = 2;
+
+    private static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        int count = 1 << -Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() - 1);
+        this.stripes = new Stripe[Math.max(count, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.stripeMask = stripes.length - 1;
+    }
+
+    /**
+     * 追加一条访问记录
+     *
+     * @param element 访问的元素
+     * @return SUCCESS、FAILED或FULL
+     */
+    int offer(E element) {
+        Stripe<E> stripe = stripes[probe() & stripeMask];
+        long head = stripe.readCounter;
+        long tail = stripe.writeCounter.get();
+        if (tail - head >= BUFFER_SIZE) {
+            return FULL;
+        }
+        if (stripe.writeCounter.compareAndSet(tail, tail + 1)) {
+            stripe.buffer.lazySet((int) (tail & BUFFER_MASK), element);
+            return SUCCESS;
+        }
+        return FAILED;
+    }
+
+    /**
+     * 回放所有分段中的访问记录，调用方必须持有淘汰锁
+     *
+     * @param consumer 记录处理函数
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            long head = stripe.readCounter;
+            long tail = stripe.writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & BUFFER_MASK);
+                E element = stripe.buffer.get(index);
+                if (element == null) {
+                    // 生产者已占位但尚未写入，下次再回放
+                    break;
+                }
+                stripe.buffer.lazySet(index, null);
+                consumer.accept(element);
+            }
+            stripe.readCounter = head;
+        }
+    }
+
+    private static int probe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe<E> {
+        final AtomicLong writeCounter = new AtomicLong();
+        final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+        volatile long readCounter;
+    }
+}
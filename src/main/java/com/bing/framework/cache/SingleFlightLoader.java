@@ -0,0 +1,102 @@
+package com.bing.framework.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单飞加载器
+ * 以缓存键为粒度合并并发加载：同一键同时只有一个调用执行加载函数，其余调用等待同一个Future的结果
+ * 加载完成或失败后立即移除在途记录，异常会原样传递给所有等待者
+ * 用于缓存击穿时保护数据库，避免热点键过期瞬间大量请求同时回源
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Slf4j
+public class SingleFlightLoader {
+
+    // 在途加载
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 统计信息
+    private final AtomicLong loadCount = new AtomicLong(0);
+    private final AtomicLong coalescedCount = new AtomicLong(0);
+
+    /**
+     * 加载指定键的数据，同一键的并发调用只执行一次加载函数
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            log.debug("合并并发加载: key={}", key);
+            return (T) await(existing);
+        }
+
+        loadCount.incrementAndGet();
+        try {
+            T value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 判断指定键是否正在加载
+     *
+     * @param key 缓存键
+     * @return boolean 是否有在途加载
+     */
+    public boolean isLoading(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    /**
+     * 获取实际执行的加载次数
+     *
+     * @return 加载次数
+     */
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * 获取被合并的调用次数
+     *
+     * @return 合并次数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.bing.framework.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * 按到期时间距当前的远近将定时节点分布到秒、分、时、天、周五层时间轮的桶中，
+ * 推进时只处理已经走过的桶，较远层的节点在临近到期时逐层下沉到更精细的桶
+ * 使MemoryCache的过期清理代价只与实际到期的条目数相关，而与缓存总量无关
+ * 非线程安全，调用方需在淘汰锁内访问；时间基于System.nanoTime()
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+final class TimerWheel<T extends TimerWheel.Timer> {
+
+    private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+    private static final long[] SPANS = {
+        ceilingPowerOfTwo(TimeUnit.SECONDS.toNanos(1)), // 1.07秒
+        ceilingPowerOfTwo(TimeUnit.MINUTES.toNanos(1)), // 1.14分钟
+        ceilingPowerOfTwo(TimeUnit.HOURS.toNanos(1)),   // 1.22小时
+        ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),    // 1.63天
+        BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5天
+        BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5天
+    };
+    private static final long[] SHIFT = {
+        Long.numberOfTrailingZeros(SPANS[0]),
+        Long.numberOfTrailingZeros(SPANS[1]),
+        Long.numberOfTrailingZeros(SPANS[2]),
+        Long.numberOfTrailingZeros(SPANS[3]),
+        Long.numberOfTrailingZeros(SPANS[4]),
+    };
+
+    /**
+     * 定时节点
+     * 到期时间以System.nanoTime()为基准，以基本类型保存在节点中；前后指针仅由时间轮维护
+     */
+    static class Timer {
+        final long deadline;
+        Timer prevInWheel;
+        Timer nextInWheel;
+
+        Timer(long deadline) {
+            this.deadline = deadline;
+        }
+
+        boolean isScheduled() {
+            return nextInWheel != null;
+        }
+    }
+
+    private final Timer[][] wheel;
+    private long nanos;
+
+    /**
+     * 构造函数
+     *
+     * @param nanos 当前时间（System.nanoTime()）
+     */
+    TimerWheel(long nanos) {
+        this.nanos = nanos;
+        this.wheel = new Timer[BUCKETS.length][];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Timer[BUCKETS[i]];
+            for (int j = 0; j < wheel[i].length; j++) {
+                Timer sentinel = new Timer(0L);
+                sentinel.prevInWheel = sentinel;
+                sentinel.nextInWheel = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 推进时间轮，对已到期的节点回调处理函数，未到期的节点重新放入更精细的桶
+     *
+     * @param currentTimeNanos 当前时间（System.nanoTime()）
+     * @param onExpire 到期处理函数，节点回调时已从时间轮中移除
+     */
+    void advance(long currentTimeNanos, Consumer<T> onExpire) {
+        long previousTimeNanos = nanos;
+        nanos = currentTimeNanos;
+
+        // nanoTime由负转正时整体平移，保证无符号移位后的比较仍然有效
+        if ((previousTimeNanos < 0) && (currentTimeNanos > 0)) {
+            previousTimeNanos += Long.MAX_VALUE;
+            currentTimeNanos += Long.MAX_VALUE;
+        }
+
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previousTimeNanos >>> SHIFT[i];
+            long currentTicks = currentTimeNanos >>> SHIFT[i];
+            long delta = currentTicks - previousTicks;
+            if (delta <= 0L) {
+                break;
+            }
+            expire(i, previousTicks, delta, onExpire);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expire(int index, long previousTicks, long delta, Consumer<T> onExpire) {
+        Timer[] timerWheel = wheel[index];
+        int mask = timerWheel.length - 1;
+        int steps = (int) Math.min(1 + delta, timerWheel.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+
+        for (int i = start; i < end; i++) {
+            Timer sentinel = timerWheel[i & mask];
+            Timer timer = sentinel.nextInWheel;
+            sentinel.prevInWheel = sentinel;
+            sentinel.nextInWheel = sentinel;
+
+            while (timer != sentinel) {
+                Timer next = timer.nextInWheel;
+                timer.prevInWheel = null;
+                timer.nextInWheel = null;
+                if (timer.deadline - nanos > 0) {
+                    schedule((T) timer);
+                } else {
+                    onExpire.accept((T) timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * 将节点放入与其到期时间对应的桶
+     *
+     * @param timer 定时节点
+     */
+    void schedule(T timer) {
+        Timer sentinel = findBucket(timer.deadline);
+        timer.prevInWheel = sentinel.prevInWheel;
+        timer.nextInWheel = sentinel;
+        sentinel.prevInWheel.nextInWheel = timer;
+        sentinel.prevInWheel = timer;
+    }
+
+    /**
+     * 将节点从时间轮中移除，未调度的节点忽略
+     *
+     * @param timer 定时节点
+     */
+    void deschedule(T timer) {
+        if (timer.nextInWheel != null) {
+            timer.nextInWheel.prevInWheel = timer.prevInWheel;
+            timer.prevInWheel.nextInWheel = timer.nextInWheel;
+            timer.nextInWheel = null;
+            timer.prevInWheel = null;
+        }
+    }
+
+    /**
+     * 清空时间轮
+     */
+    void clear() {
+        for (Timer[] timerWheel : wheel) {
+            for (Timer sentinel : timerWheel) {
+                Timer timer = sentinel.nextInWheel;
+                while (timer != sentinel) {
+                    Timer next = timer.nextInWheel;
+                    timer.prevInWheel = null;
+                    timer.nextInWheel = null;
+                    timer = next;
+                }
+                sentinel.prevInWheel = sentinel;
+                sentinel.nextInWheel = sentinel;
+            }
+        }
+    }
+
+    private Timer findBucket(long time) {
+        long duration = time - nanos;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = time >>> SHIFT[i];
+                int index = (int) (ticks & (wheel[i].length - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    private static long ceilingPowerOfTwo(long x) {
+        return 1L << -Long.numberOfLeadingZeros(x - 1);
+    }
+}
@@ -2,11 +2,26 @@ package com.bing.framework.cache;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.bing.framework.util.RedisUtil;
@@ -16,6 +31,10 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 统一缓存管理器
  * 支持Redis和本地缓存的自动切换，提供统一的高可用缓存服务
+ * 开启近端缓存后，本地缓存作为Redis前的L1短期缓存，写入和删除通过Redis频道广播失效消息，
+ * 其他节点收到后移除各自的L1条目
+ * getOrLoad将同一键的并发回源合并为一次加载，可选用Redis锁跨节点互斥，并按XFetch算法概率性提前刷新
+ * 批量操作（getAll/setAll/deleteAll/hgetAll）在Redis模式下通过一次网络往返完成，Redis不可用时退化为本地缓存的批量操作
  * 
  * @author zhengbing
  * @date 2025-11-01
@@ -38,6 +57,65 @@ public class UnifiedCacheManager {
     private static final String REDIS_TEST_KEY = "unified_cache_manager:test_connection";
     private static final int REDIS_TEST_TIMEOUT = 3000; // 3秒超时
     
+    // 定期检查线程，关闭时中断
+    private volatile Thread redisCheckThread;
+    
+    // 近端缓存（L1本地 + L2 Redis）配置
+    @Value("${spring.cache.near-cache.enabled:false}")
+    private boolean nearCacheEnabled;
+    
+    @Value("${spring.cache.near-cache.local-ttl-seconds:30}")
+    private long nearCacheTtlSeconds;
+    
+    @Value("${spring.cache.near-cache.channel:bing:cache:invalidation}")
+    private String invalidationChannel;
+    
+    // 失效消息格式：节点标识|缓存键，节点标识用于忽略自身发布的消息
+    private static final String INVALIDATION_SEPARATOR = "|";
+    private static final String INVALIDATE_ALL = "*";
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    // 探测键带节点标识，多个实例共享同一Redis时互不干扰
+    private final String redisTestKey = REDIS_TEST_KEY + ":" + nodeId;
+    
+    // 近端缓存统计
+    private final AtomicLong nearCacheHits = new AtomicLong(0);
+    private final AtomicLong nearCacheMisses = new AtomicLong(0);
+    private final AtomicLong invalidationsPublished = new AtomicLong(0);
+    private final AtomicLong invalidationsReceived = new AtomicLong(0);
+    
+    // 单飞加载配置
+    @Value("${spring.cache.single-flight.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+    
+    @Value("${spring.cache.single-flight.lock-seconds:10}")
+    private long loadLockSeconds;
+    
+    @Value("${spring.cache.single-flight.lock-wait-millis:3000}")
+    private long loadLockWaitMillis;
+    
+    private static final String LOAD_LOCK_PREFIX = "lock:cache:load:";
+    private static final long LOAD_WAIT_INTERVAL_MILLIS = 50;
+    
+    private final SingleFlightLoader singleFlightLoader = new SingleFlightLoader();
+    
+    // 本节点加载过的键的到期时间和加载耗时，用于提前刷新判断
+    private final MemoryCache loadMetadata = new MemoryCache(2000, 60, 5);
+    private final AtomicLong earlyRefreshCount = new AtomicLong(0);
+    
+    /**
+     * 加载元数据
+     */
+    private static final class LoadMetadata {
+        private final long expireAtNanos;
+        private final long loadNanos;
+        
+        LoadMetadata(long expireAtNanos, long loadNanos) {
+            this.expireAtNanos = expireAtNanos;
+            this.loadNanos = loadNanos;
+        }
+    }
+    
     /**
      * 构造函数
      */
@@ -61,15 +139,24 @@ public class UnifiedCacheManager {
         log.info("统一缓存管理器初始化完成，当前使用缓存: {}", currentCacheType.get());
     }
     
+    /**
+     * 依赖注入完成后立即检查一次，不必等待第一个检查周期
+     */
+    @PostConstruct
+    public void checkAfterInjection() {
+        checkRedisConnection();
+    }
+    
     /**
      * 启动定期检查Redis连接状态
      */
     private void startPeriodicCheck() {
-        Thread redisCheckThread = new Thread(() -> {
-            while (true) {
+        Thread checkThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    checkRedisConnection();
+                    // 启动时已检查过一次，先等待再检查
                     Thread.sleep(30000); // 30秒检查一次
+                    checkRedisConnection();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -85,8 +172,9 @@ public class UnifiedCacheManager {
             }
         }, "Redis-Connection-Check");
         
-        redisCheckThread.setDaemon(true);
-        redisCheckThread.start();
+        checkThread.setDaemon(true);
+        redisCheckThread = checkThread;
+        checkThread.start();
         
         log.info("启动Redis连接定期检查线程");
     }
@@ -104,9 +192,9 @@ public class UnifiedCacheManager {
                 log.info("开始重连Redis操作，测试连接可用性...");
                 
                 // 尝试ping Redis
-                redisUtil.set(REDIS_TEST_KEY, "test", 10, TimeUnit.SECONDS);
-                Object testValue = redisUtil.get(REDIS_TEST_KEY);
-                redisUtil.delete(REDIS_TEST_KEY);
+                redisUtil.set(redisTestKey, "test", 10, TimeUnit.SECONDS);
+                Object testValue = redisUtil.get(redisTestKey);
+                redisUtil.delete(redisTestKey);
                 
                 if ("test".equals(testValue)) {
                     nowRedisAvailable = true;
@@ -135,6 +223,10 @@ public class UnifiedCacheManager {
         if (wasRedisAvailable != nowRedisAvailable) {
             if (nowRedisAvailable) {
                 log.info("Redis连接已恢复，切换到Redis缓存");
+                if (nearCacheEnabled) {
+                    // 断连期间可能错过失效消息，L1中的数据不再可信
+                    memoryCache.clear();
+                }
             } else {
                 log.info("Redis连接暂时不可用，继续使用本地缓存，程序正常运行不受影响");
             }
@@ -155,11 +247,21 @@ public class UnifiedCacheManager {
         try {
             if (redisAvailable.get()) {
                 // 使用Redis
+                boolean result;
                 if (ttlMinutes > 0) {
-                    return redisUtil.set(key, value, ttlMinutes, TimeUnit.MINUTES);
+                    result = redisUtil.set(key, value, ttlMinutes, TimeUnit.MINUTES);
                 } else {
-                    return redisUtil.set(key, value);
+                    result = redisUtil.set(key, value);
                 }
+                if (nearCacheEnabled) {
+                    if (result) {
+                        putNearCache(key, value, ttlMinutes > 0 ? TimeUnit.MINUTES.toMillis(ttlMinutes) : -1);
+                    } else {
+                        memoryCache.remove(key);
+                    }
+                    publishInvalidation(key);
+                }
+                return result;
             } else {
                 // 使用本地缓存
                 return memoryCache.put(key, value, ttlMinutes);
@@ -179,7 +281,10 @@ public class UnifiedCacheManager {
     public Object get(String key) {
         try {
             if (redisAvailable.get()) {
-                // 使用Redis
+                // 使用Redis，开启近端缓存时优先读取L1
+                if (nearCacheEnabled) {
+                    return getThroughNearCache(key);
+                }
                 return redisUtil.get(key);
             } else {
                 // 使用本地缓存
@@ -201,7 +306,12 @@ public class UnifiedCacheManager {
         try {
             if (redisAvailable.get()) {
                 // 使用Redis
-                return redisUtil.delete(key);
+                boolean result = redisUtil.delete(key);
+                if (nearCacheEnabled) {
+                    memoryCache.remove(key);
+                    publishInvalidation(key);
+                }
+                return result;
             } else {
                 // 使用本地缓存
                 return memoryCache.remove(key);
@@ -226,7 +336,12 @@ public class UnifiedCacheManager {
         try {
             if (redisAvailable.get()) {
                 // 使用Redis
-                return redisUtil.delete(keys);
+                long count = redisUtil.delete(keys);
+                if (nearCacheEnabled) {
+                    memoryCache.remove(keys);
+                    publishInvalidations(Arrays.asList(keys));
+                }
+                return count;
             } else {
                 // 使用本地缓存
                 return memoryCache.remove(keys);
@@ -247,6 +362,9 @@ public class UnifiedCacheManager {
         try {
             if (redisAvailable.get()) {
                 // 使用Redis
+                if (nearCacheEnabled && memoryCache.containsKey(key)) {
+                    return true;
+                }
                 return Boolean.TRUE.equals(redisUtil.hasKey(key));
             } else {
                 // 使用本地缓存
@@ -267,6 +385,10 @@ public class UnifiedCacheManager {
                 // 使用Redis - 注意：生产环境要谨慎使用flushAll
                 log.warn("执行Redis FLUSHALL操作，这会清空整个Redis数据库");
                 redisUtil.clear();
+                if (nearCacheEnabled) {
+                    memoryCache.clear();
+                    publishInvalidation(INVALIDATE_ALL);
+                }
             } else {
                 // 使用本地缓存
                 memoryCache.clear();
@@ -287,9 +409,27 @@ public class UnifiedCacheManager {
         stats.append("当前缓存类型: ").append(currentCacheType.get()).append("\n");
         stats.append("Redis连接状态: ").append(redisAvailable.get() ? "可用" : "不可用").append("\n");
         
+        stats.append("单飞加载统计: ")
+            .append("Loads=").append(singleFlightLoader.getLoadCount())
+            .append(", Coalesced=").append(singleFlightLoader.getCoalescedCount())
+            .append(", EarlyRefreshes=").append(earlyRefreshCount.get())
+            .append("\n");
+        
         if (!redisAvailable.get()) {
             stats.append("本地缓存统计:\n");
             stats.append(memoryCache.getStats());
+        } else if (nearCacheEnabled) {
+            stats.append("近端缓存统计: ")
+                .append("L1Hits=").append(nearCacheHits.get())
+                .append(", L1Misses=").append(nearCacheMisses.get())
+                .append(", InvalidationsPublished=").append(invalidationsPublished.get())
+                .append(", InvalidationsReceived=").append(invalidationsReceived.get())
+                .append("\n");
+            stats.append(memoryCache.getStats()).append("\n");
+        }
+        
+        if (redisAvailable.get() && redisUtil != null) {
+            stats.append(redisUtil.getBatchStats());
         }
         
         return stats.toString();
@@ -379,11 +519,432 @@ public class UnifiedCacheManager {
         }
     }
     
+    // ================================ 批量操作 ================================
+    
+    /**
+     * 批量获取缓存
+     * 开启近端缓存时先从L1取值，只有未命中的键才一次性从Redis读取并回填L1
+     * 
+     * @param keys 缓存键集合
+     * @return Map<String, Object> 命中的键值对，不存在的键不包含在结果中
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        try {
+            if (redisAvailable.get()) {
+                if (!nearCacheEnabled) {
+                    return redisUtil.getAll(keys);
+                }
+                Map<String, Object> result = new LinkedHashMap<>(memoryCache.getAll(keys));
+                nearCacheHits.addAndGet(result.size());
+                if (result.size() == keys.size()) {
+                    return result;
+                }
+                List<String> missing = new ArrayList<>(keys.size() - result.size());
+                for (String key : keys) {
+                    if (!result.containsKey(key)) {
+                        missing.add(key);
+                    }
+                }
+                nearCacheMisses.addAndGet(missing.size());
+                Map<String, RedisUtil.TtlValue> loaded = redisUtil.getAllWithTtl(missing);
+                for (Map.Entry<String, RedisUtil.TtlValue> entry : loaded.entrySet()) {
+                    RedisUtil.TtlValue loadedValue = entry.getValue();
+                    putNearCache(entry.getKey(), loadedValue.getValue(), loadedValue.getTtlMillis());
+                    result.put(entry.getKey(), loadedValue.getValue());
+                }
+                return result;
+            } else {
+                // 使用本地缓存
+                return memoryCache.getAll(keys);
+            }
+        } catch (Exception e) {
+            log.info("Redis暂时无法连接");
+            return memoryCache.getAll(keys);
+        }
+    }
+    
+    /**
+     * 批量设置缓存，所有键使用相同的过期时间
+     * 
+     * @param values 键值对
+     * @param ttlMinutes 过期时间（分钟），-1表示永久有效
+     * @return boolean 是否成功
+     */
+    public boolean setAll(Map<String, Object> values, long ttlMinutes) {
+        if (values == null || values.isEmpty()) {
+            return true;
+        }
+        Map<String, Long> ttlByKey = new LinkedHashMap<>();
+        for (String key : values.keySet()) {
+            ttlByKey.put(key, ttlMinutes);
+        }
+        return setAll(values, ttlByKey);
+    }
+    
+    /**
+     * 批量设置缓存，每个键可指定不同的过期时间
+     * 
+     * @param values 键值对
+     * @param ttlMinutes 每个键的过期时间（分钟），缺失或小于等于0表示永久有效
+     * @return boolean 是否成功
+     */
+    public boolean setAll(Map<String, Object> values, Map<String, Long> ttlMinutes) {
+        if (values == null || values.isEmpty()) {
+            return true;
+        }
+        
+        try {
+            if (redisAvailable.get()) {
+                Map<String, Long> ttlMillis = new LinkedHashMap<>();
+                for (String key : values.keySet()) {
+                    Long ttl = ttlMinutes != null ? ttlMinutes.get(key) : null;
+                    ttlMillis.put(key, ttl != null && ttl > 0 ? TimeUnit.MINUTES.toMillis(ttl) : -1L);
+                }
+                boolean result = redisUtil.setAll(values, ttlMillis);
+                if (nearCacheEnabled) {
+                    for (Map.Entry<String, Object> entry : values.entrySet()) {
+                        if (result) {
+                            long ttl = ttlMillis.get(entry.getKey());
+                            putNearCache(entry.getKey(), entry.getValue(), ttl);
+                        } else {
+                            memoryCache.remove(entry.getKey());
+                        }
+                    }
+                    publishInvalidations(values.keySet());
+                }
+                return result;
+            } else {
+                // 使用本地缓存
+                return memoryCache.putAll(values, ttlMinutes) == values.size();
+            }
+        } catch (Exception e) {
+            log.info("Redis暂时无法连接");
+            return memoryCache.putAll(values, ttlMinutes) == values.size();
+        }
+    }
+    
+    /**
+     * 批量删除缓存
+     * 
+     * @param keys 缓存键集合
+     * @return long 删除的数量
+     */
+    public long deleteAll(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            if (redisAvailable.get()) {
+                long count = redisUtil.deleteAll(keys);
+                if (nearCacheEnabled) {
+                    memoryCache.removeAll(keys);
+                    publishInvalidations(keys);
+                }
+                return count;
+            } else {
+                // 使用本地缓存
+                return memoryCache.removeAll(keys);
+            }
+        } catch (Exception e) {
+            log.info("Redis暂时无法连接");
+            return memoryCache.removeAll(keys);
+        }
+    }
+    
+    /**
+     * 批量获取多个Hash的所有字段
+     * Redis不可用时，本地缓存中以Map形式保存的值视为Hash内容
+     * 
+     * @param keys Hash键集合
+     * @return Map<String, Map<Object, Object>> 键到Hash内容的映射，不存在的键对应空Map
+     */
+    public Map<String, Map<Object, Object>> hgetAll(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        try {
+            if (redisAvailable.get()) {
+                return redisUtil.hgetAll(keys);
+            } else {
+                // 使用本地缓存
+                return hgetAllFromMemory(keys);
+            }
+        } catch (Exception e) {
+            log.info("Redis暂时无法连接");
+            return hgetAllFromMemory(keys);
+        }
+    }
+    
+    /**
+     * 获取批量操作节省的网络往返次数
+     * 
+     * @return long 节省的往返次数，Redis未初始化时返回0
+     */
+    public long getRoundTripsSaved() {
+        return redisUtil != null ? redisUtil.getRoundTripsSaved() : 0;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<Object, Object>> hgetAllFromMemory(Collection<String> keys) {
+        Map<String, Map<Object, Object>> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = memoryCache.get(key);
+            result.put(key, value instanceof Map ? (Map<Object, Object>) value : Collections.emptyMap());
+        }
+        return result;
+    }
+    
+    // ================================ 单飞加载 ================================
+    
+    /**
+     * 获取缓存，未命中时通过加载函数回源并写入缓存
+     * 同一键的并发未命中只执行一次加载
+     * 
+     * @param key 缓存键
+     * @param ttlMinutes 过期时间（分钟），-1表示永久有效
+     * @param loader 加载函数，返回null时不写入缓存
+     * @return 缓存值或加载结果
+     */
+    public <T> T getOrLoad(String key, long ttlMinutes, Supplier<T> loader) {
+        return getOrLoad(key, ttlMinutes, loader, false);
+    }
+    
+    /**
+     * 获取缓存，未命中时通过加载函数回源并写入缓存
+     * 本节点内同一键的并发未命中合并为一次加载；distributedLock为true且Redis可用时，
+     * 跨节点通过Redis锁互斥，未抢到锁的节点等待持锁节点写入缓存，超时后自行加载
+     * 临近过期的键会按XFetch算法以一定概率由单个调用提前刷新，其余调用继续返回旧值
+     * 
+     * @param key 缓存键
+     * @param ttlMinutes 过期时间（分钟），-1表示永久有效
+     * @param loader 加载函数，返回null时不写入缓存
+     * @param distributedLock 是否启用跨节点Redis锁
+     * @return 缓存值或加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, long ttlMinutes, Supplier<T> loader, boolean distributedLock) {
+        T cached = (T) get(key);
+        if (cached != null) {
+            if (!shouldRefreshEarly(key) || singleFlightLoader.isLoading(key)) {
+                return cached;
+            }
+            earlyRefreshCount.incrementAndGet();
+            log.debug("提前刷新缓存: key={}", key);
+            return singleFlightLoader.load(key, () -> loadAndCache(key, ttlMinutes, loader, distributedLock));
+        }
+        
+        return singleFlightLoader.load(key, () -> {
+            // 上一轮加载可能刚好完成
+            T loaded = (T) get(key);
+            if (loaded != null) {
+                return loaded;
+            }
+            return loadAndCache(key, ttlMinutes, loader, distributedLock);
+        });
+    }
+    
+    /**
+     * XFetch提前刷新判断：剩余时间小于 加载耗时 × beta × -ln(rand) 时刷新
+     */
+    private boolean shouldRefreshEarly(String key) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        Object metadata = loadMetadata.get(key);
+        if (!(metadata instanceof LoadMetadata)) {
+            return false;
+        }
+        LoadMetadata loadInfo = (LoadMetadata) metadata;
+        double gap = loadInfo.loadNanos * earlyRefreshBeta * -Math.log(ThreadLocalRandom.current().nextDouble());
+        long remaining = loadInfo.expireAtNanos - System.nanoTime();
+        return gap >= remaining;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> T loadAndCache(String key, long ttlMinutes, Supplier<T> loader, boolean distributedLock) {
+        if (!distributedLock || !redisAvailable.get()) {
+            return loadAndSet(key, ttlMinutes, loader);
+        }
+        
+        String lockKey = LOAD_LOCK_PREFIX + key;
+        String requestId = nodeId + ":" + Thread.currentThread().getId();
+        boolean locked = false;
+        try {
+            locked = redisUtil.getLock(lockKey, requestId, loadLockSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.info("Redis暂时无法连接");
+        }
+        
+        if (locked) {
+            try {
+                return loadAndSet(key, ttlMinutes, loader);
+            } finally {
+                try {
+                    redisUtil.releaseLock(lockKey, requestId);
+                } catch (Exception e) {
+                    log.info("Redis暂时无法连接");
+                }
+            }
+        }
+        
+        // 其他节点正在加载，等待其写入缓存
+        long deadline = System.currentTimeMillis() + loadLockWaitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            T value = (T) get(key);
+            if (value != null) {
+                return value;
+            }
+            try {
+                Thread.sleep(LOAD_WAIT_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.warn("等待其他节点加载缓存超时，自行加载: key={}", key);
+        return loadAndSet(key, ttlMinutes, loader);
+    }
+    
+    private <T> T loadAndSet(String key, long ttlMinutes, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        long loadNanos = System.nanoTime() - start;
+        if (value != null) {
+            set(key, value, ttlMinutes);
+            if (ttlMinutes > 0 && earlyRefreshBeta > 0) {
+                long expireAtNanos = start + loadNanos + TimeUnit.MINUTES.toNanos(ttlMinutes);
+                loadMetadata.put(key, new LoadMetadata(expireAtNanos, loadNanos), ttlMinutes);
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * 获取单飞加载器
+     * 
+     * @return 单飞加载器
+     */
+    public SingleFlightLoader getSingleFlightLoader() {
+        return singleFlightLoader;
+    }
+    
+    // ================================ 近端缓存 ================================
+    
+    /**
+     * 处理其他节点发布的失效消息，移除本地L1中的对应条目
+     * 由Redis频道监听器回调，自身发布的消息会被忽略
+     * 
+     * @param payload 失效消息，格式为 节点标识|缓存键
+     */
+    public void handleInvalidation(String payload) {
+        if (payload == null) {
+            return;
+        }
+        int separatorIndex = payload.indexOf(INVALIDATION_SEPARATOR);
+        if (separatorIndex < 0 || nodeId.equals(payload.substring(0, separatorIndex))) {
+            return;
+        }
+        String key = payload.substring(separatorIndex + 1);
+        invalidationsReceived.incrementAndGet();
+        if (INVALIDATE_ALL.equals(key)) {
+            memoryCache.clear();
+        } else {
+            memoryCache.remove(key);
+        }
+        log.debug("收到近端缓存失效消息: key={}", key);
+    }
+    
+    /**
+     * 是否开启近端缓存
+     * 
+     * @return boolean
+     */
+    public boolean isNearCacheEnabled() {
+        return nearCacheEnabled;
+    }
+    
+    /**
+     * 获取失效消息频道名称
+     * 
+     * @return 频道名称
+     */
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+    
+    /**
+     * 先读L1，未命中时读取Redis并回填L1
+     * 值与键的剩余过期时间在一次网络往返中读取，L1条目不会比Redis中的键更晚过期
+     */
+    private Object getThroughNearCache(String key) {
+        Object value = memoryCache.get(key);
+        if (value != null) {
+            nearCacheHits.incrementAndGet();
+            return value;
+        }
+        nearCacheMisses.incrementAndGet();
+        RedisUtil.TtlValue loaded = redisUtil.getAllWithTtl(Collections.singletonList(key)).get(key);
+        if (loaded == null) {
+            return null;
+        }
+        putNearCache(key, loaded.getValue(), loaded.getTtlMillis());
+        return loaded.getValue();
+    }
+    
+    /**
+     * 写入L1，过期时间取近端缓存TTL与键自身剩余TTL中较小者
+     * 
+     * @param ttlMillis 键在Redis中的剩余过期时间（毫秒），小于等于0表示永久有效
+     */
+    private void putNearCache(String key, Object value, long ttlMillis) {
+        long localTtl = TimeUnit.SECONDS.toMillis(nearCacheTtlSeconds);
+        if (ttlMillis > 0) {
+            localTtl = Math.min(ttlMillis, localTtl);
+        }
+        memoryCache.put(key, value, localTtl, TimeUnit.MILLISECONDS);
+    }
+    
+    private void publishInvalidation(String key) {
+        if (redisUtil.publish(invalidationChannel, nodeId + INVALIDATION_SEPARATOR + key)) {
+            invalidationsPublished.incrementAndGet();
+        }
+    }
+    
+    /**
+     * 批量发布失效消息，多条消息在一次网络往返中提交
+     */
+    private void publishInvalidations(Collection<String> keys) {
+        if (keys.size() == 1) {
+            publishInvalidation(keys.iterator().next());
+            return;
+        }
+        List<String> messages = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            messages.add(nodeId + INVALIDATION_SEPARATOR + key);
+        }
+        if (redisUtil.publishAll(invalidationChannel, messages)) {
+            invalidationsPublished.addAndGet(messages.size());
+        }
+    }
+    
     /**
      * 关闭缓存管理器
      */
+    @PreDestroy
     public void shutdown() {
         log.info("关闭统一缓存管理器");
+        Thread checkThread = redisCheckThread;
+        if (checkThread != null) {
+            checkThread.interrupt();
+            redisCheckThread = null;
+        }
         memoryCache.shutdown();
+        loadMetadata.shutdown();
     }
 }
\ No newline at end of file
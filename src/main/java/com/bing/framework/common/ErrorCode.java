@@ -21,6 +21,7 @@ public enum ErrorCode {
     SYSTEM_ERROR(1000, "error.system"),
     PARAM_ERROR(1001, "error.param"),
     NULL_POINTER_ERROR(1002, "error.null"),
+    TOO_MANY_REQUESTS(1003, "error.too_many_requests"),
     
     // 业务级错误码 2000-2999
     BUSINESS_ERROR(2000, "error.business"),
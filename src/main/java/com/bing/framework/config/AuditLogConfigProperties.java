@@ -6,10 +6,14 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 审计日志配置属性类
@@ -46,6 +50,29 @@ public class AuditLogConfigProperties {
     @ApiModelProperty(value = "批量写入大小", example = "100", allowableValues = "range[10,1000]", required = false)
     private Integer batchSize = 100;
     
+    /**
+     * 是否根据写入耗时和积压数量自动调整批量大小和等待时间
+     */
+    @NotNull(message = "自适应批量启用状态不能为空")
+    @ApiModelProperty(value = "是否自适应调整批量大小", notes = "启用时batchSize为批量下限，maxBatchSize为批量上限，flushInterval为最长等待时间", example = "true", required = false)
+    private Boolean adaptiveBatchEnabled = true;
+    
+    /**
+     * 自适应批量大小上限
+     */
+    @Min(value = 10, message = "批量大小上限不能小于10")
+    @Max(value = 5000, message = "批量大小上限不能大于5000")
+    @ApiModelProperty(value = "自适应批量大小上限", example = "1000", allowableValues = "range[10,5000]", required = false)
+    private Integer maxBatchSize = 1000;
+    
+    /**
+     * 单批写入的目标耗时（毫秒），超过时不再增大批量
+     */
+    @Min(value = 10, message = "目标写入耗时不能小于10毫秒")
+    @Max(value = 10000, message = "目标写入耗时不能大于10000毫秒")
+    @ApiModelProperty(value = "单批写入的目标耗时", notes = "单位：毫秒", example = "200", allowableValues = "range[10,10000]", required = false)
+    private Integer targetBatchLatency = 200;
+    
     /**
      * 刷新间隔时间（毫秒）
      */
@@ -62,6 +89,13 @@ public class AuditLogConfigProperties {
     @ApiModelProperty(value = "缓冲队列大小", example = "1000", allowableValues = "range[100,10000]", required = false)
     private Integer bufferQueueSize = 1000;
     
+    /**
+     * 缓冲池写入线程的等待策略
+     */
+    @NotBlank(message = "等待策略不能为空")
+    @ApiModelProperty(value = "缓冲池写入线程的等待策略", notes = "可选值：BUSY_SPIN, YIELDING, SLEEPING, BLOCKING", example = "BLOCKING", allowableValues = "BUSY_SPIN, YIELDING, SLEEPING, BLOCKING", required = false)
+    private String waitStrategy = "BLOCKING";
+    
     /**
      * 线程池核心大小
      */
@@ -96,11 +130,63 @@ public class AuditLogConfigProperties {
     
     /**
      * 审计级别（NONE, BASIC, FULL）
+     * FULL：采集全部请求；BASIC：写操作和失败请求全部采集，读请求按采样率和频率上限采集；NONE：只采集写操作和失败请求
      */
     @NotBlank(message = "审计级别不能为空")
-    @ApiModelProperty(value = "审计级别", notes = "可选值：NONE, BASIC, FULL", example = "BASIC", allowableValues = "NONE, BASIC, FULL", required = true)
+    @ApiModelProperty(value = "审计级别", notes = "可选值：NONE, BASIC, FULL；FULL采集全部请求，BASIC对读请求采样，NONE不采集读请求", example = "BASIC", allowableValues = "NONE, BASIC, FULL", required = true)
     private String auditLevel = "BASIC";
     
+    /**
+     * 读请求的默认采样率
+     */
+    @NotNull(message = "默认采样率不能为空")
+    @DecimalMin(value = "0.0", message = "采样率不能小于0")
+    @DecimalMax(value = "1.0", message = "采样率不能大于1")
+    @ApiModelProperty(value = "读请求的默认采样率", notes = "0到1之间，未配置模块和操作类型采样率时使用", example = "1.0", required = false)
+    private Double defaultSampleRate = 1.0;
+    
+    /**
+     * 按模块配置的读请求采样率，键为模块名，优先于操作类型采样率
+     */
+    @ApiModelProperty(value = "按模块配置的读请求采样率", notes = "键为模块名（如DataDict），值为0到1之间的采样率", example = "{\"DataDict\": 0.01}", required = false)
+    private Map<String, Double> moduleSampleRates = new HashMap<>();
+    
+    /**
+     * 按操作类型配置的读请求采样率，键为HTTP方法
+     */
+    @ApiModelProperty(value = "按操作类型配置的读请求采样率", notes = "键为HTTP方法（如GET），值为0到1之间的采样率", example = "{\"GET\": 0.2}", required = false)
+    private Map<String, Double> operationSampleRates = new HashMap<>();
+    
+    /**
+     * 是否始终采集写操作
+     */
+    @NotNull(message = "写操作采集状态不能为空")
+    @ApiModelProperty(value = "是否始终采集写操作", notes = "POST、PUT、DELETE等请求不参与采样和频率限制", example = "true", required = false)
+    private Boolean alwaysCaptureWrites = true;
+    
+    /**
+     * 是否始终采集失败的请求
+     */
+    @NotNull(message = "失败请求采集状态不能为空")
+    @ApiModelProperty(value = "是否始终采集失败的请求", notes = "抛出异常的请求不参与采样和频率限制", example = "true", required = false)
+    private Boolean alwaysCaptureFailures = true;
+    
+    /**
+     * 每个用户每秒最多采集的读请求数，0表示不限制
+     */
+    @Min(value = 0, message = "用户采集频率上限不能小于0")
+    @Max(value = 10000, message = "用户采集频率上限不能大于10000")
+    @ApiModelProperty(value = "每个用户每秒最多采集的读请求数", notes = "0表示不限制，匿名用户只按IP限制", example = "20", allowableValues = "range[0,10000]", required = false)
+    private Integer userCaptureRateLimit = 0;
+    
+    /**
+     * 每个IP每秒最多采集的读请求数，0表示不限制
+     */
+    @Min(value = 0, message = "IP采集频率上限不能小于0")
+    @Max(value = 10000, message = "IP采集频率上限不能大于10000")
+    @ApiModelProperty(value = "每个IP每秒最多采集的读请求数", notes = "0表示不限制", example = "50", allowableValues = "range[0,10000]", required = false)
+    private Integer ipCaptureRateLimit = 0;
+    
     /**
      * 是否启用缓冲池
      */
@@ -221,9 +307,60 @@ public class AuditLogConfigProperties {
      */
     @Min(value = 1, message = "日志保留天数不能小于1")
     @Max(value = 365, message = "日志保留天数不能大于365")
-    @ApiModelProperty(value = "日志保留天数", example = "30", allowableValues = "range[1,365]", required = false)
+    @ApiModelProperty(value = "日志保留天数", notes = "审计日志表按分区清理时使用", example = "30", allowableValues = "range[1,365]", required = false)
     private Integer retentionDays = 30;
     
+    /**
+     * 登录记录保留天数
+     */
+    @Min(value = 1, message = "登录记录保留天数不能小于1")
+    @Max(value = 3650, message = "登录记录保留天数不能大于3650")
+    @ApiModelProperty(value = "登录记录保留天数", example = "90", allowableValues = "range[1,3650]", required = false)
+    private Integer loginRecordRetentionDays = 90;
+    
+    /**
+     * 是否启用日志表分区维护
+     */
+    @NotNull(message = "分区维护启用状态不能为空")
+    @ApiModelProperty(value = "是否启用日志表分区维护", notes = "审计日志表和登录记录表按时间分区后生效，未分区的表自动跳过", example = "true", required = false)
+    private Boolean partitionEnabled = true;
+    
+    /**
+     * 分区粒度（DAY, MONTH）
+     */
+    @NotBlank(message = "分区粒度不能为空")
+    @ApiModelProperty(value = "分区粒度", notes = "可选值：DAY, MONTH", example = "DAY", allowableValues = "DAY, MONTH", required = false)
+    private String partitionGranularity = "DAY";
+    
+    /**
+     * 提前创建的分区数量
+     */
+    @Min(value = 1, message = "预建分区数量不能小于1")
+    @Max(value = 90, message = "预建分区数量不能大于90")
+    @ApiModelProperty(value = "提前创建的分区数量", notes = "当前周期之后预建的分区个数", example = "7", allowableValues = "range[1,90]", required = false)
+    private Integer partitionPrecreateCount = 7;
+    
+    /**
+     * 分区维护任务的cron表达式
+     */
+    @NotBlank(message = "分区维护cron表达式不能为空")
+    @ApiModelProperty(value = "分区维护任务的cron表达式", notes = "修改后需重启生效", example = "0 10 0 * * ?", required = false)
+    private String partitionCron = "0 10 0 * * ?";
+    
+    /**
+     * 删除过期分区前是否归档
+     */
+    @NotNull(message = "归档启用状态不能为空")
+    @ApiModelProperty(value = "删除过期分区前是否归档", notes = "归档为gzip压缩的NDJSON文件", example = "true", required = false)
+    private Boolean archiveEnabled = true;
+    
+    /**
+     * 归档文件目录
+     */
+    @NotBlank(message = "归档目录不能为空")
+    @ApiModelProperty(value = "归档文件目录", example = "data/audit-archive", required = false)
+    private String archiveDir = "data/audit-archive";
+    
     /**
      * 是否启用字段过滤
      */
@@ -101,13 +101,32 @@ public class AuditLogDynamicConfigManager {
             copy.setEnabled(config.getEnabled());
             copy.setAsyncEnabled(config.getAsyncEnabled());
             copy.setBatchSize(config.getBatchSize());
+            copy.setAdaptiveBatchEnabled(config.getAdaptiveBatchEnabled());
+            copy.setMaxBatchSize(config.getMaxBatchSize());
+            copy.setTargetBatchLatency(config.getTargetBatchLatency());
             copy.setFlushInterval(config.getFlushInterval());
             copy.setBufferQueueSize(config.getBufferQueueSize());
+            copy.setWaitStrategy(config.getWaitStrategy());
             copy.setThreadPoolCoreSize(config.getThreadPoolCoreSize());
             copy.setThreadPoolMaxSize(config.getThreadPoolMaxSize());
             copy.setThreadPoolQueueCapacity(config.getThreadPoolQueueCapacity());
             copy.setThreadPoolKeepAliveTime(config.getThreadPoolKeepAliveTime());
             copy.setAuditLevel(config.getAuditLevel());
+            copy.setDefaultSampleRate(config.getDefaultSampleRate());
+            copy.setModuleSampleRates(new HashMap<>(config.getModuleSampleRates()));
+            copy.setOperationSampleRates(new HashMap<>(config.getOperationSampleRates()));
+            copy.setAlwaysCaptureWrites(config.getAlwaysCaptureWrites());
+            copy.setAlwaysCaptureFailures(config.getAlwaysCaptureFailures());
+            copy.setUserCaptureRateLimit(config.getUserCaptureRateLimit());
+            copy.setIpCaptureRateLimit(config.getIpCaptureRateLimit());
+            copy.setRetentionDays(config.getRetentionDays());
+            copy.setLoginRecordRetentionDays(config.getLoginRecordRetentionDays());
+            copy.setPartitionEnabled(config.getPartitionEnabled());
+            copy.setPartitionGranularity(config.getPartitionGranularity());
+            copy.setPartitionPrecreateCount(config.getPartitionPrecreateCount());
+            copy.setPartitionCron(config.getPartitionCron());
+            copy.setArchiveEnabled(config.getArchiveEnabled());
+            copy.setArchiveDir(config.getArchiveDir());
             copy.setBufferPoolEnabled(config.getBufferPoolEnabled());
             copy.setExceptionHandlingEnabled(config.getExceptionHandlingEnabled());
             copy.setExceptionRetryTimes(config.getExceptionRetryTimes());
@@ -379,14 +398,34 @@ public class AuditLogDynamicConfigManager {
             return false;
         }
         
+        if (config.getMaxBatchSize() != null && config.getBatchSize() != null
+                && config.getMaxBatchSize() < config.getBatchSize()) {
+            log.error("批量大小上限不能小于批量大小");
+            return false;
+        }
+        
         if (config.getExceptionRetryTimes() > 0 && config.getExceptionRetryInterval() < 100) {
             log.error("异常重试间隔必须大于100毫秒");
             return false;
         }
         
+        if (!isValidSampleRate(config.getDefaultSampleRate())
+                || !config.getModuleSampleRates().values().stream().allMatch(this::isValidSampleRate)
+                || !config.getOperationSampleRates().values().stream().allMatch(this::isValidSampleRate)) {
+            log.error("采样率必须在0到1之间");
+            return false;
+        }
+        
         return true;
     }
     
+    /**
+     * 采样率是否在0到1之间
+     */
+    private boolean isValidSampleRate(Double rate) {
+        return rate != null && rate >= 0.0 && rate <= 1.0;
+    }
+    
     /**
      * 复制当前配置
      */
@@ -398,13 +437,32 @@ public class AuditLogDynamicConfigManager {
      * 应用新配置
      */
     private void applyNewConfig(AuditLogConfigProperties newConfig) {
-        // 这里应该将新配置应用到实际的组件中
-        // 例如：更新线程池配置、缓存配置等
-        
-        // 示例：更新配置属性
+        // 缓冲池写入线程每轮都从configProperties读取以下配置，更新后无需重启即可生效
         configProperties.setEnabled(newConfig.getEnabled());
         configProperties.setBatchSize(newConfig.getBatchSize());
+        configProperties.setAdaptiveBatchEnabled(newConfig.getAdaptiveBatchEnabled());
+        configProperties.setMaxBatchSize(newConfig.getMaxBatchSize());
+        configProperties.setTargetBatchLatency(newConfig.getTargetBatchLatency());
         configProperties.setFlushInterval(newConfig.getFlushInterval());
+        configProperties.setBufferQueueSize(newConfig.getBufferQueueSize());
+        configProperties.setWaitStrategy(newConfig.getWaitStrategy());
+        // 审计切面每次请求都从configProperties读取采集策略
+        configProperties.setAuditLevel(newConfig.getAuditLevel());
+        configProperties.setDefaultSampleRate(newConfig.getDefaultSampleRate());
+        configProperties.setModuleSampleRates(new HashMap<>(newConfig.getModuleSampleRates()));
+        configProperties.setOperationSampleRates(new HashMap<>(newConfig.getOperationSampleRates()));
+        configProperties.setAlwaysCaptureWrites(newConfig.getAlwaysCaptureWrites());
+        configProperties.setAlwaysCaptureFailures(newConfig.getAlwaysCaptureFailures());
+        configProperties.setUserCaptureRateLimit(newConfig.getUserCaptureRateLimit());
+        configProperties.setIpCaptureRateLimit(newConfig.getIpCaptureRateLimit());
+        // 分区维护任务每次执行都从configProperties读取保留期限和分区配置（cron表达式除外）
+        configProperties.setRetentionDays(newConfig.getRetentionDays());
+        configProperties.setLoginRecordRetentionDays(newConfig.getLoginRecordRetentionDays());
+        configProperties.setPartitionEnabled(newConfig.getPartitionEnabled());
+        configProperties.setPartitionGranularity(newConfig.getPartitionGranularity());
+        configProperties.setPartitionPrecreateCount(newConfig.getPartitionPrecreateCount());
+        configProperties.setArchiveEnabled(newConfig.getArchiveEnabled());
+        configProperties.setArchiveDir(newConfig.getArchiveDir());
         // ... 其他属性
         
         hasChanges.set(true);
@@ -441,8 +499,10 @@ public class AuditLogDynamicConfigManager {
             try {
                 // 比较关键配置项的变更
                 compareAndNotifyChange("batchSize", oldConfig.getBatchSize(), newConfig.getBatchSize(), listener);
+                compareAndNotifyChange("maxBatchSize", oldConfig.getMaxBatchSize(), newConfig.getMaxBatchSize(), listener);
                 compareAndNotifyChange("flushInterval", oldConfig.getFlushInterval(), newConfig.getFlushInterval(), listener);
                 compareAndNotifyChange("auditLevel", oldConfig.getAuditLevel(), newConfig.getAuditLevel(), listener);
+                compareAndNotifyChange("defaultSampleRate", oldConfig.getDefaultSampleRate(), newConfig.getDefaultSampleRate(), listener);
             } catch (Exception e) {
                 log.warn("通知配置变更失败: {}", name, e);
             }
@@ -0,0 +1,68 @@
+package com.bing.framework.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+/**
+ * 日志专用数据源的SqlSessionFactory
+ * 审计日志和安全事件的写入映射共用一个基于auditDataSource（AuditHikariPool）的SqlSessionFactory，
+ * 由写入器自行提交，不参与Spring事务
+ * 本类包装SqlSessionFactory而不是直接注册为SqlSessionFactory类型的Bean，避免影响MyBatis-Plus对主数据源的自动配置
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+@Slf4j
+public class AuditSqlSessionFactory {
+
+    private static final String[] MAPPER_LOCATIONS = {
+            "mapper/audit/AuditLogWriteMapper.xml",
+            "mapper/security/SecurityEventWriteMapper.xml"
+    };
+
+    private final DataSource auditDataSource;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    public AuditSqlSessionFactory(@Qualifier("auditDataSource") DataSource auditDataSource) {
+        this.auditDataSource = auditDataSource;
+    }
+
+    /**
+     * 构建日志数据源的SqlSessionFactory
+     */
+    @PostConstruct
+    public void init() throws Exception {
+        Resource[] mapperLocations = new Resource[MAPPER_LOCATIONS.length];
+        for (int i = 0; i < MAPPER_LOCATIONS.length; i++) {
+            mapperLocations[i] = new ClassPathResource(MAPPER_LOCATIONS[i]);
+        }
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(auditDataSource);
+        factoryBean.setTransactionFactory(new JdbcTransactionFactory());
+        factoryBean.setMapperLocations(mapperLocations);
+        sqlSessionFactory = factoryBean.getObject();
+        log.info("日志专用数据源SqlSessionFactory初始化完成");
+    }
+
+    /**
+     * 打开BATCH执行器的会话，需要调用方提交
+     */
+    public SqlSession openBatchSession() {
+        return sqlSessionFactory.openSession(ExecutorType.BATCH, false);
+    }
+}
@@ -7,6 +7,7 @@ import java.lang.reflect.Method;
 import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
@@ -19,6 +20,9 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -233,6 +237,27 @@ public class CacheConfig extends CachingConfigurerSupport {
         return memoryCache;
     }
 
+    /**
+     * 近端缓存失效消息监听容器
+     * 订阅失效频道，将其他节点发布的失效消息交给统一缓存管理器移除本地L1条目
+     * 仅在 spring.cache.near-cache.enabled=true 时创建
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.cache.near-cache", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer nearCacheInvalidationContainer(RedisConnectionFactory factory,
+            RedisTemplate<String, Object> redisTemplate, UnifiedCacheManager unifiedCacheManager) {
+        MessageListenerAdapter listenerAdapter = new MessageListenerAdapter(unifiedCacheManager, "handleInvalidation");
+        // 与发布端RedisTemplate使用相同的值序列化器
+        listenerAdapter.setSerializer(redisTemplate.getValueSerializer());
+        listenerAdapter.afterPropertiesSet();
+        
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(listenerAdapter, new ChannelTopic(unifiedCacheManager.getInvalidationChannel()));
+        log.info("近端缓存已启用，订阅失效频道: {}", unifiedCacheManager.getInvalidationChannel());
+        return container;
+    }
+
     /**
      * 高可用缓存服务配置（通过自动装配配置）
      * CacheService类本身有@Component注解，这里不需要再定义@Bean
@@ -73,6 +73,15 @@ public class LogConfig implements InitializingBean {
         if (auditLogAppender == null) {
             synchronized (this) {
                 if (auditLogAppender == null) {
+                    ch.qos.logback.classic.Logger auditLogger = 
+                        (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("AUDIT_LOG");
+                    // logback-spring.xml已注册时直接复用，避免同一事件被两个Appender重复处理
+                    if (auditLogger.getAppender("AUDIT_LOG_APPENDER") instanceof AuditLogAppender) {
+                        auditLogAppender = (AuditLogAppender) auditLogger.getAppender("AUDIT_LOG_APPENDER");
+                        log.info("[LOG_CONFIG] Reusing AuditLogAppender registered by logback configuration");
+                        return auditLogAppender;
+                    }
+                    
                     log.info("[LOG_CONFIG] Creating new AuditLogAppender instance");
                     auditLogAppender = new AuditLogAppender();
                     auditLogAppender.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
@@ -88,8 +97,6 @@ public class LogConfig implements InitializingBean {
                     log.info("[LOG_CONFIG] AuditLogAppender started");
                     
                     // 注册到审计日志记录器
-                    ch.qos.logback.classic.Logger auditLogger = 
-                        (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("AUDIT_LOG");
                     auditLogger.addAppender(auditLogAppender);
                     log.info("[LOG_CONFIG] AuditLogAppender registered to AUDIT_LOG logger");
                 }
@@ -1,6 +1,7 @@
 package com.bing.framework.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,6 +9,9 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 // HikariCP相关导入
 import com.zaxxer.hikari.HikariDataSource;
@@ -153,6 +157,12 @@ public class OptimizedDataSourceConfig {
             // 连接池名称
             setPoolName("AuditHikariPool");
             
+            // 批量写入优化：驱动将BATCH执行器提交的同一条插入语句改写为多行插入，并缓存预编译语句
+            addDataSourceProperty("rewriteBatchedStatements", "true");
+            addDataSourceProperty("cachePrepStmts", "true");
+            addDataSourceProperty("prepStmtCacheSize", "250");
+            addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            
             log.info("审计日志数据源配置完成");
         }
     }
@@ -161,8 +171,12 @@ public class OptimizedDataSourceConfig {
      * 数据源监控指标配置
      */
     @Bean
-    public DataSourceMonitor dataSourceMonitor() {
-        return new DataSourceMonitor();
+    public DataSourceMonitor dataSourceMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("auditDataSource") DataSource auditDataSource) {
+        DataSourceMonitor monitor = new DataSourceMonitor();
+        monitor.register(DataSourceMonitor.PRIMARY_POOL, primaryDataSource);
+        monitor.register(DataSourceMonitor.AUDIT_POOL, auditDataSource);
+        return monitor;
     }
     
     /**
@@ -170,6 +184,41 @@ public class OptimizedDataSourceConfig {
      */
     public static class DataSourceMonitor {
         
+        public static final String PRIMARY_POOL = "primary";
+        public static final String AUDIT_POOL = "audit";
+        
+        // 已注册的数据源，在配置阶段注册
+        private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        
+        /**
+         * 注册需要监控的数据源
+         */
+        public void register(String name, DataSource dataSource) {
+            dataSources.put(name, dataSource);
+        }
+        
+        /**
+         * 获取指定名称的连接池统计信息
+         */
+        public PoolStatistics getPoolStatistics(String name) {
+            DataSource dataSource = dataSources.get(name);
+            return dataSource != null ? getPoolStatistics(dataSource) : null;
+        }
+        
+        /**
+         * 获取所有已注册连接池的统计信息
+         */
+        public Map<String, PoolStatistics> getAllPoolStatistics() {
+            Map<String, PoolStatistics> statistics = new LinkedHashMap<>();
+            dataSources.forEach((name, dataSource) -> {
+                PoolStatistics poolStatistics = getPoolStatistics(dataSource);
+                if (poolStatistics != null) {
+                    statistics.put(name, poolStatistics);
+                }
+            });
+            return Collections.unmodifiableMap(statistics);
+        }
+        
         /**
          * 获取连接池统计信息
          */
@@ -177,6 +226,10 @@ public class OptimizedDataSourceConfig {
             if (dataSource instanceof HikariDataSource) {
                 HikariDataSource hikariDS = (HikariDataSource) dataSource;
                 HikariPoolMXBean poolBean = hikariDS.getHikariPoolMXBean();
+                if (poolBean == null) {
+                    // 连接池尚未启动
+                    return null;
+                }
                 
                 return new PoolStatistics(
                     poolBean.getActiveConnections(),
@@ -279,6 +332,20 @@ public class OptimizedDataSourceConfig {
             public double getConnectionUsageRate() { return connectionUsageRate; }
             public int getHealthScore() { return healthScore; }
             
+            /**
+             * 获取饱和度，活跃连接数占最大连接数的比例
+             */
+            public double getSaturationRate() {
+                return maximumPoolSize > 0 ? (double) activeConnections / maximumPoolSize : 0.0;
+            }
+            
+            /**
+             * 连接池是否已饱和：连接已全部占用或有线程在等待连接
+             */
+            public boolean isSaturated() {
+                return threadsAwaitingConnection > 0 || activeConnections >= maximumPoolSize;
+            }
+            
             /**
              * 获取优化建议
              */
@@ -290,6 +357,11 @@ public class OptimizedDataSourceConfig {
                              .append(")，建议增加maximumPoolSize或优化慢查询。");
                 }
                 
+                if (isSaturated()) {
+                    suggestions.append("连接池已饱和(").append(activeConnections).append("/").append(maximumPoolSize)
+                             .append(")，请求需要等待连接。");
+                }
+                
                 if (threadsAwaitingConnection > 0) {
                     suggestions.append("存在").append(threadsAwaitingConnection).append("个线程等待连接，建议优化连接池配置或增加连接池大小。");
                 }
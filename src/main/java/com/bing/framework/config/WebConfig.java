@@ -1,9 +1,18 @@
 package com.bing.framework.config;
 
 import com.bing.framework.interceptor.JwtInterceptor;
+import com.bing.framework.interceptor.RateLimitInterceptor;
 import com.bing.framework.interceptor.UserContextCleanupInterceptor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -15,11 +24,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * @date 2025-11-05
  */
 @Configuration
+@Slf4j
 public class WebConfig implements WebMvcConfigurer {
 
     @Autowired
     private JwtInterceptor jwtInterceptor;
 
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         
@@ -32,8 +45,33 @@ public class WebConfig implements WebMvcConfigurer {
                         "/v2/api-docs", "/doc.html", "/knife4j/**", "/swagger-ui/**",
                         "/v3/api-docs/**", "/swagger-ui.html","/favicon.ico","/error");
         
+        // 注册限流拦截器，在JWT拦截器之后执行，以便按用户限流
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/api/**");
+        
         // 注册用户上下文清理拦截器，应用于所有请求
         registry.addInterceptor(new UserContextCleanupInterceptor())
                 .addPathPatterns("/**");
     }
+
+    /**
+     * 会话撤销通知监听容器
+     * 订阅会话撤销频道，其他节点撤销会话时由JWT拦截器清除本地会话校验缓存
+     * 本地缓存关闭（jwt.session-cache.ttl-seconds=0）时不需要订阅
+     */
+    @Bean
+    @ConditionalOnExpression("${jwt.session-cache.ttl-seconds:5} > 0")
+    public RedisMessageListenerContainer sessionRevocationContainer(RedisConnectionFactory factory,
+            RedisTemplate<String, Object> redisTemplate) {
+        MessageListenerAdapter listenerAdapter = new MessageListenerAdapter(jwtInterceptor, "handleSessionRevoked");
+        // 与发布端RedisTemplate使用相同的值序列化器
+        listenerAdapter.setSerializer(redisTemplate.getValueSerializer());
+        listenerAdapter.afterPropertiesSet();
+        
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(listenerAdapter, new ChannelTopic(jwtInterceptor.getSessionRevokedChannel()));
+        log.info("订阅会话撤销频道: {}", jwtInterceptor.getSessionRevokedChannel());
+        return container;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.bing.framework.controller;
 
+import com.bing.framework.aspect.AuditCapturePolicy;
 import com.bing.framework.config.AuditLogConfigProperties;
 import com.bing.framework.config.AuditLogDynamicConfigManager;
+import com.bing.framework.config.OptimizedDataSourceConfig.DataSourceMonitor;
+import com.bing.framework.util.AuditLogAppender;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -40,6 +43,12 @@ public class AuditLogConfigController {
     @Autowired
     private AuditLogDynamicConfigManager configManager;
     
+    @Autowired
+    private DataSourceMonitor dataSourceMonitor;
+    
+    @Autowired
+    private AuditCapturePolicy capturePolicy;
+    
     /**
      * 创建错误响应（Java 8兼容）
      */
@@ -277,6 +286,63 @@ public class AuditLogConfigController {
         }
     }
     
+    /**
+     * 获取连接池统计信息
+     */
+    @GetMapping("/pool-statistics")
+    @ApiOperation(value = "获取连接池统计信息", notes = "获取审计日志专用连接池和主连接池的活跃连接、等待线程、饱和度等指标")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "获取统计信息成功"),
+        @ApiResponse(code = 500, message = "系统内部错误")
+    })
+    public ResponseEntity<?> getPoolStatistics() {
+        try {
+            return ResponseEntity.ok(createSuccessResponse(dataSourceMonitor.getAllPoolStatistics()));
+        } catch (Exception e) {
+            log.error("获取连接池统计信息失败", e);
+            return ResponseEntity.internalServerError()
+                    .body(createErrorResponse("获取统计信息失败", e.getMessage()));
+        }
+    }
+    
+    /**
+     * 获取审计采集统计信息
+     */
+    @GetMapping("/capture-statistics")
+    @ApiOperation(value = "获取审计采集统计信息", notes = "获取按采集策略记录、采样跳过和频率限制跳过的审计请求数量")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "获取统计信息成功"),
+        @ApiResponse(code = 500, message = "系统内部错误")
+    })
+    public ResponseEntity<?> getCaptureStatistics() {
+        try {
+            return ResponseEntity.ok(createSuccessResponse(capturePolicy.getStatistics()));
+        } catch (Exception e) {
+            log.error("获取审计采集统计信息失败", e);
+            return ResponseEntity.internalServerError()
+                    .body(createErrorResponse("获取统计信息失败", e.getMessage()));
+        }
+    }
+    
+    /**
+     * 获取审计日志Appender统计信息
+     */
+    @GetMapping("/appender-statistics")
+    @ApiOperation(value = "获取审计日志Appender统计信息", notes = "获取AUDIT_LOG Appender的队列深度、丢弃数量、转存数量和交接延迟")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "获取统计信息成功"),
+        @ApiResponse(code = 500, message = "系统内部错误")
+    })
+    public ResponseEntity<?> getAppenderStatistics() {
+        try {
+            return ResponseEntity.ok(createSuccessResponse(AuditLogAppender.getRunningStatistics()));
+        } catch (Exception e) {
+            log.error("获取审计日志Appender统计信息失败", e);
+            return ResponseEntity.internalServerError()
+                    .body(createErrorResponse("获取统计信息失败", e.getMessage()));
+        }
+    }
+    
     /**
      * 检查是否有未同步的配置变更
      */
@@ -486,16 +552,74 @@ public class AuditLogConfigController {
         if (configMap.containsKey("batchSize")) {
             config.setBatchSize(getInt(configMap.get("batchSize")));
         }
+        if (configMap.containsKey("adaptiveBatchEnabled")) {
+            config.setAdaptiveBatchEnabled(getBoolean(configMap.get("adaptiveBatchEnabled")));
+        }
+        if (configMap.containsKey("maxBatchSize")) {
+            config.setMaxBatchSize(getInt(configMap.get("maxBatchSize")));
+        }
+        if (configMap.containsKey("targetBatchLatency")) {
+            config.setTargetBatchLatency(getInt(configMap.get("targetBatchLatency")));
+        }
         if (configMap.containsKey("flushInterval")) {
             config.setFlushInterval(getInt(configMap.get("flushInterval")));
         }
         if (configMap.containsKey("bufferQueueSize")) {
             config.setBufferQueueSize(getInt(configMap.get("bufferQueueSize")));
         }
+        if (configMap.containsKey("waitStrategy")) {
+            config.setWaitStrategy(getString(configMap.get("waitStrategy")));
+        }
         if (configMap.containsKey("auditLevel")) {
             config.setAuditLevel(getString(configMap.get("auditLevel")));
         }
         
+        // 采集策略配置
+        if (configMap.containsKey("defaultSampleRate")) {
+            config.setDefaultSampleRate(getDouble(configMap.get("defaultSampleRate")));
+        }
+        if (configMap.containsKey("moduleSampleRates")) {
+            config.setModuleSampleRates(getRateMap(configMap.get("moduleSampleRates")));
+        }
+        if (configMap.containsKey("operationSampleRates")) {
+            config.setOperationSampleRates(getRateMap(configMap.get("operationSampleRates")));
+        }
+        if (configMap.containsKey("alwaysCaptureWrites")) {
+            config.setAlwaysCaptureWrites(getBoolean(configMap.get("alwaysCaptureWrites")));
+        }
+        if (configMap.containsKey("alwaysCaptureFailures")) {
+            config.setAlwaysCaptureFailures(getBoolean(configMap.get("alwaysCaptureFailures")));
+        }
+        if (configMap.containsKey("userCaptureRateLimit")) {
+            config.setUserCaptureRateLimit(getInt(configMap.get("userCaptureRateLimit")));
+        }
+        if (configMap.containsKey("ipCaptureRateLimit")) {
+            config.setIpCaptureRateLimit(getInt(configMap.get("ipCaptureRateLimit")));
+        }
+        
+        // 分区与归档配置
+        if (configMap.containsKey("retentionDays")) {
+            config.setRetentionDays(getInt(configMap.get("retentionDays")));
+        }
+        if (configMap.containsKey("loginRecordRetentionDays")) {
+            config.setLoginRecordRetentionDays(getInt(configMap.get("loginRecordRetentionDays")));
+        }
+        if (configMap.containsKey("partitionEnabled")) {
+            config.setPartitionEnabled(getBoolean(configMap.get("partitionEnabled")));
+        }
+        if (configMap.containsKey("partitionGranularity")) {
+            config.setPartitionGranularity(getString(configMap.get("partitionGranularity")));
+        }
+        if (configMap.containsKey("partitionPrecreateCount")) {
+            config.setPartitionPrecreateCount(getInt(configMap.get("partitionPrecreateCount")));
+        }
+        if (configMap.containsKey("archiveEnabled")) {
+            config.setArchiveEnabled(getBoolean(configMap.get("archiveEnabled")));
+        }
+        if (configMap.containsKey("archiveDir")) {
+            config.setArchiveDir(getString(configMap.get("archiveDir")));
+        }
+        
         // 线程池配置
         if (configMap.containsKey("threadPoolCoreSize")) {
             config.setThreadPoolCoreSize(getInt(configMap.get("threadPoolCoreSize")));
@@ -596,6 +720,38 @@ public class AuditLogConfigController {
         return 0L;
     }
     
+    /**
+     * 获取浮点数值
+     */
+    private double getDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+        return 0.0;
+    }
+    
+    /**
+     * 获取采样率映射
+     */
+    private Map<String, Double> getRateMap(Object value) {
+        Map<String, Double> rates = new HashMap<>();
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getKey() != null) {
+                    rates.put(entry.getKey().toString(), getDouble(entry.getValue()));
+                }
+            }
+        }
+        return rates;
+    }
+    
     /**
      * 获取字符串值
      */
@@ -627,13 +783,29 @@ public class AuditLogConfigController {
         config.setEnabled(true);
         config.setAsyncEnabled(true);
         config.setBatchSize(100);
+        config.setAdaptiveBatchEnabled(true);
+        config.setMaxBatchSize(1000);
+        config.setTargetBatchLatency(200);
         config.setFlushInterval(5000);
         config.setBufferQueueSize(1000);
+        config.setWaitStrategy("BLOCKING");
         config.setThreadPoolCoreSize(5);
         config.setThreadPoolMaxSize(20);
         config.setThreadPoolQueueCapacity(500);
         config.setThreadPoolKeepAliveTime(60);
         config.setAuditLevel("INFO");
+        config.setDefaultSampleRate(1.0);
+        config.setAlwaysCaptureWrites(true);
+        config.setAlwaysCaptureFailures(true);
+        config.setUserCaptureRateLimit(0);
+        config.setIpCaptureRateLimit(0);
+        config.setRetentionDays(30);
+        config.setLoginRecordRetentionDays(90);
+        config.setPartitionEnabled(true);
+        config.setPartitionGranularity("DAY");
+        config.setPartitionPrecreateCount(7);
+        config.setArchiveEnabled(true);
+        config.setArchiveDir("data/audit-archive");
         config.setExceptionHandlingEnabled(true);
         config.setExceptionRetryTimes(3);
         config.setExceptionRetryInterval(1000);
@@ -0,0 +1,103 @@
+package com.bing.framework.controller;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.bing.framework.annotation.AuditLogLevel;
+import com.bing.framework.common.ErrorCode;
+import com.bing.framework.common.Result;
+import com.bing.framework.dto.AuditLogQueryDTO;
+import com.bing.framework.exception.BusinessException;
+import com.bing.framework.service.AuditLogService;
+import com.bing.framework.util.AuditLogExportWriter;
+
+/**
+ * 审计日志控制器
+ * 提供审计日志的键集分页查询和流式导出接口
+ * 查询按(操作时间, ID)倒序翻页，翻页深度不影响查询耗时；导出直接写入响应输出流，支持CSV和NDJSON格式
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Api(tags = "审计日志管理")
+@RestController
+@RequestMapping("/api/audit-log")
+@AuditLogLevel(module = "审计日志", value = AuditLogLevel.Level.BASIC)
+@Slf4j
+public class AuditLogController {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    /**
+     * 键集分页查询审计日志
+     *
+     * @param queryDTO 查询条件
+     * @return 分页结果
+     */
+    @ApiOperation(value = "查询审计日志", notes = "按用户、模块、操作类型、时间范围筛选，第一页不传lastOperationTime和lastId，之后传入上一页返回的nextOperationTime和nextId")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "查询成功"),
+        @ApiResponse(code = 500, message = "查询失败")
+    })
+    @PostMapping("/query")
+    public Result<?> queryAuditLogs(@ApiParam(name = "queryDTO", value = "查询条件", required = true) @RequestBody AuditLogQueryDTO queryDTO) {
+        try {
+            return Result.success(auditLogService.queryAuditLogs(queryDTO));
+        } catch (Exception e) {
+            log.error("查询审计日志失败：{}", e.getMessage(), e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR);
+        }
+    }
+
+    /**
+     * 流式导出审计日志
+     *
+     * @param format 导出格式
+     * @param queryDTO 查询条件
+     * @param response HTTP响应
+     * @throws IOException 写入响应失败
+     */
+    @ApiOperation(value = "导出审计日志", notes = "按查询条件导出全部匹配的审计日志，支持csv和ndjson格式，结果逐行写入响应")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "导出成功"),
+        @ApiResponse(code = 400, message = "不支持的导出格式"),
+        @ApiResponse(code = 500, message = "导出任务过多或导出失败")
+    })
+    @PostMapping("/export")
+    @AuditLogLevel(value = AuditLogLevel.Level.FULL, description = "导出审计日志")
+    public void exportAuditLogs(
+            @ApiParam(name = "format", value = "导出格式：csv或ndjson，默认csv", defaultValue = "csv") @RequestParam(defaultValue = "csv") String format,
+            @ApiParam(name = "queryDTO", value = "查询条件", required = true) @RequestBody AuditLogQueryDTO queryDTO,
+            HttpServletResponse response) throws IOException {
+        AuditLogExportWriter.Format exportFormat = AuditLogExportWriter.Format.parse(format);
+        if (exportFormat == null) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "不支持的导出格式：" + format);
+        }
+        String fileName = "audit_log_" + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date())
+                + "." + exportFormat.getExtension();
+        auditLogService.exportAuditLogs(queryDTO, exportFormat, () -> {
+            response.setContentType(exportFormat.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader("Content-Disposition",
+                    "attachment; filename=" + URLEncoder.encode(fileName, StandardCharsets.UTF_8.name()));
+            return response.getOutputStream();
+        });
+    }
+}
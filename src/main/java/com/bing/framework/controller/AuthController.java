@@ -3,12 +3,12 @@ package com.bing.framework.controller;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +22,7 @@ import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 
 import com.bing.framework.annotation.AuditLogLevel;
+import com.bing.framework.annotation.RateLimit;
 import com.bing.framework.common.ErrorCode;
 import com.bing.framework.common.Result;
 import com.bing.framework.config.CaptchaConfig;
@@ -34,12 +35,15 @@ import com.bing.framework.entity.LoginRecord;
 import com.bing.framework.entity.Role;
 import com.bing.framework.entity.User;
 import com.bing.framework.exception.BusinessException;
+import com.bing.framework.security.SessionRevokedEvent;
 import com.bing.framework.service.LoginRecordService;
 import com.bing.framework.service.RoleService;
 import com.bing.framework.service.UserService;
 import com.bing.framework.strategy.CaptchaStrategyFactory;
 import com.bing.framework.util.JwtUtil;
 import com.bing.framework.util.RedisUtil;
+import com.bing.framework.util.RefreshTokenStore;
+import com.bing.framework.util.VerifiedToken;
 
 /**
  * 认证控制器
@@ -62,7 +66,6 @@ public class AuthController {
     
     private static final String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
     private static final String USER_TOKEN_PREFIX = "user:token:";
-    private static final String REFRESH_TOKEN_PREFIX = "refresh:token:";
     private static final String LOGIN_FAILURE_COUNT_PREFIX = "login:failure:count:";
 
     @Autowired
@@ -80,6 +83,12 @@ public class AuthController {
     @Autowired
     private RedisUtil redisUtil;
     
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Autowired
     private CaptchaStrategyFactory captchaStrategyFactory;
     
@@ -107,6 +116,7 @@ public class AuthController {
         @ApiResponse(code = 500, message = "登录失败")
     })
     @PostMapping("/login")
+    @RateLimit(permitsPerSecond = 0.5, burst = 10, key = RateLimit.KeyType.IP, mode = RateLimit.Mode.REDIS)
     public Result<LoginResponse> login(@ApiParam(name = "loginRequest", value = "登录请求数据", required = true) @Validated @RequestBody LoginRequest loginRequest) {
         // 验证码验证
         validateCaptcha(loginRequest);
@@ -193,22 +203,13 @@ public class AuthController {
         if (accessToken != null && jwtUtil.validateToken(accessToken)) {
             log.info("从缓存获取到有效的访问令牌，用户ID: {}", user.getId());
             
-            // 查找对应的刷新令牌
-            Set<String> keys = redisUtil.getKeysByPattern(REFRESH_TOKEN_PREFIX + "*");
-            if (keys != null) {
-                for (String key : keys) {
-                    if (user.getId().equals(redisUtil.get(key))) {
-                        refreshToken = key.substring(REFRESH_TOKEN_PREFIX.length());
-                        break;
-                    }
-                }
-            }
+            // 从用户的刷新令牌索引中查找对应的刷新令牌
+            refreshToken = refreshTokenStore.findActive(user.getId());
             
             // 如果找不到刷新令牌或刷新令牌无效，重新生成
-            if (refreshToken == null || !jwtUtil.validateRefreshToken(refreshToken)) {
+            if (refreshToken == null) {
                 refreshToken = jwtUtil.generateRefreshToken(user.getId(), user.getUsername());
-                String refreshTokenKey = REFRESH_TOKEN_PREFIX + refreshToken;
-                redisUtil.set(refreshTokenKey, user.getId(), jwtUtil.getRefreshExpiration(), TimeUnit.HOURS);
+                refreshTokenStore.save(user.getId(), refreshToken);
                 log.info("刷新令牌不存在或无效，重新生成，用户ID: {}", user.getId());
             }
         } else {
@@ -218,10 +219,10 @@ public class AuthController {
             
             // 将访问令牌保存到Redis，设置过期时间
             redisUtil.set(userTokenKey, accessToken, jwtExpiration, TimeUnit.HOURS);
+            eventPublisher.publishEvent(new SessionRevokedEvent(this, user.getId()));
             
-            // 将刷新令牌保存到Redis，设置过期时间
-            String refreshTokenKey = REFRESH_TOKEN_PREFIX + refreshToken;
-            redisUtil.set(refreshTokenKey, user.getId(), jwtUtil.getRefreshExpiration(), TimeUnit.HOURS);
+            // 将刷新令牌保存到Redis并加入用户索引，设置过期时间
+            refreshTokenStore.save(user.getId(), refreshToken);
             
             log.info("生成新的访问令牌和刷新令牌，用户ID: {}", user.getId());
         }
@@ -266,6 +267,7 @@ public class AuthController {
         @ApiResponse(code = 500, message = "注册失败")
     })
     @PostMapping("/register")
+    @RateLimit(permitsPerSecond = 0.1, burst = 3, key = RateLimit.KeyType.IP, mode = RateLimit.Mode.REDIS)
     public Result<?> register(@ApiParam(name = "registerRequest", value = "注册请求数据", required = true) @Validated @RequestBody RegisterRequest registerRequest) {
         // 检查用户名是否已存在
         User existingUser = userService.getUserByUsername(registerRequest.getUsername());
@@ -364,6 +366,10 @@ public class AuthController {
             String userTokenKey = USER_TOKEN_PREFIX + userId;
             redisUtil.delete(userTokenKey);
             
+            // 撤销用户的全部刷新令牌
+            refreshTokenStore.revokeAll(userId);
+            eventPublisher.publishEvent(new SessionRevokedEvent(this, userId));
+            
             log.info("用户注销成功，用户ID: {}, 用户名: {}", userId, username);
             
             // 清理用户上下文信息
@@ -389,31 +395,37 @@ public class AuthController {
         @ApiResponse(code = 500, message = "刷新失败")
     })
     @PostMapping("/refresh")
+    @RateLimit(permitsPerSecond = 1, burst = 10, key = RateLimit.KeyType.IP)
     public Result<LoginResponse> refreshToken(@ApiParam(name = "refreshToken", value = "刷新令牌", required = true) @RequestParam String refreshToken) {
         try {
             // 验证刷新令牌是否有效
-            if (!jwtUtil.validateRefreshToken(refreshToken)) {
+            VerifiedToken verified;
+            try {
+                verified = jwtUtil.verify(refreshToken);
+            } catch (Exception e) {
+                verified = null;
+            }
+            if (verified == null || verified.isExpired() || !verified.isRefreshToken()) {
                 log.info("Invalid refresh token");
                 throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
             }
             
             // 检查刷新令牌是否在Redis中存在
-            String refreshTokenKey = REFRESH_TOKEN_PREFIX + refreshToken;
-            if (!redisUtil.hasKey(refreshTokenKey)) {
+            if (!refreshTokenStore.exists(refreshToken)) {
                 log.info("Refresh token not found in Redis");
                 throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
             }
             
             // 从刷新令牌中获取用户信息
-            Long userId = jwtUtil.getUserIdFromToken(refreshToken);
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
+            Long userId = verified.getUserId();
+            String username = verified.getUsername();
             
             // 验证用户是否存在
             User user = userService.getUserById(userId);
             if (user == null || user.getStatus() == 0) {
                 log.info("User not found or disabled");
                 // 删除无效的刷新令牌
-                redisUtil.delete(refreshTokenKey);
+                refreshTokenStore.remove(userId, refreshToken);
                 throw new BusinessException(ErrorCode.USER_NOT_FOUND);
             }
             
@@ -423,6 +435,7 @@ public class AuthController {
             // 更新Redis中的访问令牌
             String userTokenKey = USER_TOKEN_PREFIX + userId;
             redisUtil.set(userTokenKey, newAccessToken, jwtExpiration, TimeUnit.HOURS);
+            eventPublisher.publishEvent(new SessionRevokedEvent(this, userId));
             
             // 获取用户角色列表
             List<Role> roles = roleService.getRolesByUserId(userId);
@@ -18,6 +18,7 @@ import io.swagger.annotations.ApiResponses;
 
 import lombok.extern.slf4j.Slf4j;
 
+import com.bing.framework.annotation.RateLimit;
 import com.bing.framework.common.ErrorCode;
 import com.bing.framework.common.Result;
 import com.bing.framework.config.CaptchaConfig;
@@ -58,6 +59,7 @@ public class CaptchaController {
         @ApiResponse(code = 500, message = "验证码生成失败")
     })
     @GetMapping("/generate/{type}")
+    @RateLimit(name = "captcha.generate", permitsPerSecond = 2, burst = 10, key = RateLimit.KeyType.IP)
     public Result<CaptchaResult> generateCaptcha(
             @ApiParam(value = "验证码类型", required = true, example = "image")
             @PathVariable String type) {
@@ -102,6 +104,7 @@ public class CaptchaController {
         @ApiResponse(code = 500, message = "验证码刷新失败")
     })
     @GetMapping("/refresh/{type}")
+    @RateLimit(name = "captcha.generate", permitsPerSecond = 2, burst = 10, key = RateLimit.KeyType.IP)
     public Result<CaptchaResult> refreshCaptcha(
             @ApiParam(value = "验证码类型", required = true, example = "image")
             @PathVariable String type) {
@@ -123,6 +126,7 @@ public class CaptchaController {
         @ApiResponse(code = 500, message = "验证码生成失败")
     })
     @GetMapping("/generate")
+    @RateLimit(name = "captcha.generate", permitsPerSecond = 2, burst = 10, key = RateLimit.KeyType.IP)
     public Result<CaptchaResult> generateDefaultCaptcha() {
         String defaultType = captchaConfig.getDefaultType();
         return generateCaptcha(defaultType);
@@ -140,6 +144,7 @@ public class CaptchaController {
         @ApiResponse(code = 500, message = "验证码刷新失败")
     })
     @GetMapping("/refresh")
+    @RateLimit(name = "captcha.generate", permitsPerSecond = 2, burst = 10, key = RateLimit.KeyType.IP)
     public Result<CaptchaResult> refreshDefaultCaptcha() {
         return generateDefaultCaptcha();
     }
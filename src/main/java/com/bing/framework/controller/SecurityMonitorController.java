@@ -0,0 +1,101 @@
+package com.bing.framework.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+import com.bing.framework.common.Result;
+import com.bing.framework.entity.SecurityEventRecord;
+import com.bing.framework.ratelimit.RateLimiter;
+import com.bing.framework.security.AccessPatternDetector;
+import com.bing.framework.security.SecurityEventPipeline;
+import com.bing.framework.security.TokenRevocationStore;
+
+/**
+ * 安全监控控制器
+ * 提供限流、访问模式检测、令牌撤销和安全事件管道的运行统计，以及最近安全事件的查询
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Api(tags = "安全监控")
+@RestController
+@RequestMapping("/api/security/monitor")
+public class SecurityMonitorController {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private AccessPatternDetector accessPatternDetector;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private SecurityEventPipeline securityEventPipeline;
+
+    /**
+     * 单次查询最近安全事件的最大数量
+     */
+    private static final int MAX_RECENT_EVENTS = 500;
+
+    /**
+     * 获取限流统计信息
+     */
+    @ApiOperation(value = "获取限流统计信息", notes = "按限流规则返回放行和拒绝的请求数、本地令牌桶数量，以及Redis限流失败次数")
+    @GetMapping("/rate-limit")
+    public Result<Map<String, Object>> getRateLimitStatistics() {
+        return Result.success(rateLimiter.getStatistics());
+    }
+
+    /**
+     * 获取访问模式检测统计信息
+     */
+    @ApiOperation(value = "获取访问模式检测统计信息", notes = "返回跟踪的IP数量、记录次数、未跟踪和已移除的IP数量")
+    @GetMapping("/access-pattern")
+    public Result<Map<String, Object>> getAccessPatternStatistics() {
+        return Result.success(accessPatternDetector.getStatistics());
+    }
+
+    /**
+     * 获取令牌撤销统计信息
+     */
+    @ApiOperation(value = "获取令牌撤销统计信息", notes = "返回撤销检查次数、布隆过滤器跳过Redis的次数和撤销次数")
+    @GetMapping("/token-revocation")
+    public Result<Map<String, Object>> getTokenRevocationStatistics() {
+        return Result.success(tokenRevocationStore.getStatistics());
+    }
+
+    /**
+     * 查询最近的安全事件
+     */
+    @ApiOperation(value = "查询最近的安全事件", notes = "从内存中的最近事件索引按时间倒序查询已合并的安全事件，条件为空时不过滤")
+    @GetMapping("/events/recent")
+    public Result<List<SecurityEventRecord>> getRecentEvents(
+            @ApiParam(value = "用户ID") @RequestParam(required = false) Long userId,
+            @ApiParam(value = "客户端IP") @RequestParam(required = false) String clientIp,
+            @ApiParam(value = "事件类型") @RequestParam(required = false) String eventType,
+            @ApiParam(value = "最多返回的记录数", defaultValue = "50") @RequestParam(defaultValue = "50") Integer limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_RECENT_EVENTS);
+        return Result.success(securityEventPipeline.getRecentEvents(userId, clientIp, eventType, size));
+    }
+
+    /**
+     * 获取安全事件管道统计信息
+     */
+    @ApiOperation(value = "获取安全事件管道统计信息", notes = "返回入队、丢弃、合并和写入的事件数，以及缓冲区使用情况")
+    @GetMapping("/events/statistics")
+    public Result<Map<String, Object>> getSecurityEventStatistics() {
+        return Result.success(securityEventPipeline.getStatistics());
+    }
+}
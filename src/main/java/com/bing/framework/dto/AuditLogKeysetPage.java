@@ -0,0 +1,50 @@
+package com.bing.framework.dto;
+
+import com.bing.framework.entity.AuditLog;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 审计日志键集分页结果
+ * hasMore为true时，将nextOperationTime和nextId作为下一页查询的lastOperationTime和lastId
+ * 
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Data
+@ApiModel(value = "AuditLogKeysetPage", description = "审计日志键集分页结果")
+public class AuditLogKeysetPage {
+
+    /**
+     * 本页记录
+     */
+    @ApiModelProperty(value = "本页记录")
+    private List<AuditLog> records;
+
+    /**
+     * 每页数量
+     */
+    @ApiModelProperty(value = "每页数量")
+    private Integer size;
+
+    /**
+     * 是否还有下一页
+     */
+    @ApiModelProperty(value = "是否还有下一页")
+    private Boolean hasMore;
+
+    /**
+     * 下一页查询使用的操作时间
+     */
+    @ApiModelProperty(value = "下一页查询使用的操作时间")
+    private Date nextOperationTime;
+
+    /**
+     * 下一页查询使用的ID
+     */
+    @ApiModelProperty(value = "下一页查询使用的ID")
+    private Long nextId;
+}
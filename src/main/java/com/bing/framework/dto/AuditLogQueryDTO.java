@@ -0,0 +1,80 @@
+package com.bing.framework.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import java.util.Date;
+
+/**
+ * 审计日志查询DTO
+ * 用于封装审计日志的查询条件，按(操作时间, ID)倒序做键集分页：
+ * 第一页不传lastOperationTime和lastId，之后每页传入上一页返回的nextOperationTime和nextId
+ * 导出时使用相同的筛选条件
+ * 
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Data
+@ApiModel(value = "AuditLogQueryDTO", description = "审计日志查询条件")
+public class AuditLogQueryDTO {
+
+    /**
+     * 操作用户ID
+     */
+    @ApiModelProperty(value = "操作用户ID")
+    private Long userId;
+
+    /**
+     * 操作用户名
+     */
+    @ApiModelProperty(value = "操作用户名")
+    private String username;
+
+    /**
+     * 操作模块
+     */
+    @ApiModelProperty(value = "操作模块")
+    private String module;
+
+    /**
+     * 操作类型
+     */
+    @ApiModelProperty(value = "操作类型（查询、新增、修改、删除等）")
+    private String operationType;
+
+    /**
+     * 操作结果
+     */
+    @ApiModelProperty(value = "操作结果（成功/失败）")
+    private String result;
+
+    /**
+     * 开始时间（包含）
+     */
+    @ApiModelProperty(value = "开始时间（包含）")
+    private Date startTime;
+
+    /**
+     * 结束时间（包含）
+     */
+    @ApiModelProperty(value = "结束时间（包含）")
+    private Date endTime;
+
+    /**
+     * 上一页最后一条记录的操作时间
+     */
+    @ApiModelProperty(value = "上一页最后一条记录的操作时间，第一页不传")
+    private Date lastOperationTime;
+
+    /**
+     * 上一页最后一条记录的ID
+     */
+    @ApiModelProperty(value = "上一页最后一条记录的ID，第一页不传")
+    private Long lastId;
+
+    /**
+     * 每页数量
+     */
+    @ApiModelProperty(value = "每页数量")
+    private Integer size;
+}
@@ -0,0 +1,84 @@
+package com.bing.framework.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import java.util.Date;
+
+/**
+ * 安全事件记录实体类
+ * 对应数据库security_event表，同一用户、IP和事件类型在一个合并窗口内的重复事件合并为一条记录
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Data
+@TableName("security_event")
+public class SecurityEventRecord {
+    /**
+     * 主键ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 客户端IP
+     */
+    private String clientIp;
+
+    /**
+     * 用户代理（窗口内最后一次）
+     */
+    private String userAgent;
+
+    /**
+     * 设备ID（窗口内最后一次）
+     */
+    private String deviceId;
+
+    /**
+     * 请求路径（窗口内最后一次）
+     */
+    private String requestPath;
+
+    /**
+     * HTTP方法（窗口内最后一次）
+     */
+    private String method;
+
+    /**
+     * 额外信息（窗口内最后一次）
+     */
+    private String details;
+
+    /**
+     * 合并的事件数
+     */
+    private Integer eventCount;
+
+    /**
+     * 窗口内首次发生时间
+     */
+    private Date firstTime;
+
+    /**
+     * 窗口内最后发生时间
+     */
+    private Date lastTime;
+}
@@ -2,13 +2,14 @@ package com.bing.framework.interceptor;
 
 import com.bing.framework.common.ErrorCode;
 import com.bing.framework.exception.BusinessException;
+import com.bing.framework.security.AccessPatternDetector;
 import com.bing.framework.security.SecureJwtTokenProvider;
 import com.bing.framework.security.SecureTokenValidationResult;
 import com.bing.framework.service.WhiteListService;
 import com.bing.framework.util.IpUtil;
 import com.bing.framework.util.RequestContextUtil;
 import com.bing.framework.security.SecurityEvent;
-import com.bing.framework.security.SuspiciousActivity;
+import com.bing.framework.security.SecurityEventPipeline;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -17,6 +18,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 /**
  * 增强安全拦截器
@@ -35,9 +37,28 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
     @Autowired
     private WhiteListService whiteListService;
     
+    /**
+     * 访问模式检测器，未配置时不检查异常访问模式
+     */
+    @Autowired(required = false)
+    private AccessPatternDetector accessPatternDetector;
+    
+    /**
+     * 安全事件处理管道，未配置时只输出日志
+     */
+    @Autowired(required = false)
+    private SecurityEventPipeline securityEventPipeline;
+    
     private static final String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
     private static final String SUSPICIOUS_ACTIVITY_PREFIX = "security:suspicious:";
     
+    /**
+     * 异常访问模式阈值（滑动窗口内，默认1分钟）
+     */
+    private static final int PATH_RATE_THRESHOLD = 100;
+    private static final int DISTINCT_PATH_THRESHOLD = 50;
+    private static final int SENSITIVE_RATE_THRESHOLD = 10;
+    
     /**
      * 预处理器拦截
      */
@@ -63,7 +84,7 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
         String authorization = request.getHeader("Authorization");
         if (authorization == null || !authorization.startsWith("Bearer ")) {
             log.warn("请求缺少有效的Authorization头 - IP: {}, 路径: {}", clientIp, requestPath);
-            recordSuspiciousActivity(clientIp, "missing_authorization_header", requestPath);
+            recordSuspiciousActivity(clientIp, null, null, "missing_authorization_header", requestPath);
             throw new BusinessException(ErrorCode.UNAUTHORIZED);
         }
         
@@ -76,7 +97,7 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
         if (!validationResult.isApproved()) {
             String reason = validationResult.getReason();
             log.warn("令牌验证失败 - IP: {}, 原因: {}, 路径: {}", clientIp, reason, requestPath);
-            recordSuspiciousActivity(clientIp, "token_validation_failed", requestPath + ":" + reason);
+            recordSuspiciousActivity(clientIp, null, null, "token_validation_failed", requestPath + ":" + reason);
             
             // 根据失败原因返回不同错误
             if (reason.contains("expired")) {
@@ -103,7 +124,8 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
         // 6. 检查异常访问模式
         if (isAbnormalAccessPattern(clientIp, requestPath, method)) {
             log.warn("检测到异常访问模式 - IP: {}, 路径: {}, 方法: {}", clientIp, requestPath, method);
-            recordSuspiciousActivity(clientIp, "abnormal_access_pattern", requestPath);
+            recordSuspiciousActivity(clientIp, validationResult.getUserId(), validationResult.getUsername(),
+                    "abnormal_access_pattern", requestPath);
             // 可以选择拒绝访问或增加验证
         }
         
@@ -141,54 +163,27 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
     
     /**
      * 检查异常访问模式
+     * 由AccessPatternDetector在本地滑动窗口中计数，不访问Redis
      */
     private boolean isAbnormalAccessPattern(String clientIp, String requestPath, String method) {
+        if (accessPatternDetector == null) {
+            return false;
+        }
+        boolean sensitive = isSensitiveEndpoint(requestPath);
+        AccessPatternDetector.AccessRates rates = accessPatternDetector.record(clientIp, requestPath, method, sensitive);
         
         // 1. 检查高频访问相同路径
-        String accessPatternKey = "pattern:" + clientIp + ":" + requestPath + ":" + method;
-        int recentAccessCount = getRecentAccessCount(accessPatternKey);
-        
-        if (recentAccessCount > 100) { // 1分钟内访问超过100次
+        if (rates.getPathRate() > PATH_RATE_THRESHOLD) { // 1分钟内访问超过100次
             return true;
         }
         
         // 2. 检查跨多个路径的快速访问
-        String multiPathKey = "multi:" + clientIp;
-        int multiPathAccessCount = getRecentAccessCount(multiPathKey);
-        
-        if (multiPathAccessCount > 50) { // 1分钟内访问超过50个不同路径
+        if (rates.getDistinctPaths() > DISTINCT_PATH_THRESHOLD) { // 1分钟内访问超过50个不同路径
             return true;
         }
         
         // 3. 检查访问敏感接口
-        if (isSensitiveEndpoint(requestPath)) {
-            int sensitiveAccessCount = getRecentAccessCount("sensitive:" + clientIp);
-            if (sensitiveAccessCount > 10) { // 1分钟内访问敏感接口超过10次
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
-    /**
-     * 获取最近访问计数
-     */
-    private int getRecentAccessCount(String key) {
-        // 实现基于Redis的访问计数逻辑
-        // 在Redis中使用时间窗口计数器来记录访问频率
-        // 设置1分钟过期时间，自动清理过期数据
-        try {
-            // 示例实现：使用Redis实现访问计数
-            // RedisTemplate redisTemplate = getRedisTemplate();
-            // redisTemplate.opsForValue().setIfAbsent(key, "0", Duration.ofMinutes(1));
-            // Long count = redisTemplate.opsForValue().increment(key);
-            // return count != null ? count.intValue() : 0;
-            return 0; // 临时返回0，需要实现完整的Redis计数逻辑
-        } catch (Exception e) {
-            log.warn("Failed to get access count for key: {}", key, e);
-            return 0;
-        }
+        return sensitive && rates.getSensitiveRate() > SENSITIVE_RATE_THRESHOLD; // 1分钟内访问敏感接口超过10次
     }
     
     /**
@@ -203,20 +198,22 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
     
     /**
      * 记录可疑活动
+     * 事件类型为活动类型的大写形式，与成功事件一起由安全事件处理管道合并和写入
      */
-    private void recordSuspiciousActivity(String clientIp, String activityType, String details) {
+    private void recordSuspiciousActivity(String clientIp, Long userId, String username, String activityType, String details) {
         
         try {
-            SuspiciousActivity activity = SuspiciousActivity.builder()
+            log.warn("可疑活动记录 - IP: {}, 类型: {}, 详情: {}", clientIp, activityType, details);
+            
+            SecurityEvent event = SecurityEvent.builder()
+                    .eventType(activityType.toUpperCase(Locale.ROOT))
                     .clientIp(clientIp)
-                    .activityType(activityType)
-                    .details(details)
+                    .userId(userId)
+                    .username(username)
+                    .additionalInfo(details)
                     .timestamp(LocalDateTime.now())
                     .build();
-            
-            // 保存可疑活动记录到安全日志系统中
-            // 可以存储到数据库、Redis或发送到安全事件队列
-            log.warn("可疑活动记录 - IP: {}, 类型: {}, 详情: {}", clientIp, activityType, details);
+            processSecurityEventAsync(event);
             
         } catch (Exception e) {
             log.error("记录可疑活动失败", e);
@@ -225,28 +222,14 @@ public class EnhancedSecurityInterceptor implements HandlerInterceptor {
     
     /**
      * 异步处理安全事件
+     * 请求线程只入队，合并和写入数据库由SecurityEventPipeline的消费线程完成
      */
     private void processSecurityEventAsync(SecurityEvent event) {
-        // 实现异步处理安全事件机制
-        // 可以发送到消息队列或直接保存到数据库
-        // 确保不影响正常请求的处理性能
-        try {
+        if (securityEventPipeline == null) {
             log.debug("处理安全事件: {}, 用户: {}, IP: {}", 
                     event.getEventType(), event.getUsername(), event.getClientIp());
-            
-            // 示例实现：异步保存到数据库
-            // CompletableFuture.runAsync(() -> {
-            //     securityEventService.saveEvent(event);
-            // }).exceptionally(throwable -> {
-            //     log.error("保存安全事件失败", throwable);
-            //     return null;
-            // });
-            
-            // 示例实现：发送到消息队列
-            // messageQueueService.sendSecurityEvent(event);
-            
-        } catch (Exception e) {
-            log.error("处理安全事件异常: {}", event.getEventType(), e);
+            return;
         }
+        securityEventPipeline.publish(event);
     }
 }
\ No newline at end of file
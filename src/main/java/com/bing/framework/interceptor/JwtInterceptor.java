@@ -1,23 +1,38 @@
 package com.bing.framework.interceptor;
 
+import com.bing.framework.cache.MemoryCache;
 import com.bing.framework.common.ErrorCode;
 import com.bing.framework.exception.BusinessException;
+import com.bing.framework.security.SessionRevokedEvent;
 import com.bing.framework.service.WhiteListService;
 import com.bing.framework.util.JwtUtil;
+import com.bing.framework.util.VerifiedToken;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT拦截器
  * 用于验证请求中的JWT令牌
+ * 黑名单与用户当前令牌通过一次Pipeline读取，校验结果按用户在本地短期缓存，
+ * 收到会话撤销事件时立即清除对应用户的缓存，并通过Redis频道通知其他节点清除；
+ * Redis发布失败时其他节点最多在缓存时间（jwt.session-cache.ttl-seconds）内继续接受已撤销的令牌
  * 
  * @author zhengbing
  * @date 2025-11-05
@@ -35,13 +50,122 @@ public class JwtInterceptor implements HandlerInterceptor {
     @Autowired
     private WhiteListService whiteListService;
     
+    /**
+     * 请求属性名：已验证令牌的声明视图
+     */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = "verifiedToken";
+    
     private static final String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
     private static final String USER_TOKEN_PREFIX = "user:token:";
+    private static final char REVOCATION_SEPARATOR = '|';
     
     @Value("${jwt.expiration:24}")
     private Integer jwtExpiration;
     
-    // 日志记录器
+    /**
+     * 会话校验结果的本地缓存时间（秒），0表示不缓存
+     */
+    @Value("${jwt.session-cache.ttl-seconds:5}")
+    private long sessionCacheTtlSeconds = 5;
+    
+    /**
+     * 会话校验结果本地缓存的最大条目数
+     */
+    @Value("${jwt.session-cache.max-size:10000}")
+    private long sessionCacheMaxSize = 10000;
+    
+    /**
+     * 会话撤销通知频道
+     */
+    @Value("${jwt.session-cache.channel:bing:session:revoked}")
+    private String sessionRevokedChannel = "bing:session:revoked";
+    
+    /**
+     * 当前节点标识，用于忽略自身发布的撤销通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    /**
+     * 会话校验结果缓存，键为用户ID
+     */
+    private MemoryCache sessionCache;
+    
+    /**
+     * 会话状态
+     */
+    private enum SessionStatus {
+        VALID, BLACKLISTED, REPLACED
+    }
+    
+    /**
+     * 某个令牌的会话校验结果
+     */
+    private static final class SessionState {
+        private final String token;
+        private final SessionStatus status;
+        
+        private SessionState(String token, SessionStatus status) {
+            this.token = token;
+            this.status = status;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        if (sessionCacheTtlSeconds > 0) {
+            sessionCache = new MemoryCache(sessionCacheMaxSize, -1, 5);
+        }
+    }
+    
+    @PreDestroy
+    public void destroy() {
+        if (sessionCache != null) {
+            sessionCache.shutdown();
+        }
+    }
+    
+    /**
+     * 会话撤销时清除该用户的本地校验缓存，并通知其他节点
+     */
+    @EventListener
+    public void onSessionRevoked(SessionRevokedEvent event) {
+        if (sessionCache == null || event.getUserId() == null) {
+            return;
+        }
+        String userId = String.valueOf(event.getUserId());
+        sessionCache.remove(userId);
+        try {
+            redisTemplate.convertAndSend(sessionRevokedChannel, nodeId + REVOCATION_SEPARATOR + userId);
+        } catch (Exception e) {
+            log.warn("发布会话撤销通知失败，其他节点将在缓存过期后生效: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+    
+    /**
+     * 处理其他节点发布的会话撤销通知，清除该用户的本地校验缓存
+     * 由Redis频道监听器回调，自身发布的通知会被忽略
+     * 
+     * @param payload 撤销通知，格式为 节点标识|用户ID
+     */
+    public void handleSessionRevoked(String payload) {
+        if (sessionCache == null || payload == null) {
+            return;
+        }
+        int separatorIndex = payload.indexOf(REVOCATION_SEPARATOR);
+        if (separatorIndex < 0 || nodeId.equals(payload.substring(0, separatorIndex))) {
+            return;
+        }
+        sessionCache.remove(payload.substring(separatorIndex + 1));
+    }
+    
+    /**
+     * 获取会话撤销通知频道名称
+     * 
+     * @return 频道名称
+     */
+    public String getSessionRevokedChannel() {
+        return sessionRevokedChannel;
+    }
 
 
     /**
@@ -72,39 +196,31 @@ public class JwtInterceptor implements HandlerInterceptor {
         // 提取JWT令牌
         String token = authorization.substring(7);
         
-        // 检查令牌是否在黑名单中
-        String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(blacklistKey))) {
-            log.warn("Token已被加入黑名单");
-            throw new BusinessException(ErrorCode.TOKEN_BLACKLISTED);
-        }
-        
         try {
-            // 验证JWT令牌是否有效且为access类型
-            if (!jwtUtil.validateToken(token)) {
+            // 验证JWT令牌是否有效且为access类型，签名只校验一次
+            VerifiedToken verified = jwtUtil.verify(token);
+            if (verified.isExpired() || !verified.isAccessToken()) {
                 log.warn("Token验证失败或不是有效的访问令牌");
                 throw new BusinessException(ErrorCode.INVALID_TOKEN);
             }
             
-            // 从token中获取用户信息
-            Long userId = jwtUtil.getUserIdFromToken(token);
-            String username = jwtUtil.getUsernameFromToken(token);
+            // 从声明视图中获取用户信息
+            Long userId = verified.getUserId();
+            String username = verified.getUsername();
             
-            // 检查Redis中是否存在该用户的有效token
-            String userTokenKey = USER_TOKEN_PREFIX + userId;
-            if (Boolean.TRUE.equals(redisTemplate.hasKey(userTokenKey))) {
-                String redisToken = (String) redisTemplate.opsForValue().get(userTokenKey);
-                // 验证请求中的token是否与Redis中保存的token一致
-                if (!token.equals(redisToken)) {
-                    log.warn("Token已失效或被替换");
-                    throw new BusinessException(ErrorCode.INVALID_TOKEN);
-                }
-            } else {
-                log.warn("未找到用户对应的有效Token");
+            // 检查令牌是否在黑名单中，以及是否与Redis中保存的用户令牌一致
+            SessionStatus status = checkSession(token, userId);
+            if (status == SessionStatus.BLACKLISTED) {
+                log.warn("Token已被加入黑名单");
+                throw new BusinessException(ErrorCode.TOKEN_BLACKLISTED);
+            }
+            if (status == SessionStatus.REPLACED) {
+                log.warn("Token已失效或被替换");
                 throw new BusinessException(ErrorCode.INVALID_TOKEN);
             }
             
             // 将用户信息存储到请求属性中
+            request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verified);
             request.setAttribute("userId", userId);
             request.setAttribute("username", username);
             
@@ -122,6 +238,47 @@ public class JwtInterceptor implements HandlerInterceptor {
         }
     }
 
+    /**
+     * 校验令牌的会话状态
+     * 本地缓存命中时直接返回，否则通过一次Pipeline同时读取黑名单标记和用户当前令牌
+     */
+    private SessionStatus checkSession(String token, Long userId) {
+        String cacheKey = String.valueOf(userId);
+        if (sessionCache != null) {
+            SessionState cached = (SessionState) sessionCache.get(cacheKey);
+            if (cached != null && cached.token.equals(token)) {
+                return cached.status;
+            }
+        }
+        
+        String blacklistKey = TOKEN_BLACKLIST_PREFIX + token;
+        String userTokenKey = USER_TOKEN_PREFIX + userId;
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.hasKey(blacklistKey);
+                ops.opsForValue().get(userTokenKey);
+                return null;
+            }
+        });
+        
+        SessionStatus status;
+        if (Boolean.TRUE.equals(results.get(0))) {
+            status = SessionStatus.BLACKLISTED;
+        } else if (token.equals(results.get(1))) {
+            status = SessionStatus.VALID;
+        } else {
+            status = SessionStatus.REPLACED;
+        }
+        
+        if (sessionCache != null) {
+            sessionCache.put(cacheKey, new SessionState(token, status), sessionCacheTtlSeconds, TimeUnit.SECONDS);
+        }
+        return status;
+    }
+
     @Override
     public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
         // 不需要实现
@@ -1,8 +1,11 @@
 package com.bing.framework.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.bing.framework.dto.AuditLogQueryDTO;
 import com.bing.framework.entity.AuditLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -29,4 +32,23 @@ public interface AuditLogMapper extends BaseMapper<AuditLog> {
      */
     int insertBatch(List<AuditLog> logs);
 
+    /**
+     * 按条件键集分页查询审计日志
+     * 按(operation_time, id)倒序，从上一页最后一条记录之后开始读取，查询耗时与翻页深度无关
+     * 
+     * @param query 查询条件，lastOperationTime和lastId为空时查询第一页
+     * @param limit 最多返回的记录数
+     * @return 审计日志列表
+     */
+    List<AuditLog> selectByKeyset(@Param("query") AuditLogQueryDTO query, @Param("limit") int limit);
+
+    /**
+     * 按条件流式读取审计日志
+     * 使用MySQL流式结果集逐行读取，调用方需在事务内遍历并关闭游标
+     * 
+     * @param query 查询条件，忽略lastOperationTime和lastId
+     * @return 审计日志游标
+     */
+    Cursor<AuditLog> streamByCondition(@Param("query") AuditLogQueryDTO query);
+
 }
\ No newline at end of file
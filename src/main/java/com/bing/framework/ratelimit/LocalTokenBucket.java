@@ -0,0 +1,58 @@
+package com.bing.framework.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地令牌桶
+ * 按GCRA算法实现，与令牌桶等价：只保存下一个令牌的理论到达时间，
+ * 当前时间与理论到达时间之差不超过突发容差时放行，并把理论到达时间推后一个令牌间隔
+ * 状态只有一个AtomicLong，获取令牌只需一次CAS，不加锁
+ * 理论到达时间早于当前时间时令牌桶已满，与新建的令牌桶等价，可以直接移除
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class LocalTokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param intervalNanos 生成一个令牌的间隔（纳秒）
+     * @param burst 令牌桶容量
+     * @param nowNanos 当前时间
+     */
+    public LocalTokenBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @param nowNanos 当前时间
+     * @return long 0表示获取成功，否则为需要等待的纳秒数
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long wait = base - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 令牌桶是否已满（空闲）
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bing.framework.ratelimit;
+
+import com.bing.framework.annotation.RateLimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流规则
+ * 由@RateLimit注解解析而来，持有该规则下各限流对象的本地令牌桶和放行、拒绝计数
+ * 名称相同的接口共享同一个规则
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class RateLimitRule {
+
+    private final String name;
+    private final long intervalNanos;
+    private final int burst;
+    private final RateLimit.KeyType keyType;
+    private final RateLimit.Mode mode;
+
+    final ConcurrentHashMap<String, LocalTokenBucket> buckets = new ConcurrentHashMap<>();
+    final LongAdder admittedCount = new LongAdder();
+    final LongAdder rejectedCount = new LongAdder();
+
+    public RateLimitRule(String name, double permitsPerSecond, int burst, RateLimit.KeyType keyType, RateLimit.Mode mode) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("限流速率必须大于0: " + name);
+        }
+        this.name = name;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst >= 1 ? burst : Math.max(1, (int) Math.ceil(permitsPerSecond));
+        this.keyType = keyType;
+        this.mode = mode;
+    }
+
+    /**
+     * 按注解创建规则
+     *
+     * @param rateLimit 限流注解
+     * @param defaultName 注解未指定名称时使用的名称
+     */
+    public static RateLimitRule of(RateLimit rateLimit, String defaultName) {
+        String name = rateLimit.name().isEmpty() ? defaultName : rateLimit.name();
+        return new RateLimitRule(name, rateLimit.permitsPerSecond(), rateLimit.burst(), rateLimit.key(), rateLimit.mode());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public RateLimit.KeyType getKeyType() {
+        return keyType;
+    }
+
+    public RateLimit.Mode getMode() {
+        return mode;
+    }
+}
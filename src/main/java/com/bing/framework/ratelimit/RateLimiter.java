@@ -0,0 +1,187 @@
+package com.bing.framework.ratelimit;
+
+import com.bing.framework.annotation.RateLimit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流器
+ * LOCAL模式在本节点的令牌桶中获取令牌，只需一次CAS；
+ * REDIS模式通过Lua脚本在Redis中原子地执行同样的算法，时间取Redis服务器时间，集群内共享配额，
+ * Redis不可用时退回本地令牌桶
+ * 每个规则的令牌桶数量有上限，超过上限后新的限流对象直接放行并计数，直到已满的令牌桶被定期移除；
+ * 不让新对象共享同一个令牌桶，避免大量伪造的对象占满上限后把正常用户一起拒绝
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    /**
+     * GCRA令牌桶脚本，时间单位为微秒
+     * 返回0表示获取成功，否则为需要等待的微秒数
+     */
+    private static final String TOKEN_BUCKET_SCRIPT =
+            "redis.replicate_commands() " +
+            "local interval = tonumber(ARGV[1]) " +
+            "local tolerance = tonumber(ARGV[2]) " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1])) " +
+            "if not tat or tat < now then tat = now end " +
+            "local wait = tat - now - tolerance " +
+            "if wait > 0 then return wait end " +
+            "local nextTat = tat + interval " +
+            "redis.call('SET', KEYS[1], string.format('%.0f', nextTat), 'PX', math.ceil((nextTat - now) / 1000) + 1) " +
+            "return 0";
+
+    private static final DefaultRedisScript<Long> REDIS_SCRIPT = new DefaultRedisScript<>(TOKEN_BUCKET_SCRIPT, Long.class);
+
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 每个规则最多保留的令牌桶数量
+     */
+    @Value("${app.rate-limit.max-buckets-per-limit:100000}")
+    private int maxBucketsPerLimit = 100000;
+
+    /**
+     * Redis键前缀
+     */
+    @Value("${app.rate-limit.redis-key-prefix:rate:limit:}")
+    private String redisKeyPrefix = "rate:limit:";
+
+    /**
+     * 已注册的规则，键为规则名称
+     */
+    private final ConcurrentHashMap<String, RateLimitRule> rules = new ConcurrentHashMap<>();
+
+    private final LongAdder redisErrorCount = new LongAdder();
+
+    /**
+     * 令牌桶数量达到上限时直接放行的次数
+     */
+    private final LongAdder overflowAdmittedCount = new LongAdder();
+
+    /**
+     * 注册规则，名称相同时返回已注册的规则
+     */
+    public RateLimitRule register(RateLimitRule rule) {
+        RateLimitRule existing = rules.putIfAbsent(rule.getName(), rule);
+        return existing != null ? existing : rule;
+    }
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @param rule 限流规则
+     * @param subject 限流对象，如用户ID、IP
+     * @return long 0表示放行，否则为建议等待的纳秒数
+     */
+    public long tryAcquire(RateLimitRule rule, String subject) {
+        long waitNanos = rule.getMode() == RateLimit.Mode.REDIS && redisTemplate != null
+                ? tryAcquireRedis(rule, subject)
+                : tryAcquireLocal(rule, subject);
+        if (waitNanos == 0) {
+            rule.admittedCount.increment();
+        } else {
+            rule.rejectedCount.increment();
+        }
+        return waitNanos;
+    }
+
+    private long tryAcquireLocal(RateLimitRule rule, String subject) {
+        long now = System.nanoTime();
+        LocalTokenBucket bucket = rule.buckets.get(subject);
+        if (bucket == null) {
+            if (rule.buckets.size() >= maxBucketsPerLimit) {
+                // 新对象的令牌桶必然是满的，首个请求总会放行，不保存令牌桶
+                overflowAdmittedCount.increment();
+                return 0;
+            }
+            bucket = rule.buckets.computeIfAbsent(subject, k -> new LocalTokenBucket(rule.getIntervalNanos(), rule.getBurst(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private long tryAcquireRedis(RateLimitRule rule, String subject) {
+        long intervalMicros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(rule.getIntervalNanos()));
+        try {
+            Long waitMicros = redisTemplate.execute(REDIS_SCRIPT,
+                    Collections.singletonList(redisKeyPrefix + rule.getName() + ":" + subject),
+                    intervalMicros, intervalMicros * (rule.getBurst() - 1));
+            if (waitMicros == null) {
+                throw new IllegalStateException("限流脚本没有返回结果");
+            }
+            return TimeUnit.MICROSECONDS.toNanos(waitMicros);
+        } catch (Exception e) {
+            redisErrorCount.increment();
+            log.warn("Redis限流失败，使用本地令牌桶: {}, 原因: {}", rule.getName(), e.getMessage());
+            return tryAcquireLocal(rule, subject);
+        }
+    }
+
+    /**
+     * 移除已满的令牌桶，已满的令牌桶与新建的等价
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (RateLimitRule rule : rules.values()) {
+            Iterator<LocalTokenBucket> iterator = rule.buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isIdle(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        long admitted = 0;
+        long rejected = 0;
+        Map<String, Object> ruleStats = new LinkedHashMap<>();
+        for (RateLimitRule rule : rules.values()) {
+            long ruleAdmitted = rule.admittedCount.sum();
+            long ruleRejected = rule.rejectedCount.sum();
+            admitted += ruleAdmitted;
+            rejected += ruleRejected;
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("mode", rule.getMode().name());
+            stats.put("key", rule.getKeyType().name());
+            stats.put("permitsPerSecond", (double) TimeUnit.SECONDS.toNanos(1) / rule.getIntervalNanos());
+            stats.put("burst", rule.getBurst());
+            stats.put("admittedCount", ruleAdmitted);
+            stats.put("rejectedCount", ruleRejected);
+            stats.put("localBuckets", rule.buckets.size());
+            ruleStats.put(rule.getName(), stats);
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("admittedCount", admitted);
+        stats.put("rejectedCount", rejected);
+        stats.put("redisErrorCount", redisErrorCount.sum());
+        stats.put("overflowAdmittedCount", overflowAdmittedCount.sum());
+        stats.put("rules", ruleStats);
+        return stats;
+    }
+}
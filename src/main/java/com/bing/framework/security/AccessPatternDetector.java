@@ -0,0 +1,452 @@
+package com.bing.framework.security;
+
+import com.bing.framework.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 访问模式检测器
+ * 按IP维护滑动窗口计数：窗口分为若干个时间桶，每个IP占用固定大小的环形桶数组，每个桶记录
+ * 请求总数、敏感接口请求数、按路径和方法计数的Count-Min Sketch，以及用于估算不同路径数量的位图
+ * 计数只使用原子数组，不加锁；过期的桶由第一个进入新时间段的线程清零，并发中的少量计数可能丢失
+ * 窗口按桶近似，实际覆盖的时间在(桶数-1)到桶数个桶长之间
+ * 跟踪的IP数量有上限，超过上限的新IP共用一个溢出窗口计数，仍然参与检测，空闲超过一个窗口的IP定期移除
+ * 启用集群汇总时，每个桶结束后把各IP的敏感接口计数累加到Redis，并读取其他节点已结束桶的汇总结果，
+ * 请求路径上不访问Redis；按路径计数和不同路径数量只在本节点统计
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Slf4j
+@Component
+public class AccessPatternDetector {
+
+    private static final String CLUSTER_SENSITIVE_PREFIX = "security:access:sensitive:";
+
+    /**
+     * Count-Min Sketch的行数和每行宽度（宽度为2的幂）
+     */
+    private static final int SKETCH_DEPTH = 2;
+    private static final int SKETCH_WIDTH = 32;
+
+    /**
+     * 不同路径位图的位数
+     */
+    private static final int PATH_BITMAP_WORDS = 4;
+    private static final int PATH_BITMAP_BITS = PATH_BITMAP_WORDS * 64;
+
+    /**
+     * 每个桶在计数数组中的布局：总数、敏感接口数、Sketch
+     */
+    private static final int TOTAL_OFFSET = 0;
+    private static final int SENSITIVE_OFFSET = 1;
+    private static final int SKETCH_OFFSET = 2;
+    private static final int BUCKET_STRIDE = SKETCH_OFFSET + SKETCH_DEPTH * SKETCH_WIDTH;
+
+    @Autowired(required = false)
+    private RedisUtil redisUtil;
+
+    /**
+     * 滑动窗口长度（秒）
+     */
+    @Value("${app.security.access-pattern.window-seconds:60}")
+    private int windowSeconds = 60;
+
+    /**
+     * 窗口内的时间桶数量
+     */
+    @Value("${app.security.access-pattern.buckets:6}")
+    private int bucketCount = 6;
+
+    /**
+     * 最多跟踪的IP数量
+     */
+    @Value("${app.security.access-pattern.max-tracked-ips:10000}")
+    private int maxTrackedIps = 10000;
+
+    /**
+     * 是否通过Redis汇总各节点的计数
+     */
+    @Value("${app.security.access-pattern.cluster-enabled:false}")
+    private boolean clusterEnabled;
+
+    private long bucketMillis;
+
+    private final ConcurrentHashMap<String, IpWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 跟踪的IP达到上限后，新IP共用的窗口，不参与集群汇总
+     */
+    private volatile IpWindow overflowWindow;
+
+    /**
+     * 各节点已结束桶的敏感接口汇总计数：IP -> 敏感接口数
+     */
+    private volatile Map<String, Long> clusterCounts = Collections.emptyMap();
+    private volatile long lastPublishedEpoch;
+
+    private final LongAdder recordCount = new LongAdder();
+    private final LongAdder untrackedCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (bucketCount < 2) {
+            log.warn("访问模式时间桶数量无效: {}，使用6", bucketCount);
+            bucketCount = 6;
+        }
+        bucketMillis = Math.max(1, TimeUnit.SECONDS.toMillis(windowSeconds) / bucketCount);
+        overflowWindow = new IpWindow(bucketCount);
+    }
+
+    /**
+     * 记录一次访问并返回当前窗口内的访问频率
+     *
+     * @param clientIp 客户端IP
+     * @param requestPath 请求路径
+     * @param method 请求方法
+     * @param sensitive 是否为敏感接口
+     * @return AccessRates 该IP在窗口内的访问频率
+     */
+    public AccessRates record(String clientIp, String requestPath, String method, boolean sensitive) {
+        return record(clientIp, requestPath, method, sensitive, System.currentTimeMillis());
+    }
+
+    AccessRates record(String clientIp, String requestPath, String method, boolean sensitive, long nowMillis) {
+        if (clientIp == null) {
+            return AccessRates.EMPTY;
+        }
+        recordCount.increment();
+        IpWindow window = windows.get(clientIp);
+        if (window == null) {
+            if (windows.size() >= maxTrackedIps) {
+                untrackedCount.increment();
+                window = overflowWindow;
+            } else {
+                window = windows.computeIfAbsent(clientIp, ip -> new IpWindow(bucketCount));
+            }
+        }
+        long epoch = nowMillis / bucketMillis;
+        window.lastSeenEpoch = epoch;
+        int slot = acquireSlot(window, epoch);
+        int base = slot * BUCKET_STRIDE;
+        long pathHash = pathHash(requestPath, method);
+
+        window.counters.incrementAndGet(base + TOTAL_OFFSET);
+        if (sensitive) {
+            window.counters.incrementAndGet(base + SENSITIVE_OFFSET);
+        }
+        // 保守更新：只增加等于当前最小值的计数，降低哈希冲突造成的高估
+        int current = Integer.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            current = Math.min(current, window.counters.get(base + sketchIndex(pathHash, row)));
+        }
+        int updated = current + 1;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            window.counters.accumulateAndGet(base + sketchIndex(pathHash, row), updated, Math::max);
+        }
+        int bit = pathBit(pathHash);
+        int word = slot * PATH_BITMAP_WORDS + (bit >>> 6);
+        long mask = 1L << bit;
+        if ((window.pathBits.get(word) & mask) == 0) {
+            window.pathBits.getAndAccumulate(word, mask, (a, b) -> a | b);
+        }
+        return computeRates(clientIp, window, epoch, pathHash);
+    }
+
+    /**
+     * 查询IP在窗口内的访问频率，不记录访问
+     *
+     * @param clientIp 客户端IP
+     * @param requestPath 请求路径
+     * @param method 请求方法
+     * @return AccessRates 访问频率，跟踪的IP达到上限时未跟踪的IP返回溢出窗口的频率，否则返回全0
+     */
+    public AccessRates getRates(String clientIp, String requestPath, String method) {
+        IpWindow window = clientIp != null ? windows.get(clientIp) : null;
+        if (window == null && clientIp != null && windows.size() >= maxTrackedIps) {
+            window = overflowWindow;
+        }
+        if (window == null) {
+            return AccessRates.EMPTY;
+        }
+        return computeRates(clientIp, window, System.currentTimeMillis() / bucketMillis, pathHash(requestPath, method));
+    }
+
+    /**
+     * 汇总窗口内仍有效的桶
+     */
+    private AccessRates computeRates(String clientIp, IpWindow window, long epoch, long pathHash) {
+        long total = 0;
+        long sensitive = 0;
+        long currentSensitive = 0;
+        long pathRate = 0;
+        int liveMask = 0;
+        for (int slot = 0; slot < bucketCount; slot++) {
+            long bucketEpoch = window.epochs.get(slot);
+            if (bucketEpoch <= epoch - bucketCount || bucketEpoch > epoch) {
+                continue;
+            }
+            liveMask |= 1 << slot;
+            int base = slot * BUCKET_STRIDE;
+            int bucketTotal = window.counters.get(base + TOTAL_OFFSET);
+            int bucketSensitive = window.counters.get(base + SENSITIVE_OFFSET);
+            total += bucketTotal;
+            sensitive += bucketSensitive;
+            if (bucketEpoch == epoch) {
+                currentSensitive = bucketSensitive;
+            }
+            int estimate = Integer.MAX_VALUE;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                estimate = Math.min(estimate, window.counters.get(base + sketchIndex(pathHash, row)));
+            }
+            pathRate += estimate;
+        }
+
+        int zeroBits = 0;
+        for (int word = 0; word < PATH_BITMAP_WORDS; word++) {
+            long union = 0;
+            for (int slot = 0; slot < bucketCount; slot++) {
+                if ((liveMask & (1 << slot)) != 0) {
+                    union |= window.pathBits.get(slot * PATH_BITMAP_WORDS + word);
+                }
+            }
+            zeroBits += Long.bitCount(~union);
+        }
+
+        if (clusterEnabled && window != overflowWindow) {
+            // 其他节点的计数只包含已结束的桶，加上本节点当前桶后与本地窗口取较大值
+            Long cluster = clusterCounts.get(clientIp);
+            if (cluster != null) {
+                sensitive = Math.max(sensitive, cluster + currentSensitive);
+            }
+        }
+        return new AccessRates((int) total, (int) pathRate, estimateDistinct(zeroBits), (int) sensitive);
+    }
+
+    /**
+     * 取得当前时间段对应的桶，桶属于更早的时间段时清零后复用
+     */
+    private int acquireSlot(IpWindow window, long epoch) {
+        int slot = (int) (epoch % bucketCount);
+        long seen = window.epochs.get(slot);
+        if (seen < epoch && window.epochs.compareAndSet(slot, seen, epoch)) {
+            int base = slot * BUCKET_STRIDE;
+            for (int i = 0; i < BUCKET_STRIDE; i++) {
+                window.counters.set(base + i, 0);
+            }
+            for (int i = 0; i < PATH_BITMAP_WORDS; i++) {
+                window.pathBits.set(slot * PATH_BITMAP_WORDS + i, 0);
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * 线性计数估算不同路径数量
+     */
+    private static int estimateDistinct(int zeroBits) {
+        if (zeroBits == 0) {
+            return (int) Math.round(PATH_BITMAP_BITS * Math.log(PATH_BITMAP_BITS));
+        }
+        return (int) Math.round(-PATH_BITMAP_BITS * Math.log((double) zeroBits / PATH_BITMAP_BITS));
+    }
+
+    /**
+     * 路径和方法的组合哈希，不拼接字符串
+     */
+    private static long pathHash(String requestPath, String method) {
+        long h = (requestPath != null ? requestPath.hashCode() : 0) * 0x9E3779B97F4A7C15L
+                ^ (method != null ? method.hashCode() : 0);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int sketchIndex(long pathHash, int row) {
+        int hash1 = (int) pathHash;
+        int hash2 = (int) (pathHash >>> 32) | 1;
+        return SKETCH_OFFSET + row * SKETCH_WIDTH + ((hash1 + row * hash2) & (SKETCH_WIDTH - 1));
+    }
+
+    private static int pathBit(long pathHash) {
+        return (int) (pathHash >>> 48) & (PATH_BITMAP_BITS - 1);
+    }
+
+    /**
+     * 移除空闲超过一个窗口的IP
+     */
+    @Scheduled(fixedDelayString = "${app.security.access-pattern.cleanup-interval-ms:10000}")
+    public void evictIdle() {
+        long expiredEpoch = System.currentTimeMillis() / bucketMillis - bucketCount;
+        Iterator<IpWindow> iterator = windows.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().lastSeenEpoch <= expiredEpoch) {
+                iterator.remove();
+                evictedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 把刚结束的桶的敏感接口计数累加到Redis，并读取各节点已结束桶的汇总计数
+     * 每个桶结束后执行一次，不在请求路径上
+     */
+    @Scheduled(fixedDelayString = "${app.security.access-pattern.cluster-sync-interval-ms:1000}")
+    public void syncCluster() {
+        if (!clusterEnabled || redisUtil == null) {
+            return;
+        }
+        long closedEpoch = System.currentTimeMillis() / bucketMillis - 1;
+        if (closedEpoch <= lastPublishedEpoch) {
+            return;
+        }
+        try {
+            publishBucket(closedEpoch);
+            lastPublishedEpoch = closedEpoch;
+            clusterCounts = loadClusterCounts(closedEpoch);
+        } catch (Exception e) {
+            log.warn("汇总集群访问计数失败: {}", e.getMessage());
+        }
+    }
+
+    private void publishBucket(long closedEpoch) {
+        int slot = (int) (closedEpoch % bucketCount);
+        String sensitiveKey = CLUSTER_SENSITIVE_PREFIX + closedEpoch;
+        boolean published = false;
+        for (Map.Entry<String, IpWindow> entry : windows.entrySet()) {
+            IpWindow window = entry.getValue();
+            if (window.epochs.get(slot) != closedEpoch) {
+                continue;
+            }
+            int sensitive = window.counters.get(slot * BUCKET_STRIDE + SENSITIVE_OFFSET);
+            if (sensitive > 0) {
+                redisUtil.hincr(sensitiveKey, entry.getKey(), sensitive);
+                published = true;
+            }
+        }
+        if (published) {
+            redisUtil.expire(sensitiveKey, windowSeconds * 2L, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 读取窗口内已结束桶的汇总计数，当前桶由各节点本地计数
+     */
+    private Map<String, Long> loadClusterCounts(long closedEpoch) {
+        Map<String, Long> counts = new HashMap<>();
+        for (long epoch = closedEpoch - bucketCount + 2; epoch <= closedEpoch; epoch++) {
+            mergeCounts(counts, redisUtil.hmget(CLUSTER_SENSITIVE_PREFIX + epoch));
+        }
+        return counts;
+    }
+
+    private static void mergeCounts(Map<String, Long> counts, Map<Object, Object> bucket) {
+        if (bucket == null) {
+            return;
+        }
+        for (Map.Entry<Object, Object> entry : bucket.entrySet()) {
+            Object value = entry.getValue();
+            long count = value instanceof Number ? ((Number) value).longValue() : (long) Double.parseDouble(String.valueOf(value));
+            counts.merge(String.valueOf(entry.getKey()), count, Long::sum);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedIps", windows.size());
+        stats.put("maxTrackedIps", maxTrackedIps);
+        stats.put("recordCount", recordCount.sum());
+        stats.put("untrackedCount", untrackedCount.sum());
+        stats.put("evictedCount", evictedCount.sum());
+        stats.put("clusterEnabled", clusterEnabled);
+        stats.put("clusterTrackedIps", clusterCounts.size());
+        stats.put("bytesPerIp", (long) bucketCount * (BUCKET_STRIDE * 4 + PATH_BITMAP_WORDS * 8 + 8));
+        return stats;
+    }
+
+    /**
+     * 单个IP的环形桶
+     */
+    private static final class IpWindow {
+
+        private final AtomicLongArray epochs;
+        private final AtomicIntegerArray counters;
+        private final AtomicLongArray pathBits;
+        private volatile long lastSeenEpoch;
+
+        IpWindow(int bucketCount) {
+            this.epochs = new AtomicLongArray(bucketCount);
+            this.counters = new AtomicIntegerArray(bucketCount * BUCKET_STRIDE);
+            this.pathBits = new AtomicLongArray(bucketCount * PATH_BITMAP_WORDS);
+        }
+    }
+
+    /**
+     * 窗口内的访问频率
+     */
+    public static final class AccessRates {
+
+        static final AccessRates EMPTY = new AccessRates(0, 0, 0, 0);
+
+        private final int totalRate;
+        private final int pathRate;
+        private final int distinctPaths;
+        private final int sensitiveRate;
+
+        AccessRates(int totalRate, int pathRate, int distinctPaths, int sensitiveRate) {
+            this.totalRate = totalRate;
+            this.pathRate = pathRate;
+            this.distinctPaths = distinctPaths;
+            this.sensitiveRate = sensitiveRate;
+        }
+
+        /**
+         * 该IP在本节点的请求总数
+         */
+        public int getTotalRate() {
+            return totalRate;
+        }
+
+        /**
+         * 该IP对当前路径和方法的请求数（估算值，只会高估）
+         */
+        public int getPathRate() {
+            return pathRate;
+        }
+
+        /**
+         * 该IP访问的不同路径数量（估算值）
+         */
+        public int getDistinctPaths() {
+            return distinctPaths;
+        }
+
+        /**
+         * 该IP对敏感接口的请求数
+         */
+        public int getSensitiveRate() {
+            return sensitiveRate;
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package com.bing.framework.security;
 
 import com.bing.framework.util.AESUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.ExpiredJwtException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
-import java.security.SecureRandom;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 增强版安全JWT令牌提供者
  * 提供更安全的JWT令牌生成和验证功能，包含设备指纹、地理位置等信息
+ * 签名密钥按证书版本解析一次后缓存；验证时直接在令牌的字节上校验HS256签名，
+ * 签名不匹配的令牌不解析载荷，Mac和MessageDigest按线程复用
  * 
  * @author zhengbing
  * @date 2025-11-17
@@ -74,6 +85,12 @@ public class SecureJwtTokenProvider {
     @Autowired
     private ClientTypeSecurityConfig clientTypeSecurityConfig;
     
+    /**
+     * 令牌撤销存储，未配置时不做撤销检查
+     */
+    @Autowired(required = false)
+    private TokenRevocationStore revocationStore;
+    
     /**
      * 静态常量：固定密钥（用于开发和测试）
      */
@@ -85,34 +102,55 @@ public class SecureJwtTokenProvider {
     public static final String TEST_SECRET_KEY = "ThisIsATestSecretKeyForUnitTestingOnly1234567890";
     
     /**
-     * 生成强密钥（优先使用固定密钥，在生产环境中可以使用配置中心的密钥）
+     * 签名算法
      */
-    private SecretKey generateSecretKey() {
-        // 在实际生产环境中，这里可以从配置中心或密钥管理系统获取密钥
-        // 为了简化演示，使用固定的密钥
-        String secretKeyString = STATIC_SECRET_KEY;
-        
-        // 将字符串转换为密钥
-        byte[] keyBytes = Base64.getDecoder().decode(
-            Base64.getEncoder().encodeToString(secretKeyString.getBytes())
-        );
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String JWT_ALGORITHM = "HS256";
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+    
+    /**
+     * 线程复用的HMAC实例，密钥变化时重新初始化
+     */
+    private static final ThreadLocal<KeyedMac> HMAC = new ThreadLocal<>();
+    
+    /**
+     * 线程复用的SHA-256摘要实例
+     */
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("不支持SHA-256摘要算法", e);
+        }
+    });
+    
+    /**
+     * 按证书版本缓存的签名密钥
+     */
+    private final Map<String, SecretKey> signingKeys = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取当前证书版本的签名密钥，每个版本只解析一次
+     */
+    private SecretKey signingKey() {
+        return signingKeys.computeIfAbsent(certificateVersion, this::resolveSigningKey);
+    }
+    
+    /**
+     * 解析指定证书版本的签名密钥（在生产环境中可以按版本从配置中心或密钥管理系统获取）
+     */
+    private SecretKey resolveSigningKey(String version) {
+        // 为了简化演示，所有版本使用固定的密钥
+        byte[] keyBytes = STATIC_SECRET_KEY.getBytes(StandardCharsets.UTF_8);
         
-        // 确保密钥长度为256位
+        // 密钥不足256位时直接失败，不使用随机数填充，否则每次得到的密钥都不同
         if (keyBytes.length < KEY_LENGTH / 8) {
-            byte[] paddedKey = new byte[KEY_LENGTH / 8];
-            System.arraycopy(keyBytes, 0, paddedKey, 0, keyBytes.length);
-            // 使用随机数填充剩余部分
-            SecureRandom secureRandom = new SecureRandom();
-            secureRandom.nextBytes(paddedKey);
-            keyBytes = paddedKey;
-        } else if (keyBytes.length > KEY_LENGTH / 8) {
-            // 截取到指定长度
-            byte[] truncatedKey = new byte[KEY_LENGTH / 8];
-            System.arraycopy(keyBytes, 0, truncatedKey, 0, KEY_LENGTH / 8);
-            keyBytes = truncatedKey;
+            throw new IllegalStateException("JWT签名密钥长度不足" + KEY_LENGTH + "位，证书版本: " + version);
         }
-        
-        return new SecretKeySpec(keyBytes, "HmacSHA256");
+        // 截取到指定长度
+        return new SecretKeySpec(Arrays.copyOf(keyBytes, KEY_LENGTH / 8), HMAC_ALGORITHM);
     }
     
     /**
@@ -124,8 +162,8 @@ public class SecureJwtTokenProvider {
         // 生成令牌序列号（防重放攻击）
         String tokenId = generateTokenId();
         
-        // 获取强密钥
-        SecretKey secretKey = generateSecretKey();
+        // 获取签名密钥
+        SecretKey secretKey = signingKey();
         
         // 构建安全Claims
         Map<String, Object> claims = new HashMap<>();
@@ -170,7 +208,7 @@ public class SecureJwtTokenProvider {
      */
     public String generateSecureRefreshToken(Long userId, String username, String tokenId) {
         
-        SecretKey secretKey = generateSecretKey();
+        SecretKey secretKey = signingKey();
         
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -197,14 +235,8 @@ public class SecureJwtTokenProvider {
                                                          String userAgent, String clientIp) {
         
         try {
-            SecretKey secretKey = generateSecretKey();
-            
-            // 解析令牌
-            Jws<Claims> jws = Jwts.parser()
-                    .setSigningKey(secretKey)
-                    .parseClaimsJws(token);
-            
-            Claims claims = jws.getBody();
+            // 校验签名并解析令牌
+            Claims claims = parseVerifiedClaims(token, signingKey());
             
             // 验证令牌类型
             if (!ACCESS_TOKEN_TYPE.equals(claims.get("type"))) {
@@ -231,8 +263,7 @@ public class SecureJwtTokenProvider {
             if (userAgent != null) {
                 String storedUserAgentHash = (String) claims.get("userAgentHash");
                 if (storedUserAgentHash != null) {
-                    String currentUserAgentHash = hashData(userAgent);
-                    if (!currentUserAgentHash.equals(storedUserAgentHash)) {
+                    if (!hashMatches(userAgent, storedUserAgentHash)) {
                         log.warn("User agent mismatch detected for token: {}", claims.get("tokenId"));
                         // 这里可以选择警告或拒绝
                     }
@@ -243,8 +274,7 @@ public class SecureJwtTokenProvider {
             if (enableLocationAware && clientIp != null) {
                 String storedClientIpHash = (String) claims.get("clientIpHash");
                 if (storedClientIpHash != null) {
-                    String currentClientIpHash = hashData(clientIp);
-                    if (!currentClientIpHash.equals(storedClientIpHash)) {
+                    if (!hashMatches(clientIp, storedClientIpHash)) {
                         log.warn("Client IP mismatch detected for token: {}", claims.get("tokenId"));
                         // 这里可以选择警告或拒绝
                     }
@@ -271,6 +301,109 @@ public class SecureJwtTokenProvider {
         }
     }
     
+    /**
+     * 校验HS256签名并解析Claims
+     * 令牌只转换一次字节数组，各段直接在该数组上Base64解码，签名不匹配时不解析载荷
+     * 
+     * @param token JWT令牌
+     * @param secretKey 签名密钥
+     * @return 令牌中的Claims
+     */
+    private Claims parseVerifiedClaims(String token, SecretKey secretKey) throws GeneralSecurityException {
+        if (token == null || token.isEmpty()) {
+            throw new MalformedJwtException("JWT String argument cannot be null or empty.");
+        }
+        byte[] jwt = token.getBytes(StandardCharsets.US_ASCII);
+        int headerEnd = indexOf(jwt, (byte) '.', 0);
+        int payloadEnd = headerEnd < 0 ? -1 : indexOf(jwt, (byte) '.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd < 0 || payloadEnd == jwt.length - 1
+                || indexOf(jwt, (byte) '.', payloadEnd + 1) >= 0) {
+            throw new MalformedJwtException("JWT strings must contain exactly 2 period characters and a signature.");
+        }
+        
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        ByteBuffer header;
+        ByteBuffer signature;
+        try {
+            header = decoder.decode(ByteBuffer.wrap(jwt, 0, headerEnd));
+            signature = decoder.decode(ByteBuffer.wrap(jwt, payloadEnd + 1, jwt.length - payloadEnd - 1));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Invalid Base64url encoding in JWT.");
+        }
+        Map<String, Object> headerMap = readJson(header);
+        if (!JWT_ALGORITHM.equals(headerMap.get("alg"))) {
+            throw new UnsupportedJwtException("Unsupported JWT signature algorithm: " + headerMap.get("alg"));
+        }
+        
+        Mac mac = hmac(secretKey);
+        mac.update(jwt, 0, payloadEnd);
+        if (!signatureMatches(mac.doFinal(), signature)) {
+            throw new SignatureException("JWT signature does not match locally computed signature.");
+        }
+        
+        Claims claims;
+        try {
+            claims = Jwts.claims(readJson(decoder.decode(ByteBuffer.wrap(jwt, headerEnd + 1, payloadEnd - headerEnd - 1))));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Invalid Base64url encoding in JWT payload.");
+        }
+        long now = System.currentTimeMillis();
+        Date expiration = claims.getExpiration();
+        if (expiration != null && now > expiration.getTime()) {
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + expiration + ". Current time: " + new Date(now));
+        }
+        Date notBefore = claims.getNotBefore();
+        if (notBefore != null && now < notBefore.getTime()) {
+            throw new PrematureJwtException(null, claims, "JWT must not be accepted before " + notBefore);
+        }
+        return claims;
+    }
+    
+    private static Map<String, Object> readJson(ByteBuffer buffer) {
+        try {
+            return OBJECT_MAPPER.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), MAP_TYPE);
+        } catch (IOException e) {
+            throw new MalformedJwtException("Unable to read JSON value from JWT: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 常量时间比较签名
+     */
+    private static boolean signatureMatches(byte[] expected, ByteBuffer actual) {
+        if (actual.remaining() != expected.length) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length; i++) {
+            diff |= expected[i] ^ actual.get(actual.position() + i);
+        }
+        return diff == 0;
+    }
+    
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 获取当前线程的HMAC实例，密钥变化时重新初始化
+     */
+    private static Mac hmac(SecretKey secretKey) throws GeneralSecurityException {
+        KeyedMac keyedMac = HMAC.get();
+        if (keyedMac == null || keyedMac.key != secretKey) {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            keyedMac = new KeyedMac(secretKey, mac);
+            HMAC.set(keyedMac);
+        }
+        return keyedMac.mac;
+    }
+    
     /**
      * 生成令牌序列号
      */
@@ -331,26 +464,40 @@ public class SecureJwtTokenProvider {
      * 哈希敏感数据
      */
     private String hashData(String data) {
-        try {
-            return org.apache.commons.codec.digest.DigestUtils.sha256Hex(data);
-        } catch (Exception e) {
-            log.warn("Failed to hash data", e);
-            // 如果哈希失败，返回原始数据的简单哈希作为回退
-            return Integer.toHexString(data.hashCode());
+        return Hex.encodeHexString(sha256(data));
+    }
+    
+    /**
+     * 比较数据的SHA-256摘要与令牌中存储的十六进制摘要，不生成中间字符串
+     */
+    private boolean hashMatches(String data, String storedHex) {
+        byte[] digest = sha256(data);
+        if (storedHex.length() != digest.length * 2) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < digest.length; i++) {
+            int high = Character.digit(storedHex.charAt(2 * i), 16);
+            int low = Character.digit(storedHex.charAt(2 * i + 1), 16);
+            diff |= (high | low) < 0 ? 1 : ((high << 4 | low) ^ (digest[i] & 0xff));
         }
+        return diff == 0;
+    }
+    
+    private static byte[] sha256(String data) {
+        return SHA256.get().digest(data.getBytes(StandardCharsets.UTF_8));
     }
     
     /**
      * 检查令牌ID是否已使用（反重放攻击）
+     * 由TokenRevocationStore先查本地布隆过滤器，只有可能命中时才访问Redis
      */
     private boolean isTokenIdUsed(String tokenId) {
-        // 实现令牌ID的缓存检查机制
-        // 在Redis中存储已使用的令牌ID，设置过期时间以防止重放攻击
-        // 建议使用令牌的有效期作为Redis键的过期时间
+        if (revocationStore == null || tokenId == null) {
+            return false;
+        }
         try {
-            // 示例实现：查询Redis中是否存在该令牌ID
-            // return redisUtil.hasKey("token:blacklist:" + tokenId);
-            return false; // 临时返回false，需要实现完整的缓存检查逻辑
+            return revocationStore.isRevoked(tokenId);
         } catch (Exception e) {
             log.warn("Failed to check token ID usage: {}", tokenId, e);
             return false;
@@ -359,17 +506,44 @@ public class SecureJwtTokenProvider {
     
     /**
      * 撤销令牌
+     * 未知令牌过期时间时按刷新令牌的有效期保留撤销记录
      */
     public void revokeToken(String tokenId) {
-        if (enableTokenBlacklist && tokenId != null) {
+        revokeToken(tokenId, null);
+    }
+    
+    /**
+     * 撤销令牌，撤销记录保留到令牌过期
+     *
+     * @param tokenId 令牌ID
+     * @param expiresAt 令牌过期时间，为null时按刷新令牌的有效期计算
+     */
+    public void revokeToken(String tokenId, Date expiresAt) {
+        if (enableTokenBlacklist && tokenId != null && revocationStore != null) {
             // 将令牌ID加入黑名单，防止重复使用
             try {
-                // 示例实现：将令牌ID存储到Redis黑名单中
-                // redisUtil.set("token:blacklist:" + tokenId, "revoked", expirationTime);
+                long ttlMillis = expiresAt != null
+                        ? expiresAt.getTime() - System.currentTimeMillis()
+                        : TimeUnit.HOURS.toMillis(defaultRefreshExpiration);
+                revocationStore.revoke(tokenId, ttlMillis);
                 log.debug("Token revoked: {}", tokenId);
             } catch (Exception e) {
                 log.error("Failed to revoke token: {}", tokenId, e);
             }
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 与密钥绑定的HMAC实例
+     */
+    private static final class KeyedMac {
+        
+        private final SecretKey key;
+        private final Mac mac;
+        
+        KeyedMac(SecretKey key, Mac mac) {
+            this.key = key;
+            this.mac = mac;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bing.framework.security;
+
+import com.bing.framework.config.AuditSqlSessionFactory;
+import com.bing.framework.entity.SecurityEventRecord;
+import org.apache.ibatis.session.SqlSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 安全事件批量写入器
+ * 与审计日志共用AuditSqlSessionFactory和日志专用数据源（AuditHikariPool），不占用主数据源的连接
+ * 每批在一个BATCH执行器会话中逐条执行固定的单行插入语句后统一提交
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+public class SecurityEventBatchWriter {
+
+    private static final String INSERT_STATEMENT = "security.SecurityEventWriteMapper.insert";
+
+    private final AuditSqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    public SecurityEventBatchWriter(AuditSqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+    }
+
+    /**
+     * 批量写入安全事件，在一个事务中提交
+     *
+     * @param records 安全事件记录列表
+     * @return 写入的记录数
+     */
+    public int insertBatch(List<SecurityEventRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        try (SqlSession session = sqlSessionFactory.openBatchSession()) {
+            for (SecurityEventRecord record : records) {
+                session.insert(INSERT_STATEMENT, record);
+            }
+            session.commit();
+            return records.size();
+        }
+    }
+}
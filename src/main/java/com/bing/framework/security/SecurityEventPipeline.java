@@ -0,0 +1,379 @@
+package com.bing.framework.security;
+
+import com.bing.framework.entity.SecurityEventRecord;
+import com.bing.framework.util.MpscRingBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 安全事件处理管道
+ * 请求线程只做一次无锁入队，缓冲区已满时丢弃并计数，不阻塞、不访问数据库；
+ * 由专用的消费线程取出事件，同一用户、IP和事件类型在一个合并窗口内的重复事件合并为一条记录（计数、首次和最后时间），
+ * 窗口结束或待写入记录达到批量大小时批量写入security_event表，并放入最近事件索引供管理接口查询
+ * 最近事件索引是固定大小的环形数组，只由消费线程写入，查询时从最新的记录向前遍历
+ * 仅内存保留的事件类型（默认为令牌验证成功事件）只放入最近事件索引，不写入数据库；
+ * 写入数据库的事件由日志表维护任务按保留天数清理
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Slf4j
+@Component
+public class SecurityEventPipeline {
+
+    /**
+     * 缓冲区为空时消费线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 字段长度上限，与security_event表一致
+     */
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+    private static final int MAX_DEVICE_ID_LENGTH = 100;
+    private static final int MAX_REQUEST_PATH_LENGTH = 255;
+    private static final int MAX_DETAILS_LENGTH = 1000;
+
+    private final SecurityEventBatchWriter batchWriter;
+
+    /**
+     * 事件缓冲区
+     */
+    private final MpscRingBuffer<SecurityEvent> ringBuffer;
+
+    /**
+     * 最近事件索引
+     */
+    private final AtomicReferenceArray<SecurityEventRecord> recentRecords;
+
+    /**
+     * 已放入最近事件索引的记录数，只由消费线程递增
+     */
+    private final AtomicLong recentSequence = new AtomicLong();
+
+    /**
+     * 是否启用
+     */
+    @Value("${app.security.event.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * 合并窗口（毫秒）
+     */
+    @Value("${app.security.event.coalesce-window-ms:5000}")
+    private long coalesceWindowMillis = 5000;
+
+    /**
+     * 每批写入的最大记录数，待写入记录达到该数量时提前结束窗口
+     */
+    @Value("${app.security.event.batch-size:200}")
+    private int batchSize = 200;
+
+    /**
+     * 只保留在最近事件索引中、不写入数据库的事件类型
+     */
+    @Value("${app.security.event.memory-only-types:TOKEN_VALIDATION_SUCCESS}")
+    private Set<String> memoryOnlyTypes = Collections.singleton("TOKEN_VALIDATION_SUCCESS");
+
+    /**
+     * 当前窗口内待写入的记录，只由消费线程访问
+     */
+    private final Map<CoalesceKey, SecurityEventRecord> pending = new LinkedHashMap<>();
+    private final List<SecurityEvent> drainBuffer = new ArrayList<>();
+    private long windowStartMillis;
+
+    // 消费线程
+    private volatile Thread consumerThread;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // 统计信息
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong persistedCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+
+    @Autowired
+    public SecurityEventPipeline(SecurityEventBatchWriter batchWriter,
+                                 @Value("${app.security.event.queue-size:8192}") int queueSize,
+                                 @Value("${app.security.event.recent-size:1000}") int recentSize) {
+        this.batchWriter = batchWriter;
+        this.ringBuffer = new MpscRingBuffer<>(Math.max(queueSize, 2));
+        this.recentRecords = new AtomicReferenceArray<>(Math.max(recentSize, 1));
+    }
+
+    /**
+     * 启动消费线程
+     */
+    @PostConstruct
+    public void start() {
+        if (enabled && running.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::runConsumer, "security-event-consumer");
+            thread.setDaemon(true);
+            consumerThread = thread;
+            thread.start();
+            log.info("安全事件消费线程已启动，缓冲区容量: {}, 合并窗口: {}毫秒", ringBuffer.capacity(), coalesceWindowMillis);
+        }
+    }
+
+    /**
+     * 发布安全事件，只做一次无锁入队
+     *
+     * @param event 安全事件
+     * @return 是否入队成功，未启用或缓冲区已满时返回false
+     */
+    public boolean publish(SecurityEvent event) {
+        if (!enabled || event == null) {
+            return false;
+        }
+        if (!ringBuffer.offer(event)) {
+            long dropped = droppedCount.incrementAndGet();
+            if ((dropped & 1023) == 1) {
+                log.warn("安全事件缓冲区已满，已丢弃{}条事件", dropped);
+            }
+            return false;
+        }
+        publishedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 查询最近的安全事件记录，条件为空时不过滤
+     *
+     * @param userId 用户ID
+     * @param clientIp 客户端IP
+     * @param eventType 事件类型
+     * @param limit 最多返回的记录数
+     * @return 按时间倒序排列的记录
+     */
+    public List<SecurityEventRecord> getRecentEvents(Long userId, String clientIp, String eventType, int limit) {
+        List<SecurityEventRecord> result = new ArrayList<>(Math.min(Math.max(limit, 0), recentRecords.length()));
+        long end = recentSequence.get();
+        long start = Math.max(0, end - recentRecords.length());
+        for (long seq = end - 1; seq >= start && result.size() < limit; seq--) {
+            SecurityEventRecord record = recentRecords.get((int) (seq % recentRecords.length()));
+            if (record != null
+                    && (userId == null || userId.equals(record.getUserId()))
+                    && (clientIp == null || clientIp.equals(record.getClientIp()))
+                    && (eventType == null || eventType.equals(record.getEventType()))) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("publishedCount", publishedCount.get());
+        stats.put("droppedCount", droppedCount.get());
+        stats.put("coalescedCount", coalescedCount.get());
+        stats.put("persistedCount", persistedCount.get());
+        stats.put("failedBatchCount", failedBatchCount.get());
+        stats.put("queueSize", ringBuffer.size());
+        stats.put("queueCapacity", ringBuffer.capacity());
+        stats.put("recentSize", (int) Math.min(recentSequence.get(), recentRecords.length()));
+        return stats;
+    }
+
+    /**
+     * 消费线程主循环
+     */
+    private void runConsumer() {
+        while (running.get()) {
+            try {
+                if (processAvailable(System.currentTimeMillis()) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (Exception e) {
+                log.error("安全事件消费线程异常", e);
+            }
+        }
+
+        // 退出前处理剩余事件
+        try {
+            while (processAvailable(System.currentTimeMillis()) > 0) {
+                // 继续取出直到缓冲区为空
+            }
+            flush();
+        } catch (Exception e) {
+            log.error("关闭时写入安全事件失败", e);
+        }
+    }
+
+    /**
+     * 取出一批事件合并到当前窗口，窗口结束或待写入记录达到批量大小时写入
+     * 只能由消费线程调用
+     *
+     * @param nowMillis 当前时间
+     * @return 取出的事件数
+     */
+    int processAvailable(long nowMillis) {
+        int drained = ringBuffer.drainTo(drainBuffer, batchSize);
+        for (SecurityEvent event : drainBuffer) {
+            coalesce(event, nowMillis);
+        }
+        drainBuffer.clear();
+
+        if (!pending.isEmpty()
+                && (nowMillis - windowStartMillis >= coalesceWindowMillis || pending.size() >= batchSize)) {
+            flush();
+        }
+        return drained;
+    }
+
+    private void coalesce(SecurityEvent event, long nowMillis) {
+        long eventMillis = event.getTimestamp() != null ? Timestamp.valueOf(event.getTimestamp()).getTime() : nowMillis;
+        if (pending.isEmpty()) {
+            windowStartMillis = nowMillis;
+        }
+        CoalesceKey key = new CoalesceKey(event.getUserId(), event.getClientIp(), event.getEventType());
+        SecurityEventRecord record = pending.get(key);
+        if (record == null) {
+            record = new SecurityEventRecord();
+            record.setEventType(event.getEventType());
+            record.setUserId(event.getUserId());
+            record.setClientIp(event.getClientIp());
+            record.setEventCount(0);
+            record.setFirstTime(new Date(eventMillis));
+            record.setLastTime(new Date(eventMillis));
+            pending.put(key, record);
+        } else {
+            coalescedCount.incrementAndGet();
+        }
+        record.setEventCount(record.getEventCount() + 1);
+        if (eventMillis < record.getFirstTime().getTime()) {
+            record.getFirstTime().setTime(eventMillis);
+        }
+        if (eventMillis >= record.getLastTime().getTime()) {
+            record.getLastTime().setTime(eventMillis);
+            // 其余字段保留窗口内最后一次的值
+            if (event.getUsername() != null) {
+                record.setUsername(event.getUsername());
+            }
+            record.setUserAgent(truncate(event.getUserAgent(), MAX_USER_AGENT_LENGTH));
+            record.setDeviceId(truncate(event.getDeviceId(), MAX_DEVICE_ID_LENGTH));
+            record.setRequestPath(truncate(event.getRequestPath(), MAX_REQUEST_PATH_LENGTH));
+            record.setMethod(event.getMethod());
+            record.setDetails(truncate(event.getAdditionalInfo(), MAX_DETAILS_LENGTH));
+        }
+    }
+
+    /**
+     * 写入当前窗口中需要持久化的记录，并将全部记录放入最近事件索引，写入失败的批次记录日志后丢弃
+     * 只能由消费线程调用
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<SecurityEventRecord> records = new ArrayList<>(pending.values());
+        pending.clear();
+
+        List<SecurityEventRecord> persistent = new ArrayList<>(records.size());
+        for (SecurityEventRecord record : records) {
+            if (!memoryOnlyTypes.contains(record.getEventType())) {
+                persistent.add(record);
+            }
+        }
+        for (int from = 0; from < persistent.size(); from += batchSize) {
+            List<SecurityEventRecord> batch = persistent.subList(from, Math.min(from + batchSize, persistent.size()));
+            try {
+                batchWriter.insertBatch(batch);
+                persistedCount.addAndGet(batch.size());
+            } catch (Exception e) {
+                long failed = failedBatchCount.incrementAndGet();
+                if ((failed & 63) == 1) {
+                    log.error("批量写入{}条安全事件失败，累计失败{}批", batch.size(), failed, e);
+                }
+            }
+        }
+
+        for (SecurityEventRecord record : records) {
+            long seq = recentSequence.get();
+            recentRecords.set((int) (seq % recentRecords.length()), record);
+            recentSequence.lazySet(seq + 1);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * 停止消费线程，退出前写入剩余事件
+     */
+    @PreDestroy
+    public void stop() {
+        if (running.compareAndSet(true, false)) {
+            Thread thread = consumerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            log.info("安全事件消费线程已停止");
+        }
+    }
+
+    /**
+     * 合并键：用户ID、客户端IP和事件类型
+     */
+    private static final class CoalesceKey {
+
+        private final Long userId;
+        private final String clientIp;
+        private final String eventType;
+
+        CoalesceKey(Long userId, String clientIp, String eventType) {
+            this.userId = userId;
+            this.clientIp = clientIp;
+            this.eventType = eventType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalesceKey)) {
+                return false;
+            }
+            CoalesceKey other = (CoalesceKey) o;
+            return Objects.equals(userId, other.userId)
+                    && Objects.equals(clientIp, other.clientIp)
+                    && Objects.equals(eventType, other.eventType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, clientIp, eventType);
+        }
+    }
+}
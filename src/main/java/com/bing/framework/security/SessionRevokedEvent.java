@@ -0,0 +1,30 @@
+package com.bing.framework.security;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 会话撤销事件
+ * 用户注销、重新签发访问令牌等导致原访问令牌失效时发布，
+ * 监听方据此清除该用户的本地会话校验缓存
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class SessionRevokedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+
+    public SessionRevokedEvent(Object source, Long userId) {
+        super(source);
+        this.userId = userId;
+    }
+
+    /**
+     * 获取会话被撤销的用户ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,125 @@
+package com.bing.framework.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌ID布隆过滤器
+ * 判断令牌ID是否可能已被撤销：返回false时一定未被撤销，返回true时需要再到Redis确认
+ * 位数组使用AtomicLongArray，添加和查询都不加锁，可以在验证线程和同步线程之间并发使用
+ * 过滤器不支持删除，过期的令牌ID在定期重建时移除
+ * 只有置位了新位的添加才计入添加次数，重复添加同一令牌ID不会让过滤器提前报告饱和
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class TokenBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int expectedInsertions;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * 按预期元素数量和误判率创建过滤器
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param falsePositiveRate 误判率，取值(0, 1)
+     */
+    public TokenBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            expectedInsertions = 1;
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("误判率必须在0到1之间: " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * 添加令牌ID
+     *
+     * @return 是否置位了新位，为false时令牌ID可能已添加过
+     */
+    public boolean put(String tokenId) {
+        long hash1 = hash(tokenId, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(tokenId, 0xC2B2AE3D27D4EB4FL) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+            changed |= (current & mask) == 0;
+        }
+        if (changed) {
+            insertions.increment();
+        }
+        return changed;
+    }
+
+    /**
+     * 令牌ID是否可能已添加
+     */
+    public boolean mightContain(String tokenId) {
+        long hash1 = hash(tokenId, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(tokenId, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 置位了新位的添加次数（重复添加同一令牌ID不计数）
+     */
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * 添加次数是否已超过预期元素数量，超过后误判率会上升，应当重建
+     */
+    public boolean isSaturated() {
+        return insertions.sum() > expectedInsertions;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 对字符逐个混合后做64位终结混合，不生成中间字节数组
+     */
+    private static long hash(String value, long seed) {
+        long h = seed ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
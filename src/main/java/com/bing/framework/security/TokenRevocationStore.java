@@ -0,0 +1,191 @@
+package com.bing.framework.security;
+
+import com.bing.framework.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌撤销存储
+ * 撤销或已使用的令牌ID以 token:revoked:{tokenId} 保存，过期时间等于令牌的剩余有效期；
+ * 同时写入有序集合 token:revoked:index（分数为撤销时间），供各节点同步
+ * 每个节点在本地维护一个布隆过滤器：过滤器判定未撤销时直接返回，不访问Redis；只有可能命中时才到Redis确认
+ * 节点每秒按撤销时间增量同步其他节点的撤销记录，定期按当前撤销记录重建过滤器以移除过期的令牌ID，
+ * 其他节点撤销的令牌最多在一个同步周期后生效（定时任务线程池见spring.task.scheduling.pool.size，
+ * 线程全部被占用时会推迟）；过滤器尚未建立时直接查询Redis
+ * 增量同步为容忍时钟偏差会重复读取最近的撤销记录，重复的令牌ID不计入过滤器的添加次数
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    public static final String REVOKED_TOKEN_PREFIX = "token:revoked:";
+    public static final String REVOKED_INDEX_KEY = "token:revoked:index";
+
+    /**
+     * 增量同步时向前多取的时间，容忍节点之间的时钟偏差
+     */
+    private static final long SYNC_OVERLAP_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    /**
+     * 令牌的最长有效期，撤销记录超过该时间后对应的令牌必然已过期
+     */
+    @Value("${jwt.security.revocation.max-token-ttl-hours:168}")
+    private long maxTokenTtlHours = 168;
+
+    /**
+     * 过滤器的最小预期容量
+     */
+    @Value("${jwt.security.revocation.bloom-expected-insertions:100000}")
+    private int bloomExpectedInsertions = 100000;
+
+    /**
+     * 过滤器的误判率
+     */
+    @Value("${jwt.security.revocation.bloom-false-positive-rate:0.001}")
+    private double bloomFalsePositiveRate = 0.001;
+
+    private volatile TokenBloomFilter filter;
+    private volatile long lastSyncMillis;
+
+    private final LongAdder checkCount = new LongAdder();
+    private final LongAdder filterSkipCount = new LongAdder();
+    private final LongAdder redisLookupCount = new LongAdder();
+    private final LongAdder revokedHitCount = new LongAdder();
+    private final LongAdder revokeCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("初始化令牌撤销过滤器失败，过滤器建立前直接查询Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 撤销令牌
+     *
+     * @param tokenId 令牌ID
+     * @param ttlMillis 令牌剩余有效期（毫秒），不大于0时不记录
+     */
+    public void revoke(String tokenId, long ttlMillis) {
+        if (tokenId == null || ttlMillis <= 0) {
+            return;
+        }
+        redisUtil.set(REVOKED_TOKEN_PREFIX + tokenId, System.currentTimeMillis(), ttlMillis, TimeUnit.MILLISECONDS);
+        redisUtil.zAdd(REVOKED_INDEX_KEY, tokenId, System.currentTimeMillis());
+        TokenBloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+        revokeCount.increment();
+        log.debug("令牌已撤销: {}, 有效期剩余: {}ms", tokenId, ttlMillis);
+    }
+
+    /**
+     * 令牌是否已撤销
+     * 过滤器判定未撤销时不访问Redis
+     *
+     * @param tokenId 令牌ID
+     * @return boolean 是否已撤销
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        checkCount.increment();
+        TokenBloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            filterSkipCount.increment();
+            return false;
+        }
+        redisLookupCount.increment();
+        boolean revoked = redisUtil.hasKey(REVOKED_TOKEN_PREFIX + tokenId);
+        if (revoked) {
+            revokedHitCount.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * 增量同步其他节点的撤销记录
+     * 过滤器添加次数超过预期容量时改为重建
+     */
+    @Scheduled(fixedDelayString = "${jwt.security.revocation.sync-interval-ms:1000}")
+    public void sync() {
+        TokenBloomFilter current = filter;
+        if (current == null || current.isSaturated()) {
+            rebuild();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<Object> tokenIds = redisUtil.zRangeByScore(REVOKED_INDEX_KEY, lastSyncMillis - SYNC_OVERLAP_MILLIS, Double.POSITIVE_INFINITY);
+        if (tokenIds == null) {
+            return;
+        }
+        for (Object tokenId : tokenIds) {
+            current.put(String.valueOf(tokenId));
+        }
+        lastSyncMillis = now;
+    }
+
+    /**
+     * 按当前撤销记录重建过滤器
+     * 先移除超过令牌最长有效期的撤销记录，再按剩余记录数量确定过滤器容量
+     */
+    @Scheduled(fixedDelayString = "${jwt.security.revocation.rebuild-interval-ms:600000}",
+            initialDelayString = "${jwt.security.revocation.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        long oldest = now - TimeUnit.HOURS.toMillis(maxTokenTtlHours);
+        redisUtil.zRemoveRangeByScore(REVOKED_INDEX_KEY, Double.NEGATIVE_INFINITY, oldest - 1);
+        Set<Object> tokenIds = redisUtil.zRangeByScore(REVOKED_INDEX_KEY, oldest, Double.POSITIVE_INFINITY);
+        if (tokenIds == null) {
+            log.warn("读取令牌撤销记录失败，保留当前过滤器");
+            return;
+        }
+
+        TokenBloomFilter rebuilt = new TokenBloomFilter(
+                Math.max(bloomExpectedInsertions, tokenIds.size() * 2), bloomFalsePositiveRate);
+        for (Object tokenId : tokenIds) {
+            rebuilt.put(String.valueOf(tokenId));
+        }
+        filter = rebuilt;
+        // 下次增量同步从重建开始时间之前取，补上重建期间撤销的令牌
+        lastSyncMillis = now;
+        log.info("令牌撤销过滤器已重建，撤销记录: {}, 位数: {}, 哈希函数: {}",
+                tokenIds.size(), rebuilt.getBitCount(), rebuilt.getHashCount());
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        TokenBloomFilter current = filter;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("filterReady", current != null);
+        stats.put("filterInsertions", current != null ? current.getInsertions() : 0L);
+        stats.put("checkCount", checkCount.sum());
+        stats.put("filterSkipCount", filterSkipCount.sum());
+        stats.put("redisLookupCount", redisLookupCount.sum());
+        stats.put("revokedHitCount", revokedHitCount.sum());
+        stats.put("revokeCount", revokeCount.sum());
+        return stats;
+    }
+}
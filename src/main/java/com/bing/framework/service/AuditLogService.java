@@ -1,7 +1,12 @@
 package com.bing.framework.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.bing.framework.dto.AuditLogKeysetPage;
+import com.bing.framework.dto.AuditLogQueryDTO;
 import com.bing.framework.entity.AuditLog;
+import com.bing.framework.util.AuditLogExportWriter;
+
+import java.io.IOException;
 
 /**
  * 审计日志Service接口
@@ -26,4 +31,26 @@ public interface AuditLogService extends IService<AuditLog> {
      * @param auditLog 审计日志对象
      */
     void recordAuditLogAsync(AuditLog auditLog);
-}
\ No newline at end of file
+    
+    /**
+     * 键集分页查询审计日志
+     * 按(操作时间, ID)倒序，每页从上一页最后一条记录之后继续读取
+     * 
+     * @param queryDTO 查询条件
+     * @return 分页结果
+     */
+    AuditLogKeysetPage queryAuditLogs(AuditLogQueryDTO queryDTO);
+    
+    /**
+     * 流式导出审计日志
+     * 从数据库游标逐行读取并写入输出流，内存占用与导出条数无关
+     * 
+     * @param queryDTO 查询条件
+     * @param format 导出格式
+     * @param outputOpener 输出流的打开方式，取得导出许可后才调用
+     * @return 导出的记录数
+     * @throws IOException 写入输出流失败
+     */
+    long exportAuditLogs(AuditLogQueryDTO queryDTO, AuditLogExportWriter.Format format,
+                         AuditLogExportWriter.OutputOpener outputOpener) throws IOException;
+}
@@ -1,26 +1,41 @@
 package com.bing.framework.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.bing.framework.common.ErrorCode;
+import com.bing.framework.dto.AuditLogKeysetPage;
+import com.bing.framework.dto.AuditLogQueryDTO;
 import com.bing.framework.entity.AuditLog;
+import com.bing.framework.exception.BusinessException;
 import com.bing.framework.mapper.AuditLogMapper;
 import com.bing.framework.service.AuditLogService;
 import com.bing.framework.util.AuditLogBufferManager;
+import com.bing.framework.util.AuditLogExportWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Semaphore;
 
 /**
  * 审计日志Service实现类
  * 继承MyBatis-Plus的ServiceImpl，实现AuditLogService接口
  * 提供审计日志的同步和异步记录功能，包含异常处理机制
+ * 审计事件以AuditLog对象的形式只入队一次，由缓冲池写入数据库；
+ * 启用日志输出时，同一个对象作为参数输出到AUDIT_LOG记录器，供文件等Appender使用，不会再次入库
+ * 查询使用(操作时间, ID)键集分页；导出在只读事务内遍历流式游标，并限制同时进行的导出数量
  * 
  * @author zhengbing
  * @date 2025-11-05
@@ -31,7 +46,10 @@ import java.util.Date;
 @Slf4j
 public class AuditLogServiceImpl extends ServiceImpl<AuditLogMapper, AuditLog> implements AuditLogService {
 
-
+    private static final Logger auditLogger = LoggerFactory.getLogger("AUDIT_LOG");
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
     
     private final AuditLogBufferManager bufferManager;
     private final Clock clock;
@@ -42,13 +60,27 @@ public class AuditLogServiceImpl extends ServiceImpl<AuditLogMapper, AuditLog> i
         this.clock = clock;
     }
     
+    // 是否同时输出到AUDIT_LOG日志记录器
+    @Value("${app.audit.log-sink-enabled:false}")
+    private boolean logSinkEnabled;
+    
+    // 同时进行的导出数量上限，每个导出在整个导出期间占用一个数据库连接
+    @Value("${app.audit.export.max-concurrent:2}")
+    private int exportMaxConcurrent = 2;
+    
+    private Semaphore exportPermits;
+    
+    @PostConstruct
+    public void init() {
+        exportPermits = new Semaphore(Math.max(1, exportMaxConcurrent));
+    }
+    
     /**
      * 同步记录审计日志
      * 
      * @param auditLog 审计日志对象
      */
     @Override
-    @Transactional
     public void recordAuditLog(AuditLog auditLog) {
         try {
             // 设置操作时间
@@ -58,8 +90,13 @@ public class AuditLogServiceImpl extends ServiceImpl<AuditLogMapper, AuditLog> i
                 auditLog.setOperationTime(Date.from(now.atZone(ZoneId.systemDefault()).toInstant()));
             }
             
-            // 使用缓冲池管理器添加审计日志
+            // 使用缓冲池管理器添加审计日志，只做一次无锁入队
             bufferManager.addLog(auditLog);
+            
+            // 可选的日志输出，参数为同一个对象，按需由Appender格式化
+            if (logSinkEnabled && auditLogger.isInfoEnabled()) {
+                auditLogger.info("{}", auditLog);
+            }
         } catch (Exception e) {
             // 记录日志保存失败的情况
             log.error("保存审计日志失败", e);
@@ -68,12 +105,73 @@ public class AuditLogServiceImpl extends ServiceImpl<AuditLogMapper, AuditLog> i
     
     /**
      * 异步记录审计日志
+     * 入队本身不阻塞，数据库写入由缓冲池写入线程完成，因此不再切换到线程池执行
      * 
      * @param auditLog 审计日志对象
      */
     @Override
-    @Async("auditLogExecutor")
     public void recordAuditLogAsync(AuditLog auditLog) {
         recordAuditLog(auditLog);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 键集分页查询审计日志
+     * 多查询一条记录判断是否还有下一页，不执行COUNT查询
+     * 
+     * @param queryDTO 查询条件
+     * @return 分页结果
+     */
+    @Override
+    public AuditLogKeysetPage queryAuditLogs(AuditLogQueryDTO queryDTO) {
+        int size = queryDTO.getSize() == null || queryDTO.getSize() < 1 ? DEFAULT_PAGE_SIZE
+                : Math.min(queryDTO.getSize(), MAX_PAGE_SIZE);
+        List<AuditLog> records = baseMapper.selectByKeyset(queryDTO, size + 1);
+        
+        AuditLogKeysetPage page = new AuditLogKeysetPage();
+        page.setSize(size);
+        page.setHasMore(records.size() > size);
+        if (records.size() > size) {
+            records = records.subList(0, size);
+        }
+        page.setRecords(records);
+        if (page.getHasMore()) {
+            AuditLog last = records.get(records.size() - 1);
+            page.setNextOperationTime(last.getOperationTime());
+            page.setNextId(last.getId());
+        }
+        return page;
+    }
+    
+    /**
+     * 流式导出审计日志
+     * 游标需要在事务内保持打开；InnoDB的一致性读不加锁，导出期间不阻塞审计日志写入
+     * 先取得导出许可再打开输出流，许可不足时调用方尚未设置下载响应头，错误响应可按JSON正常返回
+     * 
+     * @param queryDTO 查询条件
+     * @param format 导出格式
+     * @param outputOpener 输出流的打开方式
+     * @return 导出的记录数
+     * @throws IOException 写入输出流失败
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAuditLogs(AuditLogQueryDTO queryDTO, AuditLogExportWriter.Format format,
+                                AuditLogExportWriter.OutputOpener outputOpener) throws IOException {
+        if (!exportPermits.tryAcquire()) {
+            throw new BusinessException(ErrorCode.BUSINESS_ERROR, "审计日志导出任务过多，请稍后再试");
+        }
+        long start = System.currentTimeMillis();
+        long count = 0;
+        try (Cursor<AuditLog> cursor = baseMapper.streamByCondition(queryDTO);
+             AuditLogExportWriter writer = new AuditLogExportWriter(format, outputOpener.open())) {
+            for (AuditLog auditLog : cursor) {
+                writer.write(auditLog);
+            }
+            count = writer.getCount();
+        } finally {
+            exportPermits.release();
+        }
+        log.info("导出审计日志{}条，格式：{}，耗时{}ms", count, format, System.currentTimeMillis() - start);
+        return count;
+    }
+}
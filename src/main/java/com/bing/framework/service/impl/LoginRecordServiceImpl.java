@@ -6,10 +6,14 @@ import com.bing.framework.entity.LoginRecord;
 import com.bing.framework.mapper.LoginRecordMapper;
 import com.bing.framework.service.LoginRecordService;
 import com.bing.framework.dto.LoginRecordQueryDTO;
+import com.bing.framework.util.LogTablePartitionManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Collections;
@@ -27,6 +31,8 @@ import java.util.List;
 @Slf4j
 public class LoginRecordServiceImpl extends ServiceImpl<LoginRecordMapper, LoginRecord> implements LoginRecordService {
 
+    @Autowired(required = false)
+    private LogTablePartitionManager partitionManager;
 
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
@@ -102,9 +108,17 @@ public class LoginRecordServiceImpl extends ServiceImpl<LoginRecordMapper, Login
             calendar.add(Calendar.DAY_OF_MONTH, -days);
             String beforeDate = dateFormat.format(calendar.getTime());
             
+            // 表已按登录时间分区时，先整区删除过期分区，剩余的过期记录只在边界分区内，按时间删除时只扫描该分区
+            long droppedCount = 0;
+            if (partitionManager != null) {
+                LocalDateTime cutoff = LocalDateTime.ofInstant(calendar.toInstant(), ZoneId.systemDefault());
+                droppedCount = Math.max(0, partitionManager.purgeExpiredPartitions(
+                        LogTablePartitionManager.LogTable.LOGIN_RECORD, cutoff));
+            }
+            
             int deleteCount = baseMapper.deleteExpiredRecords(beforeDate);
-            log.info("清理过期登录记录成功，删除记录数：{}", deleteCount);
-            return deleteCount;
+            log.info("清理过期登录记录成功，删除分区记录数：{}，删除记录数：{}", droppedCount, deleteCount);
+            return (int) Math.min(Integer.MAX_VALUE, droppedCount + deleteCount);
         } catch (Exception e) {
             log.error("清理过期登录记录失败：{}", e.getMessage(), e);
             return 0;
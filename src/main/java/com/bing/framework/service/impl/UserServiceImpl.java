@@ -19,6 +19,7 @@ import com.bing.framework.mapper.UserMapper;
 import com.bing.framework.service.RoleService;
 import com.bing.framework.service.UserService;
 import com.bing.framework.util.PasswordValidator;
+import com.bing.framework.util.RefreshTokenStore;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -46,6 +47,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Autowired
     private PasswordValidator passwordValidator;
     
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+    
 
 
     @Override
@@ -173,7 +177,12 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         user.setPassword(encryptedPassword);
         user.setUpdateTime(new Date());
         
-        return userMapper.updateById(user) > 0;
+        boolean updated = userMapper.updateById(user) > 0;
+        if (updated) {
+            // 密码已变更，撤销该用户已签发的全部刷新令牌
+            refreshTokenStore.revokeAll(id);
+        }
+        return updated;
     }
 
     @Override
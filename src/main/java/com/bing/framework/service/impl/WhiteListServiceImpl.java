@@ -4,20 +4,24 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.bing.framework.entity.WhiteList;
 import com.bing.framework.mapper.WhiteListMapper;
 import com.bing.framework.service.WhiteListService;
+import com.bing.framework.util.PathPatternMatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.util.AntPathMatcher;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 白名单服务实现类。
  * 实现白名单管理的业务逻辑。
+ * 请求路径匹配使用预编译的匹配器快照，快照首次使用时从数据库构建，刷新白名单或定时重载时整体替换，
+ * 请求处理过程中不访问数据库。
  *
  * @author zhengbing
  * @date 2024-11-03
@@ -30,14 +34,9 @@ public class WhiteListServiceImpl extends ServiceImpl<WhiteListMapper, WhiteList
     private WhiteListMapper whiteListMapper;
 
     /**
-     * 日志记录器。
+     * 预编译的白名单匹配器快照。
      */
-
-
-    /**
-     * Ant风格路径匹配器。
-     */
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final AtomicReference<PathPatternMatcher> matcherSnapshot = new AtomicReference<>();
 
     /**
      * 缓存键名。
@@ -48,51 +47,85 @@ public class WhiteListServiceImpl extends ServiceImpl<WhiteListMapper, WhiteList
     @Cacheable(value = "whiteListCache", key = WHITE_LIST_CACHE_KEY, unless = "#result == null or #result.isEmpty()")
     public Set<String> getEnabledPatterns() {
         log.info("白名单缓存未命中，从数据库查询白名单模式");
-        List<WhiteList> whiteLists = whiteListMapper.selectEnabledWhiteLists();
-        log.info("从数据库获取到 {} 条白名单记录", whiteLists.size());
-        
-        Set<String> patterns = new HashSet<>();
-        for (WhiteList whiteList : whiteLists) {
-            if (whiteList.getEnabled()) {
-                patterns.add(whiteList.getPattern());
-                log.info("添加白名单模式: '{}'", whiteList.getPattern());
-            }
-        }
-        
-        log.info("转换后获取到 {} 个启用的白名单模式，即将存入Redis缓存", patterns.size());
-        return patterns;
+        return loadEnabledPatterns();
     }
 
     @Override
     @CacheEvict(value = "whiteListCache", key = WHITE_LIST_CACHE_KEY, beforeInvocation = true)
     public void refreshWhiteListCache() {
         log.info("开始刷新白名单缓存");
-        // 缓存驱逐后，下次调用getEnabledPatterns会自动从数据库重新加载
-        log.info("白名单缓存已驱逐，下次访问将重新加载");
+        rebuildMatcher();
+        log.info("白名单缓存已驱逐，匹配器已重建");
+    }
+
+    /**
+     * 定时重载白名单匹配器。
+     * 其他节点修改白名单后，本节点最迟在一个重载周期后生效。
+     */
+    @Scheduled(fixedDelayString = "${white-list.reload-interval-ms:60000}")
+    public void reloadMatcher() {
+        if (matcherSnapshot.get() != null) {
+            rebuildMatcher();
+        }
     }
 
     @Override
     public boolean isInWhiteList(String path) {
-        log.debug("[DEBUG] 检查路径 '{}' 是否在白名单中", path);
-        
         if (path == null || path.isEmpty()) {
-            log.debug("[DEBUG] 路径为空，不在白名单中");
+            log.debug("路径为空，不在白名单中");
             return false;
         }
         
-        Set<String> patterns = getEnabledPatterns();
-        log.debug("[DEBUG] 当前启用的白名单模式数量: {}", patterns.size());
+        PathPatternMatcher matcher = matcherSnapshot.get();
+        if (matcher == null) {
+            matcher = initMatcher();
+        }
+        
+        boolean matches = matcher.matches(path);
+        log.debug("路径 '{}' 白名单匹配结果: {}", path, matches);
+        return matches;
+    }
+
+    /**
+     * 首次使用时构建匹配器，并发调用只有一个线程访问数据库。
+     */
+    private synchronized PathPatternMatcher initMatcher() {
+        PathPatternMatcher matcher = matcherSnapshot.get();
+        if (matcher == null) {
+            matcher = rebuildMatcher();
+        }
+        return matcher;
+    }
+
+    /**
+     * 从数据库重新加载模式并替换匹配器快照。
+     */
+    private PathPatternMatcher rebuildMatcher() {
+        try {
+            PathPatternMatcher matcher = PathPatternMatcher.compile(loadEnabledPatterns());
+            matcherSnapshot.set(matcher);
+            log.debug("白名单匹配器已重建，模式数量: {}", matcher.size());
+            return matcher;
+        } catch (Exception e) {
+            log.error("重建白名单匹配器失败，继续使用原有匹配器", e);
+            PathPatternMatcher current = matcherSnapshot.get();
+            return current != null ? current : PathPatternMatcher.empty();
+        }
+    }
+
+    private Set<String> loadEnabledPatterns() {
+        List<WhiteList> whiteLists = whiteListMapper.selectEnabledWhiteLists();
+        log.debug("从数据库获取到 {} 条白名单记录", whiteLists.size());
         
-        for (String pattern : patterns) {
-            boolean matches = pathMatcher.match(pattern, path);
-            log.debug("[DEBUG] 路径 '{}' 匹配模式 '{}': {}", path, pattern, matches);
-            if (matches) {
-                log.debug("[DEBUG] 路径 '{}' 在白名单中，匹配成功", path);
-                return true;
+        Set<String> patterns = new HashSet<>();
+        for (WhiteList whiteList : whiteLists) {
+            if (whiteList.getEnabled()) {
+                patterns.add(whiteList.getPattern());
+                log.debug("添加白名单模式: '{}'", whiteList.getPattern());
             }
         }
         
-        log.debug("[DEBUG] 路径 '{}' 不在白名单中，所有模式都不匹配", path);
-        return false;
+        log.debug("转换后获取到 {} 个启用的白名单模式", patterns.size());
+        return patterns;
     }
 }
\ No newline at end of file
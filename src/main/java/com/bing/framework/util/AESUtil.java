@@ -13,6 +13,7 @@ import java.util.Base64;
 /**
  * AES加密工具类
  * 提供AES加密解密功能，用于敏感数据加密
+ * Cipher按线程复用，默认密钥只构造一次，每次调用只重新初始化Cipher
  * 
  * @author zhengbing
  * @date 2025-11-17
@@ -23,6 +24,19 @@ public class AESUtil {
     private static final String ALGORITHM = "AES";
     private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
     private static final String DEFAULT_KEY = "12345678901234567890123456789012"; // 32字节密钥
+    private static final SecretKeySpec DEFAULT_KEY_SPEC = new SecretKeySpec(DEFAULT_KEY.getBytes(), ALGORITHM);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    /**
+     * 线程复用的Cipher，每次使用前重新init
+     */
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (Exception e) {
+            throw new IllegalStateException("不支持的加密算法: " + TRANSFORMATION, e);
+        }
+    });
     
     /**
      * 生成AES密钥
@@ -37,20 +51,22 @@ public class AESUtil {
      * 加密数据
      */
     public static String encrypt(String data) throws Exception {
-        return encrypt(data, DEFAULT_KEY);
+        return doEncrypt(data, DEFAULT_KEY_SPEC);
     }
     
     /**
      * 使用指定密钥加密数据
      */
     public static String encrypt(String data, String key) throws Exception {
-        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(), ALGORITHM);
-        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        return doEncrypt(data, new SecretKeySpec(key.getBytes(), ALGORITHM));
+    }
+    
+    private static String doEncrypt(String data, SecretKeySpec secretKeySpec) throws Exception {
+        Cipher cipher = CIPHER.get();
         
         // 生成随机IV (16字节)
         byte[] iv = new byte[16];
-        SecureRandom random = new SecureRandom();
-        random.nextBytes(iv);
+        RANDOM.nextBytes(iv);
         IvParameterSpec ivSpec = new IvParameterSpec(iv);
         
         cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, ivSpec);
@@ -68,15 +84,18 @@ public class AESUtil {
      * 解密数据
      */
     public static String decrypt(String encryptedData) throws Exception {
-        return decrypt(encryptedData, DEFAULT_KEY);
+        return doDecrypt(encryptedData, DEFAULT_KEY_SPEC);
     }
     
     /**
      * 使用指定密钥解密数据
      */
     public static String decrypt(String encryptedData, String key) throws Exception {
-        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(), ALGORITHM);
-        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        return doDecrypt(encryptedData, new SecretKeySpec(key.getBytes(), ALGORITHM));
+    }
+    
+    private static String doDecrypt(String encryptedData, SecretKeySpec secretKeySpec) throws Exception {
+        Cipher cipher = CIPHER.get();
         
         // 解码Base64数据
         byte[] combined = Base64.getDecoder().decode(encryptedData);
@@ -0,0 +1,131 @@
+package com.bing.framework.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应批量大小计算器
+ * 根据观察到的写入耗时和积压数量调整批量大小，根据日志到达速率调整等待时间：
+ * - 每批写完后仍有不少于一批的积压且写入耗时未超过目标时，批量大小翻倍
+ * - 写入耗时超过目标的两倍时，批量大小减半
+ * - 没有积压且批次未过半时，批量大小缓慢回落
+ * - 按到达速率在最长等待时间内能攒满一批时，等待攒满；否则只等待最短时间，空闲时日志尽快写入
+ * 非线程安全，只由写入线程调用
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class AdaptiveBatchSizer {
+
+    // 最短等待时间
+    static final long MIN_LINGER_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // 到达速率的采样间隔
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // 指数移动平均的权重
+    private static final double ALPHA = 0.3;
+
+    private int batchSize;
+
+    // 每纳秒到达的日志数量
+    private double arrivalRate;
+
+    // 写入耗时的移动平均（纳秒）
+    private double insertNanosAverage;
+
+    private long lastSampleNanos;
+    private long lastSampleCount;
+
+    public AdaptiveBatchSizer(int initialBatchSize) {
+        this.batchSize = initialBatchSize;
+    }
+
+    /**
+     * 采样到达速率
+     *
+     * @param nowNanos 当前时间
+     * @param totalArrivals 累计到达数量
+     */
+    public void sampleArrivals(long nowNanos, long totalArrivals) {
+        if (lastSampleNanos == 0L) {
+            lastSampleNanos = nowNanos;
+            lastSampleCount = totalArrivals;
+            return;
+        }
+        long elapsed = nowNanos - lastSampleNanos;
+        if (elapsed < SAMPLE_INTERVAL_NANOS) {
+            return;
+        }
+        double rate = (double) (totalArrivals - lastSampleCount) / elapsed;
+        arrivalRate = ALPHA * rate + (1 - ALPHA) * arrivalRate;
+        lastSampleNanos = nowNanos;
+        lastSampleCount = totalArrivals;
+    }
+
+    /**
+     * 一批写入完成后调整批量大小
+     *
+     * @param rows 本批条数
+     * @param insertNanos 本批写入耗时
+     * @param backlog 写入完成时的积压数量
+     * @param minBatchSize 批量大小下限
+     * @param maxBatchSize 批量大小上限
+     * @param targetInsertNanos 目标写入耗时
+     * @return 调整后的批量大小
+     */
+    public int onBatchWritten(int rows, long insertNanos, int backlog,
+                              int minBatchSize, int maxBatchSize, long targetInsertNanos) {
+        insertNanosAverage = insertNanosAverage == 0 ? insertNanos : ALPHA * insertNanos + (1 - ALPHA) * insertNanosAverage;
+        int current = batchSize(minBatchSize, maxBatchSize);
+        if (insertNanos > targetInsertNanos * 2) {
+            current = current / 2;
+        } else if (backlog >= current && insertNanos <= targetInsertNanos) {
+            current = current * 2;
+        } else if (backlog == 0 && rows < current / 2) {
+            current = current - current / 4;
+        }
+        batchSize = clamp(current, minBatchSize, maxBatchSize);
+        return batchSize;
+    }
+
+    /**
+     * 当前批量大小，限制在上下限之内
+     */
+    public int batchSize(int minBatchSize, int maxBatchSize) {
+        return clamp(batchSize, minBatchSize, maxBatchSize);
+    }
+
+    /**
+     * 当前等待时间
+     *
+     * @param batchSize 当前批量大小
+     * @param maxLingerNanos 最长等待时间
+     * @return 等待时间
+     */
+    public long lingerNanos(int batchSize, long maxLingerNanos) {
+        long minLinger = Math.min(MIN_LINGER_NANOS, maxLingerNanos);
+        if (arrivalRate * maxLingerNanos < batchSize) {
+            return minLinger;
+        }
+        long fillNanos = (long) (batchSize / arrivalRate);
+        return Math.max(minLinger, Math.min(fillNanos, maxLingerNanos));
+    }
+
+    /**
+     * 每秒到达的日志数量
+     */
+    public double getArrivalRatePerSecond() {
+        return arrivalRate * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * 写入耗时的移动平均（毫秒）
+     */
+    public double getAverageInsertMillis() {
+        return insertNanosAverage / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, Math.max(min, max)));
+    }
+}
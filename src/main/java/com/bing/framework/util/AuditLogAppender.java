@@ -3,7 +3,7 @@ package com.bing.framework.util;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
 import ch.qos.logback.classic.spi.ThrowableProxyUtil;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import com.bing.framework.entity.AuditLog;
 import com.bing.framework.service.AuditLogService;
 import org.springframework.beans.BeansException;
@@ -12,26 +12,94 @@ import org.springframework.context.ApplicationContextAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.concurrent.Executor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 自定义审计日志Appender
- * 继承logback的AppenderBase，实现ApplicationContextAware接口获取Spring容器中的Bean
- * 用于捕获日志系统中的审计日志并异步写入数据库，支持日志解析和异常处理
- * 
+ * 继承logback的UnsynchronizedAppenderBase，实现ApplicationContextAware接口获取Spring容器中的Bean
+ * 审计日志由AuditLogService以AuditLog对象的形式直接入库，启用日志输出时同一对象作为参数输出到AUDIT_LOG记录器，
+ * 这类事件已经入库，本Appender直接忽略；只有绕过AuditLogService、直接向AUDIT_LOG输出
+ * key:value格式消息的旧代码，才会在这里解析后写入数据库
+ * 日志线程只把事件放入有界队列，由专用的交接线程解析后交给AuditLogService入队，日志线程不会访问数据库；
+ * 队列已满时按溢出策略处理：DROP_OLDEST丢弃最早的事件，SPILL放入同样容量的溢出队列、由交接线程批量转存到溢出文件，
+ * BLOCK最多等待blockTimeoutMillis后丢弃；日志线程在任何策略下都不解析消息、不写文件
+ * 队列容量、溢出策略和等待时间可在logback配置中设置，队列深度、丢弃数量和交接延迟通过getRunningStatistics查询
+ *
  * @author zhengbing
  * @date 2025-11-05
  */
 // 移除@Component注解，改为通过配置类进行延迟注册
-public class AuditLogAppender extends AppenderBase<ILoggingEvent> implements ApplicationContextAware {
-    
+public class AuditLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements ApplicationContextAware {
+
     private static final Logger log = LoggerFactory.getLogger(AuditLogAppender.class);
-    
+
+    /**
+     * 队列已满时的溢出策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃最早的事件，保留最新的事件
+         */
+        DROP_OLDEST,
+        /**
+         * 放入溢出队列，由交接线程解析后转存到溢出文件，再由回放任务写入数据库；
+         * 溢出队列已满或溢出文件不可用时丢弃并计数
+         */
+        SPILL,
+        /**
+         * 最多等待blockTimeoutMillis，超时后丢弃当前事件
+         */
+        BLOCK
+    }
+
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final int DRAIN_BATCH_SIZE = 64;
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_MILLIS = 1000;
+
+    // 正在运行的Appender，用于汇总统计信息
+    private static final Set<AuditLogAppender> RUNNING = ConcurrentHashMap.newKeySet();
+
     // 静态的ApplicationContext引用
-    private static ApplicationContext applicationContext;
-    private static Executor auditLogExecutor;
-    
+    private static volatile ApplicationContext applicationContext;
+
+    // 队列容量
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    // 溢出策略
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    // BLOCK策略的最长等待时间
+    private long blockTimeoutMillis = 10;
+
+    private BlockingQueue<PendingEvent> queue;
+    private BlockingQueue<PendingEvent> spillQueue;
+    private Thread handoffThread;
+
+    // 协作对象由交接线程解析一次后缓存
+    private volatile AuditLogService auditLogService;
+    private volatile AuditLogSpillFile spillFile;
+
+    // 统计信息
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder spilledCount = new LongAdder();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder handoffNanos = new LongAdder();
+    private final AtomicLong maxHandoffNanos = new AtomicLong();
+
     /**
      * 静态方法，用于直接设置ApplicationContext
      * 这是一个备用机制，确保ApplicationContext可以从Spring容器中正确注入
@@ -40,76 +108,295 @@ public class AuditLogAppender extends AppenderBase<ILoggingEvent> implements App
         if (context != null) {
             applicationContext = context;
             log.debug("[AUDIT_LOG] ApplicationContext set via static method");
-            // 如果设置了ApplicationContext，尝试初始化线程池
-            try {
-                if (auditLogExecutor == null) {
-                    auditLogExecutor = context.getBean("auditLogExecutor", Executor.class);
-                    log.debug("[AUDIT_LOG] auditLogExecutor initialized via static method");
-                }
-            } catch (Exception e) {
-                log.error("[AUDIT_LOG] Failed to initialize auditLogExecutor: {}", e.getMessage(), e);
-            }
         }
     }
-    
+
     /**
      * 获取当前的ApplicationContext实例
      */
     public static ApplicationContext getApplicationContext() {
         return applicationContext;
     }
-    
+
     /**
      * 检查ApplicationContext是否已设置
      */
     public static boolean isApplicationContextAvailable() {
         return applicationContext != null;
     }
-    
+
+    /**
+     * 汇总所有运行中Appender的统计信息
+     */
+    public static Map<String, Object> getRunningStatistics() {
+        long queueDepth = 0;
+        long queueCapacity = 0;
+        long enqueued = 0;
+        long dropped = 0;
+        long spilled = 0;
+        long processed = 0;
+        long failed = 0;
+        long totalHandoffNanos = 0;
+        long maxHandoff = 0;
+        for (AuditLogAppender appender : RUNNING) {
+            queueDepth += appender.queue.size();
+            queueCapacity += appender.queueSize;
+            enqueued += appender.enqueuedCount.sum();
+            dropped += appender.droppedCount.sum();
+            spilled += appender.spilledCount.sum();
+            processed += appender.processedCount.sum();
+            failed += appender.failedCount.sum();
+            totalHandoffNanos += appender.handoffNanos.sum();
+            maxHandoff = Math.max(maxHandoff, appender.maxHandoffNanos.get());
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("appenderCount", RUNNING.size());
+        stats.put("queueDepth", queueDepth);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("enqueuedCount", enqueued);
+        stats.put("droppedCount", dropped);
+        stats.put("spilledCount", spilled);
+        stats.put("processedCount", processed);
+        stats.put("failedCount", failed);
+        stats.put("avgHandoffMicros", processed > 0 ? TimeUnit.NANOSECONDS.toMicros(totalHandoffNanos / processed) : 0L);
+        stats.put("maxHandoffMicros", TimeUnit.NANOSECONDS.toMicros(maxHandoff));
+        return stats;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * 设置溢出策略，未知的策略按DROP_OLDEST处理
+     */
+    public void setOverflowPolicy(String overflowPolicy) {
+        try {
+            this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            addWarn("未知的审计日志溢出策略: " + overflowPolicy + "，使用DROP_OLDEST");
+            this.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        }
+    }
+
+    public void setBlockTimeoutMillis(long blockTimeoutMillis) {
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addWarn("审计日志队列容量无效: " + queueSize + "，使用" + DEFAULT_QUEUE_SIZE);
+            queueSize = DEFAULT_QUEUE_SIZE;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        spillQueue = new ArrayBlockingQueue<>(queueSize);
+        super.start();
+        Thread thread = new Thread(this::runHandoff, "audit-log-appender");
+        thread.setDaemon(true);
+        handoffThread = thread;
+        thread.start();
+        RUNNING.add(this);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        RUNNING.remove(this);
+        Thread thread = handoffThread;
+        if (thread != null) {
+            try {
+                // 交接线程在退出前处理完队列中剩余的事件
+                thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int remaining = queue.size() + spillQueue.size();
+            if (remaining > 0) {
+                addWarn("审计日志Appender停止时仍有" + remaining + "条事件未处理");
+            }
+        }
+    }
+
     @Override
     protected void append(ILoggingEvent event) {
-        // 检查是否是审计日志标记
-        if (event.getLoggerName().startsWith("AUDIT_LOG")) {
-            // 异步处理，避免影响主业务
-            getAuditLogExecutor().execute(() -> {
-                try {
-                    processAuditLog(event);
-                } catch (Exception e) {
-                    log.error("处理审计日志失败: {}", e.getMessage(), e);
+        // 检查是否是审计日志标记，已由AuditLogService入库的结构化事件不再重复写入
+        if (!event.getLoggerName().startsWith("AUDIT_LOG") || isStructuredEvent(event)) {
+            return;
+        }
+        // 在日志线程上固定消息、线程名和MDC，交接线程稍后再读取
+        event.prepareForDeferredProcessing();
+        PendingEvent pending = new PendingEvent(event, System.nanoTime());
+        if (queue.offer(pending)) {
+            enqueuedCount.increment();
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                offerWithTimeout(pending);
+                break;
+            case SPILL:
+                // 交给交接线程转存，日志线程不访问溢出文件
+                if (!spillQueue.offer(pending)) {
+                    droppedCount.increment();
                 }
-            });
+                break;
+            default:
+                offerDroppingOldest(pending);
+                break;
         }
     }
-    
+
     /**
-     * 获取审计日志线程池
-     * 如果线程池未初始化，则从Spring容器中获取
+     * 是否为携带AuditLog对象的结构化事件
      */
-    private Executor getAuditLogExecutor() {
-        if (auditLogExecutor == null) {
-            synchronized (AuditLogAppender.class) {
-                if (auditLogExecutor == null) {
-                    auditLogExecutor = applicationContext.getBean("auditLogExecutor", Executor.class);
+    private static boolean isStructuredEvent(ILoggingEvent event) {
+        Object[] arguments = event.getArgumentArray();
+        if (arguments != null) {
+            for (Object argument : arguments) {
+                if (argument instanceof AuditLog) {
+                    return true;
                 }
             }
         }
-        return auditLogExecutor;
+        return false;
+    }
+
+    private void offerDroppingOldest(PendingEvent pending) {
+        while (!queue.offer(pending)) {
+            if (queue.poll() != null) {
+                droppedCount.increment();
+            }
+        }
+        enqueuedCount.increment();
     }
-    private void processAuditLog(ILoggingEvent event) {
+
+    private void offerWithTimeout(PendingEvent pending) {
         try {
-            // 获取AuditLogService实例
-            AuditLogService auditLogService = applicationContext.getBean(AuditLogService.class);
-            
-            // 解析日志消息，提取审计信息
-            AuditLog auditLog = parseAuditLog(event);
-            
-            // 调用服务记录审计日志
-            auditLogService.recordAuditLog(auditLog);
+            if (queue.offer(pending, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                enqueuedCount.increment();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCount.increment();
+    }
+
+    /**
+     * 交接线程主循环
+     * 取出一批事件解析后交给AuditLogService，AuditLogService只做无锁入队，由缓冲池写入线程批量入库；
+     * 每轮之后把溢出队列中的事件批量转存到溢出文件
+     */
+    private void runHandoff() {
+        List<PendingEvent> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        while (isStarted() || !queue.isEmpty() || !spillQueue.isEmpty()) {
+            AuditLogService service = resolveCollaborators();
+            if (service == null) {
+                // Spring容器尚未就绪，事件保留在队列中
+                if (!isStarted()) {
+                    break;
+                }
+                sleepQuietly();
+                continue;
+            }
+            PendingEvent first = null;
+            try {
+                first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // 停止时由循环条件决定是否继续处理剩余事件
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+                for (PendingEvent pending : batch) {
+                    processAuditLog(service, pending);
+                }
+                batch.clear();
+            }
+            spillOverflow(batch);
+        }
+    }
+
+    /**
+     * 把溢出队列中的事件解析后批量转存到溢出文件，溢出文件不可用或写入失败时丢弃并计数
+     */
+    private void spillOverflow(List<PendingEvent> batch) {
+        while (spillQueue.drainTo(batch, DRAIN_BATCH_SIZE) > 0) {
+            List<AuditLog> auditLogs = new ArrayList<>(batch.size());
+            for (PendingEvent pending : batch) {
+                try {
+                    auditLogs.add(parseAuditLog(pending.event));
+                } catch (RuntimeException e) {
+                    failedCount.increment();
+                }
+            }
+            batch.clear();
+            AuditLogSpillFile file = spillFile;
+            if (file != null && file.append(auditLogs)) {
+                spilledCount.add(auditLogs.size());
+            } else {
+                droppedCount.add(auditLogs.size());
+            }
+        }
+    }
+
+    /**
+     * 解析协作对象，解析成功后不再访问Spring容器
+     */
+    private AuditLogService resolveCollaborators() {
+        AuditLogService service = auditLogService;
+        if (service != null) {
+            return service;
+        }
+        ApplicationContext context = applicationContext;
+        if (context == null) {
+            return null;
+        }
+        try {
+            service = context.getBean(AuditLogService.class);
+        } catch (Exception e) {
+            log.debug("[AUDIT_LOG] AuditLogService not available yet: {}", e.getMessage());
+            return null;
+        }
+        try {
+            spillFile = context.getBean(AuditLogSpillFile.class);
         } catch (Exception e) {
-            log.error("记录审计日志到数据库失败: {}", e.getMessage(), e);
+            log.debug("[AUDIT_LOG] AuditLogSpillFile not available: {}", e.getMessage());
         }
+        auditLogService = service;
+        log.debug("[AUDIT_LOG] AuditLogAppender collaborators resolved");
+        return service;
     }
-    
+
+    private void processAuditLog(AuditLogService service, PendingEvent pending) {
+        long latency = System.nanoTime() - pending.enqueuedNanos;
+        handoffNanos.add(latency);
+        maxHandoffNanos.accumulateAndGet(latency, Math::max);
+        try {
+            // 解析日志消息，提取审计信息，AuditLogService只入队不访问数据库
+            service.recordAuditLog(parseAuditLog(pending.event));
+            processedCount.increment();
+        } catch (Exception e) {
+            failedCount.increment();
+            log.error("记录审计日志失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(IDLE_POLL_MILLIS);
+        } catch (InterruptedException e) {
+            // 停止时由循环条件决定是否退出
+        }
+    }
+
     private AuditLog parseAuditLog(ILoggingEvent event) {
         AuditLog auditLog = new AuditLog();
         
@@ -172,15 +459,21 @@ public class AuditLogAppender extends AppenderBase<ILoggingEvent> implements App
     
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-        AuditLogAppender.applicationContext = applicationContext;
+        setStaticApplicationContext(applicationContext);
         log.debug("[AUDIT_LOG] ApplicationContext set via ApplicationContextAware interface");
-        
-        // 初始化线程池
-        try {
-            this.auditLogExecutor = applicationContext.getBean("auditLogExecutor", Executor.class);
-            log.debug("[AUDIT_LOG] auditLogExecutor initialized");
-        } catch (Exception e) {
-            log.error("[AUDIT_LOG] Failed to initialize auditLogExecutor: {}", e.getMessage(), e);
+    }
+
+    /**
+     * 队列中的事件及其入队时间
+     */
+    private static final class PendingEvent {
+
+        private final ILoggingEvent event;
+        private final long enqueuedNanos;
+
+        PendingEvent(ILoggingEvent event, long enqueuedNanos) {
+            this.event = event;
+            this.enqueuedNanos = enqueuedNanos;
         }
-    }	
-}
\ No newline at end of file
+    }
+}
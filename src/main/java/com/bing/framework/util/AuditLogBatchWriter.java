@@ -0,0 +1,50 @@
+package com.bing.framework.util;
+
+import com.bing.framework.config.AuditSqlSessionFactory;
+import com.bing.framework.entity.AuditLog;
+import org.apache.ibatis.session.SqlSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 审计日志批量写入器
+ * 通过AuditSqlSessionFactory使用审计日志专用数据源（AuditHikariPool）写入审计日志，不占用主数据源的连接
+ * 每批在一个BATCH执行器会话中逐条执行固定的单行插入语句后统一提交，
+ * 审计数据源开启了rewriteBatchedStatements，驱动将其改写为多行插入
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+public class AuditLogBatchWriter {
+
+    private static final String INSERT_STATEMENT = "audit.AuditLogWriteMapper.insert";
+
+    private final AuditSqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    public AuditLogBatchWriter(AuditSqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+    }
+
+    /**
+     * 批量写入审计日志，在一个事务中提交
+     *
+     * @param logs 审计日志列表
+     * @return 写入的记录数
+     */
+    public int insertBatch(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        try (SqlSession session = sqlSessionFactory.openBatchSession()) {
+            for (AuditLog auditLog : logs) {
+                session.insert(INSERT_STATEMENT, auditLog);
+            }
+            session.commit();
+            return logs.size();
+        }
+    }
+}
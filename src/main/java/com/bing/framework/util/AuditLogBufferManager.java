@@ -1,25 +1,32 @@
 package com.bing.framework.util;
 
+import com.bing.framework.config.AuditLogConfigProperties;
 import com.bing.framework.entity.AuditLog;
-import com.bing.framework.mapper.AuditLogMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 审计日志缓冲池管理器
  * 提供缓冲池功能，将审计日志先放入内存队列，然后批量写入数据库
  * 减少数据库I/O操作，提高系统性能
- * 
+ * 缓冲区为预分配的多生产者单消费者环形缓冲区，请求线程入队时不加锁、不阻塞、不访问数据库；
+ * 由专用的写入线程取出日志，凑满一批或等待超时后批量写入
+ * 批量大小和等待时间由AdaptiveBatchSizer根据写入耗时、积压数量和到达速率动态调整，
+ * 上下限取自AuditLogConfigProperties，写入线程每轮重新读取，配置动态更新后立即生效
+ * 缓冲区已满时，日志放入溢出队列，由写入线程转存到溢出文件，请求线程不做序列化和文件I/O；
+ * 数据库写入失败时写入线程同样转存到溢出文件，由回放任务在数据库恢复后写回
+ *
  * @author zhengbing
  * @date 2025-11-05
  */
@@ -28,136 +35,482 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Lazy
 @Slf4j
 public class AuditLogBufferManager {
-    
-    // 缓冲队列，用于存储待写入的审计日志
-    private final BlockingQueue<AuditLog> bufferQueue;
-    
-    // 批量写入的阈值
-    private final int batchSize = 50;
-    
-    // 定时写入的时间间隔（毫秒）
-    private final long flushInterval = 10000;
-    
-    // 数据库操作接口
-    private final AuditLogMapper auditLogMapper;
-    
-    // 标记是否正在执行批量写入操作
-    private final AtomicBoolean isFlushing = new AtomicBoolean(false);
-    
+
+    /**
+     * 写入线程在缓冲区为空时的等待策略
+     */
+    public enum WaitStrategy {
+        /**
+         * 持续自旋，延迟最低，占满一个CPU核心
+         */
+        BUSY_SPIN,
+        /**
+         * 短暂自旋后让出CPU
+         */
+        YIELDING,
+        /**
+         * 自旋、让出后短暂休眠，兼顾延迟和CPU占用
+         */
+        SLEEPING,
+        /**
+         * 挂起直到生产者唤醒或刷新间隔到期，CPU占用最低
+         */
+        BLOCKING;
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        /**
+         * 空闲时等待一次
+         *
+         * @param idleCount 连续空闲次数
+         * @param maxWaitNanos 最长等待时间
+         * @return 新的连续空闲次数
+         */
+        int idle(int idleCount, long maxWaitNanos) {
+            switch (this) {
+                case BUSY_SPIN:
+                    return idleCount + 1;
+                case YIELDING:
+                    if (idleCount >= SPIN_TRIES) {
+                        Thread.yield();
+                    }
+                    return idleCount + 1;
+                case SLEEPING:
+                    if (idleCount < SPIN_TRIES) {
+                        return idleCount + 1;
+                    }
+                    if (idleCount < YIELD_TRIES) {
+                        Thread.yield();
+                        return idleCount + 1;
+                    }
+                    LockSupport.parkNanos(Math.min(SLEEP_NANOS, maxWaitNanos));
+                    return idleCount;
+                case BLOCKING:
+                default:
+                    LockSupport.parkNanos(maxWaitNanos);
+                    return idleCount + 1;
+            }
+        }
+    }
+
+    // 环形缓冲区容量，不小于bufferQueueSize的上限，实际可用容量由bufferQueueSize限制
+    private static final int RING_CAPACITY = 16384;
+
+    // 溢出队列容量，缓冲区和溢出队列都已满时丢弃并计数
+    private static final int OVERFLOW_CAPACITY = 4096;
+
+    // 未配置时的默认值
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_FLUSH_INTERVAL = 5000;
+    private static final int DEFAULT_TARGET_BATCH_LATENCY = 200;
+
+    // 缓冲区，用于存储待写入的审计日志
+    private final MpscRingBuffer<AuditLog> ringBuffer;
+
+    // 溢出队列，缓冲区已满时请求线程只做一次入队，由写入线程转存到溢出文件
+    private final MpscRingBuffer<AuditLog> overflowBuffer;
+
+    // 写入失败后的重试间隔（毫秒）
+    private final long retryInterval = 1000;
+
+    // 批量写入器，使用审计日志专用数据源
+    private final AuditLogBatchWriter batchWriter;
+
+    // 溢出文件，为空时缓冲区已满的日志直接丢弃
+    private final AuditLogSpillFile spillFile;
+
+    // 审计日志配置，动态配置更新时原地修改
+    private final AuditLogConfigProperties configProperties;
+
+    // 批量大小计算器，仅写入线程访问
+    private final AdaptiveBatchSizer batchSizer;
+
+    // 写入线程当前使用的批量大小和等待时间
+    private volatile int currentBatchSize;
+    private volatile long currentLingerNanos;
+
+    // 写入线程的等待策略
+    private volatile WaitStrategy waitStrategy;
+    private String waitStrategyName;
+
+    // 写入线程
+    private volatile Thread writerThread;
+
+    // 写入线程是否正在挂起等待
+    private volatile boolean writerParked;
+
+    // 写入线程运行标记
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // 是否请求立即刷新
+    private volatile boolean flushRequested;
+
+    // 数据库写入失败后，在此时间之前直接转存到溢出文件，仅写入线程访问
+    private long databaseRetryAtNanos;
+    private boolean databaseDown;
+
+    // 最近一次写入数据库的耗时，仅写入线程访问
+    private long lastInsertNanos;
+
+    // 统计信息
+    private final AtomicLong acceptedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final AtomicLong spilledCount = new AtomicLong(0);
+    private final AtomicLong writtenCount = new AtomicLong(0);
+    private final AtomicLong failedBatchCount = new AtomicLong(0);
+
     @Autowired
-    public AuditLogBufferManager(AuditLogMapper auditLogMapper) {
-        this.auditLogMapper = auditLogMapper;
-        // 初始化缓冲队列，容量为10000
-        this.bufferQueue = new LinkedBlockingQueue<>(10000);
+    public AuditLogBufferManager(AuditLogBatchWriter batchWriter, AuditLogConfigProperties configProperties,
+                                 AuditLogSpillFile spillFile) {
+        this.batchWriter = batchWriter;
+        this.spillFile = spillFile;
+        this.ringBuffer = new MpscRingBuffer<>(RING_CAPACITY);
+        this.overflowBuffer = new MpscRingBuffer<>(OVERFLOW_CAPACITY);
+        this.configProperties = configProperties != null ? configProperties : new AuditLogConfigProperties();
+        this.batchSizer = new AdaptiveBatchSizer(minBatchSize());
+        this.currentBatchSize = minBatchSize();
+        this.currentLingerNanos = maxLingerNanos();
+        refreshWaitStrategy();
     }
-    
+
+    /**
+     * 启动写入线程
+     */
+    @PostConstruct
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::runWriter, "audit-log-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            thread.start();
+            log.info("审计日志写入线程已启动，等待策略: {}, 缓冲区容量: {}", waitStrategy, ringBuffer.capacity());
+        }
+    }
+
     /**
      * 添加审计日志到缓冲池
-     * 
+     * 只做无锁入队，缓冲池达到bufferQueueSize或已满时放入溢出队列交给写入线程转存，
+     * 溢出文件不可用或溢出队列也已满时丢弃并计数
+     *
      * @param auditLog 审计日志对象
      * @return 是否添加成功
      */
     public boolean addLog(AuditLog auditLog) {
-        boolean result = bufferQueue.offer(auditLog);
-        if (!result) {
-            log.warn("审计日志缓冲池已满，尝试直接写入数据库");
-            // 当缓冲池满时，尝试直接写入数据库
-            try {
-                auditLogMapper.insert(auditLog);
-            } catch (Exception e) {
-                log.error("直接写入审计日志失败", e);
-                return false;
+        if (ringBuffer.size() >= queueLimit() || !ringBuffer.offer(auditLog)) {
+            if (spillFile != null && spillFile.isAvailable() && overflowBuffer.offer(auditLog)) {
+                LockSupport.unpark(writerThread);
+                return true;
             }
-        } else {
-            // 当缓冲池中日志数量达到阈值时，触发批量写入
-            if (bufferQueue.size() >= batchSize && isFlushing.compareAndSet(false, true)) {
-                flushBuffer();
+            long rejected = rejectedCount.incrementAndGet();
+            if ((rejected & 1023) == 1) {
+                log.warn("审计日志缓冲池已满，已丢弃{}条日志", rejected);
             }
+            return false;
+        }
+        acceptedCount.incrementAndGet();
+        // 凑满一批时唤醒挂起的写入线程
+        if (writerParked && ringBuffer.size() >= currentBatchSize) {
+            LockSupport.unpark(writerThread);
         }
         return true;
     }
-    
+
     /**
-     * 批量写入缓冲池中的审计日志
+     * 请求写入线程立即写入缓冲池中的审计日志
+     * 不在调用线程上访问数据库
      */
     public void flushBuffer() {
-        try {
-            List<AuditLog> logsToSave = new ArrayList<>(batchSize);
-            // 从缓冲队列中取出最多batchSize个日志
-            bufferQueue.drainTo(logsToSave, batchSize);
-            
-            if (!logsToSave.isEmpty()) {
-                try {
-                    // 批量插入数据库
-                    auditLogMapper.insertBatch(logsToSave);
-                    log.debug("成功批量写入{}条审计日志", logsToSave.size());
-                } catch (Exception e) {
-                    log.error("批量写入审计日志失败，将保留在缓冲队列中", e);
-                    // 写入失败时，将日志重新放入队列尾部
-                    for (AuditLog log : logsToSave) {
-                        bufferQueue.offer(log);
+        flushRequested = true;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * 获取当前缓冲池中的日志数量
+     */
+    public int getBufferSize() {
+        return ringBuffer.size();
+    }
+
+    /**
+     * 获取因缓冲池已满被丢弃的日志数量
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 获取转存到溢出文件的日志数量
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * 获取已写入数据库的日志数量
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * 获取缓冲池统计信息
+     */
+    public String getStats() {
+        return String.format("AuditLogBuffer Stats: Size=%d, Capacity=%d, Accepted=%d, Rejected=%d, Spilled=%d, Written=%d, FailedBatches=%d, "
+            + "BatchSize=%d, LingerMs=%d, ArrivalRate=%.1f/s, AvgInsertMs=%.2f, WaitStrategy=%s",
+            ringBuffer.size(), queueLimit(), acceptedCount.get(), rejectedCount.get(),
+            spilledCount.get(), writtenCount.get(), failedBatchCount.get(),
+            currentBatchSize, TimeUnit.NANOSECONDS.toMillis(currentLingerNanos),
+            batchSizer.getArrivalRatePerSecond(), batchSizer.getAverageInsertMillis(), waitStrategy);
+    }
+
+    /**
+     * 写入线程主循环
+     * 凑满当前批量大小、批次等待超过当前等待时间或收到刷新请求时写入一批
+     */
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(maxBatchSize());
+        long batchStartNanos = 0L;
+        int idleCount = 0;
+
+        while (running.get()) {
+            try {
+                spillOverflow();
+                refreshSettings();
+                int targetBatchSize = currentBatchSize;
+                long lingerNanos = currentLingerNanos;
+
+                int drained = ringBuffer.drainTo(batch, targetBatchSize - batch.size());
+                if (!batch.isEmpty() && batchStartNanos == 0L) {
+                    batchStartNanos = System.nanoTime();
+                }
+
+                boolean lingerExpired = !batch.isEmpty() && System.nanoTime() - batchStartNanos >= lingerNanos;
+                if (batch.size() >= targetBatchSize || lingerExpired || (flushRequested && !batch.isEmpty())) {
+                    long insertNanos = writeBatch(batch);
+                    if (insertNanos < 0) {
+                        // 写入线程正在停止，剩余日志交给退出前的写入处理
+                        break;
                     }
-                    // 添加短暂延迟，避免快速重试
+                    if (insertNanos > 0) {
+                        batchSizer.onBatchWritten(batch.size(), insertNanos, ringBuffer.size(),
+                                minBatchSize(), maxBatchSize(), targetBatchLatencyNanos());
+                    }
+                    batch.clear();
+                    batchStartNanos = 0L;
+                    idleCount = 0;
+                    continue;
+                }
+                if (flushRequested && ringBuffer.isEmpty()) {
+                    flushRequested = false;
+                }
+
+                if (drained > 0 || !overflowBuffer.isEmpty()) {
+                    idleCount = 0;
+                } else {
+                    long waitNanos = batch.isEmpty() ? lingerNanos : lingerNanos - (System.nanoTime() - batchStartNanos);
+                    writerParked = true;
                     try {
-                        Thread.sleep(1000);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
+                        idleCount = waitStrategy.idle(idleCount, Math.max(waitNanos, 1L));
+                    } finally {
+                        writerParked = false;
                     }
                 }
+            } catch (Exception e) {
+                log.error("审计日志写入线程异常", e);
             }
-        } finally {
-            // 重置刷新标记
-            isFlushing.set(false);
         }
+
+        // 退出前写入剩余日志
+        drainRemaining(batch);
     }
-    
+
     /**
-     * 定时任务，定期刷新缓冲池
-     * 确保即使日志数量未达到阈值，也能及时写入数据库
+     * 按最新配置和观测数据更新批量大小、等待时间和等待策略
      */
-    @Scheduled(fixedRate = 10000)
-    public void scheduledFlush() {
-        if (!bufferQueue.isEmpty() && isFlushing.compareAndSet(false, true)) {
-            flushBuffer();
+    private void refreshSettings() {
+        int minBatchSize = minBatchSize();
+        long maxLingerNanos = maxLingerNanos();
+        if (Boolean.TRUE.equals(configProperties.getAdaptiveBatchEnabled())) {
+            batchSizer.sampleArrivals(System.nanoTime(), acceptedCount.get());
+            int batchSize = batchSizer.batchSize(minBatchSize, maxBatchSize());
+            currentBatchSize = batchSize;
+            currentLingerNanos = batchSizer.lingerNanos(batchSize, maxLingerNanos);
+        } else {
+            currentBatchSize = minBatchSize;
+            currentLingerNanos = maxLingerNanos;
         }
+        refreshWaitStrategy();
     }
-    
+
+    private void refreshWaitStrategy() {
+        String name = configProperties.getWaitStrategy();
+        if (waitStrategy == null || (name != null && !name.equals(waitStrategyName))) {
+            waitStrategyName = name;
+            waitStrategy = parseWaitStrategy(name);
+        }
+    }
+
     /**
-     * 获取当前缓冲池中的日志数量
+     * 批量大小下限，未启用自适应时即为固定的批量大小
      */
-    public int getBufferSize() {
-        return bufferQueue.size();
+    private int minBatchSize() {
+        Integer batchSize = configProperties.getBatchSize();
+        return batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
+    private int maxBatchSize() {
+        Integer maxBatchSize = configProperties.getMaxBatchSize();
+        return Math.max(minBatchSize(), maxBatchSize != null ? maxBatchSize : 0);
+    }
+
+    private long maxLingerNanos() {
+        Integer flushInterval = configProperties.getFlushInterval();
+        return TimeUnit.MILLISECONDS.toNanos(flushInterval != null && flushInterval > 0 ? flushInterval : DEFAULT_FLUSH_INTERVAL);
+    }
+
+    private long targetBatchLatencyNanos() {
+        Integer latency = configProperties.getTargetBatchLatency();
+        return TimeUnit.MILLISECONDS.toNanos(latency != null && latency > 0 ? latency : DEFAULT_TARGET_BATCH_LATENCY);
+    }
+
+    private int queueLimit() {
+        Integer bufferQueueSize = configProperties.getBufferQueueSize();
+        return bufferQueueSize != null && bufferQueueSize > 0 ? Math.min(bufferQueueSize, RING_CAPACITY) : RING_CAPACITY;
     }
-    
+
+    /**
+     * 批量写入，数据库和溢出文件都不可用时在写入线程上按间隔重试，直到成功或写入线程停止
+     *
+     * @return 写入数据库的耗时（纳秒），转存到溢出文件时为0，写入线程停止时为-1
+     */
+    private long writeBatch(List<AuditLog> batch) {
+        while (!persist(batch)) {
+            if (!running.get()) {
+                return -1L;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryInterval));
+        }
+        return lastInsertNanos;
+    }
+
+    /**
+     * 写入数据库，失败时转存到溢出文件
+     * 数据库写入失败后的重试间隔内不再访问数据库，直接转存，避免每批都等待数据库超时
+     *
+     * @return 是否已写入数据库或溢出文件
+     */
+    private boolean persist(List<AuditLog> batch) {
+        lastInsertNanos = 0L;
+        if (databaseDown && System.nanoTime() - databaseRetryAtNanos < 0 && spill(batch)) {
+            return true;
+        }
+        try {
+            long start = System.nanoTime();
+            batchWriter.insertBatch(batch);
+            lastInsertNanos = Math.max(System.nanoTime() - start, 1L);
+            writtenCount.addAndGet(batch.size());
+            if (databaseDown) {
+                databaseDown = false;
+                log.info("审计日志数据库写入已恢复");
+            }
+            log.debug("成功批量写入{}条审计日志", batch.size());
+            return true;
+        } catch (Exception e) {
+            failedBatchCount.incrementAndGet();
+            databaseDown = true;
+            databaseRetryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryInterval);
+            if (spill(batch)) {
+                log.warn("批量写入{}条审计日志失败，已转存到溢出文件: {}", batch.size(), e.getMessage());
+                return true;
+            }
+            log.error("批量写入{}条审计日志失败，{}毫秒后重试", batch.size(), retryInterval, e);
+            return false;
+        }
+    }
+
+    /**
+     * 将溢出队列中的日志转存到溢出文件，溢出文件写入失败时丢弃并计数
+     */
+    private void spillOverflow() {
+        if (overflowBuffer.isEmpty()) {
+            return;
+        }
+        List<AuditLog> overflow = new ArrayList<>(Math.min(overflowBuffer.size(), OVERFLOW_CAPACITY));
+        while (overflowBuffer.drainTo(overflow, OVERFLOW_CAPACITY) > 0) {
+            if (!spill(overflow)) {
+                long rejected = rejectedCount.addAndGet(overflow.size());
+                log.warn("审计日志溢出文件写入失败，已丢弃{}条日志", rejected);
+            }
+            overflow.clear();
+        }
+    }
+
+    private boolean spill(List<AuditLog> logs) {
+        if (spillFile != null && spillFile.append(logs)) {
+            spilledCount.addAndGet(logs.size());
+            return true;
+        }
+        return false;
+    }
+
+    private void drainRemaining(List<AuditLog> batch) {
+        spillOverflow();
+        int maxAttempts = 3;
+        int attempts = 0;
+        do {
+            ringBuffer.drainTo(batch, maxBatchSize() - batch.size());
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (persist(batch)) {
+                batch.clear();
+                attempts = 0;
+            } else {
+                attempts++;
+                log.error("关闭时写入审计日志失败，第{}次尝试", attempts);
+            }
+        } while (attempts < maxAttempts);
+
+        log.warn("刷新审计日志缓冲池失败，仍有{}条日志未写入", batch.size() + ringBuffer.size());
+    }
+
+    private static WaitStrategy parseWaitStrategy(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return WaitStrategy.BLOCKING;
+        }
+        try {
+            return WaitStrategy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("未知的审计日志等待策略: {}，使用BLOCKING", value);
+            return WaitStrategy.BLOCKING;
+        }
+    }
+
     /**
      * 在应用关闭前，确保将所有缓冲的日志写入数据库
      */
     @PreDestroy
     public void flushOnShutdown() {
         log.info("应用关闭，正在刷新审计日志缓冲池");
-        
-        int maxAttempts = 3; // 最大重试次数
-        int attempts = 0;
-        
-        while (!bufferQueue.isEmpty() && attempts < maxAttempts) {
-            flushBuffer();
-            attempts++;
-            
-            // 短暂等待，让数据库操作完成
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-            
-            // 如果仍然有数据，且不是第一次尝试，说明可能数据库有问题
-            if (!bufferQueue.isEmpty() && attempts == maxAttempts) {
-                log.warn("刷新审计日志缓冲池失败，仍有{}条日志未写入", bufferQueue.size());
-                // 可以选择在这里将剩余数据写入日志文件或做其他处理
+
+        if (running.compareAndSet(true, false)) {
+            Thread thread = writerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
         }
-        
+
         log.info("审计日志缓冲池刷新完成");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,223 @@
+package com.bing.framework.util;
+
+import com.bing.framework.entity.AuditLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * 审计日志导出写入器
+ * 逐条将审计日志写为CSV或NDJSON，只保留固定大小的写缓冲区，内存占用与导出条数无关
+ * CSV首行为列名，字段按RFC 4180转义，并对以=、+、-、@、制表符或回车开头的文本加单引号前缀，防止在表格软件中被当作公式执行；
+ * NDJSON每行一个JSON对象，字段名与接口返回的审计日志一致
+ * 关闭时只刷新缓冲区，不关闭底层输出流
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class AuditLogExportWriter implements Closeable {
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * 解析导出格式，不支持的格式返回null
+         */
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value) || format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 导出输出流的打开方式
+     * 导出服务取得导出许可后才调用，调用方可在其中设置响应头，许可不足时响应保持未提交状态
+     */
+    @FunctionalInterface
+    public interface OutputOpener {
+
+        /**
+         * 打开导出输出流
+         *
+         * @return 输出流，导出完成后不关闭
+         * @throws IOException 打开输出流失败
+         */
+        OutputStream open() throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final String CSV_HEADER = "id,user_id,username,ip_address,operation_time,module,operation_type,"
+            + "description,request_params,result,error_message,execution_time";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private long count;
+
+    public AuditLogExportWriter(Format format, OutputStream outputStream) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.NDJSON) {
+            generator = JSON_FACTORY.createGenerator(writer);
+            generator.setRootValueSeparator(null);
+        } else {
+            generator = null;
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * 写入一条审计日志
+     */
+    public void write(AuditLog auditLog) throws IOException {
+        if (format == Format.NDJSON) {
+            writeJson(auditLog);
+        } else {
+            writeCsv(auditLog);
+        }
+        count++;
+    }
+
+    /**
+     * 已写入的条数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(AuditLog auditLog) throws IOException {
+        writer.write(auditLog.getId() != null ? auditLog.getId().toString() : "");
+        writer.write(',');
+        writer.write(auditLog.getUserId() != null ? auditLog.getUserId().toString() : "");
+        writer.write(',');
+        writeCsvText(auditLog.getUsername());
+        writer.write(',');
+        writeCsvText(auditLog.getIpAddress());
+        writer.write(',');
+        writer.write(formatTime(auditLog.getOperationTime()));
+        writer.write(',');
+        writeCsvText(auditLog.getModule());
+        writer.write(',');
+        writeCsvText(auditLog.getOperationType());
+        writer.write(',');
+        writeCsvText(auditLog.getDescription());
+        writer.write(',');
+        writeCsvText(auditLog.getRequestParams());
+        writer.write(',');
+        writeCsvText(auditLog.getResult());
+        writer.write(',');
+        writeCsvText(auditLog.getErrorMessage());
+        writer.write(',');
+        writer.write(auditLog.getExecutionTime() != null ? auditLog.getExecutionTime().toString() : "");
+        writer.write("\r\n");
+    }
+
+    private void writeCsvText(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r';
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private void writeJson(AuditLog auditLog) throws IOException {
+        generator.writeStartObject();
+        writeJsonNumber("id", auditLog.getId());
+        writeJsonNumber("userId", auditLog.getUserId());
+        generator.writeStringField("username", auditLog.getUsername());
+        generator.writeStringField("ipAddress", auditLog.getIpAddress());
+        generator.writeStringField("operationTime",
+                auditLog.getOperationTime() != null ? formatTime(auditLog.getOperationTime()) : null);
+        generator.writeStringField("module", auditLog.getModule());
+        generator.writeStringField("operationType", auditLog.getOperationType());
+        generator.writeStringField("description", auditLog.getDescription());
+        generator.writeStringField("requestParams", auditLog.getRequestParams());
+        generator.writeStringField("result", auditLog.getResult());
+        generator.writeStringField("errorMessage", auditLog.getErrorMessage());
+        writeJsonNumber("executionTime", auditLog.getExecutionTime());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeJsonNumber(String field, Long value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(field, value);
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    private static String formatTime(Date time) {
+        return time != null ? TIME_FORMAT.format(time.toInstant()) : "";
+    }
+}
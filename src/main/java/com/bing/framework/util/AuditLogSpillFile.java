@@ -0,0 +1,463 @@
+package com.bing.framework.util;
+
+import com.bing.framework.entity.AuditLog;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * 审计日志溢出文件
+ * 数据库写入失败或缓冲池已满时，审计日志以追加方式写入内存映射的段文件，待数据库恢复后由回放任务写回
+ * 段文件格式：文件头为魔数(4字节)、版本(4字节)、已回放位置(8字节)；
+ * 之后依次为记录，每条记录为长度(4字节)、CRC32(4字节)和JSON内容，长度为0表示段内数据结束
+ * 每次追加后将当前段刷盘，追加成功返回时记录已持久化；只由写入线程调用，不在请求线程上执行
+ * 当前段写满后切换到新段；回放按段序号依次进行，每写回一批就更新段头的已回放位置，段回放完后删除
+ * 回放位置在数据库写入成功之后才更新，进程在两者之间崩溃时该批会被重复写入一次
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+@Slf4j
+public class AuditLogSpillFile {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final int MAGIC = 0x41554C47;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int READ_OFFSET_POSITION = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * 回放时写回一批审计日志，抛出异常表示写入失败
+     */
+    public interface BatchWriter {
+        void write(List<AuditLog> batch) throws Exception;
+    }
+
+    /**
+     * 段文件
+     */
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private boolean hasRecords() {
+            return buffer.position() > HEADER_SIZE;
+        }
+    }
+
+    @Value("${app.audit.spill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.spill.dir:data/audit-spill}")
+    private String directory;
+
+    @Value("${app.audit.spill.segment-size-bytes:16777216}")
+    private int segmentSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // 当前写入的段，首次写入时创建
+    private Segment active;
+
+    private Path spillDirectory;
+    private long nextSequence;
+    private volatile boolean available;
+
+    // 同一时间只允许一个回放过程
+    private final AtomicBoolean replaying = new AtomicBoolean(false);
+
+    // 统计信息
+    private final AtomicLong spilledCount = new AtomicLong(0);
+    private final AtomicLong replayedCount = new AtomicLong(0);
+    private final AtomicLong corruptedCount = new AtomicLong(0);
+
+    /**
+     * 初始化溢出目录，已存在的段文件视为待回放的段
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("审计日志溢出文件未启用");
+            return;
+        }
+        try {
+            spillDirectory = Paths.get(directory).toAbsolutePath();
+            Files.createDirectories(spillDirectory);
+            List<Path> pending = listSegments();
+            nextSequence = pending.isEmpty() ? 1 : sequenceOf(pending.get(pending.size() - 1)) + 1;
+            available = true;
+            log.info("审计日志溢出目录: {}, 待回放段数: {}", spillDirectory, pending.size());
+        } catch (IOException e) {
+            log.error("初始化审计日志溢出目录失败: {}", directory, e);
+        }
+    }
+
+    /**
+     * 溢出文件是否可用
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * 追加一批审计日志
+     *
+     * @param logs 审计日志
+     * @return 是否全部写入成功
+     */
+    public boolean append(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return true;
+        }
+        if (!available) {
+            return false;
+        }
+        // 序列化在锁外完成
+        List<byte[]> payloads = new ArrayList<>(logs.size());
+        try {
+            for (AuditLog auditLog : logs) {
+                payloads.add(objectMapper.writeValueAsBytes(auditLog));
+            }
+        } catch (IOException e) {
+            log.error("序列化审计日志失败", e);
+            return false;
+        }
+
+        synchronized (this) {
+            if (!available) {
+                return false;
+            }
+            try {
+                for (byte[] payload : payloads) {
+                    int required = RECORD_HEADER_SIZE + payload.length;
+                    if (active == null || active.buffer.remaining() < required) {
+                        rotate(required);
+                    }
+                    writeRecord(active.buffer, payload);
+                }
+                // 刷盘后才算写入成功，操作系统崩溃时不丢失已返回成功的记录
+                active.buffer.force();
+                spilledCount.addAndGet(payloads.size());
+                return true;
+            } catch (IOException e) {
+                log.error("写入审计日志溢出文件失败", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 将待回放的段依次写回，写入失败时停止，下次从已回放位置继续
+     * 待回放的段全部写回后，如果当前段有数据，则将其封存以便下次回放
+     *
+     * @param writer 批量写入
+     * @param batchSize 每批条数
+     * @return 本次写回的条数
+     */
+    public long replay(BatchWriter writer, int batchSize) {
+        if (!available || !replaying.compareAndSet(false, true)) {
+            return 0;
+        }
+        long replayed = 0;
+        try {
+            for (Path path : sealedSegments()) {
+                long count = replaySegment(path, writer, batchSize);
+                if (count < 0) {
+                    return replayed;
+                }
+                replayed += count;
+            }
+            sealActive();
+        } finally {
+            replaying.set(false);
+        }
+        return replayed;
+    }
+
+    /**
+     * 待回放的段数，包括有数据的当前段
+     */
+    public int getPendingSegmentCount() {
+        if (!available) {
+            return 0;
+        }
+        synchronized (this) {
+            return sealedSegments().size() + (active != null && active.hasRecords() ? 1 : 0);
+        }
+    }
+
+    /**
+     * 获取溢出文件统计信息
+     */
+    public String getStats() {
+        return String.format("AuditLogSpill Stats: Available=%s, PendingSegments=%d, Spilled=%d, Replayed=%d, Corrupted=%d",
+            available, getPendingSegmentCount(), spilledCount.get(), replayedCount.get(), corruptedCount.get());
+    }
+
+    /**
+     * 关闭当前段并刷盘
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            closeSegment(active);
+            active = null;
+        }
+        available = false;
+    }
+
+    private long replaySegment(Path path, BatchWriter writer, int batchSize) {
+        long replayed = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                quarantine(path, "段文件不完整");
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                quarantine(path, "段文件头无效");
+                return 0;
+            }
+
+            int position = (int) Math.max(buffer.getLong(READ_OFFSET_POSITION), HEADER_SIZE);
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            while (true) {
+                int next = nextRecord(buffer, position, path);
+                if (next < 0) {
+                    break;
+                }
+                AuditLog auditLog = readRecord(buffer, position, next - position);
+                if (auditLog != null) {
+                    batch.add(auditLog);
+                }
+                position = next;
+                if (batch.size() >= batchSize) {
+                    if (!writeBack(writer, batch, buffer, position)) {
+                        return -1;
+                    }
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                if (!writeBack(writer, batch, buffer, position)) {
+                    return -1;
+                }
+                replayed += batch.size();
+            }
+        } catch (IOException e) {
+            log.error("读取审计日志溢出段失败: {}", path, e);
+            return -1;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+            log.info("审计日志溢出段回放完成: {}, 共{}条", path.getFileName(), replayed);
+        } catch (IOException e) {
+            log.warn("删除已回放的审计日志溢出段失败: {}", path, e);
+        }
+        return replayed;
+    }
+
+    private boolean writeBack(BatchWriter writer, List<AuditLog> batch, MappedByteBuffer buffer, int position) {
+        try {
+            writer.write(batch);
+        } catch (Exception e) {
+            log.warn("回放{}条审计日志失败，稍后重试: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        buffer.putLong(READ_OFFSET_POSITION, position);
+        buffer.force();
+        replayedCount.addAndGet(batch.size());
+        return true;
+    }
+
+    /**
+     * 校验position处的记录
+     *
+     * @return 下一条记录的位置，没有更多有效记录时返回-1
+     */
+    private int nextRecord(MappedByteBuffer buffer, int position, Path path) {
+        if (position + RECORD_HEADER_SIZE > buffer.limit()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length == 0) {
+            return -1;
+        }
+        int end = position + RECORD_HEADER_SIZE + length;
+        if (length < 0 || end > buffer.limit() || end < 0) {
+            corruptedCount.incrementAndGet();
+            log.warn("审计日志溢出段{}在位置{}的记录长度无效，忽略其后的数据", path.getFileName(), position);
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(slice(buffer, position + RECORD_HEADER_SIZE, end));
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            corruptedCount.incrementAndGet();
+            log.warn("审计日志溢出段{}在位置{}的记录校验失败，忽略其后的数据", path.getFileName(), position);
+            return -1;
+        }
+        return end;
+    }
+
+    private AuditLog readRecord(MappedByteBuffer buffer, int position, int recordSize) {
+        byte[] payload = new byte[recordSize - RECORD_HEADER_SIZE];
+        slice(buffer, position + RECORD_HEADER_SIZE, position + recordSize).get(payload);
+        try {
+            return objectMapper.readValue(payload, AuditLog.class);
+        } catch (IOException e) {
+            corruptedCount.incrementAndGet();
+            log.warn("解析审计日志溢出记录失败，已跳过: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer buffer, int from, int to) {
+        // 转为Buffer调用，避免在JDK 9+上编译时链接到Java 8运行时不存在的协变返回值方法
+        ByteBuffer view = ((ByteBuffer) buffer).duplicate();
+        ((Buffer) view).limit(to);
+        ((Buffer) view).position(from);
+        return view;
+    }
+
+    private static void writeRecord(MappedByteBuffer buffer, byte[] payload) {
+        int position = buffer.position();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ((Buffer) buffer).position(position + RECORD_HEADER_SIZE);
+        buffer.put(payload);
+        int end = buffer.position();
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // 最后写入长度，长度非0的记录才会被读取
+        buffer.putInt(position, payload.length);
+        ((Buffer) buffer).position(end);
+    }
+
+    /**
+     * 封存当前段并创建新段，新段至少能容纳required字节的记录
+     */
+    private void rotate(int required) throws IOException {
+        if (active != null) {
+            closeSegment(active);
+            active = null;
+        }
+        long sequence = nextSequence++;
+        Path path = spillDirectory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        int size = Math.max(segmentSize, HEADER_SIZE + required);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(HEADER_SIZE);
+            active = new Segment(path, channel, buffer);
+            log.info("创建审计日志溢出段: {}", path.getFileName());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 当前段有数据时将其封存，之后的写入进入新段
+     */
+    private synchronized void sealActive() {
+        if (active != null && active.hasRecords()) {
+            closeSegment(active);
+            active = null;
+        }
+    }
+
+    private void closeSegment(Segment segment) {
+        try {
+            segment.buffer.force();
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("关闭审计日志溢出段失败: {}", segment.path, e);
+        }
+    }
+
+    /**
+     * 已封存的段，按序号排序，不包括当前段
+     */
+    private synchronized List<Path> sealedSegments() {
+        try {
+            List<Path> segments = listSegments();
+            if (active != null) {
+                segments.remove(active.path);
+            }
+            return segments;
+        } catch (IOException e) {
+            log.error("列出审计日志溢出段失败", e);
+            return Collections.emptyList();
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spillDirectory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                if (sequenceOf(path) > 0) {
+                    segments.add(path);
+                }
+            }
+        }
+        segments.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+        return segments;
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private void quarantine(Path path, String reason) {
+        corruptedCount.incrementAndGet();
+        try {
+            Files.move(path, path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            log.error("{}，已隔离审计日志溢出段: {}", reason, path.getFileName());
+        } catch (IOException e) {
+            log.error("{}，隔离审计日志溢出段失败: {}", reason, path, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bing.framework.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计日志溢出文件回放任务
+ * 定期将溢出文件中的审计日志写回数据库，数据库仍不可用时本轮停止，下一轮从已回放位置继续
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+@Slf4j
+public class AuditLogSpillReplayer {
+
+    private final AuditLogSpillFile spillFile;
+    private final AuditLogBatchWriter batchWriter;
+
+    @Value("${app.audit.spill.replay-batch-size:200}")
+    private int replayBatchSize;
+
+    @Autowired
+    public AuditLogSpillReplayer(AuditLogSpillFile spillFile, AuditLogBatchWriter batchWriter) {
+        this.spillFile = spillFile;
+        this.batchWriter = batchWriter;
+    }
+
+    /**
+     * 回放溢出文件
+     */
+    @Scheduled(fixedDelayString = "${app.audit.spill.replay-interval-ms:5000}",
+            initialDelayString = "${app.audit.spill.replay-initial-delay-ms:30000}")
+    public void replay() {
+        if (!spillFile.isAvailable()) {
+            return;
+        }
+        long replayed = spillFile.replay(batchWriter::insertBatch, replayBatchSize);
+        if (replayed > 0) {
+            log.info("已从溢出文件回放{}条审计日志，{}", replayed, spillFile.getStats());
+        }
+    }
+}
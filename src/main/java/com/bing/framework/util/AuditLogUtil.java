@@ -4,8 +4,6 @@ import java.util.Date;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -20,7 +18,7 @@ import java.util.Map;
 
 /**
  * 审计日志工具类
- * 提供手动记录审计日志的便捷方法，支持异步记录到数据库和自定义Appender
+ * 提供手动记录审计日志的便捷方法，审计日志交给AuditLogService入队后异步写入数据库
  * 适用于需要手动记录重要操作的审计场景，如关键业务操作、系统配置变更等
  * 
  * @author zhengbing
@@ -30,7 +28,6 @@ import java.util.Map;
 @Slf4j
 public class AuditLogUtil {
 
-    private static final Logger auditLogger = LoggerFactory.getLogger("AUDIT_LOG");
     private static AuditLogUtil instance;
     
     private final AuditLogService auditLogService;
@@ -127,34 +124,15 @@ public class AuditLogUtil {
     }
     
     /**
-     * 记录日志到数据库和日志系统
+     * 记录日志到数据库
+     * 日志输出由AuditLogService按配置处理，这里不再拼接消息
      * 
      * @param auditLog 审计日志对象
      * @param result 操作结果
      * @param errorMessage 错误信息
      */
     protected void recordLog(AuditLog auditLog, String result, String errorMessage) {
-        // 异步记录审计日志
         auditLogService.recordAuditLogAsync(auditLog);
-        
-        // 同时记录到自定义Appender
-        StringBuilder sb = new StringBuilder();
-        sb.append("userId:").append(auditLog.getUserId() == null ? "" : auditLog.getUserId()).append(",");
-        sb.append("username:").append(auditLog.getUsername()).append(",");
-        sb.append("ipAddress:").append(auditLog.getIpAddress()).append(",");
-        sb.append("module:").append(auditLog.getModule()).append(",");
-        sb.append("operationType:").append(auditLog.getOperationType()).append(",");
-        sb.append("description:").append(auditLog.getDescription()).append(",");
-        sb.append("requestParams:").append(auditLog.getRequestParams()).append(",");
-        sb.append("result:").append(result);
-        
-        if (errorMessage != null) {
-            // 对于错误日志，将错误信息直接添加到日志消息中，而不是作为异常对象
-            sb.append(",errorMessage:").append(errorMessage);
-            auditLogger.info(sb.toString());
-        } else {
-            auditLogger.info(sb.toString());
-        }
     }
     
     /**
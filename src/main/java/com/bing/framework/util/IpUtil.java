@@ -3,6 +3,7 @@ package com.bing.framework.util;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.util.Enumeration;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -71,6 +72,37 @@ public class IpUtil {
         }
     }
 
+    /**
+     * 获取客户端IP地址，只信任来自可信代理的X-Forwarded-For
+     * 直连地址不是可信代理时直接返回直连地址；否则从X-Forwarded-For末尾向前，
+     * 跳过可信代理，返回第一个有效地址。客户端可以任意伪造请求头，限流等安全判断应使用此方法
+     *
+     * @param request HTTP请求
+     * @param trustedProxies 可信代理的IP地址
+     * @return 客户端IP地址
+     */
+    public static String getClientIpAddress(HttpServletRequest request, Set<String> trustedProxies) {
+        String remoteAddr = request.getRemoteAddr();
+        if (trustedProxies == null || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isEmpty()) {
+            return remoteAddr;
+        }
+        String[] ips = forwardedFor.split(",");
+        for (int i = ips.length - 1; i >= 0; i--) {
+            String ip = ips[i].trim();
+            if (!isValidIp(ip)) {
+                break;
+            }
+            if (!trustedProxies.contains(ip)) {
+                return ip;
+            }
+        }
+        return remoteAddr;
+    }
+
     /**
      * 获取服务器本地IP地址
      */
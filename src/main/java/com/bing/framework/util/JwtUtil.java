@@ -1,10 +1,17 @@
 package com.bing.framework.util;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -12,9 +19,13 @@ import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.bing.framework.cache.MemoryCache;
+
 /**
  * JWT工具类
  * 提供JWT令牌的生成、解析、验证和刷新功能
+ * verify方法只解析并校验一次签名，返回不可变的声明视图；校验通过的令牌按其哈希缓存至令牌过期，
+ * 同一令牌的后续请求不再重复进行HMAC校验和JSON解析
  * 
  * @author zhengbing
  * @date 2025-11-05
@@ -39,6 +50,45 @@ public class JwtUtil {
      */
     @Value("${jwt.refresh.expiration:72}")
     private Integer refreshExpiration;
+    
+    /**
+     * 是否启用已验证令牌缓存
+     */
+    @Value("${jwt.verify-cache.enabled:true}")
+    private boolean verifyCacheEnabled = true;
+    
+    /**
+     * 已验证令牌缓存的最大条目数
+     */
+    @Value("${jwt.verify-cache.max-size:10000}")
+    private long verifyCacheMaxSize = 10000;
+    
+    /**
+     * 已验证令牌缓存，键为令牌的SHA-256摘要
+     */
+    private MemoryCache verifiedTokens;
+    
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+    
+    @PostConstruct
+    public void init() {
+        if (verifyCacheEnabled) {
+            verifiedTokens = new MemoryCache(verifyCacheMaxSize, -1, 5);
+        }
+    }
+    
+    @PreDestroy
+    public void destroy() {
+        if (verifiedTokens != null) {
+            verifiedTokens.shutdown();
+        }
+    }
 
     /**
      * 生成访问令牌
@@ -55,7 +105,7 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
-        claims.put("type", "access");
+        claims.put("type", VerifiedToken.TYPE_ACCESS);
         
         // 生成JWT令牌
         return Jwts.builder()
@@ -81,7 +131,7 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
-        claims.put("type", "refresh");
+        claims.put("type", VerifiedToken.TYPE_REFRESH);
         
         // 生成JWT刷新令牌
         return Jwts.builder()
@@ -105,6 +155,34 @@ public class JwtUtil {
                 .getBody();
     }
 
+    /**
+     * 验证JWT令牌并返回声明视图
+     * 缓存命中且未过期时直接返回，否则解析并校验签名后放入缓存，缓存时间截止到令牌的过期时间
+     * 
+     * @param token JWT令牌
+     * @return 不可变的声明视图
+     * @throws io.jsonwebtoken.JwtException 令牌签名无效、格式错误或已过期时抛出
+     */
+    public VerifiedToken verify(String token) {
+        String cacheKey = null;
+        if (verifiedTokens != null) {
+            cacheKey = digest(token);
+            VerifiedToken cached = (VerifiedToken) verifiedTokens.get(cacheKey);
+            if (cached != null && !cached.isExpired()) {
+                return cached;
+            }
+        }
+        
+        VerifiedToken verified = VerifiedToken.from(parseToken(token));
+        if (cacheKey != null && verified.getExpirationMillis() != Long.MAX_VALUE) {
+            long ttlMillis = verified.getExpirationMillis() - System.currentTimeMillis();
+            if (ttlMillis > 0) {
+                verifiedTokens.put(cacheKey, verified, ttlMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return verified;
+    }
+
     /**
      * 从JWT令牌中获取用户ID
      * 
@@ -112,8 +190,7 @@ public class JwtUtil {
      * @return 用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = parseToken(token);
-        return Long.valueOf(claims.get("userId").toString());
+        return verify(token).getUserId();
     }
 
     /**
@@ -123,8 +200,7 @@ public class JwtUtil {
      * @return 用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("username").toString();
+        return verify(token).getUsername();
     }
 
     /**
@@ -135,13 +211,9 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            Claims claims = parseToken(token);
-            // 检查是否过期
-            if (claims.getExpiration().before(new Date())) {
-                return false;
-            }
-            // 检查令牌类型
-            return "access".equals(claims.get("type"));
+            VerifiedToken verified = verify(token);
+            // 检查是否过期及令牌类型
+            return !verified.isExpired() && verified.isAccessToken();
         } catch (Exception e) {
             return false;
         }
@@ -155,18 +227,29 @@ public class JwtUtil {
      */
     public boolean validateRefreshToken(String refreshToken) {
         try {
-            Claims claims = parseToken(refreshToken);
-            // 检查是否过期
-            if (claims.getExpiration().before(new Date())) {
-                return false;
-            }
-            // 检查令牌类型
-            return "refresh".equals(claims.get("type"));
+            VerifiedToken verified = verify(refreshToken);
+            // 检查是否过期及令牌类型
+            return !verified.isExpired() && verified.isRefreshToken();
         } catch (Exception e) {
             return false;
         }
     }
     
+    /**
+     * 获取已验证令牌缓存的统计信息
+     * 
+     * @return 统计信息，未启用缓存时返回null
+     */
+    public String getVerifyCacheStats() {
+        return verifiedTokens != null ? verifiedTokens.getStats() : null;
+    }
+    
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+    
     /**
      * 获取刷新令牌过期时间
      * 
@@ -0,0 +1,504 @@
+package com.bing.framework.util;
+
+import com.bing.framework.config.AuditLogConfigProperties;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 日志表分区管理器
+ * 审计日志表和登录记录表按时间列做RANGE COLUMNS分区（见sql/log_partition.sql），本任务每天执行一次：
+ * 按配置的粒度（天或月）提前创建后续分区，并将整个分区都早于保留期限的分区归档后删除
+ * 删除分区是元数据操作，不需要逐行删除；归档文件为gzip压缩的NDJSON，每行一条记录
+ * 使用审计日志专用数据源执行，多实例部署时通过数据库命名锁保证同一时间只有一个实例在维护
+ * 归档整个分区耗时较长，定时任务只把维护交给专用线程执行，不占用共享的定时任务线程
+ * 表未分区时跳过，登录记录清理仍使用按时间删除
+ * 同一任务按保留天数分块删除security_event表中的过期安全事件，该表未分区，不受分区维护开关控制
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Component
+@Slf4j
+public class LogTablePartitionManager {
+
+    /**
+     * 按时间分区的日志表
+     */
+    public enum LogTable {
+        AUDIT_LOG("audit_log"),
+        LOGIN_RECORD("login_record");
+
+        private final String tableName;
+
+        LogTable(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+    }
+
+    /**
+     * 分区粒度
+     */
+    enum Granularity {
+        DAY, MONTH
+    }
+
+    /**
+     * 已有的范围分区，upperBound为null表示MAXVALUE分区
+     */
+    static final class RangePartition {
+        final String name;
+        final LocalDateTime upperBound;
+        final long estimatedRows;
+
+        RangePartition(String name, LocalDateTime upperBound, long estimatedRows) {
+            this.name = name;
+            this.upperBound = upperBound;
+            this.estimatedRows = estimatedRows;
+        }
+    }
+
+    private static final String MAXVALUE = "MAXVALUE";
+    private static final String LOCK_NAME = "bing_log_partition_maintenance";
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter DAY_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String SECURITY_EVENT_PURGE = "DELETE FROM security_event WHERE last_time < ? LIMIT ?";
+    private static final int SECURITY_EVENT_PURGE_CHUNK = 5000;
+
+    private static final String PARTITION_QUERY = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS "
+            + "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+            + "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final DataSource auditDataSource;
+    private final AuditLogConfigProperties configProperties;
+    private final Clock clock;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * 安全事件保留天数，不大于0时不清理
+     */
+    @Value("${app.security.event.retention-days:30}")
+    private int securityEventRetentionDays = 30;
+
+    // 未分区的表只提示一次
+    private final Set<LogTable> unpartitionedTables = ConcurrentHashMap.newKeySet();
+
+    // 分区维护专用线程，上一次维护未结束时跳过本次
+    private final ExecutorService maintenanceExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-partition-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean maintaining = new AtomicBoolean(false);
+
+    @Autowired
+    public LogTablePartitionManager(@Qualifier("auditDataSource") DataSource auditDataSource,
+                                    AuditLogConfigProperties configProperties) {
+        this(auditDataSource, configProperties, Clock.systemDefaultZone());
+    }
+
+    LogTablePartitionManager(DataSource auditDataSource, AuditLogConfigProperties configProperties, Clock clock) {
+        this.auditDataSource = auditDataSource;
+        this.configProperties = configProperties;
+        this.clock = clock;
+    }
+
+    /**
+     * 定时维护分区：在专用线程上预建分区、清理过期分区和过期的安全事件
+     */
+    @Scheduled(cron = "${app.audit.partition-cron:0 10 0 * * ?}")
+    public void maintainPartitions() {
+        if (!maintaining.compareAndSet(false, true)) {
+            log.info("上一次日志表分区维护尚未结束，本次跳过");
+            return;
+        }
+        maintenanceExecutor.execute(() -> {
+            try {
+                maintainNow();
+            } finally {
+                maintaining.set(false);
+            }
+        });
+    }
+
+    /**
+     * 在当前线程上维护分区
+     */
+    void maintainNow() {
+        boolean partitionEnabled = Boolean.TRUE.equals(configProperties.getPartitionEnabled());
+        if (!partitionEnabled && securityEventRetentionDays <= 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now(clock);
+        try (Connection connection = auditDataSource.getConnection()) {
+            if (!acquireLock(connection)) {
+                log.info("其他实例正在维护日志表分区，本次跳过");
+                return;
+            }
+            try {
+                if (partitionEnabled) {
+                    maintain(connection, LogTable.AUDIT_LOG, today, configProperties.getRetentionDays());
+                    maintain(connection, LogTable.LOGIN_RECORD, today, configProperties.getLoginRecordRetentionDays());
+                }
+                if (securityEventRetentionDays > 0) {
+                    purgeSecurityEvents(connection, today.minusDays(securityEventRetentionDays).atStartOfDay());
+                }
+            } finally {
+                releaseLock(connection);
+            }
+        } catch (SQLException e) {
+            log.error("维护日志表分区失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenanceExecutor.shutdown();
+    }
+
+    /**
+     * 归档并删除整个分区都早于截止时间的分区
+     *
+     * @param table 日志表
+     * @param cutoff 截止时间
+     * @return 删除的记录数（未归档时为统计信息中的估算值），表未分区或未能执行时返回-1
+     */
+    public long purgeExpiredPartitions(LogTable table, LocalDateTime cutoff) {
+        if (!Boolean.TRUE.equals(configProperties.getPartitionEnabled())) {
+            return -1;
+        }
+        try (Connection connection = auditDataSource.getConnection()) {
+            if (!acquireLock(connection)) {
+                return -1;
+            }
+            try {
+                List<RangePartition> partitions = loadPartitions(connection, table);
+                if (partitions.isEmpty()) {
+                    return -1;
+                }
+                return purge(connection, table, partitions, cutoff);
+            } finally {
+                releaseLock(connection);
+            }
+        } catch (SQLException | IOException e) {
+            log.error("清理{}过期分区失败", table.getTableName(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * 分块删除早于截止时间的安全事件，每块单独提交，避免长事务和大量锁
+     *
+     * @return 删除的记录数
+     */
+    long purgeSecurityEvents(Connection connection, LocalDateTime cutoff) {
+        long deleted = 0;
+        try (PreparedStatement statement = connection.prepareStatement(SECURITY_EVENT_PURGE)) {
+            statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+            statement.setInt(2, SECURITY_EVENT_PURGE_CHUNK);
+            int count;
+            do {
+                count = statement.executeUpdate();
+                deleted += count;
+            } while (count >= SECURITY_EVENT_PURGE_CHUNK);
+            if (deleted > 0) {
+                log.info("已删除{}条{}之前的安全事件", deleted, cutoff);
+            }
+        } catch (SQLException e) {
+            log.error("清理过期安全事件失败", e);
+        }
+        return deleted;
+    }
+
+    private void maintain(Connection connection, LogTable table, LocalDate today, Integer retentionDays) {
+        try {
+            List<RangePartition> partitions = loadPartitions(connection, table);
+            if (partitions.isEmpty()) {
+                if (unpartitionedTables.add(table)) {
+                    log.warn("{}未按时间分区，跳过分区维护，请先执行sql/log_partition.sql", table.getTableName());
+                }
+                return;
+            }
+            List<RangePartition> toCreate = partitionsToCreate(partitions, today,
+                    parseGranularity(configProperties.getPartitionGranularity()),
+                    configProperties.getPartitionPrecreateCount());
+            if (!toCreate.isEmpty()) {
+                createPartitions(connection, table, partitions, toCreate);
+            }
+            if (retentionDays != null && retentionDays > 0) {
+                purge(connection, table, loadPartitions(connection, table), today.minusDays(retentionDays).atStartOfDay());
+            }
+        } catch (SQLException | IOException e) {
+            log.error("维护{}分区失败", table.getTableName(), e);
+        }
+    }
+
+    private List<RangePartition> loadPartitions(Connection connection, LogTable table) throws SQLException {
+        List<RangePartition> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(PARTITION_QUERY)) {
+            statement.setString(1, table.getTableName());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    String description = rs.getString(2);
+                    if (MAXVALUE.equalsIgnoreCase(description)) {
+                        partitions.add(new RangePartition(name, null, rs.getLong(3)));
+                        continue;
+                    }
+                    LocalDateTime upperBound = parseBound(description);
+                    if (upperBound == null) {
+                        log.warn("无法解析{}分区{}的上界: {}，请使用RANGE COLUMNS按时间列分区",
+                                table.getTableName(), name, description);
+                        return Collections.emptyList();
+                    }
+                    partitions.add(new RangePartition(name, upperBound, rs.getLong(3)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private void createPartitions(Connection connection, LogTable table, List<RangePartition> existing,
+                                  List<RangePartition> toCreate) throws SQLException {
+        StringBuilder definitions = new StringBuilder();
+        for (RangePartition partition : toCreate) {
+            if (definitions.length() > 0) {
+                definitions.append(", ");
+            }
+            definitions.append("PARTITION ").append(partition.name)
+                    .append(" VALUES LESS THAN ('").append(partition.upperBound.format(BOUND_FORMAT)).append("')");
+        }
+        RangePartition maxValuePartition = existing.get(existing.size() - 1).upperBound == null
+                ? existing.get(existing.size() - 1) : null;
+        String ddl;
+        if (maxValuePartition != null) {
+            // MAXVALUE分区在预建范围内通常没有数据，拆分几乎不复制数据
+            ddl = "ALTER TABLE " + table.getTableName() + " REORGANIZE PARTITION " + maxValuePartition.name
+                    + " INTO (" + definitions + ", PARTITION " + maxValuePartition.name + " VALUES LESS THAN (MAXVALUE))";
+        } else {
+            ddl = "ALTER TABLE " + table.getTableName() + " ADD PARTITION (" + definitions + ")";
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(ddl);
+        }
+        log.info("{}已预建{}个分区，最新分区: {}", table.getTableName(), toCreate.size(),
+                toCreate.get(toCreate.size() - 1).name);
+    }
+
+    private long purge(Connection connection, LogTable table, List<RangePartition> partitions,
+                       LocalDateTime cutoff) throws SQLException, IOException {
+        long removed = 0;
+        for (RangePartition partition : expiredPartitions(partitions, cutoff)) {
+            long rows = Boolean.TRUE.equals(configProperties.getArchiveEnabled())
+                    ? archive(connection, table, partition) : partition.estimatedRows;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + table.getTableName() + " DROP PARTITION " + partition.name);
+            }
+            removed += rows;
+            log.info("{}已删除过期分区{}，记录数: {}", table.getTableName(), partition.name, rows);
+        }
+        return removed;
+    }
+
+    /**
+     * 将分区数据导出为gzip压缩的NDJSON文件，先写临时文件，完整写出后再改名
+     *
+     * @return 导出的记录数
+     */
+    private long archive(Connection connection, LogTable table, RangePartition partition)
+            throws SQLException, IOException {
+        Path directory = Paths.get(configProperties.getArchiveDir(), table.getTableName()).toAbsolutePath();
+        Files.createDirectories(directory);
+        Path target = directory.resolve(table.getTableName() + "-" + partition.name + ".ndjson.gz");
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        long rows = 0;
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // MySQL驱动在fetchSize为Integer.MIN_VALUE时逐行流式读取，不把整个分区加载到内存
+            statement.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT * FROM " + table.getTableName() + " PARTITION (" + partition.name + ")");
+                 OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), 65536);
+                 JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                generator.setRootValueSeparator(null);
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                while (rs.next()) {
+                    generator.writeStartObject();
+                    for (int i = 1; i <= columnCount; i++) {
+                        generator.writeFieldName(metaData.getColumnLabel(i));
+                        writeValue(generator, rs.getObject(i));
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    rows++;
+                }
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("{}分区{}已归档到{}，记录数: {}", table.getTableName(), partition.name, target, rows);
+        return rows;
+    }
+
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof Number) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            generator.writeString(((Timestamp) value).toLocalDateTime().format(BOUND_FORMAT));
+        } else if (value instanceof LocalDateTime) {
+            generator.writeString(((LocalDateTime) value).format(BOUND_FORMAT));
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        } catch (SQLException e) {
+            log.warn("释放分区维护锁失败", e);
+        }
+    }
+
+    /**
+     * 计算需要新建的分区，使分区覆盖到当前周期之后precreateCount个周期
+     * 从最新分区的上界开始连续创建，避免出现空洞
+     */
+    static List<RangePartition> partitionsToCreate(List<RangePartition> existing, LocalDate today,
+                                                   Granularity granularity, Integer precreateCount) {
+        LocalDateTime latest = null;
+        for (RangePartition partition : existing) {
+            if (partition.upperBound != null && (latest == null || partition.upperBound.isAfter(latest))) {
+                latest = partition.upperBound;
+            }
+        }
+        LocalDateTime currentPeriod = periodStart(today, granularity).atStartOfDay();
+        LocalDateTime target = currentPeriod;
+        int periods = precreateCount != null && precreateCount > 0 ? precreateCount : 1;
+        for (int i = 0; i <= periods; i++) {
+            target = nextBoundary(target, granularity);
+        }
+
+        List<RangePartition> toCreate = new ArrayList<>();
+        LocalDateTime start = latest != null ? latest : currentPeriod;
+        while (start.isBefore(target)) {
+            LocalDateTime end = nextBoundary(start, granularity);
+            toCreate.add(new RangePartition(partitionName(start.toLocalDate(), granularity), end, 0));
+            start = end;
+        }
+        return toCreate;
+    }
+
+    /**
+     * 整个分区都早于截止时间的分区，MAXVALUE分区和表的最后一个分区不会被删除
+     */
+    static List<RangePartition> expiredPartitions(List<RangePartition> partitions, LocalDateTime cutoff) {
+        List<RangePartition> expired = new ArrayList<>();
+        for (RangePartition partition : partitions) {
+            if (partition.upperBound != null && !partition.upperBound.isAfter(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        if (!expired.isEmpty() && expired.size() == partitions.size()) {
+            expired.remove(expired.size() - 1);
+        }
+        return expired;
+    }
+
+    static String partitionName(LocalDate start, Granularity granularity) {
+        return "p" + start.format(granularity == Granularity.MONTH ? MONTH_NAME_FORMAT : DAY_NAME_FORMAT);
+    }
+
+    /**
+     * 解析RANGE COLUMNS分区的上界，如'2026-10-17 00:00:00'
+     */
+    static LocalDateTime parseBound(String description) {
+        if (description == null) {
+            return null;
+        }
+        String value = description.trim();
+        if (value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value, BOUND_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static Granularity parseGranularity(String value) {
+        return "MONTH".equalsIgnoreCase(value) ? Granularity.MONTH : Granularity.DAY;
+    }
+
+    private static LocalDate periodStart(LocalDate date, Granularity granularity) {
+        return granularity == Granularity.MONTH ? date.withDayOfMonth(1) : date;
+    }
+
+    private static LocalDateTime nextBoundary(LocalDateTime start, Granularity granularity) {
+        LocalDate date = start.toLocalDate();
+        return (granularity == Granularity.MONTH ? date.withDayOfMonth(1).plusMonths(1) : date.plusDays(1)).atStartOfDay();
+    }
+}
@@ -0,0 +1,144 @@
+package com.bing.framework.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 多生产者单消费者的有界环形缓冲区
+ * 槽位数组在创建时一次性分配，入队不创建节点对象；生产者通过CAS抢占写入序号，
+ * 满时立即返回false，不阻塞也不自旋等待；每个槽位保存一个序号，消费者据此判断元素是否已发布
+ * 只能有一个线程调用poll/drainTo
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+
+    // 生产者抢占的下一个写入序号
+    private final AtomicLong producerIndex = new AtomicLong(0);
+
+    // 消费者的下一个读取序号，仅消费者线程写入
+    private volatile long consumerIndex = 0;
+
+    /**
+     * 创建环形缓冲区
+     *
+     * @param requestedCapacity 期望容量，会向上取整为2的幂
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0");
+        }
+        this.capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队，可由多个线程并发调用
+     *
+     * @param element 元素，非空
+     * @return 是否入队成功，缓冲区已满时返回false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("元素不能为空");
+        }
+        while (true) {
+            long index = producerIndex.get();
+            int slot = (int) index & mask;
+            long sequence = sequences.get(slot);
+            long diff = sequence - index;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    elements.lazySet(slot, element);
+                    // 发布：消费者看到序号变为index+1后才会读取该槽位
+                    sequences.lazySet(slot, index + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 槽位尚未被消费者释放，缓冲区已满
+                return false;
+            }
+            // diff > 0：其他生产者已抢占该序号，重新读取
+        }
+    }
+
+    /**
+     * 出队，只能由消费者线程调用
+     *
+     * @return 队头元素，缓冲区为空或队头尚未发布时返回null
+     */
+    public E poll() {
+        long index = consumerIndex;
+        int slot = (int) index & mask;
+        if (sequences.get(slot) != index + 1) {
+            return null;
+        }
+        E element = elements.get(slot);
+        elements.lazySet(slot, null);
+        // 释放槽位给下一轮生产者
+        sequences.lazySet(slot, index + capacity);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * 批量出队，只能由消费者线程调用
+     *
+     * @param target 目标集合
+     * @param maxElements 最多取出的元素数量
+     * @return 实际取出的元素数量
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 当前元素数量的近似值
+     *
+     * @return 元素数量
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 实际容量
+     *
+     * @return 容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,208 @@
+package com.bing.framework.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * 预编译的Ant风格路径匹配器
+ * 创建后不可修改，可在多线程间共享，模式变化时整体替换实例即可
+ * 模式按形态分为三类分别处理：
+ * - 不含通配符的模式放入哈希集合，精确匹配
+ * - 形如 /a/b/** 的前缀模式放入按路径段组织的前缀树，沿请求路径逐段查找
+ * - 其余通配符模式按第一个通配符之前的字面前缀过滤后，再交给AntPathMatcher匹配
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class PathPatternMatcher {
+
+    private static final String SEPARATOR = "/";
+    private static final String SUBTREE_SUFFIX = "/**";
+
+    private final Set<String> exactPatterns = new HashSet<>();
+    private final SegmentNode prefixRoot = new SegmentNode();
+    private final List<WildcardPattern> wildcardPatterns = new ArrayList<>();
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private final int patternCount;
+
+    /**
+     * 前缀树节点
+     */
+    private static final class SegmentNode {
+        private final Map<String, SegmentNode> children = new HashMap<>();
+        private boolean matchesSubtree;
+    }
+
+    /**
+     * 带字面前缀的通配符模式
+     */
+    private static final class WildcardPattern {
+        private final String pattern;
+        private final String literalPrefix;
+
+        private WildcardPattern(String pattern, String literalPrefix) {
+            this.pattern = pattern;
+            this.literalPrefix = literalPrefix;
+        }
+    }
+
+    private PathPatternMatcher(Collection<String> patterns) {
+        int count = 0;
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            count++;
+            if (!hasWildcard(pattern)) {
+                exactPatterns.add(pattern);
+            } else if (isSubtreePattern(pattern)) {
+                addSubtree(pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length()));
+            } else {
+                wildcardPatterns.add(new WildcardPattern(pattern, literalPrefix(pattern)));
+            }
+        }
+        this.patternCount = count;
+    }
+
+    /**
+     * 编译一组模式
+     *
+     * @param patterns Ant风格路径模式
+     * @return 匹配器
+     */
+    public static PathPatternMatcher compile(Collection<String> patterns) {
+        return new PathPatternMatcher(patterns != null ? patterns : Collections.<String>emptyList());
+    }
+
+    /**
+     * 空匹配器，不匹配任何路径
+     *
+     * @return 匹配器
+     */
+    public static PathPatternMatcher empty() {
+        return compile(Collections.<String>emptyList());
+    }
+
+    /**
+     * 判断路径是否匹配任一模式
+     *
+     * @param path 请求路径
+     * @return 是否匹配
+     */
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty()) {
+            return false;
+        }
+        if (exactPatterns.contains(path)) {
+            return true;
+        }
+        if (matchesSubtree(path)) {
+            return true;
+        }
+        for (WildcardPattern wildcard : wildcardPatterns) {
+            if (path.startsWith(wildcard.literalPrefix) && antPathMatcher.match(wildcard.pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 编译的模式数量
+     *
+     * @return 模式数量
+     */
+    public int size() {
+        return patternCount;
+    }
+
+    private boolean matchesSubtree(String path) {
+        SegmentNode node = prefixRoot;
+        if (node.matchesSubtree) {
+            return path.startsWith(SEPARATOR);
+        }
+        if (!path.startsWith(SEPARATOR)) {
+            return false;
+        }
+        int start = 1;
+        int length = path.length();
+        while (start <= length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    return false;
+                }
+                if (node.matchesSubtree) {
+                    return true;
+                }
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private void addSubtree(String prefix) {
+        SegmentNode node = prefixRoot;
+        for (String segment : prefix.split(SEPARATOR)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            SegmentNode child = node.children.get(segment);
+            if (child == null) {
+                child = new SegmentNode();
+                node.children.put(segment, child);
+            }
+            node = child;
+        }
+        node.matchesSubtree = true;
+    }
+
+    /**
+     * 是否为 /字面路径/** 形式的前缀模式
+     */
+    private static boolean isSubtreePattern(String pattern) {
+        if (!pattern.startsWith(SEPARATOR) || !pattern.endsWith(SUBTREE_SUFFIX)) {
+            return false;
+        }
+        String prefix = pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length());
+        return !hasWildcard(prefix);
+    }
+
+    private static boolean hasWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 第一个通配符所在路径段之前的字面前缀，匹配的路径必然以其开头
+     */
+    private static String literalPrefix(String pattern) {
+        int wildcardIndex = 0;
+        while (wildcardIndex < pattern.length()) {
+            char c = pattern.charAt(wildcardIndex);
+            if (c == '*' || c == '?' || c == '{') {
+                break;
+            }
+            wildcardIndex++;
+        }
+        int segmentStart = pattern.lastIndexOf('/', wildcardIndex);
+        return segmentStart > 0 ? pattern.substring(0, segmentStart) : "";
+    }
+}
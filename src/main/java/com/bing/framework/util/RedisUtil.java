@@ -1,16 +1,31 @@
 package com.bing.framework.util;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.Map;
 import java.util.Set;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -18,6 +33,8 @@ import org.springframework.util.CollectionUtils;
  * Redis工具类
  * 提供Redis操作的便捷方法，封装了RedisTemplate的常用操作，简化开发流程
  * 包含String、Hash、Set、List等数据类型的基本操作，以及分布式锁等高级功能
+ * 批量操作使用Pipeline在一次网络往返中提交多条命令，并统计节省的往返次数
+ * 按模式匹配键时使用SCAN游标增量遍历，删除时分批UNLINK，避免KEYS/DEL阻塞Redis
  * 
  * @author zhengbing
  * @date 2025-11-01
@@ -28,6 +45,18 @@ public class RedisUtil {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    // 每次SCAN返回的建议键数量
+    @Value("${spring.redis.scan.count:500}")
+    private int scanCount = 500;
+
+    // 按模式删除时每批UNLINK的键数量
+    @Value("${spring.redis.scan.unlink-batch-size:500}")
+    private int unlinkBatchSize = 500;
+
+    // Pipeline统计：提交的命令数与实际网络往返次数
+    private final AtomicLong pipelinedCommands = new AtomicLong(0);
+    private final AtomicLong pipelineRoundTrips = new AtomicLong(0);
+
     // ================================ String类型操作 ================================
 
     /**
@@ -646,6 +675,61 @@ public class RedisUtil {
         }
     }
 
+    // ================================ ZSet类型操作 ================================
+
+    /**
+     * 向有序集合添加元素，元素已存在时更新分数
+     * 
+     * @param key 缓存键，非空
+     * @param value 元素值
+     * @param score 分数
+     * @return boolean 操作是否成功
+     */
+    public boolean zAdd(String key, Object value, double score) {
+        try {
+            redisTemplate.opsForZSet().add(key, value, score);
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 获取有序集合中分数在指定范围内的元素（闭区间）
+     * 
+     * @param key 缓存键，非空
+     * @param min 最小分数
+     * @param max 最大分数
+     * @return Set<Object> 按分数升序排列的元素，操作失败时返回null
+     */
+    public Set<Object> zRangeByScore(String key, double min, double max) {
+        try {
+            return redisTemplate.opsForZSet().rangeByScore(key, min, max);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 移除有序集合中分数在指定范围内的元素（闭区间）
+     * 
+     * @param key 缓存键，非空
+     * @param min 最小分数
+     * @param max 最大分数
+     * @return long 移除的元素数量
+     */
+    public long zRemoveRangeByScore(String key, double min, double max) {
+        try {
+            Long removed = redisTemplate.opsForZSet().removeRangeByScore(key, min, max);
+            return removed != null ? removed : 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
     // ================================ 分布式锁相关 ================================
 
     /**
@@ -689,38 +773,342 @@ public class RedisUtil {
         return result != null && result > 0;
     }
 
+    // ================================ 批量操作（Pipeline） ================================
+
+    /**
+     * 批量获取多个键的值
+     * <p>
+     * 使用一次MGET命令获取，不存在的键不会出现在结果中
+     * </p>
+     *
+     * @param keys 键集合
+     * @return Map<String, Object> 键到值的映射，保持keys的迭代顺序
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (CollectionUtils.isEmpty(keys)) {
+            return result;
+        }
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        recordPipeline(keys.size());
+        if (values == null) {
+            return result;
+        }
+        Iterator<Object> valueIterator = values.iterator();
+        for (String key : keys) {
+            Object value = valueIterator.hasNext() ? valueIterator.next() : null;
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量获取多个键的值及剩余过期时间
+     * <p>
+     * 每个键的GET与PTTL命令通过Pipeline在一次网络往返中提交，不存在的键不会出现在结果中
+     * </p>
+     *
+     * @param keys 键集合
+     * @return Map<String, TtlValue> 键到值及剩余过期时间的映射，保持keys的迭代顺序
+     */
+    public Map<String, TtlValue> getAllWithTtl(Collection<String> keys) {
+        Map<String, TtlValue> result = new LinkedHashMap<>();
+        if (CollectionUtils.isEmpty(keys)) {
+            return result;
+        }
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (String key : keys) {
+                    ops.opsForValue().get(key);
+                    ops.getExpire(key, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            }
+        });
+        recordPipeline(keys.size() * 2);
+        Iterator<Object> replyIterator = replies.iterator();
+        for (String key : keys) {
+            Object value = replyIterator.hasNext() ? replyIterator.next() : null;
+            Object ttl = replyIterator.hasNext() ? replyIterator.next() : null;
+            // PTTL返回-2表示键在两条命令之间已过期
+            if (value != null && ttl instanceof Long && (Long) ttl != -2L) {
+                result.put(key, new TtlValue(value, (Long) ttl));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量设置多个键值对，所有键使用相同的过期时间
+     *
+     * @param values 键值对
+     * @param time 过期时间，小于等于0表示永久有效
+     * @param timeUnit 时间单位
+     * @return boolean 操作是否成功
+     */
+    public boolean setAll(Map<String, Object> values, long time, TimeUnit timeUnit) {
+        if (CollectionUtils.isEmpty(values)) {
+            return true;
+        }
+        Map<String, Long> ttlMillis = new LinkedHashMap<>();
+        long millis = time > 0 ? timeUnit.toMillis(time) : -1;
+        for (String key : values.keySet()) {
+            ttlMillis.put(key, millis);
+        }
+        return setAll(values, ttlMillis);
+    }
+
+    /**
+     * 批量设置多个键值对，每个键可指定不同的过期时间
+     * <p>
+     * 所有SET命令通过Pipeline在一次网络往返中提交
+     * </p>
+     *
+     * @param values 键值对
+     * @param ttlMillis 每个键的过期时间（毫秒），缺失或小于等于0表示永久有效
+     * @return boolean 操作是否成功
+     */
+    public boolean setAll(Map<String, Object> values, Map<String, Long> ttlMillis) {
+        if (CollectionUtils.isEmpty(values)) {
+            return true;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (Map.Entry<String, Object> entry : values.entrySet()) {
+                        Long ttl = ttlMillis != null ? ttlMillis.get(entry.getKey()) : null;
+                        if (ttl != null && ttl > 0) {
+                            ops.opsForValue().set(entry.getKey(), entry.getValue(), ttl, TimeUnit.MILLISECONDS);
+                        } else {
+                            ops.opsForValue().set(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    return null;
+                }
+            });
+            recordPipeline(values.size());
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 批量删除多个键
+     * <p>
+     * 使用一次DEL命令删除
+     * </p>
+     *
+     * @param keys 键集合
+     * @return long 实际删除的键数量
+     */
+    public long deleteAll(Collection<String> keys) {
+        if (CollectionUtils.isEmpty(keys)) {
+            return 0;
+        }
+        Long count = redisTemplate.delete(keys);
+        recordPipeline(keys.size());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 批量获取多个Hash的所有字段
+     * <p>
+     * 各键的HGETALL命令通过Pipeline在一次网络往返中提交
+     * </p>
+     *
+     * @param keys Hash键集合
+     * @return Map<String, Map<Object, Object>> 键到Hash内容的映射，不存在的键对应空Map
+     */
+    public Map<String, Map<Object, Object>> hgetAll(Collection<String> keys) {
+        Map<String, Map<Object, Object>> result = new LinkedHashMap<>();
+        if (CollectionUtils.isEmpty(keys)) {
+            return result;
+        }
+        List<Object> entries = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (String key : keys) {
+                    ops.opsForHash().entries(key);
+                }
+                return null;
+            }
+        });
+        recordPipeline(keys.size());
+        Iterator<Object> entryIterator = entries.iterator();
+        for (String key : keys) {
+            Object entry = entryIterator.hasNext() ? entryIterator.next() : null;
+            result.put(key, toHashEntries(entry));
+        }
+        return result;
+    }
+
+    /**
+     * 向频道批量发布消息
+     * <p>
+     * 所有PUBLISH命令通过Pipeline在一次网络往返中提交
+     * </p>
+     *
+     * @param channel 频道名称
+     * @param messages 消息集合
+     * @return boolean 操作是否成功
+     */
+    public boolean publishAll(String channel, Collection<?> messages) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return true;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    for (Object message : messages) {
+                        operations.convertAndSend(channel, message);
+                    }
+                    return null;
+                }
+            });
+            recordPipeline(messages.size());
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 获取批量操作节省的网络往返次数
+     *
+     * @return long 节省的往返次数（命令数 - 实际往返次数）
+     */
+    public long getRoundTripsSaved() {
+        return pipelinedCommands.get() - pipelineRoundTrips.get();
+    }
+
+    /**
+     * 获取批量操作统计信息
+     *
+     * @return 统计信息字符串
+     */
+    public String getBatchStats() {
+        return String.format("RedisBatch Stats: Commands=%d, RoundTrips=%d, RoundTripsSaved=%d",
+            pipelinedCommands.get(), pipelineRoundTrips.get(), getRoundTripsSaved());
+    }
+
+    private void recordPipeline(int commands) {
+        pipelinedCommands.addAndGet(commands);
+        pipelineRoundTrips.incrementAndGet();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> toHashEntries(Object entry) {
+        if (entry instanceof Map) {
+            return (Map<Object, Object>) entry;
+        }
+        return Collections.emptyMap();
+    }
+
     // ================================ 通用操作 ================================
 
     /**
      * 根据模式删除匹配的所有键
      * <p>
      * 支持通配符模式，如：user:* 匹配所有以user:开头的键
-     * 注意：在生产环境中使用keys命令可能会影响Redis性能，建议在从节点上执行或使用SCAN命令
+     * 使用SCAN游标增量遍历，每累计unlinkBatchSize个键执行一次UNLINK，由Redis在后台线程回收内存
      * </p>
      * 
      * @param pattern 键模式，支持*、?、[]等通配符
+     * @return long 删除的键数量
      * @throws NullPointerException 当pattern为null时抛出
      */
-    public void deleteByPattern(String pattern) {
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (!CollectionUtils.isEmpty(keys)) {
-            redisTemplate.delete(keys);
+    public long deleteByPattern(String pattern) {
+        long count = 0;
+        List<String> batch = new ArrayList<>(unlinkBatchSize);
+        try (Stream<String> keys = scanKeys(pattern)) {
+            Iterator<String> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= unlinkBatchSize) {
+                    count += unlink(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            count += unlink(batch);
         }
+        return count;
     }
 
     /**
      * 根据模式获取匹配的所有键
      * <p>
      * 支持通配符模式，如：user:* 匹配所有以user:开头的键
-     * 注意：在生产环境中使用keys命令可能会影响Redis性能，建议在从节点上执行或使用SCAN命令
+     * 使用SCAN游标增量遍历，不会阻塞Redis，但结果会全部加载到内存中；
+     * 匹配键较多或只需找到部分键时应使用scanKeys流式处理
      * </p>
      * 
      * @param pattern 键模式，支持*、?、[]等通配符
-     * @return Set<String> 匹配的键集合，如果没有匹配的键则返回null
+     * @return Set<String> 匹配的键集合，如果没有匹配的键则返回空集合
      * @throws NullPointerException 当pattern为null时抛出
      */
     public Set<String> getKeysByPattern(String pattern) {
-        return redisTemplate.keys(pattern);
+        Set<String> keys = new HashSet<>();
+        try (Stream<String> stream = scanKeys(pattern)) {
+            stream.forEach(keys::add);
+        }
+        return keys;
+    }
+
+    /**
+     * 使用SCAN游标流式遍历匹配模式的键
+     * <p>
+     * 每次向Redis请求scanCount个键，遍历到哪里取到哪里，可提前终止
+     * 返回的Stream持有Redis连接，必须在try-with-resources中使用或显式关闭
+     * SCAN在遍历期间键被修改时可能返回重复的键，调用方需能容忍重复
+     * </p>
+     * 
+     * @param pattern 键模式，支持*、?、[]等通配符
+     * @return Stream<String> 匹配的键流
+     */
+    public Stream<String> scanKeys(String pattern) {
+        return scanKeys(pattern, scanCount);
+    }
+
+    /**
+     * 使用SCAN游标流式遍历匹配模式的键，并指定每批数量
+     * 
+     * @param pattern 键模式，支持*、?、[]等通配符
+     * @param count 每次SCAN返回的建议键数量
+     * @return Stream<String> 匹配的键流，使用后必须关闭
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<String> scanKeys(String pattern, int count) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        Cursor<byte[]> cursor = redisTemplate.executeWithStickyConnection(connection -> connection.keyCommands().scan(options));
+        if (cursor == null) {
+            return Stream.empty();
+        }
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        Spliterator<byte[]> spliterator = Spliterators.spliteratorUnknownSize(cursor, Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false)
+            .map(keySerializer::deserialize)
+            .onClose(cursor::close);
+    }
+
+    private long unlink(Collection<String> keys) {
+        Long count = redisTemplate.unlink(keys);
+        return count != null ? count : 0;
     }
 
     /**
@@ -752,6 +1140,26 @@ public class RedisUtil {
         return redisTemplate.opsForValue().multiGet(keys);
     }
 
+    /**
+     * 向频道发布消息
+     * <p>
+     * 消息使用RedisTemplate的值序列化器序列化，订阅方需使用相同的序列化器反序列化
+     * </p>
+     *
+     * @param channel 频道名称
+     * @param message 消息内容
+     * @return boolean 操作是否成功
+     */
+    public boolean publish(String channel, Object message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * 清空所有缓存
      * <p>
@@ -769,4 +1177,29 @@ public class RedisUtil {
             throw new RuntimeException("清空Redis缓存失败", e);
         }
     }
+
+    /**
+     * 缓存值及其剩余过期时间
+     */
+    public static final class TtlValue {
+
+        private final Object value;
+        private final long ttlMillis;
+
+        public TtlValue(Object value, long ttlMillis) {
+            this.value = value;
+            this.ttlMillis = ttlMillis;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        /**
+         * 剩余过期时间（毫秒），-1表示永久有效
+         */
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.bing.framework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 刷新令牌存储
+ * 刷新令牌以 refresh:token:{token} -> 用户ID 保存，同时维护 user:refresh:{userId} -> 令牌集合 的反向索引，
+ * 查找用户当前的刷新令牌只需读取该用户自己的索引，注销或重置密码时可一次删除用户的全部刷新令牌
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    public static final String REFRESH_TOKEN_PREFIX = "refresh:token:";
+    public static final String USER_REFRESH_INDEX_PREFIX = "user:refresh:";
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    /**
+     * 保存刷新令牌并加入用户索引
+     * 索引的过期时间随最近一次写入顺延，不会早于其中任何一个令牌过期
+     *
+     * @param userId 用户ID
+     * @param refreshToken 刷新令牌
+     */
+    public void save(Long userId, String refreshToken) {
+        long ttlHours = jwtUtil.getRefreshExpiration();
+        redisUtil.set(REFRESH_TOKEN_PREFIX + refreshToken, userId, ttlHours, TimeUnit.HOURS);
+        redisUtil.sSetAndTime(indexKey(userId), ttlHours, TimeUnit.HOURS, refreshToken);
+    }
+
+    /**
+     * 判断刷新令牌是否仍然有效（未过期且未被撤销）
+     *
+     * @param refreshToken 刷新令牌
+     * @return boolean 是否存在
+     */
+    public boolean exists(String refreshToken) {
+        return redisUtil.hasKey(REFRESH_TOKEN_PREFIX + refreshToken);
+    }
+
+    /**
+     * 查找用户当前可用的刷新令牌
+     * 索引中已过期或签名失效的令牌会顺带从索引中移除
+     *
+     * @param userId 用户ID
+     * @return 可用的刷新令牌，不存在时返回null
+     */
+    public String findActive(Long userId) {
+        Set<Object> tokens = redisUtil.sGet(indexKey(userId));
+        if (tokens == null || tokens.isEmpty()) {
+            return null;
+        }
+
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (Object token : tokens) {
+            keys.add(REFRESH_TOKEN_PREFIX + token);
+        }
+        Map<String, Object> alive = redisUtil.getAll(keys);
+
+        String active = null;
+        List<Object> stale = new ArrayList<>();
+        for (Object token : tokens) {
+            String candidate = String.valueOf(token);
+            if (active == null && alive.containsKey(REFRESH_TOKEN_PREFIX + candidate)
+                    && jwtUtil.validateRefreshToken(candidate)) {
+                active = candidate;
+            } else if (!alive.containsKey(REFRESH_TOKEN_PREFIX + candidate)) {
+                stale.add(token);
+            }
+        }
+        if (!stale.isEmpty()) {
+            redisUtil.setRemove(indexKey(userId), stale.toArray());
+            log.debug("清理用户失效的刷新令牌索引，用户ID: {}, 数量: {}", userId, stale.size());
+        }
+        return active;
+    }
+
+    /**
+     * 撤销单个刷新令牌
+     *
+     * @param userId 用户ID
+     * @param refreshToken 刷新令牌
+     */
+    public void remove(Long userId, String refreshToken) {
+        redisUtil.delete(REFRESH_TOKEN_PREFIX + refreshToken);
+        redisUtil.setRemove(indexKey(userId), refreshToken);
+    }
+
+    /**
+     * 撤销用户的全部刷新令牌
+     * 令牌键与索引键通过一次DEL删除
+     *
+     * @param userId 用户ID
+     * @return long 删除的键数量
+     */
+    public long revokeAll(Long userId) {
+        String indexKey = indexKey(userId);
+        Set<Object> tokens = redisUtil.sGet(indexKey);
+        List<String> keys = new ArrayList<>();
+        keys.add(indexKey);
+        if (tokens != null) {
+            for (Object token : tokens) {
+                keys.add(REFRESH_TOKEN_PREFIX + token);
+            }
+        }
+        long count = redisUtil.delete(keys.toArray(new String[0]));
+        log.info("撤销用户全部刷新令牌，用户ID: {}, 数量: {}", userId, keys.size() - 1);
+        return count;
+    }
+
+    private static String indexKey(Long userId) {
+        return USER_REFRESH_INDEX_PREFIX + userId;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bing.framework.util;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * 已验证令牌的声明视图
+ * 由JwtUtil.verify在签名校验通过后创建，只保留业务需要的声明且不可修改，
+ * 可以安全地在验证缓存中共享，并作为请求属性传递给后续处理链
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public final class VerifiedToken {
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    private final Long userId;
+    private final String username;
+    private final String type;
+    private final long issuedAtMillis;
+    private final long expirationMillis;
+
+    private VerifiedToken(Long userId, String username, String type, long issuedAtMillis, long expirationMillis) {
+        this.userId = userId;
+        this.username = username;
+        this.type = type;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expirationMillis = expirationMillis;
+    }
+
+    /**
+     * 从已校验签名的Claims创建视图
+     */
+    static VerifiedToken from(Claims claims) {
+        Object userId = claims.get("userId");
+        Object username = claims.get("username");
+        Object type = claims.get("type");
+        return new VerifiedToken(
+                userId != null ? Long.valueOf(userId.toString()) : null,
+                username != null ? username.toString() : null,
+                type != null ? type.toString() : null,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+    }
+
+    /**
+     * 用户ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 令牌类型：access 或 refresh
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 签发时间（毫秒）
+     */
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    /**
+     * 过期时间（毫秒）
+     */
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    /**
+     * 是否为访问令牌
+     */
+    public boolean isAccessToken() {
+        return TYPE_ACCESS.equals(type);
+    }
+
+    /**
+     * 是否为刷新令牌
+     */
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return expirationMillis <= System.currentTimeMillis();
+    }
+}
@@ -13,8 +13,9 @@ CREATE TABLE IF NOT EXISTS audit_log (
     error_message TEXT COMMENT '错误信息',
     execution_time BIGINT COMMENT '操作耗时(毫秒)',
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    INDEX idx_user_id (user_id),
     INDEX idx_operation_time (operation_time),
-    INDEX idx_module (module),
-    INDEX idx_operation_type (operation_type)
+    INDEX idx_user_id_time (user_id, operation_time),
+    INDEX idx_username_time (username, operation_time),
+    INDEX idx_module_time (module, operation_time),
+    INDEX idx_operation_type_time (operation_type, operation_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审计日志表';
\ No newline at end of file
@@ -0,0 +1,14 @@
+-- 审计日志查询索引（MySQL 8.0）
+-- 审计日志按(operation_time, id)倒序做键集分页，筛选列与operation_time组成联合索引，
+-- 二级索引隐含主键列，按条件翻页和流式导出都可以沿索引顺序读取，不需要排序
+-- 单列索引被联合索引的前缀覆盖，一并删除
+
+ALTER TABLE audit_log
+    DROP INDEX idx_user_id,
+    DROP INDEX idx_module,
+    DROP INDEX idx_operation_type,
+    ADD INDEX idx_user_id_time (user_id, operation_time),
+    ADD INDEX idx_username_time (username, operation_time),
+    ADD INDEX idx_module_time (module, operation_time),
+    ADD INDEX idx_operation_type_time (operation_type, operation_time),
+    ALGORITHM = INPLACE, LOCK = NONE;
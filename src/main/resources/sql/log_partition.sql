@@ -0,0 +1,28 @@
+-- 审计日志表和登录记录表按时间分区（MySQL 8.0）
+-- 分区列必须包含在主键中：主键改为(id, 时间列)，时间列改为NOT NULL
+-- 初始只建历史分区和MAXVALUE分区，之后由LogTablePartitionManager每天预建分区、归档并删除过期分区
+-- 执行前将两处 '2026-10-17 00:00:00' 改为执行日的次日零点：该时间之前的数据进入历史分区，
+-- 过了保留期限后整体归档删除；预建分区从该时间开始拆分MAXVALUE分区，此时MAXVALUE分区中的数据越少越快
+
+-- 审计日志表
+UPDATE audit_log SET operation_time = created_at WHERE operation_time IS NULL;
+
+ALTER TABLE audit_log
+    MODIFY operation_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, operation_time);
+
+ALTER TABLE audit_log PARTITION BY RANGE COLUMNS(operation_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-17 00:00:00'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- 登录记录表
+ALTER TABLE login_record
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, login_time);
+
+ALTER TABLE login_record PARTITION BY RANGE COLUMNS(login_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-17 00:00:00'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,22 @@
+-- 安全事件表
+-- 同一用户、IP和事件类型在一个合并窗口内的重复事件合并为一行，event_count为合并的事件数
+CREATE TABLE IF NOT EXISTS security_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    event_type VARCHAR(64) NOT NULL COMMENT '事件类型',
+    user_id BIGINT COMMENT '用户ID',
+    username VARCHAR(100) COMMENT '用户名',
+    client_ip VARCHAR(50) COMMENT '客户端IP',
+    user_agent VARCHAR(500) COMMENT '用户代理（窗口内最后一次）',
+    device_id VARCHAR(100) COMMENT '设备ID（窗口内最后一次）',
+    request_path VARCHAR(255) COMMENT '请求路径（窗口内最后一次）',
+    method VARCHAR(10) COMMENT 'HTTP方法（窗口内最后一次）',
+    details VARCHAR(1000) COMMENT '额外信息（窗口内最后一次）',
+    event_count INT NOT NULL DEFAULT 1 COMMENT '合并的事件数',
+    first_time DATETIME NOT NULL COMMENT '窗口内首次发生时间',
+    last_time DATETIME NOT NULL COMMENT '窗口内最后发生时间',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_last_time (last_time),
+    INDEX idx_user_id_time (user_id, last_time),
+    INDEX idx_client_ip_time (client_ip, last_time),
+    INDEX idx_event_type_time (event_type, last_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='安全事件表';
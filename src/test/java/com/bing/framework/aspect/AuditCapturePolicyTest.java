@@ -0,0 +1,142 @@
+package com.bing.framework.aspect;
+
+import com.bing.framework.annotation.AuditLogLevel;
+import com.bing.framework.config.AuditLogConfigProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuditCapturePolicy的单元测试类
+ * 验证审计级别、采样率、写操作和失败请求始终采集、按用户和IP的频率上限以及计数窗口的清理
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AuditCapturePolicyTest {
+
+    private AuditLogConfigProperties properties;
+    private AuditCapturePolicy policy;
+    private AuditMethodDescriptor descriptor;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        properties = new AuditLogConfigProperties();
+        Clock clock = Clock.fixed(Instant.parse("2026-10-16T08:00:00Z"), ZoneId.systemDefault());
+        policy = new AuditCapturePolicy(properties, clock);
+        descriptor = AuditMethodDescriptor.of(DataDictController.class.getMethod("list"));
+    }
+
+    /**
+     * 测试读请求按模块采样率跳过，写操作和失败请求始终采集
+     */
+    @Test
+    void testSampledOutReadsStillCaptureWritesAndFailures() {
+        properties.setModuleSampleRates(Collections.singletonMap("DataDict", 0.0));
+
+        assertNull(policy.decide(descriptor, "GET", "admin", "10.0.0.1", false));
+        assertEquals(AuditLogLevel.Level.BASIC, policy.decide(descriptor, "POST", "admin", "10.0.0.1", false));
+        assertEquals(AuditLogLevel.Level.BASIC, policy.decide(descriptor, "GET", "admin", "10.0.0.1", true));
+        assertEquals(1L, policy.getStatistics().get("sampledOutCount"));
+    }
+
+    /**
+     * 测试模块采样率优先于操作类型采样率
+     */
+    @Test
+    void testModuleRateOverridesOperationRate() {
+        properties.setOperationSampleRates(Collections.singletonMap("GET", 0.0));
+        assertNull(policy.decide(descriptor, "GET", "admin", "10.0.0.1", false));
+
+        properties.setModuleSampleRates(Collections.singletonMap("DataDict", 1.0));
+        assertNotNull(policy.decide(descriptor, "GET", "admin", "10.0.0.1", false));
+    }
+
+    /**
+     * 测试审计级别FULL不采样、NONE不采集读请求、关闭审计日志时不采集任何请求
+     */
+    @Test
+    void testAuditLevelDrivesReadCapture() {
+        properties.setDefaultSampleRate(0.0);
+        properties.setAuditLevel("FULL");
+        assertNotNull(policy.decide(descriptor, "GET", "admin", "10.0.0.1", false));
+
+        properties.setAuditLevel("NONE");
+        properties.setDefaultSampleRate(1.0);
+        assertNull(policy.decide(descriptor, "GET", "admin", "10.0.0.1", false));
+        assertNotNull(policy.decide(descriptor, "DELETE", "admin", "10.0.0.1", false));
+
+        properties.setEnabled(false);
+        assertNull(policy.decide(descriptor, "DELETE", "admin", "10.0.0.1", true));
+    }
+
+    /**
+     * 测试同一秒内按用户和IP限制读请求采集数量，匿名用户只按IP限制
+     */
+    @Test
+    void testRateLimitPerUserAndIp() {
+        properties.setUserCaptureRateLimit(2);
+        properties.setIpCaptureRateLimit(3);
+
+        assertNotNull(policy.decide(descriptor, "GET", "alice", "10.0.0.1", false));
+        assertNotNull(policy.decide(descriptor, "GET", "alice", "10.0.0.2", false));
+        assertNull(policy.decide(descriptor, "GET", "alice", "10.0.0.3", false));
+
+        assertNotNull(policy.decide(descriptor, "GET", "anonymous", "10.0.0.9", false));
+        assertNotNull(policy.decide(descriptor, "GET", "anonymous", "10.0.0.9", false));
+        assertNotNull(policy.decide(descriptor, "GET", "anonymous", "10.0.0.9", false));
+        assertNull(policy.decide(descriptor, "GET", "anonymous", "10.0.0.9", false));
+
+        // 写操作不受频率限制
+        assertNotNull(policy.decide(descriptor, "PUT", "alice", "10.0.0.1", false));
+        assertEquals(2L, policy.getStatistics().get("rateLimitedCount"));
+    }
+
+    /**
+     * 测试定期清理过期的计数窗口
+     */
+    @Test
+    void testEvictExpiredWindows() {
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-10-16T08:00:00Z"));
+        AuditCapturePolicy ticking = new AuditCapturePolicy(properties, new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneId.systemDefault();
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        });
+        properties.setUserCaptureRateLimit(1);
+        properties.setIpCaptureRateLimit(1);
+        ticking.decide(descriptor, "GET", "alice", "10.0.0.1", false);
+
+        ticking.evictExpiredWindows();
+        assertEquals(1, ticking.getStatistics().get("trackedIps"), "当前秒的窗口不应清理");
+
+        now.set(now.get().plusSeconds(2));
+        ticking.evictExpiredWindows();
+        assertEquals(0, ticking.getStatistics().get("trackedIps"));
+        assertEquals(0, ticking.getStatistics().get("trackedUsers"));
+    }
+
+    @AuditLogLevel(value = AuditLogLevel.Level.BASIC)
+    static class DataDictController {
+
+        public void list() {
+        }
+    }
+}
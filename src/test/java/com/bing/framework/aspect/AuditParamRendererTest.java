@@ -0,0 +1,65 @@
+package com.bing.framework.aspect;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuditParamRenderer的单元测试类
+ * 验证渲染格式与Arrays.toString一致、超长参数被截断、请求等对象不调用toString
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AuditParamRendererTest {
+
+    /**
+     * 测试短参数的渲染结果与Arrays.toString一致
+     */
+    @Test
+    void testRenderMatchesArraysToString() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "test");
+        body.put("ids", Arrays.asList(1, 2, 3));
+        Object[] args = {body, 10L, null, new int[]{1, 2}};
+
+        String rendered = new AuditParamRenderer(2000).render(args);
+
+        assertEquals("[{name=test, ids=[1, 2, 3]}, 10, null, [1, 2]]", rendered);
+        assertEquals("", new AuditParamRenderer(2000).render(new Object[0]));
+        assertEquals("", new AuditParamRenderer(2000).render(null));
+    }
+
+    /**
+     * 测试超长参数被截断到最大长度
+     */
+    @Test
+    void testRenderTruncatesLongArguments() {
+        char[] payload = new char[100000];
+        Arrays.fill(payload, 'x');
+        Object[] args = {new String(payload), Collections.nCopies(100000, "item")};
+
+        String rendered = new AuditParamRenderer(100).render(args);
+
+        assertEquals(100, rendered.length());
+        assertTrue(rendered.startsWith("[xxx"));
+        assertTrue(rendered.endsWith("..."));
+    }
+
+    /**
+     * 测试请求对象只输出类型名
+     */
+    @Test
+    void testRenderSkipsServletObjects() {
+        Object[] args = {new MockHttpServletRequest(), "id"};
+
+        String rendered = new AuditParamRenderer(2000).render(args);
+
+        assertEquals("[<MockHttpServletRequest>, id]", rendered);
+    }
+}
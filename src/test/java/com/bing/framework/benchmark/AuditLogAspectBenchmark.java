@@ -0,0 +1,370 @@
+package com.bing.framework.benchmark;
+
+import com.bing.framework.annotation.AuditLogLevel;
+import com.bing.framework.aspect.AuditCapturePolicy;
+import com.bing.framework.aspect.AuditLogAspect;
+import com.bing.framework.config.AuditLogConfigProperties;
+import com.bing.framework.entity.AuditLog;
+import com.bing.framework.service.AuditLogService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 审计日志切面基准测试
+ * 对比改造前的前置/后置通知实现（全局开始时间表、每次反射读取注解、Arrays.toString渲染参数）
+ * 与当前环绕通知实现（缓存方法元数据、局部计时、有上限的参数渲染）在单次Controller调用上的开销
+ * 使用手写的连接点，不经过Spring代理；审计日志服务为不记录调用的模拟对象
+ * 运行方式：执行main方法，或 mvn test-compile 后通过 org.openjdk.jmh.Main 运行，
+ * 建议加 -prof gc 观察每次调用的分配量
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogAspectBenchmark {
+
+    /**
+     * 请求体中长文本参数的长度
+     */
+    @Param({"64", "16384"})
+    private int payloadLength;
+
+    private AuditLogAspect aspect;
+    private LegacyAuditAdvice legacyAdvice;
+    private StubJoinPoint joinPoint;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        AuditLogService auditLogService = mock(AuditLogService.class, withSettings().stubOnly());
+
+        aspect = new AuditLogAspect();
+        ReflectionTestUtils.setField(aspect, "auditLogService", auditLogService);
+        ReflectionTestUtils.setField(aspect, "capturePolicy", new AuditCapturePolicy(new AuditLogConfigProperties()));
+        aspect.init();
+        legacyAdvice = new LegacyAuditAdvice(auditLogService);
+
+        char[] payload = new char[payloadLength];
+        Arrays.fill(payload, 'x');
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("username", "benchmark");
+        body.put("roleIds", Arrays.asList(1L, 2L, 3L));
+        body.put("remark", new String(payload));
+
+        Method method = SampleController.class.getMethod("create", Map.class, String.class);
+        joinPoint = new StubJoinPoint(new SampleController(), method, new Object[]{body, "zh-CN"});
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sample");
+        request.addHeader("X-User-Name", "benchmark");
+        request.setRemoteAddr("127.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object legacyBeforeAfter() {
+        legacyAdvice.doBefore(joinPoint);
+        Object result = joinPoint.invoke();
+        legacyAdvice.doAfterReturning(joinPoint);
+        return result;
+    }
+
+    @Benchmark
+    public Object cachedAround() throws Throwable {
+        return aspect.doAround(joinPoint);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AuditLogAspectBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 基准测试使用的Controller
+     */
+    @AuditLogLevel(module = "基准测试")
+    public static class SampleController {
+
+        @AuditLogLevel(description = "新增示例数据")
+        public String create(Map<String, Object> body, String locale) {
+            return "ok";
+        }
+    }
+
+    /**
+     * 改造前审计切面的通知逻辑
+     */
+    static class LegacyAuditAdvice {
+
+        private final AuditLogService auditLogService;
+        private final ConcurrentHashMap<String, Long> startTimeMap = new ConcurrentHashMap<>();
+
+        LegacyAuditAdvice(AuditLogService auditLogService) {
+            this.auditLogService = auditLogService;
+        }
+
+        void doBefore(ProceedingJoinPoint joinPoint) {
+            String key = joinPoint.getSignature().toLongString() + Thread.currentThread().getId();
+            startTimeMap.put(key, System.currentTimeMillis());
+        }
+
+        void doAfterReturning(ProceedingJoinPoint joinPoint) {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            AuditLogLevel methodAnnotation = method.getAnnotation(AuditLogLevel.class);
+            AuditLogLevel classAnnotation = method.getDeclaringClass().getAnnotation(AuditLogLevel.class);
+            if ((methodAnnotation != null && methodAnnotation.ignore())
+                    || (classAnnotation != null && classAnnotation.ignore())) {
+                return;
+            }
+            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+            if (attributes == null) {
+                return;
+            }
+            AuditLogLevel.Level level = levelOf(method);
+
+            String key = joinPoint.getSignature().toLongString() + Thread.currentThread().getId();
+            Long startTime = startTimeMap.remove(key);
+            Long executionTime = startTime != null ? System.currentTimeMillis() - startTime : null;
+
+            AuditLog auditLog = new AuditLog();
+            auditLog.setOperationTime(new Date());
+            auditLog.setIpAddress(attributes.getRequest().getRemoteAddr());
+            auditLog.setModule(moduleOf(method));
+            auditLog.setOperationType("新增");
+            auditLog.setDescription(descriptionOf(method));
+            auditLog.setResult("成功");
+            if (level == AuditLogLevel.Level.FULL) {
+                auditLog.setRequestParams(Arrays.toString(joinPoint.getArgs()));
+            }
+            auditLog.setExecutionTime(executionTime);
+            auditLog.setUsername(attributes.getRequest().getHeader("X-User-Name"));
+            auditLogService.recordAuditLog(auditLog);
+        }
+
+        private AuditLogLevel.Level levelOf(Method method) {
+            AuditLogLevel methodAnnotation = method.getAnnotation(AuditLogLevel.class);
+            if (methodAnnotation != null) {
+                return methodAnnotation.value();
+            }
+            AuditLogLevel classAnnotation = method.getDeclaringClass().getAnnotation(AuditLogLevel.class);
+            return classAnnotation != null ? classAnnotation.value() : AuditLogLevel.Level.FULL;
+        }
+
+        private String moduleOf(Method method) {
+            AuditLogLevel methodAnnotation = method.getAnnotation(AuditLogLevel.class);
+            if (methodAnnotation != null && !methodAnnotation.module().isEmpty()) {
+                return methodAnnotation.module();
+            }
+            AuditLogLevel classAnnotation = method.getDeclaringClass().getAnnotation(AuditLogLevel.class);
+            if (classAnnotation != null && !classAnnotation.module().isEmpty()) {
+                return classAnnotation.module();
+            }
+            return method.getDeclaringClass().getSimpleName();
+        }
+
+        private String descriptionOf(Method method) {
+            AuditLogLevel methodAnnotation = method.getAnnotation(AuditLogLevel.class);
+            if (methodAnnotation != null && !methodAnnotation.description().isEmpty()) {
+                return methodAnnotation.description();
+            }
+            AuditLogLevel classAnnotation = method.getDeclaringClass().getAnnotation(AuditLogLevel.class);
+            if (classAnnotation != null && !classAnnotation.description().isEmpty()) {
+                return classAnnotation.description();
+            }
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+    }
+
+    /**
+     * 直接调用SampleController的连接点
+     */
+    static class StubJoinPoint implements ProceedingJoinPoint {
+
+        private final SampleController target;
+        private final Object[] args;
+        private final StubMethodSignature signature;
+
+        StubJoinPoint(SampleController target, Method method, Object[] args) {
+            this.target = target;
+            this.args = args;
+            this.signature = new StubMethodSignature(method);
+        }
+
+        @SuppressWarnings("unchecked")
+        Object invoke() {
+            return target.create((Map<String, Object>) args[0], (String) args[1]);
+        }
+
+        @Override
+        public Object proceed() {
+            return invoke();
+        }
+
+        @Override
+        public Object proceed(Object[] args) {
+            return invoke();
+        }
+
+        @Override
+        public void set$AroundClosure(AroundClosure arc) {
+        }
+
+        @Override
+        public String toShortString() {
+            return signature.toShortString();
+        }
+
+        @Override
+        public String toLongString() {
+            return signature.toLongString();
+        }
+
+        @Override
+        public Object getThis() {
+            return target;
+        }
+
+        @Override
+        public Object getTarget() {
+            return target;
+        }
+
+        @Override
+        public Object[] getArgs() {
+            return args.clone();
+        }
+
+        @Override
+        public Signature getSignature() {
+            return signature;
+        }
+
+        @Override
+        public SourceLocation getSourceLocation() {
+            return null;
+        }
+
+        @Override
+        public String getKind() {
+            return METHOD_EXECUTION;
+        }
+
+        @Override
+        public StaticPart getStaticPart() {
+            return null;
+        }
+    }
+
+    /**
+     * 连接点的方法签名，toLongString与AspectJ一样每次重新拼接
+     */
+    static class StubMethodSignature implements MethodSignature {
+
+        private final Method method;
+
+        StubMethodSignature(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Class getReturnType() {
+            return method.getReturnType();
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Class[] getParameterTypes() {
+            return method.getParameterTypes();
+        }
+
+        @Override
+        public String[] getParameterNames() {
+            return null;
+        }
+
+        @Override
+        public Class[] getExceptionTypes() {
+            return method.getExceptionTypes();
+        }
+
+        @Override
+        public String toShortString() {
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(..)";
+        }
+
+        @Override
+        public String toLongString() {
+            return method.toGenericString();
+        }
+
+        @Override
+        public String getName() {
+            return method.getName();
+        }
+
+        @Override
+        public int getModifiers() {
+            return method.getModifiers() & Modifier.methodModifiers();
+        }
+
+        @Override
+        public Class getDeclaringType() {
+            return method.getDeclaringClass();
+        }
+
+        @Override
+        public String getDeclaringTypeName() {
+            return method.getDeclaringClass().getName();
+        }
+    }
+}
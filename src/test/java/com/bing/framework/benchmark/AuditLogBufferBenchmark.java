@@ -0,0 +1,97 @@
+package com.bing.framework.benchmark;
+
+import com.bing.framework.config.AuditLogConfigProperties;
+import com.bing.framework.entity.AuditLog;
+import com.bing.framework.util.AuditLogBatchWriter;
+import com.bing.framework.util.AuditLogBufferManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 审计日志缓冲池入队基准测试
+ * 测量多线程并发调用addLog的吞吐量以及单次调用的延迟分布（SampleTime模式输出p99）
+ * 数据库写入使用模拟的批量写入器，只衡量请求线程上的入队开销
+ * 运行方式：执行main方法，或 mvn test-compile 后通过 org.openjdk.jmh.Main 运行
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogBufferBenchmark {
+
+    @Param({"BLOCKING", "SLEEPING", "YIELDING"})
+    private String waitStrategy;
+
+    private AuditLogBufferManager bufferManager;
+    private AuditLog auditLog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AuditLogConfigProperties properties = new AuditLogConfigProperties();
+        properties.setWaitStrategy(waitStrategy);
+        bufferManager = new AuditLogBufferManager(mock(AuditLogBatchWriter.class), properties, null);
+        bufferManager.start();
+
+        auditLog = new AuditLog();
+        auditLog.setUserId(1L);
+        auditLog.setUsername("benchmark");
+        auditLog.setModule("benchmark");
+        auditLog.setOperationType("QUERY");
+        auditLog.setDescription("审计日志缓冲池基准测试");
+        auditLog.setIpAddress("127.0.0.1");
+        auditLog.setResult("SUCCESS");
+        auditLog.setExecutionTime(1L);
+        auditLog.setOperationTime(new Date());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(bufferManager.getStats());
+        bufferManager.flushOnShutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean addLogSingleThread() {
+        return bufferManager.addLog(auditLog);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean addLogEightThreads() {
+        return bufferManager.addLog(auditLog);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AuditLogBufferBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.bing.framework.benchmark;
+
+import com.bing.framework.security.ClientRiskLevel;
+import com.bing.framework.security.ClientTypeSecurityConfig;
+import com.bing.framework.security.ExpirationConfig;
+import com.bing.framework.security.SecureJwtTokenProvider;
+import com.bing.framework.security.SecureTokenValidationResult;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 安全JWT令牌验证基准测试
+ * 对比改造前的验证实现（每次Base64往返生成密钥、JJWT解析、新建Cipher解密设备指纹、两次sha256Hex）
+ * 与当前validateSecureToken（缓存密钥、线程复用Mac/Cipher/MessageDigest、在令牌字节上校验签名）的吞吐量，
+ * 另外测量签名被篡改的令牌的拒绝开销
+ * 运行方式：执行main方法，或 mvn test-compile 后通过 org.openjdk.jmh.Main 运行，
+ * 建议加 -prof gc 观察每次验证的分配量
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SecureJwtTokenProviderBenchmark {
+
+    private static final String DEVICE_ID = "device-4f1c2a";
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    private static final String CLIENT_IP = "192.168.1.20";
+
+    /**
+     * 改造前使用的固定密钥，与SecureJwtTokenProvider一致
+     */
+    private static final String LEGACY_SECRET = "ThisIsAStaticSecretKeyForProductionUse1234567890";
+    private static final String LEGACY_AES_KEY = "12345678901234567890123456789012";
+
+    private SecureJwtTokenProvider tokenProvider;
+    private String token;
+    private String forgedToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClientTypeSecurityConfig securityConfig = mock(ClientTypeSecurityConfig.class, withSettings().stubOnly());
+        when(securityConfig.getExpirationConfig(anyString(), anyString())).thenReturn(ExpirationConfig.builder()
+                .clientType("WEB")
+                .baseExpirationHours(24)
+                .adjustedExpirationHours(24)
+                .riskLevel(ClientRiskLevel.MEDIUM)
+                .build());
+
+        tokenProvider = new SecureJwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "certificateVersion", "v1");
+        ReflectionTestUtils.setField(tokenProvider, "defaultExpiration", 24);
+        ReflectionTestUtils.setField(tokenProvider, "defaultRefreshExpiration", 168);
+        ReflectionTestUtils.setField(tokenProvider, "enableDeviceFingerprint", true);
+        ReflectionTestUtils.setField(tokenProvider, "enableLocationAware", true);
+        ReflectionTestUtils.setField(tokenProvider, "enableAntiReplay", true);
+        ReflectionTestUtils.setField(tokenProvider, "clientTypeSecurityConfig", securityConfig);
+
+        token = tokenProvider.generateSecureToken(1001L, "benchmark", "WEB", DEVICE_ID, USER_AGENT, CLIENT_IP);
+        String[] parts = token.split("\\.");
+        char[] signature = parts[2].toCharArray();
+        signature[0] = signature[0] == 'A' ? 'B' : 'A';
+        forgedToken = parts[0] + "." + parts[1] + "." + new String(signature);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() throws Exception {
+        return legacyValidate(token);
+    }
+
+    @Benchmark
+    public SecureTokenValidationResult cachedValidate() {
+        return tokenProvider.validateSecureToken(token, DEVICE_ID, USER_AGENT, CLIENT_IP);
+    }
+
+    @Benchmark
+    public SecureTokenValidationResult cachedRejectForged() {
+        return tokenProvider.validateSecureToken(forgedToken, DEVICE_ID, USER_AGENT, CLIENT_IP);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SecureJwtTokenProviderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 改造前validateSecureToken的主要步骤
+     */
+    private static boolean legacyValidate(String jwt) throws Exception {
+        Claims claims = Jwts.parser()
+                .setSigningKey(legacySecretKey())
+                .parseClaimsJws(jwt)
+                .getBody();
+        if (!"access".equals(claims.get("type")) || !"v1".equals(claims.get("certVersion"))) {
+            return false;
+        }
+        if (!DEVICE_ID.equals(legacyDecrypt((String) claims.get("deviceFingerprint")))) {
+            return false;
+        }
+        boolean userAgentMatches = DigestUtils.sha256Hex(USER_AGENT).equals(claims.get("userAgentHash"));
+        boolean clientIpMatches = DigestUtils.sha256Hex(CLIENT_IP).equals(claims.get("clientIpHash"));
+        return userAgentMatches & clientIpMatches;
+    }
+
+    private static SecretKey legacySecretKey() {
+        byte[] keyBytes = Base64.getDecoder().decode(Base64.getEncoder().encodeToString(LEGACY_SECRET.getBytes()));
+        byte[] truncatedKey = new byte[32];
+        System.arraycopy(keyBytes, 0, truncatedKey, 0, 32);
+        return new SecretKeySpec(truncatedKey, "HmacSHA256");
+    }
+
+    private static String legacyDecrypt(String encryptedData) throws Exception {
+        SecretKeySpec secretKeySpec = new SecretKeySpec(LEGACY_AES_KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        byte[] combined = Base64.getDecoder().decode(encryptedData);
+        byte[] iv = new byte[16];
+        System.arraycopy(combined, 0, iv, 0, iv.length);
+        byte[] encrypted = new byte[combined.length - iv.length];
+        System.arraycopy(combined, iv.length, encrypted, 0, encrypted.length);
+        cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, new IvParameterSpec(iv));
+        return new String(cipher.doFinal(encrypted));
+    }
+}
@@ -105,6 +105,40 @@ class MemoryCacheTest {
         logger.info("缓存大小: {}", smallCache.size());
     }
 
+    @Test
+    void testFrequencyBasedEviction() {
+        logger.info("=== 测试基于访问频率的淘汰 ===");
+
+        MemoryCache boundedCache = new MemoryCache(100, 60, 10);
+        try {
+            // 写入热点数据并多次访问
+            for (int i = 0; i < 10; i++) {
+                boundedCache.put("test:hot:" + i, "hot_" + i);
+            }
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 10; i++) {
+                    boundedCache.get("test:hot:" + i);
+                }
+            }
+
+            // 大量只访问一次的数据涌入，容量满后写入仍应成功
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(boundedCache.put("test:cold:" + i, "cold_" + i), "容量满时写入不应被拒绝");
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(boundedCache.get("test:hot:" + i), "热点数据不应被一次性访问的数据挤出");
+            }
+            assertEquals(100, boundedCache.size(), "缓存大小应保持在最大容量");
+            assertTrue(boundedCache.getEvictionCount() > 0, "应该记录淘汰次数");
+            assertTrue(boundedCache.getStats().contains("Evictions="), "统计应该包含淘汰次数");
+
+            logger.info("频率淘汰统计: {}", boundedCache.getStats());
+        } finally {
+            boundedCache.shutdown();
+        }
+    }
+
     @Test
     void testDeleteOperation() {
         logger.info("=== 测试删除操作 ===");
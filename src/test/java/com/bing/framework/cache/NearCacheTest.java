@@ -0,0 +1,246 @@
+package com.bing.framework.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bing.framework.util.RedisUtil;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 近端缓存测试
+ *
+ * 使用内存版Redis替身模拟两个节点共享同一Redis，测试：
+ * - L1命中时不再访问Redis
+ * - 写入和删除通过失效频道使其他节点的L1失效
+ * - 节点忽略自身发布的失效消息
+ * - 批量读写只对L1未命中的键访问一次Redis，并批量广播失效消息
+ * - 回填L1时不超过键在Redis中的剩余过期时间
+ * - 关闭后连接检查线程退出
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class NearCacheTest {
+
+    private LocalRedisStandIn redis;
+    private UnifiedCacheManager nodeA;
+    private UnifiedCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new LocalRedisStandIn();
+        nodeA = createNode();
+        nodeB = createNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    @Test
+    void testLocalHitSkipsRedis() {
+        nodeA.set("user:1", "alice", 10);
+        int readsBefore = redis.reads.get();
+
+        assertEquals("alice", nodeB.get("user:1"), "首次读取应从Redis加载");
+        assertEquals("alice", nodeB.get("user:1"), "再次读取应命中L1");
+        assertEquals("alice", nodeB.get("user:1"), "再次读取应命中L1");
+
+        assertEquals(readsBefore + 1, redis.reads.get(), "L1命中后不应再访问Redis");
+    }
+
+    @Test
+    void testWriteInvalidatesOtherNodes() {
+        nodeA.set("config:site", "v1", 10);
+        assertEquals("v1", nodeB.get("config:site"));
+
+        nodeA.set("config:site", "v2", 10);
+        assertEquals("v2", nodeB.get("config:site"), "其他节点的L1应被失效并重新加载");
+        assertEquals("v2", nodeA.get("config:site"), "写入节点的L1应为最新值");
+    }
+
+    @Test
+    void testDeleteInvalidatesOtherNodes() {
+        nodeA.set("user:2", "bob", 10);
+        assertEquals("bob", nodeB.get("user:2"));
+
+        nodeA.delete("user:2");
+        assertNull(nodeB.get("user:2"), "删除后其他节点不应再读到旧值");
+        assertFalse(nodeB.hasKey("user:2"));
+    }
+
+    @Test
+    void testOwnInvalidationIgnored() {
+        nodeA.set("user:3", "carol", 10);
+        int readsBefore = redis.reads.get();
+
+        // 自身发布的消息不会清除刚写入的L1
+        assertEquals("carol", nodeA.get("user:3"));
+        assertEquals(readsBefore, redis.reads.get(), "写入节点应直接命中L1");
+        assertTrue(nodeA.getStats().contains("InvalidationsPublished=1"));
+    }
+
+    @Test
+    void testBatchOperations() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("dict:1", "a");
+        values.put("dict:2", "b");
+        values.put("dict:3", "c");
+        assertTrue(nodeA.setAll(values, 10));
+        assertEquals(1, redis.batchCalls.get(), "批量写入应只提交一次");
+
+        assertEquals("a", nodeB.get("dict:1"));
+        int batchCallsBefore = redis.batchCalls.get();
+        Map<String, Object> loaded = nodeB.getAll(Arrays.asList("dict:1", "dict:2", "dict:3", "dict:4"));
+        assertEquals(3, loaded.size());
+        assertEquals("c", loaded.get("dict:3"));
+        assertEquals(batchCallsBefore + 1, redis.batchCalls.get(), "L1未命中的键应一次性从Redis读取");
+
+        assertEquals(2, nodeA.deleteAll(Arrays.asList("dict:2", "dict:3")));
+        assertNull(nodeB.get("dict:2"), "批量删除后其他节点不应再读到旧值");
+        assertEquals("a", nodeB.get("dict:1"));
+    }
+
+    @Test
+    void testBackfillKeepsRedisTtl() throws InterruptedException {
+        redis.putWithTtl("session:1", "token", 200);
+
+        assertEquals("token", nodeB.get("session:1"));
+        Map<String, Object> loaded = nodeA.getAll(Arrays.asList("session:1"));
+        assertEquals("token", loaded.get("session:1"));
+
+        Thread.sleep(400);
+        assertNull(nodeB.get("session:1"), "键在Redis中过期后L1不应继续返回旧值");
+        assertTrue(nodeA.getAll(Arrays.asList("session:1")).isEmpty(), "批量回填的L1条目也应随Redis过期");
+    }
+
+    @Test
+    void testShutdownStopsConnectionCheckThread() throws InterruptedException {
+        UnifiedCacheManager node = createNode();
+        Thread checkThread = (Thread) ReflectionTestUtils.getField(node, "redisCheckThread");
+        assertNotNull(checkThread);
+        assertTrue(checkThread.isAlive());
+
+        node.shutdown();
+        checkThread.join(1000);
+        assertFalse(checkThread.isAlive(), "关闭后连接检查线程应退出");
+    }
+
+    private UnifiedCacheManager createNode() {
+        UnifiedCacheManager manager = new UnifiedCacheManager();
+        ReflectionTestUtils.setField(manager, "redisUtil", redis.redisUtil);
+        ReflectionTestUtils.setField(manager, "nearCacheEnabled", true);
+        ReflectionTestUtils.setField(manager, "nearCacheTtlSeconds", 30L);
+        ReflectionTestUtils.setField(manager, "invalidationChannel", "test:cache:invalidation");
+        manager.checkRedisConnectionManually();
+        assertTrue(manager.isRedisAvailable(), "Redis替身应被识别为可用");
+        redis.subscribers.add(manager);
+        return manager;
+    }
+
+    /**
+     * 内存版Redis替身
+     * 以Map保存键值，发布消息时同步投递给所有订阅节点
+     */
+    private static class LocalRedisStandIn {
+        final Map<String, Object> store = new ConcurrentHashMap<>();
+        final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+        final List<UnifiedCacheManager> subscribers = new CopyOnWriteArrayList<>();
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger batchCalls = new AtomicInteger();
+        final RedisUtil redisUtil = mock(RedisUtil.class);
+
+        LocalRedisStandIn() {
+            when(redisUtil.set(anyString(), any(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+                store.put(invocation.getArgument(0), invocation.getArgument(1));
+                return true;
+            });
+            when(redisUtil.set(anyString(), any())).thenAnswer(invocation -> {
+                store.put(invocation.getArgument(0), invocation.getArgument(1));
+                return true;
+            });
+            when(redisUtil.get(anyString())).thenAnswer(invocation -> {
+                String key = invocation.getArgument(0);
+                // 连接检查的探测键不计入业务读取次数
+                if (!key.startsWith("unified_cache_manager:")) {
+                    reads.incrementAndGet();
+                }
+                return store.get(key);
+            });
+            when(redisUtil.delete(anyString())).thenAnswer(invocation ->
+                store.remove(invocation.<String>getArgument(0)) != null);
+            when(redisUtil.hasKey(anyString())).thenAnswer(invocation ->
+                store.containsKey(invocation.<String>getArgument(0)));
+            when(redisUtil.publish(anyString(), any())).thenAnswer(invocation -> {
+                for (UnifiedCacheManager subscriber : subscribers) {
+                    subscriber.handleInvalidation(invocation.getArgument(1));
+                }
+                return true;
+            });
+            when(redisUtil.getAllWithTtl(anyCollection())).thenAnswer(invocation -> {
+                reads.incrementAndGet();
+                batchCalls.incrementAndGet();
+                Map<String, RedisUtil.TtlValue> result = new LinkedHashMap<>();
+                for (String key : invocation.<Collection<String>>getArgument(0)) {
+                    Long deadline = deadlines.get(key);
+                    long ttl = deadline != null ? deadline - System.currentTimeMillis() : -1;
+                    if (deadline != null && ttl <= 0) {
+                        store.remove(key);
+                        deadlines.remove(key);
+                    } else if (store.containsKey(key)) {
+                        result.put(key, new RedisUtil.TtlValue(store.get(key), ttl));
+                    }
+                }
+                return result;
+            });
+            when(redisUtil.setAll(anyMap(), anyMap())).thenAnswer(invocation -> {
+                batchCalls.incrementAndGet();
+                store.putAll(invocation.<Map<String, Object>>getArgument(0));
+                return true;
+            });
+            when(redisUtil.deleteAll(anyCollection())).thenAnswer(invocation -> {
+                batchCalls.incrementAndGet();
+                long count = 0;
+                for (String key : invocation.<Collection<String>>getArgument(0)) {
+                    if (store.remove(key) != null) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+            when(redisUtil.publishAll(anyString(), anyCollection())).thenAnswer(invocation -> {
+                for (Object message : invocation.<Collection<?>>getArgument(1)) {
+                    for (UnifiedCacheManager subscriber : subscribers) {
+                        subscriber.handleInvalidation((String) message);
+                    }
+                }
+                return true;
+            });
+        }
+
+        /**
+         * 模拟其他系统写入的带过期时间的键
+         */
+        void putWithTtl(String key, Object value, long ttlMillis) {
+            store.put(key, value);
+            deadlines.put(key, System.currentTimeMillis() + ttlMillis);
+        }
+    }
+}
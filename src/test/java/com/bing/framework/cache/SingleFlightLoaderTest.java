@@ -0,0 +1,114 @@
+package com.bing.framework.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单飞加载测试
+ *
+ * 测试并发未命中的合并：
+ * - 同一键的并发加载只执行一次加载函数
+ * - 加载异常传递给所有等待者，且不影响后续加载
+ * - getOrLoad命中缓存后不再回源
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class SingleFlightLoaderTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentLoadsCoalesced() throws Exception {
+        SingleFlightLoader loader = new SingleFlightLoader();
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> loader.load("user:1", () -> {
+                invocations.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "loaded";
+            })));
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS), "加载函数应被调用");
+        // 等待其余线程进入在途加载后再放行
+        long deadline = System.currentTimeMillis() + 5000;
+        while (loader.getCoalescedCount() < 15 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, invocations.get(), "并发加载应只执行一次");
+        assertEquals(15, loader.getCoalescedCount());
+        assertFalse(loader.isLoading("user:1"), "加载完成后不应保留在途记录");
+    }
+
+    @Test
+    void testFailurePropagatesAndClears() {
+        SingleFlightLoader loader = new SingleFlightLoader();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> loader.load("config:1", () -> {
+                throw new IllegalStateException("db down");
+            }));
+        assertEquals("db down", error.getMessage());
+        assertFalse(loader.isLoading("config:1"));
+
+        assertEquals("ok", loader.load("config:1", () -> "ok"), "失败后应允许重新加载");
+    }
+
+    @Test
+    void testGetOrLoadUsesCache() {
+        UnifiedCacheManager manager = new UnifiedCacheManager();
+        try {
+            AtomicInteger invocations = new AtomicInteger();
+            for (int i = 0; i < 5; i++) {
+                assertEquals("perm", manager.getOrLoad("perm:1", 10, () -> {
+                    invocations.incrementAndGet();
+                    return "perm";
+                }));
+            }
+            assertEquals(1, invocations.get(), "命中缓存后不应再回源");
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bing.framework.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分层时间轮测试
+ *
+ * 测试TimerWheel的到期处理：
+ * - 到期节点按时回调，未到期节点不提前回调
+ * - nanoTime跨越0时仍能正确推进
+ * - 取消调度后不再回调
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class TimerWheelTest {
+
+    @Test
+    void testAdvanceExpiresOnlyDueTimers() {
+        long start = -TimeUnit.SECONDS.toNanos(5); // 覆盖nanoTime由负转正的情况
+        TimerWheel<TimerWheel.Timer> wheel = new TimerWheel<>(start);
+        Random random = new Random(42);
+        List<TimerWheel.Timer> timers = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            long delay = (long) (random.nextDouble() * TimeUnit.DAYS.toNanos(3));
+            TimerWheel.Timer timer = new TimerWheel.Timer(start + delay);
+            timers.add(timer);
+            wheel.schedule(timer);
+        }
+
+        long now = start;
+        int[] expired = {0};
+        for (int step = 0; step < 3000; step++) {
+            now += TimeUnit.SECONDS.toNanos(90);
+            final long current = now;
+            wheel.advance(now, timer -> {
+                assertTrue(timer.deadline - current <= 0, "未到期的节点不应被回调");
+                expired[0]++;
+            });
+        }
+
+        assertEquals(timers.size(), expired[0], "所有节点都应到期");
+        for (TimerWheel.Timer timer : timers) {
+            assertFalse(timer.isScheduled(), "到期节点应已从时间轮移除");
+        }
+    }
+
+    @Test
+    void testDeschedule() {
+        long start = System.nanoTime();
+        TimerWheel<TimerWheel.Timer> wheel = new TimerWheel<>(start);
+        TimerWheel.Timer kept = new TimerWheel.Timer(start + TimeUnit.SECONDS.toNanos(10));
+        TimerWheel.Timer cancelled = new TimerWheel.Timer(start + TimeUnit.SECONDS.toNanos(10));
+        wheel.schedule(kept);
+        wheel.schedule(cancelled);
+        wheel.deschedule(cancelled);
+
+        List<TimerWheel.Timer> expired = new ArrayList<>();
+        wheel.advance(start + TimeUnit.MINUTES.toNanos(1), expired::add);
+
+        assertEquals(1, expired.size(), "取消调度的节点不应被回调");
+        assertSame(kept, expired.get(0));
+    }
+}
@@ -0,0 +1,156 @@
+package com.bing.framework.interceptor;
+
+import com.bing.framework.common.ErrorCode;
+import com.bing.framework.context.UserContext;
+import com.bing.framework.exception.BusinessException;
+import com.bing.framework.security.SessionRevokedEvent;
+import com.bing.framework.service.WhiteListService;
+import com.bing.framework.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JWT拦截器测试类
+ * 测试会话校验只访问一次Redis、本地缓存命中、会话撤销后的缓存失效，以及撤销通知在节点间的广播
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtInterceptorTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private WhiteListService whiteListService;
+
+    private JwtInterceptor jwtInterceptor;
+    private JwtUtil jwtUtil;
+    private MockHttpServletResponse response;
+
+    private static final Long TEST_USER_ID = 12345L;
+    private static final String TEST_USERNAME = "testuser";
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "bing-framework-jwt-test-secret");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 1);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 2);
+        jwtUtil.init();
+
+        jwtInterceptor = new JwtInterceptor();
+        ReflectionTestUtils.setField(jwtInterceptor, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtInterceptor, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(jwtInterceptor, "whiteListService", whiteListService);
+        jwtInterceptor.init();
+
+        response = new MockHttpServletResponse();
+        when(whiteListService.isInWhiteList(anyString())).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwtInterceptor.destroy();
+        jwtUtil.destroy();
+        UserContext.clear();
+    }
+
+    @Test
+    @DisplayName("会话校验结果在本地缓存，重复请求不再访问Redis")
+    void testSessionCheckCached() {
+        String token = jwtUtil.generateToken(TEST_USER_ID, TEST_USERNAME);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(false, token));
+
+        assertTrue(jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+        assertTrue(jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("会话撤销后重新从Redis校验")
+    void testSessionRevokedEvictsCache() {
+        String token = jwtUtil.generateToken(TEST_USER_ID, TEST_USERNAME);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(Arrays.asList(false, token))
+                .thenReturn(Arrays.asList(true, null));
+
+        assertTrue(jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+        jwtInterceptor.onSessionRevoked(new SessionRevokedEvent(this, TEST_USER_ID));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+        assertEquals(ErrorCode.TOKEN_BLACKLISTED.getCode(), exception.getCode());
+    }
+
+    @Test
+    @DisplayName("会话撤销时发布通知，其他节点收到通知后清除本地缓存")
+    void testSessionRevokedBroadcast() {
+        String token = jwtUtil.generateToken(TEST_USER_ID, TEST_USERNAME);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(Arrays.asList(false, token))
+                .thenReturn(Arrays.asList(true, null));
+        JwtInterceptor otherNode = new JwtInterceptor();
+        ReflectionTestUtils.setField(otherNode, "redisTemplate", redisTemplate);
+        otherNode.init();
+        try {
+            ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+            jwtInterceptor.onSessionRevoked(new SessionRevokedEvent(this, TEST_USER_ID));
+            verify(redisTemplate).convertAndSend(eq("bing:session:revoked"), message.capture());
+
+            // 自身发布的通知被忽略
+            assertTrue(jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+            jwtInterceptor.handleSessionRevoked((String) message.getValue());
+            assertTrue(jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+            verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+
+            // 其他节点发布的通知清除本地缓存
+            otherNode.onSessionRevoked(new SessionRevokedEvent(this, TEST_USER_ID));
+            ArgumentCaptor<Object> otherMessage = ArgumentCaptor.forClass(Object.class);
+            verify(redisTemplate, times(2)).convertAndSend(eq("bing:session:revoked"), otherMessage.capture());
+            jwtInterceptor.handleSessionRevoked((String) otherMessage.getValue());
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+            assertEquals(ErrorCode.TOKEN_BLACKLISTED.getCode(), exception.getCode());
+        } finally {
+            otherNode.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("令牌被替换时校验失败")
+    void testReplacedTokenRejected() {
+        String token = jwtUtil.generateToken(TEST_USER_ID, TEST_USERNAME);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(false, "other-token"));
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> jwtInterceptor.preHandle(requestWith(token), response, new Object()));
+        assertEquals(ErrorCode.INVALID_TOKEN.getCode(), exception.getCode());
+    }
+
+    private MockHttpServletRequest requestWith(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/api/test");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,211 @@
+package com.bing.framework.interceptor;
+
+import com.bing.framework.annotation.RateLimit;
+import com.bing.framework.ratelimit.RateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RateLimitInterceptor的单元测试类
+ * 验证按注解限流、按不同维度区分令牌桶、超过限制时返回429和Retry-After，只信任可信代理的X-Forwarded-For，
+ * 令牌桶数量达到上限时新对象直接放行，以及Redis模式失败时退回本地令牌桶
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class RateLimitInterceptorTest {
+
+    private RateLimiter rateLimiter;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter();
+        interceptor = new RateLimitInterceptor();
+        ReflectionTestUtils.setField(interceptor, "rateLimiter", rateLimiter);
+    }
+
+    /**
+     * 测试超过突发容量后返回429和Retry-After
+     */
+    @Test
+    void testRejectAfterBurst() throws Exception {
+        HandlerMethod handler = handler("login");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), response, handler));
+        assertEquals(429, response.getStatus());
+        assertEquals("100", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"code\":1003"));
+
+        // 其他IP使用独立的令牌桶
+        assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), handler));
+    }
+
+    /**
+     * 测试按用户限流时不同用户互不影响，未登录时按IP限流
+     */
+    @Test
+    void testUserKey() throws Exception {
+        HandlerMethod handler = handler("profile");
+        MockHttpServletRequest user1 = request("10.0.0.1");
+        user1.setAttribute("userId", 1L);
+        MockHttpServletRequest user2 = request("10.0.0.1");
+        user2.setAttribute("userId", 2L);
+
+        assertTrue(interceptor.preHandle(user1, new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(user2, new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(user1, new MockHttpServletResponse(), handler));
+    }
+
+    /**
+     * 测试直连地址不是可信代理时忽略X-Forwarded-For，轮换请求头无法绕过限流
+     */
+    @Test
+    void testForwardedForIgnoredFromUntrustedPeer() throws Exception {
+        HandlerMethod handler = handler("login");
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request("10.0.0.1");
+            request.addHeader("X-Forwarded-For", "203.0.113." + i);
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+        }
+        MockHttpServletRequest spoofed = request("10.0.0.1");
+        spoofed.addHeader("X-Forwarded-For", "203.0.113.99");
+        assertFalse(interceptor.preHandle(spoofed, new MockHttpServletResponse(), handler));
+    }
+
+    /**
+     * 测试可信代理转发的请求按X-Forwarded-For中最后一个非代理地址限流
+     */
+    @Test
+    void testForwardedForFromTrustedProxy() throws Exception {
+        ReflectionTestUtils.setField(interceptor, "trustedProxies", new HashSet<>(Arrays.asList("10.0.0.100")));
+        HandlerMethod handler = handler("login");
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request("10.0.0.100");
+            request.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.5");
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+        }
+        MockHttpServletRequest sameClient = request("10.0.0.100");
+        sameClient.addHeader("X-Forwarded-For", "198.51.100.2, 203.0.113.5");
+        assertFalse(interceptor.preHandle(sameClient, new MockHttpServletResponse(), handler), "客户端伪造的前缀不影响限流对象");
+
+        MockHttpServletRequest otherClient = request("10.0.0.100");
+        otherClient.addHeader("X-Forwarded-For", "203.0.113.6");
+        assertTrue(interceptor.preHandle(otherClient, new MockHttpServletResponse(), handler));
+    }
+
+    /**
+     * 测试令牌桶数量达到上限后新对象直接放行，已有对象仍然限流
+     */
+    @Test
+    void testNewSubjectsAdmittedWhenBucketLimitReached() throws Exception {
+        ReflectionTestUtils.setField(rateLimiter, "maxBucketsPerLimit", 1);
+        HandlerMethod handler = handler("login");
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), handler));
+        }
+        assertEquals(5L, rateLimiter.getStatistics().get("overflowAdmittedCount"));
+    }
+
+    /**
+     * 测试没有注解的方法不限流，注解只解析一次
+     */
+    @Test
+    void testUnannotatedMethodNotLimited() throws Exception {
+        HandlerMethod handler = handler("list");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        }
+        assertEquals(0L, rateLimiter.getStatistics().get("admittedCount"));
+    }
+
+    /**
+     * 测试Redis模式执行脚本失败时退回本地令牌桶，并记录放行和拒绝次数
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisFailureFallsBackToLocal() throws Exception {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenThrow(new IllegalStateException("down"));
+        ReflectionTestUtils.setField(rateLimiter, "redisTemplate", redisTemplate);
+        HandlerMethod handler = handler("register");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+
+        Map<String, Object> stats = rateLimiter.getStatistics();
+        assertEquals(1L, stats.get("admittedCount"));
+        assertEquals(1L, stats.get("rejectedCount"));
+        assertEquals(2L, stats.get("redisErrorCount"));
+    }
+
+    /**
+     * 测试Redis模式按脚本返回的等待时间限流
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRedisMode() throws Exception {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L, 2_500_000L);
+        ReflectionTestUtils.setField(rateLimiter, "redisTemplate", redisTemplate);
+        HandlerMethod handler = handler("register");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), handler));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), response, handler));
+        assertEquals("3", response.getHeader("Retry-After"));
+    }
+
+    private static MockHttpServletRequest request(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/test");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private static HandlerMethod handler(String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(new TestController(), TestController.class.getMethod(methodName));
+    }
+
+    /**
+     * 测试用的Controller
+     */
+    public static class TestController {
+
+        @RateLimit(permitsPerSecond = 0.01, burst = 2)
+        public void login() {
+        }
+
+        @RateLimit(permitsPerSecond = 0.01, burst = 1, key = RateLimit.KeyType.USER)
+        public void profile() {
+        }
+
+        @RateLimit(permitsPerSecond = 0.01, burst = 1, mode = RateLimit.Mode.REDIS)
+        public void register() {
+        }
+
+        public void list() {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bing.framework.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalTokenBucket的单元测试类
+ * 验证突发容量、按速率补充令牌、等待时间，以及多线程下放行数量不超过容量
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class LocalTokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 测试同一时刻最多放行burst个请求，拒绝时返回等待时间
+     */
+    @Test
+    void testBurst() {
+        LocalTokenBucket bucket = new LocalTokenBucket(INTERVAL, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(INTERVAL, bucket.tryAcquire(0));
+    }
+
+    /**
+     * 测试按速率补充令牌
+     */
+    @Test
+    void testRefill() {
+        LocalTokenBucket bucket = new LocalTokenBucket(INTERVAL, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(INTERVAL / 2, bucket.tryAcquire(INTERVAL / 2));
+        assertEquals(0, bucket.tryAcquire(INTERVAL));
+        assertFalse(bucket.isIdle(INTERVAL));
+        assertTrue(bucket.isIdle(INTERVAL * 2));
+    }
+
+    /**
+     * 测试空闲后令牌数不超过容量
+     */
+    @Test
+    void testIdleDoesNotAccumulateBeyondBurst() {
+        LocalTokenBucket bucket = new LocalTokenBucket(INTERVAL, 2, 0);
+        long later = INTERVAL * 100;
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    /**
+     * 测试多线程同时获取时放行数量等于容量
+     */
+    @Test
+    void testConcurrentAcquire() throws Exception {
+        LocalTokenBucket bucket = new LocalTokenBucket(TimeUnit.SECONDS.toNanos(1000), 50, 0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 100; j++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(50, admitted.get());
+    }
+}
@@ -0,0 +1,152 @@
+package com.bing.framework.security;
+
+import com.bing.framework.util.RedisUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AccessPatternDetector的单元测试类
+ * 验证按路径、不同路径数量和敏感接口的窗口计数，窗口滑动后过期的桶不再计入，
+ * 跟踪IP数量达到上限后新IP共用溢出窗口，以及集群汇总敏感接口计数
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AccessPatternDetectorTest {
+
+    private static final long START = 1_000_000_000L;
+
+    private AccessPatternDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new AccessPatternDetector();
+        detector.init();
+    }
+
+    /**
+     * 测试同一路径的计数与其他路径相互独立
+     */
+    @Test
+    void testPathRate() {
+        AccessPatternDetector.AccessRates rates = null;
+        for (int i = 0; i < 120; i++) {
+            rates = detector.record("10.0.0.1", "/api/orders", "GET", false, START + i);
+        }
+        AccessPatternDetector.AccessRates other = detector.record("10.0.0.1", "/api/items", "GET", false, START + 200);
+
+        assertEquals(120, rates.getPathRate());
+        assertEquals(121, other.getTotalRate());
+        assertTrue(other.getPathRate() < 120);
+        assertEquals(1, detector.record("10.0.0.2", "/api/orders", "GET", false, START).getPathRate());
+    }
+
+    /**
+     * 测试不同路径数量的估算
+     */
+    @Test
+    void testDistinctPaths() {
+        AccessPatternDetector.AccessRates rates = null;
+        for (int i = 0; i < 60; i++) {
+            rates = detector.record("10.0.0.1", "/api/resource/" + i, "GET", false, START + i);
+        }
+
+        assertTrue(rates.getDistinctPaths() > 50, "估算的不同路径数量: " + rates.getDistinctPaths());
+        assertTrue(rates.getDistinctPaths() < 75, "估算的不同路径数量: " + rates.getDistinctPaths());
+
+        for (int i = 0; i < 60; i++) {
+            rates = detector.record("10.0.0.3", "/api/orders", "GET", false, START + i);
+        }
+        assertTrue(rates.getDistinctPaths() <= 2);
+    }
+
+    /**
+     * 测试敏感接口计数
+     */
+    @Test
+    void testSensitiveRate() {
+        AccessPatternDetector.AccessRates rates = null;
+        for (int i = 0; i < 11; i++) {
+            rates = detector.record("10.0.0.1", "/api/auth/login", "POST", true, START + i);
+        }
+        AccessPatternDetector.AccessRates other = detector.record("10.0.0.1", "/api/orders", "GET", false, START + 20);
+
+        assertEquals(11, rates.getSensitiveRate());
+        assertEquals(11, other.getSensitiveRate());
+        assertEquals(12, other.getTotalRate());
+    }
+
+    /**
+     * 测试超过窗口长度的计数不再计入
+     */
+    @Test
+    void testWindowSlides() {
+        for (int i = 0; i < 50; i++) {
+            detector.record("10.0.0.1", "/api/orders", "GET", false, START);
+        }
+        AccessPatternDetector.AccessRates halfWindow = detector.record("10.0.0.1", "/api/orders", "GET", false, START + 30_000);
+        AccessPatternDetector.AccessRates afterWindow = detector.record("10.0.0.1", "/api/orders", "GET", false, START + 61_000);
+
+        assertEquals(51, halfWindow.getPathRate());
+        // 窗口分为6个10秒的桶，START所在的桶已滑出窗口
+        assertEquals(2, afterWindow.getPathRate());
+        assertEquals(2, afterWindow.getTotalRate());
+    }
+
+    /**
+     * 测试跟踪的IP达到上限后新IP共用溢出窗口，仍然参与检测
+     */
+    @Test
+    void testMaxTrackedIps() {
+        ReflectionTestUtils.setField(detector, "maxTrackedIps", 2);
+
+        detector.record("10.0.0.1", "/api/orders", "GET", false, START);
+        detector.record("10.0.0.2", "/api/orders", "GET", false, START);
+        AccessPatternDetector.AccessRates rates = null;
+        for (int i = 0; i < 101; i++) {
+            rates = detector.record("10.1.0." + i, "/api/orders", "GET", false, START + i);
+        }
+
+        assertEquals(101, rates.getPathRate());
+        assertEquals(2, detector.getStatistics().get("trackedIps"));
+        assertEquals(101L, detector.getStatistics().get("untrackedCount"));
+    }
+
+    /**
+     * 测试未启用集群汇总时不访问Redis
+     */
+    @Test
+    void testClusterSyncDisabled() {
+        RedisUtil redisUtil = mock(RedisUtil.class);
+        ReflectionTestUtils.setField(detector, "redisUtil", redisUtil);
+
+        detector.record("10.0.0.1", "/api/orders", "GET", false, START);
+        detector.syncCluster();
+
+        verifyNoInteractions(redisUtil);
+    }
+
+    /**
+     * 测试启用集群汇总后，其他节点的计数计入该IP的敏感接口请求数
+     */
+    @Test
+    void testClusterCountsMerged() {
+        RedisUtil redisUtil = mock(RedisUtil.class);
+        when(redisUtil.hmget(startsWith("security:access:sensitive:"))).thenReturn(Collections.singletonMap("10.0.0.9", 4));
+        ReflectionTestUtils.setField(detector, "redisUtil", redisUtil);
+        ReflectionTestUtils.setField(detector, "clusterEnabled", true);
+
+        detector.syncCluster();
+        AccessPatternDetector.AccessRates rates = detector.record("10.0.0.9", "/api/auth/login", "POST", true);
+
+        // 5个已结束的桶各有4次
+        assertEquals(21, rates.getSensitiveRate());
+        assertEquals(1, rates.getTotalRate());
+    }
+}
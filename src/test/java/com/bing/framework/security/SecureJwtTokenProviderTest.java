@@ -9,6 +9,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -328,4 +337,101 @@ class SecureJwtTokenProviderTest {
             assertEquals(3, parts.length);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testValidateSecureToken_TamperedPayload() {
+        String token = tokenProvider.generateSecureToken(
+                TEST_USER_ID, TEST_USERNAME, TEST_CLIENT_TYPE, TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"userId\":1,\"type\":\"access\",\"certVersion\":\"v1\"}".getBytes(StandardCharsets.UTF_8));
+
+        // 篡改载荷后签名不再匹配
+        SecureTokenValidationResult result = tokenProvider.validateSecureToken(
+                parts[0] + "." + forgedPayload + "." + parts[2], TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+
+        assertFalse(result.isApproved());
+        assertTrue(result.getReason().toLowerCase().contains("signature"));
+    }
+
+    @Test
+    void testValidateSecureToken_UnsignedTokenRejected() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString("{\"userId\":1,\"type\":\"access\",\"certVersion\":\"v1\"}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        // alg为none的令牌，无论是否带签名段都应被拒绝
+        assertFalse(tokenProvider.validateSecureToken(header + "." + payload + ".", null, null, null).isApproved());
+        assertFalse(tokenProvider.validateSecureToken(header + "." + payload + ".c2ln", null, null, null).isApproved());
+    }
+
+    @Test
+    void testValidateSecureToken_ExpiredTokenReported() {
+        when(clientTypeSecurityConfig.getExpirationConfig(eq("EXPIRED"), anyString())).thenReturn(
+                ExpirationConfig.builder()
+                        .clientType("EXPIRED")
+                        .baseExpirationHours(1)
+                        .adjustedExpirationHours(-1)
+                        .riskLevel(ClientRiskLevel.MEDIUM)
+                        .build());
+        String token = tokenProvider.generateSecureToken(
+                TEST_USER_ID, TEST_USERNAME, "EXPIRED", TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+
+        SecureTokenValidationResult result = tokenProvider.validateSecureToken(
+                token, TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+
+        assertFalse(result.isApproved());
+        assertTrue(result.getReason().contains("expired"));
+    }
+
+    @Test
+    void testValidateSecureToken_RepeatedValidationAcrossThreads() throws Exception {
+        String token = tokenProvider.generateSecureToken(
+                TEST_USER_ID, TEST_USERNAME, TEST_CLIENT_TYPE, TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+
+        // 线程复用的Mac、Cipher和MessageDigest在多次、多线程验证中结果一致
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                boolean sameDevice = i % 2 == 0;
+                results.add(executor.submit(() -> tokenProvider.validateSecureToken(
+                        token, sameDevice ? TEST_DEVICE_ID : "other", TEST_USER_AGENT, TEST_CLIENT_IP).isApproved()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0, results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testValidateSecureToken_RevokedTokenRejected() {
+        TokenRevocationStore revocationStore = mock(TokenRevocationStore.class);
+        when(revocationStore.isRevoked(anyString())).thenReturn(true);
+        setField(tokenProvider, "revocationStore", revocationStore);
+        String token = tokenProvider.generateSecureToken(
+                TEST_USER_ID, TEST_USERNAME, TEST_CLIENT_TYPE, TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+
+        SecureTokenValidationResult result = tokenProvider.validateSecureToken(
+                token, TEST_DEVICE_ID, TEST_USER_AGENT, TEST_CLIENT_IP);
+
+        assertFalse(result.isApproved());
+        assertEquals("Token ID already used", result.getReason());
+    }
+
+    @Test
+    void testRevokeToken_RecordedUntilExpiry() {
+        TokenRevocationStore revocationStore = mock(TokenRevocationStore.class);
+        setField(tokenProvider, "revocationStore", revocationStore);
+
+        // 撤销记录保留到令牌过期，未知过期时间时按刷新令牌的有效期保留
+        tokenProvider.revokeToken("token123", new Date(System.currentTimeMillis() + 60000));
+        tokenProvider.revokeToken("token456");
+
+        verify(revocationStore).revoke(eq("token123"), longThat(ttl -> ttl > 0 && ttl <= 60000));
+        verify(revocationStore).revoke("token456", TimeUnit.HOURS.toMillis(168));
+    }
+}
@@ -0,0 +1,178 @@
+package com.bing.framework.security;
+
+import com.bing.framework.entity.SecurityEventRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * SecurityEventPipeline的单元测试类
+ * 验证按用户、IP和事件类型合并窗口内的重复事件、窗口结束后批量写入、缓冲区已满时丢弃、
+ * 令牌验证成功事件只保留在内存中，以及最近事件索引的查询
+ * 不启动消费线程，由测试直接驱动消费逻辑
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class SecurityEventPipelineTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private SecurityEventBatchWriter batchWriter;
+    private List<SecurityEventRecord> written;
+    private SecurityEventPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = mock(SecurityEventBatchWriter.class);
+        written = new ArrayList<>();
+        when(batchWriter.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<SecurityEventRecord> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return batch.size();
+        });
+        pipeline = new SecurityEventPipeline(batchWriter, 64, 4);
+    }
+
+    /**
+     * 测试窗口内相同用户、IP和事件类型的事件合并为一条记录，窗口结束后写入
+     */
+    @Test
+    void testCoalesceWithinWindow() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 16, 12, 0, 0);
+        assertTrue(pipeline.publish(event("TOKEN_VALIDATION_FAILED", 1L, "10.0.0.1", "/api/a", time)));
+        assertTrue(pipeline.publish(event("TOKEN_VALIDATION_FAILED", 1L, "10.0.0.1", "/api/b", time.plusSeconds(2))));
+        assertTrue(pipeline.publish(event("TOKEN_VALIDATION_FAILED", 1L, "10.0.0.1", "/api/c", time.plusSeconds(1))));
+        assertTrue(pipeline.publish(event("TOKEN_VALIDATION_FAILED", 2L, "10.0.0.1", "/api/a", time)));
+        assertTrue(pipeline.publish(event("ABNORMAL_ACCESS_PATTERN", 1L, "10.0.0.1", "/api/a", time)));
+
+        assertEquals(5, pipeline.processAvailable(NOW));
+        verify(batchWriter, never()).insertBatch(anyList());
+
+        pipeline.processAvailable(NOW + 5000);
+        verify(batchWriter, times(1)).insertBatch(anyList());
+        assertEquals(3, written.size());
+
+        SecurityEventRecord merged = written.get(0);
+        assertEquals(3, merged.getEventCount());
+        assertEquals(Timestamp.valueOf(time).getTime(), merged.getFirstTime().getTime());
+        assertEquals(Timestamp.valueOf(time.plusSeconds(2)).getTime(), merged.getLastTime().getTime());
+        // 其余字段取窗口内最后一次的值
+        assertEquals("/api/b", merged.getRequestPath());
+        assertEquals(1, written.get(1).getEventCount());
+        assertEquals(1, written.get(2).getEventCount());
+
+        Map<String, Object> stats = pipeline.getStatistics();
+        assertEquals(5L, stats.get("publishedCount"));
+        assertEquals(2L, stats.get("coalescedCount"));
+        assertEquals(3L, stats.get("persistedCount"));
+    }
+
+    /**
+     * 测试下一个窗口的事件单独合并
+     */
+    @Test
+    void testNextWindowStartsNewRecord() {
+        pipeline.publish(event("TOKEN_VALIDATION_FAILED", 1L, "10.0.0.1", "/api/a", null));
+        pipeline.processAvailable(NOW);
+        pipeline.processAvailable(NOW + 5000);
+
+        pipeline.publish(event("TOKEN_VALIDATION_FAILED", 1L, "10.0.0.1", "/api/a", null));
+        pipeline.processAvailable(NOW + 6000);
+        pipeline.processAvailable(NOW + 10999);
+        assertEquals(1, written.size());
+
+        pipeline.processAvailable(NOW + 11000);
+        assertEquals(2, written.size());
+        assertEquals(NOW + 6000, written.get(1).getFirstTime().getTime());
+    }
+
+    /**
+     * 测试缓冲区已满时丢弃新事件并计数
+     */
+    @Test
+    void testDropWhenFull() {
+        SecurityEventPipeline small = new SecurityEventPipeline(batchWriter, 2, 4);
+        assertTrue(small.publish(event("A", 1L, "10.0.0.1", "/api/a", null)));
+        assertTrue(small.publish(event("A", 1L, "10.0.0.1", "/api/a", null)));
+        assertFalse(small.publish(event("A", 1L, "10.0.0.1", "/api/a", null)));
+
+        assertEquals(1L, small.getStatistics().get("droppedCount"));
+        assertEquals(2, small.processAvailable(NOW));
+        assertTrue(small.publish(event("A", 1L, "10.0.0.1", "/api/a", null)));
+    }
+
+    /**
+     * 测试最近事件索引按时间倒序返回，支持按条件过滤，超过容量时覆盖最早的记录
+     */
+    @Test
+    void testRecentEvents() {
+        for (int i = 1; i <= 5; i++) {
+            pipeline.publish(event("TYPE_" + (i % 2), (long) i, "10.0.0." + i, "/api/" + i, null));
+            pipeline.processAvailable(NOW);
+            pipeline.flush();
+        }
+
+        List<SecurityEventRecord> recent = pipeline.getRecentEvents(null, null, null, 10);
+        assertEquals(4, recent.size());
+        assertEquals(5L, recent.get(0).getUserId());
+        assertEquals(2L, recent.get(3).getUserId());
+
+        assertEquals(2, pipeline.getRecentEvents(null, null, "TYPE_1", 10).size());
+        assertEquals(1, pipeline.getRecentEvents(3L, null, null, 10).size());
+        assertEquals(1, pipeline.getRecentEvents(null, "10.0.0.4", null, 10).size());
+        assertEquals(0, pipeline.getRecentEvents(1L, null, null, 10).size());
+        assertEquals(1, pipeline.getRecentEvents(null, null, null, 1).size());
+    }
+
+    /**
+     * 测试令牌验证成功事件只放入最近事件索引，不写入数据库
+     */
+    @Test
+    void testSuccessEventsMemoryOnly() {
+        pipeline.publish(event("TOKEN_VALIDATION_SUCCESS", 1L, "10.0.0.1", "/api/a", null));
+        pipeline.publish(event("ABNORMAL_ACCESS_PATTERN", 1L, "10.0.0.1", "/api/a", null));
+        pipeline.processAvailable(NOW);
+        pipeline.flush();
+
+        assertEquals(1, written.size());
+        assertEquals("ABNORMAL_ACCESS_PATTERN", written.get(0).getEventType());
+        assertEquals(1, pipeline.getRecentEvents(null, null, "TOKEN_VALIDATION_SUCCESS", 10).size());
+        assertEquals(1L, pipeline.getStatistics().get("persistedCount"));
+    }
+
+    /**
+     * 测试写入失败时记录失败批次，事件仍进入最近事件索引
+     */
+    @Test
+    void testWriterFailure() {
+        when(batchWriter.insertBatch(anyList())).thenThrow(new IllegalStateException("db down"));
+        pipeline.publish(event("TOKEN_VALIDATION_FAILED", null, "10.0.0.1", null, null));
+        pipeline.processAvailable(NOW);
+        pipeline.flush();
+
+        Map<String, Object> stats = pipeline.getStatistics();
+        assertEquals(1L, stats.get("failedBatchCount"));
+        assertEquals(0L, stats.get("persistedCount"));
+        assertEquals(1, pipeline.getRecentEvents(null, "10.0.0.1", null, 10).size());
+    }
+
+    private static SecurityEvent event(String type, Long userId, String ip, String path, LocalDateTime time) {
+        return SecurityEvent.builder()
+                .eventType(type)
+                .userId(userId)
+                .clientIp(ip)
+                .requestPath(path)
+                .method("GET")
+                .timestamp(time)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bing.framework.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenBloomFilter的单元测试类
+ * 验证已添加的令牌ID不会漏判、误判率接近配置值，以及超过预期容量后报告饱和
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class TokenBloomFilterTest {
+
+    /**
+     * 测试已添加的令牌ID全部命中
+     */
+    @Test
+    void testNoFalseNegatives() {
+        TokenBloomFilter filter = new TokenBloomFilter(10000, 0.001);
+        String[] tokenIds = new String[10000];
+        for (int i = 0; i < tokenIds.length; i++) {
+            tokenIds[i] = UUID.randomUUID().toString();
+            filter.put(tokenIds[i]);
+        }
+        for (String tokenId : tokenIds) {
+            assertTrue(filter.mightContain(tokenId));
+        }
+        // 新令牌ID的各位恰好都已置位时不计数
+        assertTrue(filter.getInsertions() > 9900L && filter.getInsertions() <= 10000L);
+        assertFalse(filter.isSaturated());
+    }
+
+    /**
+     * 测试重复添加同一令牌ID不计数，不会提前报告饱和
+     */
+    @Test
+    void testDuplicatePutsNotCounted() {
+        TokenBloomFilter filter = new TokenBloomFilter(2, 0.01);
+        assertTrue(filter.put("a"));
+        for (int i = 0; i < 10; i++) {
+            assertFalse(filter.put("a"));
+        }
+        assertEquals(1L, filter.getInsertions());
+        assertFalse(filter.isSaturated());
+    }
+
+    /**
+     * 测试未添加的令牌ID误判率不超过配置值的数倍
+     */
+    @Test
+    void testFalsePositiveRate() {
+        TokenBloomFilter filter = new TokenBloomFilter(10000, 0.001);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        int falsePositives = 0;
+        int probes = 100000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes * 0.005, "误判次数过多: " + falsePositives);
+    }
+
+    /**
+     * 测试添加次数超过预期容量后报告饱和
+     */
+    @Test
+    void testSaturated() {
+        TokenBloomFilter filter = new TokenBloomFilter(2, 0.01);
+        filter.put("a");
+        filter.put("b");
+        assertFalse(filter.isSaturated());
+        filter.put("c");
+        assertTrue(filter.isSaturated());
+    }
+
+    /**
+     * 测试误判率参数无效时抛出异常
+     */
+    @Test
+    void testInvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,143 @@
+package com.bing.framework.security;
+
+import com.bing.framework.util.RedisUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenRevocationStore的单元测试类
+ * 验证布隆过滤器判定未撤销时不访问Redis、可能命中时由Redis确认，以及增量同步其他节点的撤销记录，
+ * 重复同步相同记录不会让过滤器提前饱和
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class TokenRevocationStoreTest {
+
+    private RedisUtil redisUtil;
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        redisUtil = mock(RedisUtil.class);
+        store = new TokenRevocationStore();
+        ReflectionTestUtils.setField(store, "redisUtil", redisUtil);
+        ReflectionTestUtils.setField(store, "bloomExpectedInsertions", 1000);
+    }
+
+    /**
+     * 测试过滤器尚未建立时直接查询Redis
+     */
+    @Test
+    void testLookupWithoutFilter() {
+        when(redisUtil.hasKey(TokenRevocationStore.REVOKED_TOKEN_PREFIX + "t1")).thenReturn(true);
+
+        assertTrue(store.isRevoked("t1"));
+        verify(redisUtil).hasKey(TokenRevocationStore.REVOKED_TOKEN_PREFIX + "t1");
+    }
+
+    /**
+     * 测试过滤器判定未撤销时不访问Redis
+     */
+    @Test
+    void testFilterMissSkipsRedis() {
+        when(redisUtil.zRangeByScore(eq(TokenRevocationStore.REVOKED_INDEX_KEY), anyDouble(), anyDouble()))
+                .thenReturn(Collections.emptySet());
+        store.rebuild();
+
+        assertFalse(store.isRevoked("not-revoked"));
+        verify(redisUtil, never()).hasKey(anyString());
+        assertEquals(1L, store.getStatistics().get("filterSkipCount"));
+    }
+
+    /**
+     * 测试撤销的令牌写入Redis并加入本地过滤器，查询时由Redis确认
+     */
+    @Test
+    void testRevokeThenLookup() {
+        when(redisUtil.zRangeByScore(eq(TokenRevocationStore.REVOKED_INDEX_KEY), anyDouble(), anyDouble()))
+                .thenReturn(Collections.emptySet());
+        when(redisUtil.hasKey(TokenRevocationStore.REVOKED_TOKEN_PREFIX + "t2")).thenReturn(true);
+        store.rebuild();
+
+        store.revoke("t2", 60000);
+
+        verify(redisUtil).set(eq(TokenRevocationStore.REVOKED_TOKEN_PREFIX + "t2"), any(), eq(60000L), eq(TimeUnit.MILLISECONDS));
+        verify(redisUtil).zAdd(eq(TokenRevocationStore.REVOKED_INDEX_KEY), eq("t2"), anyDouble());
+        assertTrue(store.isRevoked("t2"));
+    }
+
+    /**
+     * 测试剩余有效期不大于0的令牌不记录
+     */
+    @Test
+    void testExpiredTokenNotRecorded() {
+        store.revoke("t3", 0);
+
+        verifyNoInteractions(redisUtil);
+    }
+
+    /**
+     * 测试增量同步把其他节点撤销的令牌加入本地过滤器
+     */
+    @Test
+    void testSyncAddsRemoteRevocations() {
+        when(redisUtil.zRangeByScore(eq(TokenRevocationStore.REVOKED_INDEX_KEY), anyDouble(), anyDouble()))
+                .thenReturn(Collections.emptySet())
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("remote-1", "remote-2")));
+        when(redisUtil.hasKey(anyString())).thenReturn(true);
+        store.rebuild();
+        assertFalse(store.isRevoked("remote-1"));
+
+        store.sync();
+
+        assertTrue(store.isRevoked("remote-1"));
+        assertTrue(store.isRevoked("remote-2"));
+    }
+
+    /**
+     * 测试增量同步重复读取重叠窗口内的相同记录时不触发重建
+     */
+    @Test
+    void testRepeatedSyncDoesNotSaturateFilter() {
+        ReflectionTestUtils.setField(store, "bloomExpectedInsertions", 2);
+        when(redisUtil.zRangeByScore(eq(TokenRevocationStore.REVOKED_INDEX_KEY), anyDouble(), anyDouble()))
+                .thenReturn(Collections.emptySet())
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("remote-1", "remote-2")));
+        store.rebuild();
+
+        for (int i = 0; i < 10; i++) {
+            store.sync();
+        }
+
+        verify(redisUtil, times(1)).zRemoveRangeByScore(eq(TokenRevocationStore.REVOKED_INDEX_KEY), anyDouble(), anyDouble());
+        assertEquals(2L, store.getStatistics().get("filterInsertions"));
+    }
+
+    /**
+     * 测试读取撤销记录失败时保留当前过滤器
+     */
+    @Test
+    void testRebuildKeepsFilterOnRedisFailure() {
+        when(redisUtil.zRangeByScore(eq(TokenRevocationStore.REVOKED_INDEX_KEY), anyDouble(), anyDouble()))
+                .thenReturn(new LinkedHashSet<>(Collections.singletonList("t4")))
+                .thenReturn(null);
+        when(redisUtil.hasKey(anyString())).thenReturn(true);
+        store.rebuild();
+
+        store.rebuild();
+
+        assertEquals(true, store.getStatistics().get("filterReady"));
+        assertTrue(store.isRevoked("t4"));
+        assertFalse(store.isRevoked("t5"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.bing.framework.service.impl;
+
+import com.bing.framework.dto.AuditLogKeysetPage;
+import com.bing.framework.dto.AuditLogQueryDTO;
+import com.bing.framework.entity.AuditLog;
+import com.bing.framework.mapper.AuditLogMapper;
+import com.bing.framework.exception.BusinessException;
+import com.bing.framework.util.AuditLogBufferManager;
+import com.bing.framework.util.AuditLogExportWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditLogServiceImpl的单元测试类
+ * 验证每条审计日志只入队一次，同步和异步记录走同一条路径，键集分页的游标计算，
+ * 以及导出许可不足时不打开输出流
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AuditLogServiceImplTest {
+
+    @Mock
+    private AuditLogBufferManager bufferManager;
+
+    @Mock
+    private AuditLogMapper auditLogMapper;
+
+    private AuditLogServiceImpl auditLogService;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-10-16T08:00:00Z"), ZoneId.systemDefault());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        auditLogService = new AuditLogServiceImpl(bufferManager, clock);
+        ReflectionTestUtils.setField(auditLogService, "baseMapper", auditLogMapper);
+    }
+
+    /**
+     * 测试记录审计日志时只入队一次并补全操作时间
+     */
+    @Test
+    void testRecordAuditLogEnqueuesOnce() {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setModule("User");
+
+        auditLogService.recordAuditLog(auditLog);
+
+        verify(bufferManager, times(1)).addLog(auditLog);
+        assertEquals(Date.from(clock.instant()), auditLog.getOperationTime());
+    }
+
+    /**
+     * 测试异步记录与同步记录走同一条路径，不会重复入队
+     */
+    @Test
+    void testRecordAuditLogAsyncEnqueuesOnce() {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setOperationTime(new Date(0));
+
+        auditLogService.recordAuditLogAsync(auditLog);
+
+        verify(bufferManager, times(1)).addLog(auditLog);
+        verifyNoMoreInteractions(bufferManager);
+        assertEquals(new Date(0), auditLog.getOperationTime());
+    }
+
+    /**
+     * 测试多查出一条记录时判定还有下一页，并以本页最后一条记录作为下一页游标
+     */
+    @Test
+    void testQueryAuditLogsReturnsNextCursor() {
+        AuditLogQueryDTO query = new AuditLogQueryDTO();
+        query.setSize(2);
+        when(auditLogMapper.selectByKeyset(query, 3)).thenReturn(logs(3));
+
+        AuditLogKeysetPage page = auditLogService.queryAuditLogs(query);
+
+        assertTrue(page.getHasMore());
+        assertEquals(2, page.getRecords().size());
+        assertEquals(Long.valueOf(99), page.getNextId());
+        assertEquals(new Date(99000), page.getNextOperationTime());
+    }
+
+    /**
+     * 测试最后一页不返回下一页游标，每页数量超过上限时按上限查询
+     */
+    @Test
+    void testQueryAuditLogsLastPage() {
+        AuditLogQueryDTO query = new AuditLogQueryDTO();
+        query.setSize(1000);
+        when(auditLogMapper.selectByKeyset(query, 101)).thenReturn(logs(5));
+
+        AuditLogKeysetPage page = auditLogService.queryAuditLogs(query);
+
+        assertFalse(page.getHasMore());
+        assertEquals(100, page.getSize());
+        assertEquals(5, page.getRecords().size());
+        assertNull(page.getNextId());
+        assertNull(page.getNextOperationTime());
+    }
+
+    /**
+     * 测试导出许可不足时直接拒绝，不打开输出流，调用方不会设置下载响应头
+     */
+    @Test
+    void testExportRejectedBeforeOpeningOutput() {
+        ReflectionTestUtils.setField(auditLogService, "exportPermits", new Semaphore(0));
+        AtomicBoolean opened = new AtomicBoolean();
+
+        assertThrows(BusinessException.class, () -> auditLogService.exportAuditLogs(
+                new AuditLogQueryDTO(), AuditLogExportWriter.Format.CSV, () -> {
+                    opened.set(true);
+                    return new ByteArrayOutputStream();
+                }));
+
+        assertFalse(opened.get());
+        verify(auditLogMapper, never()).streamByCondition(any());
+    }
+
+    private List<AuditLog> logs(int count) {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setId(100L - i);
+            auditLog.setOperationTime(new Date((100L - i) * 1000));
+            logs.add(auditLog);
+        }
+        return logs;
+    }
+}
@@ -3,6 +3,7 @@ package com.bing.framework.service.impl;
 import com.bing.framework.entity.LoginRecord;
 import com.bing.framework.mapper.LoginRecordMapper;
 import com.bing.framework.dto.LoginRecordQueryDTO;
+import com.bing.framework.util.LogTablePartitionManager;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +30,9 @@ public class LoginRecordServiceImplTest {
     @Mock
     private LoginRecordMapper loginRecordMapper;
 
+    @Mock
+    private LogTablePartitionManager partitionManager;
+
     @InjectMocks
     private LoginRecordServiceImpl loginRecordService;
 
@@ -124,6 +129,25 @@ public class LoginRecordServiceImplTest {
         verify(loginRecordMapper, times(1)).deleteExpiredRecords(anyString());
     }
 
+    /**
+     * 测试登录记录表已分区时先删除过期分区，再按时间删除边界分区内的剩余记录
+     */
+    @Test
+    void testCleanExpiredRecordsDropsPartitions() {
+        // 模拟分区管理器和mapper行为
+        when(partitionManager.purgeExpiredPartitions(eq(LogTablePartitionManager.LogTable.LOGIN_RECORD), any(LocalDateTime.class)))
+                .thenReturn(100L);
+        when(loginRecordMapper.deleteExpiredRecords(anyString())).thenReturn(5);
+
+        // 执行测试
+        int deletedCount = loginRecordService.cleanExpiredRecords(90);
+
+        // 验证结果
+        assertEquals(105, deletedCount);
+        verify(partitionManager, times(1)).purgeExpiredPartitions(eq(LogTablePartitionManager.LogTable.LOGIN_RECORD), any(LocalDateTime.class));
+        verify(loginRecordMapper, times(1)).deleteExpiredRecords(anyString());
+    }
+
     /**
      * 测试获取指定用户的登录记录功能
      */
@@ -4,6 +4,7 @@ import com.bing.framework.common.ErrorCode;
 import com.bing.framework.entity.User;
 import com.bing.framework.exception.BusinessException;
 import com.bing.framework.mapper.UserMapper;
+import com.bing.framework.util.RefreshTokenStore;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,9 @@ public class UserServiceImplTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
     
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+    
     @InjectMocks
     private UserServiceImpl userService;
     
@@ -198,6 +202,8 @@ public class UserServiceImplTest {
         // 验证密码已被加密
         Assertions.assertNotEquals("newpassword123", user.getPassword());
         verify(userMapper, times(1)).updateById(any(User.class));
+        // 重置密码后应撤销该用户的全部刷新令牌
+        verify(refreshTokenStore, times(1)).revokeAll(1L);
     }
     
     @Test
@@ -0,0 +1,83 @@
+package com.bing.framework.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 自适应批量大小计算器测试类
+ * 测试积压时增大批量、写入过慢时减小批量、空闲时回落以及等待时间的计算
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class AdaptiveBatchSizerTest {
+
+    private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("有积压且写入较快时批量翻倍，不超过上限")
+    void testGrowUnderBacklog() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100);
+
+        assertEquals(200, sizer.onBatchWritten(100, FAST_NANOS, 5000, 100, 1000, TARGET_NANOS));
+        assertEquals(400, sizer.onBatchWritten(200, FAST_NANOS, 5000, 100, 1000, TARGET_NANOS));
+        assertEquals(800, sizer.onBatchWritten(400, FAST_NANOS, 5000, 100, 1000, TARGET_NANOS));
+        assertEquals(1000, sizer.onBatchWritten(800, FAST_NANOS, 5000, 100, 1000, TARGET_NANOS));
+    }
+
+    @Test
+    @DisplayName("写入耗时超过目标两倍时批量减半，不低于下限")
+    void testShrinkWhenSlow() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(800);
+        long slow = TARGET_NANOS * 3;
+
+        assertEquals(400, sizer.onBatchWritten(800, slow, 5000, 100, 1000, TARGET_NANOS));
+        assertEquals(200, sizer.onBatchWritten(400, slow, 5000, 100, 1000, TARGET_NANOS));
+        assertEquals(100, sizer.onBatchWritten(200, slow, 5000, 100, 1000, TARGET_NANOS));
+        assertEquals(100, sizer.onBatchWritten(100, slow, 5000, 100, 1000, TARGET_NANOS));
+    }
+
+    @Test
+    @DisplayName("无积压且批次未过半时批量缓慢回落")
+    void testDecayWhenIdle() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(800);
+
+        assertEquals(600, sizer.onBatchWritten(10, FAST_NANOS, 0, 100, 1000, TARGET_NANOS));
+        assertEquals(450, sizer.onBatchWritten(10, FAST_NANOS, 0, 100, 1000, TARGET_NANOS));
+    }
+
+    @Test
+    @DisplayName("上下限变化后立即生效")
+    void testLimitsAppliedImmediately() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(800);
+
+        assertEquals(300, sizer.batchSize(100, 300));
+        assertEquals(900, sizer.batchSize(900, 1000), "下限提高后批量大小不低于下限");
+    }
+
+    @Test
+    @DisplayName("空闲时只等待最短时间，负载下等待攒满一批")
+    void testLinger() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100);
+        long maxLinger = TimeUnit.SECONDS.toNanos(5);
+        long start = TimeUnit.SECONDS.toNanos(1);
+
+        // 每秒1条，最长等待时间内攒不满一批
+        sizer.sampleArrivals(start, 0);
+        sizer.sampleArrivals(start + TimeUnit.SECONDS.toNanos(1), 1);
+        assertEquals(AdaptiveBatchSizer.MIN_LINGER_NANOS, sizer.lingerNanos(100, maxLinger));
+
+        // 速率升高后等待时间为攒满一批所需时间，不超过最长等待时间
+        for (int i = 2; i < 30; i++) {
+            sizer.sampleArrivals(start + TimeUnit.SECONDS.toNanos(i), 1 + (i - 1) * 50L);
+        }
+        long linger = sizer.lingerNanos(100, maxLinger);
+        assertTrue(linger > AdaptiveBatchSizer.MIN_LINGER_NANOS && linger <= maxLinger, "linger=" + linger);
+        assertEquals(50.0, sizer.getArrivalRatePerSecond(), 1.0);
+    }
+}
@@ -0,0 +1,157 @@
+package com.bing.framework.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.bing.framework.entity.AuditLog;
+import com.bing.framework.service.AuditLogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditLogAppender的单元测试类
+ * 验证日志线程只入队不处理、队列已满时丢弃最早的事件、SPILL策略由交接线程转存溢出文件，
+ * 以及交接线程将事件交给AuditLogService
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AuditLogAppenderTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private AuditLogAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        appender = new AuditLogAppender();
+        appender.setContext(loggerContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+    }
+
+    /**
+     * 测试AuditLogService不可用时事件保留在队列中，队列已满后丢弃最早的事件
+     */
+    @Test
+    void testDropOldestWhenQueueFull() {
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(AuditLogService.class)).thenThrow(new NoSuchBeanDefinitionException(AuditLogService.class));
+        AuditLogAppender.setStaticApplicationContext(context);
+        appender.setQueueSize(2);
+        appender.setOverflowPolicy("drop_oldest");
+        appender.start();
+
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend(auditEvent("module:User" + i));
+        }
+
+        Map<String, Object> stats = AuditLogAppender.getRunningStatistics();
+        assertEquals(2L, stats.get("queueDepth"));
+        assertEquals(3L, stats.get("droppedCount"));
+        assertEquals(5L, stats.get("enqueuedCount"));
+    }
+
+    /**
+     * 测试交接线程解析事件后交给AuditLogService，只解析一次协作对象
+     */
+    @Test
+    void testHandoffRecordsParsedAuditLog() {
+        AuditLogService auditLogService = mock(AuditLogService.class);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(AuditLogService.class)).thenReturn(auditLogService);
+        AuditLogAppender.setStaticApplicationContext(context);
+        appender.start();
+
+        appender.doAppend(auditEvent("userId:1,module:User,operationType:POST"));
+        appender.doAppend(auditEvent("userId:2,module:Role,operationType:GET"));
+
+        verify(auditLogService, timeout(2000)).recordAuditLog(argThat(log ->
+                Long.valueOf(1).equals(log.getUserId()) && "User".equals(log.getModule()) && "成功".equals(log.getResult())));
+        verify(auditLogService, timeout(2000)).recordAuditLog(argThat(log -> "Role".equals(log.getModule())));
+        verify(context, times(1)).getBean(AuditLogService.class);
+    }
+
+    /**
+     * 测试SPILL策略下队列已满的事件由交接线程转存到溢出文件，日志线程不访问溢出文件
+     */
+    @Test
+    void testSpillOnHandoffThread() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AuditLogService auditLogService = mock(AuditLogService.class);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return null;
+        }).when(auditLogService).recordAuditLog(any());
+        AuditLogSpillFile spillFile = mock(AuditLogSpillFile.class);
+        AtomicReference<String> spillThread = new AtomicReference<>();
+        AtomicReference<List<AuditLog>> spilled = new AtomicReference<>();
+        when(spillFile.append(anyList())).thenAnswer(invocation -> {
+            spillThread.set(Thread.currentThread().getName());
+            spilled.set(invocation.getArgument(0));
+            return true;
+        });
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(AuditLogService.class)).thenReturn(auditLogService);
+        when(context.getBean(AuditLogSpillFile.class)).thenReturn(spillFile);
+        AuditLogAppender.setStaticApplicationContext(context);
+        appender.setQueueSize(1);
+        appender.setOverflowPolicy("spill");
+        appender.start();
+
+        appender.doAppend(auditEvent("module:User0"));
+        assertTrue(entered.await(2, TimeUnit.SECONDS));
+        appender.doAppend(auditEvent("module:User1"));
+        appender.doAppend(auditEvent("module:User2"));
+        appender.doAppend(auditEvent("module:User3"));
+        verify(spillFile, never()).append(anyList());
+        assertEquals(1L, AuditLogAppender.getRunningStatistics().get("droppedCount"));
+
+        release.countDown();
+        verify(spillFile, timeout(2000)).append(anyList());
+        assertEquals("audit-log-appender", spillThread.get());
+        assertEquals(1, spilled.get().size());
+        assertEquals("User2", spilled.get().get(0).getModule());
+    }
+
+    /**
+     * 测试携带AuditLog对象的结构化事件和其他记录器的事件不会入队
+     */
+    @Test
+    void testStructuredEventsIgnored() {
+        appender.start();
+
+        LoggingEvent structured = new LoggingEvent(getClass().getName(), loggerContext.getLogger("AUDIT_LOG"),
+                Level.INFO, "{}", null, new Object[]{new AuditLog()});
+        LoggingEvent other = new LoggingEvent(getClass().getName(), loggerContext.getLogger("com.bing"),
+                Level.INFO, "module:User", null, null);
+        appender.doAppend(structured);
+        appender.doAppend(other);
+
+        assertEquals(0L, AuditLogAppender.getRunningStatistics().get("enqueuedCount"));
+    }
+
+    private LoggingEvent auditEvent(String message) {
+        return new LoggingEvent(getClass().getName(), loggerContext.getLogger("AUDIT_LOG"),
+                Level.INFO, message, null, null);
+    }
+}
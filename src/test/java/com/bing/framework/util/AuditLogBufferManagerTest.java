@@ -0,0 +1,80 @@
+package com.bing.framework.util;
+
+import com.bing.framework.config.AuditLogConfigProperties;
+import com.bing.framework.entity.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditLogBufferManager的单元测试类
+ * 验证缓冲池已满时请求线程不访问溢出文件，由写入线程转存，溢出文件不可用时丢弃并计数
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AuditLogBufferManagerTest {
+
+    private AuditLogBatchWriter batchWriter;
+    private AuditLogSpillFile spillFile;
+    private AuditLogBufferManager bufferManager;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = mock(AuditLogBatchWriter.class);
+        spillFile = mock(AuditLogSpillFile.class);
+        AuditLogConfigProperties properties = new AuditLogConfigProperties();
+        properties.setBufferQueueSize(2);
+        properties.setBatchSize(100);
+        bufferManager = new AuditLogBufferManager(batchWriter, properties, spillFile);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bufferManager.flushOnShutdown();
+    }
+
+    /**
+     * 测试缓冲池已满时日志交给写入线程转存到溢出文件
+     */
+    @Test
+    void testOverflowIsSpilledOnWriterThread() {
+        when(spillFile.isAvailable()).thenReturn(true);
+        AtomicInteger spilled = new AtomicInteger();
+        when(spillFile.append(anyList())).thenAnswer(invocation -> {
+            spilled.addAndGet(invocation.<List<AuditLog>>getArgument(0).size());
+            return true;
+        });
+
+        assertTrue(bufferManager.addLog(new AuditLog()));
+        assertTrue(bufferManager.addLog(new AuditLog()));
+        assertTrue(bufferManager.addLog(new AuditLog()));
+        verify(spillFile, never()).append(anyList());
+
+        bufferManager.start();
+        verify(spillFile, timeout(2000)).append(anyList());
+        assertEquals(1, spilled.get());
+        assertEquals(0, bufferManager.getRejectedCount());
+    }
+
+    /**
+     * 测试溢出文件不可用时缓冲池已满的日志直接丢弃并计数
+     */
+    @Test
+    void testOverflowDroppedWhenSpillUnavailable() {
+        when(spillFile.isAvailable()).thenReturn(false);
+
+        assertTrue(bufferManager.addLog(new AuditLog()));
+        assertTrue(bufferManager.addLog(new AuditLog()));
+        assertFalse(bufferManager.addLog(new AuditLog()));
+
+        assertEquals(1, bufferManager.getRejectedCount());
+        verify(spillFile, never()).append(anyList());
+    }
+}
@@ -0,0 +1,99 @@
+package com.bing.framework.util;
+
+import com.bing.framework.entity.AuditLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuditLogExportWriter的单元测试类
+ * 验证CSV转义、公式注入防护和NDJSON逐行输出
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class AuditLogExportWriterTest {
+
+    /**
+     * 测试CSV输出列名并对逗号、引号、换行和公式前缀进行转义
+     */
+    @Test
+    void testCsvEscaping() throws IOException {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setId(1L);
+        auditLog.setUsername("admin");
+        auditLog.setDescription("a,\"b\"\nc");
+        auditLog.setRequestParams("=HYPERLINK(\"x\")");
+        auditLog.setExecutionTime(12L);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditLogExportWriter writer = new AuditLogExportWriter(AuditLogExportWriter.Format.CSV, out)) {
+            writer.write(auditLog);
+            assertEquals(1, writer.getCount());
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\r\n");
+        assertTrue(lines[0].startsWith("id,user_id,username"));
+        assertEquals("1,,admin,,,,,\"a,\"\"b\"\"\nc\",\"'=HYPERLINK(\"\"x\"\")\",,,12", lines[1]);
+    }
+
+    /**
+     * 测试以制表符或回车开头的文本同样加单引号前缀
+     */
+    @Test
+    void testCsvTabAndCarriageReturnPrefixed() throws IOException {
+        AuditLog tab = new AuditLog();
+        tab.setUsername("\t=cmd|' /C calc'!A0");
+        AuditLog carriageReturn = new AuditLog();
+        carriageReturn.setUsername("\r=cmd|' /C calc'!A0");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditLogExportWriter writer = new AuditLogExportWriter(AuditLogExportWriter.Format.CSV, out)) {
+            writer.write(tab);
+            writer.write(carriageReturn);
+        }
+
+        String csv = out.toString(StandardCharsets.UTF_8.name());
+        String records = csv.substring(csv.indexOf("\r\n") + 2);
+        assertEquals(",,\"'\t=cmd|' /C calc'!A0\",,,,,,,,,\r\n"
+                + ",,\"'\r=cmd|' /C calc'!A0\",,,,,,,,,\r\n", records);
+    }
+
+    /**
+     * 测试NDJSON每条记录输出一行JSON
+     */
+    @Test
+    void testNdjsonOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditLogExportWriter writer = new AuditLogExportWriter(AuditLogExportWriter.Format.NDJSON, out)) {
+            for (long i = 1; i <= 2; i++) {
+                AuditLog auditLog = new AuditLog();
+                auditLog.setId(i);
+                auditLog.setModule("用户\"管理\"");
+                writer.write(auditLog);
+            }
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode node = new ObjectMapper().readTree(lines[1]);
+        assertEquals(2, node.get("id").asLong());
+        assertEquals("用户\"管理\"", node.get("module").asText());
+        assertTrue(node.get("userId").isNull());
+    }
+
+    /**
+     * 测试导出格式解析
+     */
+    @Test
+    void testParseFormat() {
+        assertEquals(AuditLogExportWriter.Format.CSV, AuditLogExportWriter.Format.parse("csv"));
+        assertEquals(AuditLogExportWriter.Format.NDJSON, AuditLogExportWriter.Format.parse("NDJSON"));
+        assertNull(AuditLogExportWriter.Format.parse("xlsx"));
+    }
+}
@@ -0,0 +1,184 @@
+package com.bing.framework.util;
+
+import com.bing.framework.entity.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 审计日志溢出文件测试类
+ * 测试追加与回放、段切换、回放失败后的断点续传、重启后回放以及损坏记录的处理
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class AuditLogSpillFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AuditLogSpillFile spillFile;
+
+    @AfterEach
+    void tearDown() {
+        if (spillFile != null) {
+            spillFile.close();
+        }
+    }
+
+    @Test
+    @DisplayName("追加的日志按顺序回放，回放完成后删除段文件")
+    void testAppendAndReplay() throws IOException {
+        spillFile = open(16 * 1024);
+        assertTrue(spillFile.append(Arrays.asList(auditLog(1), auditLog(2), auditLog(3))));
+
+        List<AuditLog> replayed = new ArrayList<>();
+        // 第一次回放封存当前段，第二次回放写回
+        spillFile.replay(replayed::addAll, 2);
+        spillFile.replay(replayed::addAll, 2);
+
+        assertEquals(3, replayed.size());
+        assertEquals("op-1", replayed.get(0).getOperationType());
+        assertEquals("op-3", replayed.get(2).getOperationType());
+        assertNotNull(replayed.get(0).getOperationTime());
+        assertEquals(0, spillFile.getPendingSegmentCount());
+        assertEquals(0, countSegments());
+    }
+
+    @Test
+    @DisplayName("段写满后切换到新段")
+    void testSegmentRotation() throws IOException {
+        spillFile = open(1024);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(spillFile.append(Arrays.asList(auditLog(i))));
+        }
+        assertTrue(countSegments() > 1, "小段容量下应产生多个段文件");
+
+        List<AuditLog> replayed = new ArrayList<>();
+        spillFile.replay(replayed::addAll, 100);
+        spillFile.replay(replayed::addAll, 100);
+
+        assertEquals(20, replayed.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("op-" + i, replayed.get(i).getOperationType());
+        }
+    }
+
+    @Test
+    @DisplayName("回放失败后从已回放位置继续，不重复写入")
+    void testReplayResumesAfterFailure() {
+        spillFile = open(16 * 1024);
+        spillFile.append(Arrays.asList(auditLog(1), auditLog(2), auditLog(3), auditLog(4)));
+        spillFile.replay(batch -> { }, 100);
+
+        List<AuditLog> replayed = new ArrayList<>();
+        int[] calls = {0};
+        spillFile.replay(batch -> {
+            if (++calls[0] == 2) {
+                throw new IllegalStateException("数据库不可用");
+            }
+            replayed.addAll(batch);
+        }, 2);
+        assertEquals(2, replayed.size());
+        assertEquals(1, spillFile.getPendingSegmentCount());
+
+        spillFile.replay(replayed::addAll, 2);
+        assertEquals(4, replayed.size());
+        assertEquals("op-3", replayed.get(2).getOperationType());
+        assertEquals(0, spillFile.getPendingSegmentCount());
+    }
+
+    @Test
+    @DisplayName("重启后回放上次运行留下的段")
+    void testReplayAfterRestart() {
+        spillFile = open(16 * 1024);
+        spillFile.append(Arrays.asList(auditLog(1), auditLog(2)));
+        spillFile.close();
+
+        spillFile = open(16 * 1024);
+        assertEquals(1, spillFile.getPendingSegmentCount());
+        List<AuditLog> replayed = new ArrayList<>();
+        spillFile.replay(replayed::addAll, 100);
+
+        assertEquals(2, replayed.size());
+    }
+
+    @Test
+    @DisplayName("校验失败的记录及其后的数据被忽略")
+    void testCorruptedRecordIgnored() throws IOException {
+        spillFile = open(16 * 1024);
+        spillFile.append(Arrays.asList(auditLog(1), auditLog(2)));
+        spillFile.close();
+
+        Path segment = firstSegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 16);
+            header.flip();
+            int firstLength = header.getInt();
+            // 破坏第二条记录的内容
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), 16 + 8 + firstLength + 8 + 2);
+        }
+
+        spillFile = open(16 * 1024);
+        List<AuditLog> replayed = new ArrayList<>();
+        spillFile.replay(replayed::addAll, 100);
+
+        assertEquals(1, replayed.size());
+        assertEquals("op-1", replayed.get(0).getOperationType());
+        assertTrue(spillFile.getStats().contains("Corrupted=1"));
+    }
+
+    private AuditLogSpillFile open(int segmentSize) {
+        AuditLogSpillFile file = new AuditLogSpillFile();
+        ReflectionTestUtils.setField(file, "enabled", true);
+        ReflectionTestUtils.setField(file, "directory", tempDir.toString());
+        ReflectionTestUtils.setField(file, "segmentSize", segmentSize);
+        file.init();
+        return file;
+    }
+
+    private long countSegments() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tempDir, "audit-*.wal")) {
+            long count = 0;
+            for (Path ignored : stream) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private Path firstSegment() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tempDir, "audit-*.wal")) {
+            return stream.iterator().next();
+        }
+    }
+
+    private static AuditLog auditLog(int index) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setUserId((long) index);
+        auditLog.setUsername("user-" + index);
+        auditLog.setModule("spill");
+        auditLog.setOperationType("op-" + index);
+        auditLog.setDescription("溢出文件测试");
+        auditLog.setResult("SUCCESS");
+        auditLog.setOperationTime(new Date());
+        return auditLog;
+    }
+}
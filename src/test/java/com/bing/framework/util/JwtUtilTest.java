@@ -0,0 +1,76 @@
+package com.bing.framework.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.JwtException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JWT工具类测试类
+ * 测试一次性校验的声明视图、已验证令牌缓存以及篡改令牌的拒绝
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "bing-framework-jwt-test-secret");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 1);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 2);
+        jwtUtil.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwtUtil.destroy();
+    }
+
+    @Test
+    @DisplayName("校验访问令牌并返回声明视图")
+    void testVerifyAccessToken() {
+        String token = jwtUtil.generateToken(42L, "alice");
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals(42L, verified.getUserId());
+        assertEquals("alice", verified.getUsername());
+        assertTrue(verified.isAccessToken());
+        assertFalse(verified.isExpired());
+        assertTrue(jwtUtil.validateToken(token));
+        assertFalse(jwtUtil.validateRefreshToken(token), "访问令牌不应通过刷新令牌校验");
+    }
+
+    @Test
+    @DisplayName("同一令牌再次校验命中缓存")
+    void testVerifyUsesCache() {
+        String token = jwtUtil.generateRefreshToken(7L, "bob");
+
+        VerifiedToken first = jwtUtil.verify(token);
+        VerifiedToken second = jwtUtil.verify(token);
+
+        assertSame(first, second, "再次校验应直接返回缓存的声明视图");
+        assertTrue(second.isRefreshToken());
+        assertTrue(jwtUtil.getVerifyCacheStats().contains("Hits=1"));
+    }
+
+    @Test
+    @DisplayName("篡改的令牌校验失败")
+    void testVerifyRejectsTamperedToken() {
+        String token = jwtUtil.generateToken(1L, "carol");
+        jwtUtil.verify(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+}
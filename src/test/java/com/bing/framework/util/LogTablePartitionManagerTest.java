@@ -0,0 +1,105 @@
+package com.bing.framework.util;
+
+import com.bing.framework.util.LogTablePartitionManager.Granularity;
+import com.bing.framework.util.LogTablePartitionManager.RangePartition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LogTablePartitionManager的单元测试类
+ * 验证预建分区的计算、过期分区的判定和分区上界的解析
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+public class LogTablePartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    /**
+     * 测试按天预建分区时从最新分区上界连续创建到当前日期之后的指定天数
+     */
+    @Test
+    void testDailyPartitionsCreatedFromLatestBound() {
+        List<RangePartition> existing = Arrays.asList(
+                new RangePartition("p_history", LocalDateTime.of(2026, 10, 15, 0, 0), 1000),
+                new RangePartition("p_future", null, 0));
+
+        List<RangePartition> toCreate = LogTablePartitionManager.partitionsToCreate(existing, TODAY, Granularity.DAY, 3);
+
+        // 覆盖10-15到10-20（今天之后3天），共5个分区
+        assertEquals(5, toCreate.size());
+        assertEquals("p20261015", toCreate.get(0).name);
+        assertEquals(LocalDateTime.of(2026, 10, 16, 0, 0), toCreate.get(0).upperBound);
+        assertEquals("p20261019", toCreate.get(4).name);
+        assertEquals(LocalDateTime.of(2026, 10, 20, 0, 0), toCreate.get(4).upperBound);
+    }
+
+    /**
+     * 测试已预建足够分区时不再创建
+     */
+    @Test
+    void testNoPartitionsCreatedWhenAlreadyCovered() {
+        List<RangePartition> existing = Arrays.asList(
+                new RangePartition("p20261019", LocalDateTime.of(2026, 10, 20, 0, 0), 0),
+                new RangePartition("p_future", null, 0));
+
+        assertTrue(LogTablePartitionManager.partitionsToCreate(existing, TODAY, Granularity.DAY, 3).isEmpty());
+    }
+
+    /**
+     * 测试按月预建分区时从月中的上界对齐到下个月初
+     */
+    @Test
+    void testMonthlyPartitionsAlignToMonthStart() {
+        List<RangePartition> existing = Arrays.asList(
+                new RangePartition("p_history", LocalDateTime.of(2026, 10, 17, 0, 0), 0),
+                new RangePartition("p_future", null, 0));
+
+        List<RangePartition> toCreate = LogTablePartitionManager.partitionsToCreate(existing, TODAY, Granularity.MONTH, 1);
+
+        assertEquals(2, toCreate.size());
+        assertEquals("p202610", toCreate.get(0).name);
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), toCreate.get(0).upperBound);
+        assertEquals("p202611", toCreate.get(1).name);
+        assertEquals(LocalDateTime.of(2026, 12, 1, 0, 0), toCreate.get(1).upperBound);
+    }
+
+    /**
+     * 测试只有整个分区都早于截止时间的分区才会过期，MAXVALUE分区和最后一个分区不会被删除
+     */
+    @Test
+    void testExpiredPartitions() {
+        LocalDateTime cutoff = LocalDateTime.of(2026, 10, 15, 0, 0);
+        List<RangePartition> partitions = Arrays.asList(
+                new RangePartition("p20261013", LocalDateTime.of(2026, 10, 14, 0, 0), 0),
+                new RangePartition("p20261014", LocalDateTime.of(2026, 10, 15, 0, 0), 0),
+                new RangePartition("p20261015", LocalDateTime.of(2026, 10, 16, 0, 0), 0),
+                new RangePartition("p_future", null, 0));
+
+        List<RangePartition> expired = LogTablePartitionManager.expiredPartitions(partitions, cutoff);
+        assertEquals(2, expired.size());
+        assertEquals("p20261014", expired.get(1).name);
+
+        List<RangePartition> allExpired = LogTablePartitionManager.expiredPartitions(partitions.subList(0, 2), cutoff);
+        assertEquals(1, allExpired.size());
+        assertEquals("p20261013", allExpired.get(0).name);
+    }
+
+    /**
+     * 测试解析information_schema中RANGE COLUMNS分区的上界
+     */
+    @Test
+    void testParseBound() {
+        assertEquals(LocalDateTime.of(2026, 10, 17, 0, 0), LogTablePartitionManager.parseBound("'2026-10-17 00:00:00'"));
+        assertEquals(LocalDateTime.of(2026, 10, 17, 0, 0), LogTablePartitionManager.parseBound("'2026-10-17'"));
+        assertNull(LogTablePartitionManager.parseBound("739000"));
+        assertEquals(Granularity.MONTH, LogTablePartitionManager.parseGranularity("month"));
+        assertEquals(Granularity.DAY, LogTablePartitionManager.parseGranularity("WEEK"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.bing.framework.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多生产者单消费者环形缓冲区测试类
+ * 测试容量取整、满时拒绝以及多线程并发入队不丢失、不重复
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("容量向上取整为2的幂，满时入队失败")
+    void testCapacityAndFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(8), "缓冲区已满时应返回false");
+        assertEquals(8, buffer.size());
+
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(8), "消费后槽位应可再次使用");
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(8, buffer.drainTo(drained, 100));
+        assertEquals(Integer.valueOf(1), drained.get(0));
+        assertEquals(Integer.valueOf(8), drained.get(7));
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    @DisplayName("多生产者并发入队，消费者按生产者顺序取出全部元素")
+    void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            final int producerId = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producerId, i};
+                    while (!buffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        long[] nextExpected = new long[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            long[] element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            int producerId = (int) element[0];
+            assertEquals(nextExpected[producerId], element[1], "同一生产者的元素应按入队顺序取出");
+            nextExpected[producerId]++;
+            received++;
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(producers * perProducer, received);
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.bing.framework.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预编译路径匹配器测试类
+ * 以AntPathMatcher逐个匹配的结果为基准，验证精确模式、前缀模式和通配符模式的匹配结果一致
+ *
+ * @author zhengbing
+ * @date 2026-10-16
+ */
+class PathPatternMatcherTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/public/**",
+            "/swagger-ui/**",
+            "/v2/api-docs",
+            "/api/captcha/*",
+            "/api/files/*.png",
+            "/api/users/{id}/avatar",
+            "/**/*.css");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "/api/auth/login",
+            "/api/auth/login/",
+            "/api/auth/logout",
+            "/api/public",
+            "/api/public/",
+            "/api/public/news/1",
+            "/api/publicity",
+            "/swagger-ui/index.html",
+            "/v2/api-docs",
+            "/v2/api-docs/x",
+            "/api/captcha/image",
+            "/api/captcha/image/1",
+            "/api/files/logo.png",
+            "/api/files/logo.jpg",
+            "/api/users/1/avatar",
+            "/api/users/1/profile",
+            "/static/css/site.css",
+            "/api",
+            "api/public/x",
+            "/");
+
+    @Test
+    @DisplayName("匹配结果与AntPathMatcher一致")
+    void testMatchesLikeAntPathMatcher() {
+        PathPatternMatcher matcher = PathPatternMatcher.compile(PATTERNS);
+        AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+        for (String path : PATHS) {
+            boolean expected = false;
+            for (String pattern : PATTERNS) {
+                if (antPathMatcher.match(pattern, path)) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals(expected, matcher.matches(path), "路径匹配结果不一致: " + path);
+        }
+        assertEquals(PATTERNS.size(), matcher.size());
+    }
+
+    @Test
+    @DisplayName("根路径前缀模式匹配所有绝对路径")
+    void testRootSubtree() {
+        PathPatternMatcher matcher = PathPatternMatcher.compile(Arrays.asList("/**"));
+
+        assertTrue(matcher.matches("/"));
+        assertTrue(matcher.matches("/any/path"));
+        assertFalse(matcher.matches("relative/path"));
+    }
+
+    @Test
+    @DisplayName("空匹配器不匹配任何路径")
+    void testEmpty() {
+        PathPatternMatcher matcher = PathPatternMatcher.empty();
+
+        assertFalse(matcher.matches("/api/auth/login"));
+        assertFalse(matcher.matches(null));
+        assertEquals(0, matcher.size());
+    }
+}